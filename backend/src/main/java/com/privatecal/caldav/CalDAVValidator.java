@@ -12,6 +12,10 @@ import java.util.Objects;
 @Component
 public class CalDAVValidator {
 
+    // UTC date-time format of calendar-query time-range attributes (RFC 4791 section 9.9)
+    private static final java.time.format.DateTimeFormatter TIME_RANGE_FORMAT =
+        java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
     /**
      * Check if task content has changed (for duplicate detection)
      */
@@ -74,6 +78,30 @@ public class CalDAVValidator {
                    .replace("'", "&apos;");
     }
 
+    /**
+     * Escape XML special characters while writing, without building an escaped copy of the text
+     * Same escaping as {@link #escapeXml(String)}, used for large content (calendar-data)
+     */
+    public void writeEscapedXml(String text, java.io.Writer out) throws java.io.IOException {
+        if (text == null) return;
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String replacement;
+            switch (text.charAt(i)) {
+                case '&': replacement = "&amp;"; break;
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '"': replacement = "&quot;"; break;
+                case '\'': replacement = "&apos;"; break;
+                default: continue;
+            }
+            out.write(text, start, i - start);
+            out.write(replacement);
+            start = i + 1;
+        }
+        out.write(text, start, text.length() - start);
+    }
+
     /**
      * Validate username specifically (allows email format)
      * Prevents path traversal and injection attacks
@@ -198,4 +226,76 @@ public class CalDAVValidator {
 
         return requestedUids.isEmpty() ? null : requestedUids;
     }
+
+    /**
+     * Parse sync-collection request (RFC 6578) to extract the client's sync token
+     * Returns null if not a sync-collection request, empty string for an initial sync (no token yet)
+     */
+    public String parseSyncCollectionToken(String requestXML) {
+        if (requestXML == null || !requestXML.contains("sync-collection")) {
+            return null;
+        }
+
+        // Namespace prefix depends on the client (D:, d:, or default namespace)
+        // Example: <D:sync-token>urn:p-cal:sync:42</D:sync-token> or <sync-token/>
+        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("<(?:\\w+:)?sync-token>([^<]*)</(?:\\w+:)?sync-token>");
+        java.util.regex.Matcher matcher = pattern.matcher(requestXML);
+        if (matcher.find()) {
+            return matcher.group(1).trim();
+        }
+        return "";
+    }
+
+    /**
+     * Parse calendar-query request (RFC 4791 section 7.8) to extract the VEVENT time-range filter
+     * Returns null if not a calendar-query request or if it has no time-range
+     * A missing start or end attribute is returned as null (open range)
+     *
+     * @throws IllegalArgumentException if start or end is not a UTC date-time (e.g. 20240101T000000Z)
+     */
+    public TimeRange parseCalendarQueryTimeRange(String requestXML) {
+        if (requestXML == null || !requestXML.contains("calendar-query")) {
+            return null;
+        }
+
+        // Example: <C:time-range start="20240101T000000Z" end="20250101T000000Z"/>
+        java.util.regex.Matcher matcher = java.util.regex.Pattern
+            .compile("<(?:\\w+:)?time-range\\b([^>]*)>").matcher(requestXML);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        String attributes = matcher.group(1);
+        return new TimeRange(parseTimeRangeAttribute(attributes, "start"), parseTimeRangeAttribute(attributes, "end"));
+    }
+
+    private java.time.Instant parseTimeRangeAttribute(String attributes, String name) {
+        java.util.regex.Matcher matcher = java.util.regex.Pattern
+            .compile("\\b" + name + "\\s*=\\s*[\"']([^\"']*)[\"']").matcher(attributes);
+        if (!matcher.find()) {
+            return null;
+        }
+        try {
+            return java.time.LocalDateTime.parse(matcher.group(1).trim(), TIME_RANGE_FORMAT)
+                .toInstant(java.time.ZoneOffset.UTC);
+        } catch (java.time.format.DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time-range " + name + " attribute");
+        }
+    }
+
+    /**
+     * Time range of a calendar-query filter, null bounds are open
+     */
+    public static class TimeRange {
+        private final java.time.Instant start;
+        private final java.time.Instant end;
+
+        public TimeRange(java.time.Instant start, java.time.Instant end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public java.time.Instant getStart() { return start; }
+        public java.time.Instant getEnd() { return end; }
+    }
 }
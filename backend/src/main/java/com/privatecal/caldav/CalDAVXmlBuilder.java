@@ -5,6 +5,8 @@ import com.privatecal.entity.Task;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 /**
@@ -43,11 +45,14 @@ public class CalDAVXmlBuilder {
 
     /**
      * Build PROPFIND response for user principal (/caldav/{username}/)
+     *
+     * @param ctags CTag by calendar ID, advertised as CS:getctag on each calendar
      */
-    public String buildUserPrincipalResponse(String username, String userEmail, List<CalendarResponse> calendars, String depth) {
+    public String buildUserPrincipalResponse(String username, String userEmail, List<CalendarResponse> calendars,
+                                             java.util.Map<Long, String> ctags, String depth) {
         StringBuilder xml = new StringBuilder();
         xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<D:multistatus xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\">\n");
+        xml.append("<D:multistatus xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\" xmlns:CS=\"http://calendarserver.org/ns/\">\n");
 
         // User principal collection
         xml.append("  <D:response>\n");
@@ -81,6 +86,10 @@ public class CalDAVXmlBuilder {
                 xml.append("        </D:resourcetype>\n");
                 xml.append("        <D:displayname>").append(validator.escapeXml(calendar.getName())).append("</D:displayname>\n");
                 xml.append("        <C:calendar-description>").append(validator.escapeXml(calendar.getDescription() != null ? calendar.getDescription() : "")).append("</C:calendar-description>\n");
+                String ctag = ctags.get(calendar.getId());
+                if (ctag != null) {
+                    xml.append("        <CS:getctag>").append(validator.escapeXml(ctag)).append("</CS:getctag>\n");
+                }
                 xml.append("      </D:prop>\n");
                 xml.append("      <D:status>HTTP/1.1 200 OK</D:status>\n");
                 xml.append("    </D:propstat>\n");
@@ -93,30 +102,37 @@ public class CalDAVXmlBuilder {
     }
 
     /**
-     * Build PROPFIND/REPORT response for calendar collection
+     * Write PROPFIND/REPORT response for calendar collection
+     * The response is streamed: one D:response is rendered and written per task, so memory use
+     * does not grow with the calendar size (only the ICS of the current task is held as String).
      *
+     * @param xml Writer on the response body (caller flushes it)
      * @param username Username
      * @param calendarSlug Calendar slug
      * @param calendarName Calendar display name
-     * @param tasks List of tasks to include
+     * @param tasks Already loaded tasks to include (reminders initialized when calendar data is requested)
      * @param includeCalendarData Whether to include full calendar data (ICS content)
      * @param method HTTP method (PROPFIND or REPORT)
-     * @param taskToIcsConverter Function to convert Task to ICS string
-     * @param etagGenerator Function to generate ETag for a task UID
+     * @param taskToIcsConverter Function to convert a loaded Task to ICS string
+     * @param etagGenerator Function to generate ETag for a loaded Task
+     * @param syncToken Current sync token of the collection (RFC 6578), null to omit it
+     * @param ctag Current CTag of the collection (CS:getctag), null to omit it
      */
-    public String buildCalendarCollectionResponse(
+    public void writeCalendarCollectionResponse(
+            Writer xml,
             String username,
             String calendarSlug,
             String calendarName,
             List<Task> tasks,
             boolean includeCalendarData,
             String method,
-            java.util.function.Function<String, String> taskToIcsConverter,
-            java.util.function.Function<String, String> etagGenerator) {
+            java.util.function.Function<Task, String> taskToIcsConverter,
+            java.util.function.Function<Task, String> etagGenerator,
+            String syncToken,
+            String ctag) throws IOException {
 
-        StringBuilder xml = new StringBuilder();
         xml.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
-        xml.append("<D:multistatus xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\">\n");
+        xml.append("<D:multistatus xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\" xmlns:CS=\"http://calendarserver.org/ns/\">\n");
 
         // Calendar collection resource
         xml.append("  <D:response>\n");
@@ -125,6 +141,17 @@ public class CalDAVXmlBuilder {
         xml.append("      <D:prop>\n");
         xml.append("        <D:resourcetype><D:collection/><C:calendar/></D:resourcetype>\n");
         xml.append("        <D:displayname>").append(validator.escapeXml(calendarName)).append("</D:displayname>\n");
+        xml.append("        <D:supported-report-set>\n");
+        xml.append("          <D:supported-report><D:report><D:sync-collection/></D:report></D:supported-report>\n");
+        xml.append("          <D:supported-report><D:report><C:calendar-multiget/></D:report></D:supported-report>\n");
+        xml.append("          <D:supported-report><D:report><C:calendar-query/></D:report></D:supported-report>\n");
+        xml.append("        </D:supported-report-set>\n");
+        if (syncToken != null) {
+            xml.append("        <D:sync-token>").append(validator.escapeXml(syncToken)).append("</D:sync-token>\n");
+        }
+        if (ctag != null) {
+            xml.append("        <CS:getctag>").append(validator.escapeXml(ctag)).append("</CS:getctag>\n");
+        }
         xml.append("      </D:prop>\n");
         xml.append("      <D:status>HTTP/1.1 200 OK</D:status>\n");
         xml.append("    </D:propstat>\n");
@@ -132,41 +159,105 @@ public class CalDAVXmlBuilder {
 
         // Individual events
         for (Task task : tasks) {
-            String etag = etagGenerator.apply(task.getUid());
-            xml.append("  <D:response>\n");
-            xml.append("    <D:href>/caldav/").append(validator.escapeXml(username)).append("/").append(validator.escapeXml(calendarSlug))
-               .append("/").append(validator.escapeXml(task.getUid())).append(".ics</D:href>\n");
-            xml.append("    <D:propstat>\n");
-            xml.append("      <D:prop>\n");
-            xml.append("        <D:getetag>\"").append(validator.escapeXml(etag)).append("\"</D:getetag>\n");
-
-            // Only include getcontenttype for PROPFIND
-            if ("PROPFIND".equalsIgnoreCase(method)) {
-                xml.append("        <D:getcontenttype>text/calendar; component=VEVENT</D:getcontenttype>\n");
-            }
+            writeEventResponse(xml, username, calendarSlug, task, includeCalendarData,
+                "PROPFIND".equalsIgnoreCase(method), taskToIcsConverter, etagGenerator);
+        }
 
-            // Include calendar-data if requested
-            if (includeCalendarData) {
-                try {
-                    String icsContent = taskToIcsConverter.apply(task.getUid());
-                    xml.append("        <C:calendar-data>");
-                    xml.append(validator.escapeXml(icsContent));
-                    xml.append("</C:calendar-data>\n");
-                } catch (Exception e) {
-                    // Log error but continue with other tasks
-                    org.slf4j.LoggerFactory.getLogger(CalDAVXmlBuilder.class)
-                        .warn("Failed to export task {} as ICS: {}", task.getUid(), e.getMessage());
-                }
-            }
+        xml.append("</D:multistatus>");
+    }
 
-            xml.append("      </D:prop>\n");
-            xml.append("      <D:status>HTTP/1.1 200 OK</D:status>\n");
-            xml.append("    </D:propstat>\n");
+    /**
+     * Write sync-collection REPORT response (RFC 6578)
+     * Lists members changed since the client's token, a 404 response for each removed member
+     * and the new sync token of the collection. Streamed like the collection response.
+     *
+     * @param xml Writer on the response body (caller flushes it)
+     * @param username Username
+     * @param calendarSlug Calendar slug
+     * @param changedTasks Already loaded tasks created or updated since the client's token
+     * @param deletedUids UIDs of tasks removed from the calendar since the client's token
+     * @param includeCalendarData Whether to include full calendar data (ICS content)
+     * @param taskToIcsConverter Function to convert a loaded Task to ICS string
+     * @param etagGenerator Function to generate ETag for a loaded Task
+     * @param syncToken New sync token of the collection
+     */
+    public void writeSyncCollectionResponse(
+            Writer xml,
+            String username,
+            String calendarSlug,
+            List<Task> changedTasks,
+            List<String> deletedUids,
+            boolean includeCalendarData,
+            java.util.function.Function<Task, String> taskToIcsConverter,
+            java.util.function.Function<Task, String> etagGenerator,
+            String syncToken) throws IOException {
+
+        xml.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+        xml.append("<D:multistatus xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\">\n");
+
+        for (Task task : changedTasks) {
+            writeEventResponse(xml, username, calendarSlug, task, includeCalendarData, false,
+                taskToIcsConverter, etagGenerator);
+        }
+
+        // Removed members: href with 404 status and no propstat (RFC 6578 section 3.5.2)
+        for (String uid : deletedUids) {
+            xml.append("  <D:response>\n");
+            xml.append("    <D:href>/caldav/").append(validator.escapeXml(username)).append("/").append(validator.escapeXml(calendarSlug))
+               .append("/").append(validator.escapeXml(uid)).append(".ics</D:href>\n");
+            xml.append("    <D:status>HTTP/1.1 404 Not Found</D:status>\n");
             xml.append("  </D:response>\n");
         }
 
+        xml.append("  <D:sync-token>").append(validator.escapeXml(syncToken)).append("</D:sync-token>\n");
         xml.append("</D:multistatus>");
-        return xml.toString();
+    }
+
+    private void writeEventResponse(
+            Writer xml,
+            String username,
+            String calendarSlug,
+            Task task,
+            boolean includeCalendarData,
+            boolean includeContentType,
+            java.util.function.Function<Task, String> taskToIcsConverter,
+            java.util.function.Function<Task, String> etagGenerator) throws IOException {
+
+        String etag = etagGenerator.apply(task);
+        xml.append("  <D:response>\n");
+        xml.append("    <D:href>/caldav/").append(validator.escapeXml(username)).append("/").append(validator.escapeXml(calendarSlug))
+           .append("/").append(validator.escapeXml(task.getUid())).append(".ics</D:href>\n");
+        xml.append("    <D:propstat>\n");
+        xml.append("      <D:prop>\n");
+        xml.append("        <D:getetag>\"").append(validator.escapeXml(etag)).append("\"</D:getetag>\n");
+
+        // Only include getcontenttype for PROPFIND
+        if (includeContentType) {
+            xml.append("        <D:getcontenttype>text/calendar; component=VEVENT</D:getcontenttype>\n");
+        }
+
+        // Include calendar-data if requested
+        // ICS is rendered before anything is written, a failing task does not leave a truncated element
+        if (includeCalendarData) {
+            String icsContent = null;
+            try {
+                icsContent = taskToIcsConverter.apply(task);
+            } catch (Exception e) {
+                // Log error but continue with other tasks
+                org.slf4j.LoggerFactory.getLogger(CalDAVXmlBuilder.class)
+                    .warn("Failed to export task {} as ICS: {}", task.getUid(), e.getMessage());
+            }
+            if (icsContent != null) {
+                xml.append("        <C:calendar-data>");
+                validator.writeEscapedXml(icsContent, xml);
+                xml.append("</C:calendar-data>\n");
+            }
+        }
+
+        xml.append("      </D:prop>\n");
+        xml.append("      <D:status>HTTP/1.1 200 OK</D:status>\n");
+        xml.append("    </D:propstat>\n");
+        xml.append("  </D:response>\n");
     }
 
 }
@@ -14,9 +14,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.time.*;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Converter between Task entities and iCalendar components (VEVENT/VTODO)
@@ -30,6 +33,14 @@ public class ICalConverter {
     private static final int MAX_DESCRIPTION_LENGTH = 2500;
     private static final int MAX_TITLE_LENGTH = 100;
     private static final int MAX_LOCATION_LENGTH = 200;
+    private static final DateTimeFormatter ICS_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    // TZID -> timezone ID resolved by ical4j ("" if unknown), for the lightweight import conversion
+    private final Map<String, String> registryTimeZoneIds = new ConcurrentHashMap<>();
+    private final TimeZoneRegistry timeZoneRegistry = TimeZoneRegistryFactory.getInstance().createRegistry();
+
+    @org.springframework.beans.factory.annotation.Value("${app.import.lightweight-parser:true}")
+    private boolean lightweightImportEnabled = true;
 
     /**
      * Convert Task entity to VEvent component
@@ -230,27 +241,14 @@ public class ICalConverter {
             logger.warn("VEVENT missing UID, generated: {}", generatedUid);
         }
 
-        // Get SUMMARY (title)
+        // Get SUMMARY (title), DESCRIPTION and LOCATION
         Summary summary = event.getSummary();
-        String title = summary != null ? summary.getValue() : "Untitled Event";
-        String eventId = taskRequest.getUid(); // Use UID for logging
-        taskRequest.setTitle(truncateField(title, MAX_TITLE_LENGTH, "title", "event " + eventId));
-
-        // Get DESCRIPTION
         Description description = event.getDescription();
-        if (description != null) {
-            String descValue = truncateField(description.getValue(), MAX_DESCRIPTION_LENGTH,
-                "description", "event " + eventId);
-            taskRequest.setDescription(descValue);
-        }
-
-        // Get LOCATION
         net.fortuna.ical4j.model.property.Location location = event.getLocation();
-        if (location != null) {
-            String locValue = truncateField(location.getValue(), MAX_LOCATION_LENGTH,
-                "location", "event " + eventId);
-            taskRequest.setLocation(locValue);
-        }
+        String eventId = taskRequest.getUid(); // Use UID for logging
+        applyTextFields(taskRequest, summary != null ? summary.getValue() : "Untitled Event",
+            description != null ? description.getValue() : null,
+            location != null ? location.getValue() : null, "event " + eventId);
 
         // Get dates (DTSTART and DTEND)
         DtStart dtStart = event.getStartDate();
@@ -277,17 +275,8 @@ public class ICalConverter {
                 }
             }
 
-            // Convert to LocalDateTime + timezone (floating time)
-            Instant startInstant = Instant.ofEpochMilli(startDate.getTime());
-            Instant endInstant = Instant.ofEpochMilli(endDate.getTime());
-
-            ZoneId zoneId = ZoneId.of(timezone);
-            taskRequest.setStartDatetimeLocal(startInstant.atZone(zoneId).toLocalDateTime());
-            taskRequest.setEndDatetimeLocal(endInstant.atZone(zoneId).toLocalDateTime());
-            taskRequest.setTimezone(timezone);
-
-            logger.debug("Imported task: start={} end={} timezone={}",
-                taskRequest.getStartDatetimeLocal(), taskRequest.getEndDatetimeLocal(), timezone);
+            applyEventDates(taskRequest, Instant.ofEpochMilli(startDate.getTime()),
+                Instant.ofEpochMilli(endDate.getTime()), timezone);
         } else {
             // Fallback: use current time + 1 hour in UTC
             Instant now = Instant.now();
@@ -368,19 +357,7 @@ public class ICalConverter {
                         java.time.temporal.TemporalAmount duration = trigger.getDuration();
                         // Convert to java.time.Duration by parsing string representation
                         java.time.Duration javaDuration = java.time.Duration.parse(duration.toString());
-                        long minutes = Math.abs(javaDuration.toMinutes());
-
-                        // Only add if offset is positive (before event) and reasonable (max 1 month)
-                        if (minutes > 0 && minutes <= (31*24*60)) { // Max 1 month
-                            // Use EMAIL as default notification type regardless of ACTION value
-                            // (CalDAV ACTION types: DISPLAY, EMAIL, AUDIO don't match with our notification system)
-                            ReminderRequest reminderRequest =
-                                new ReminderRequest((int) minutes, com.privatecal.dto.NotificationType.EMAIL);
-                            reminderRequests.add(reminderRequest);
-                            logger.debug("Imported VALARM for event {}: {} minutes before", eventId, minutes);
-                        } else if (minutes > (31*24*60)) {
-                            logger.warn("Skipping VALARM for event {}: offset too large ({} minutes, max {})", eventId, minutes, (31*24*60));
-                        }
+                        addReminder(reminderRequests, javaDuration, eventId);
                     } else {
                         logger.debug("Skipping VALARM for event {}: absolute or END-relative trigger not supported", eventId);
                     }
@@ -422,29 +399,14 @@ public class ICalConverter {
             logger.warn("VTODO missing UID, generated: {}", generatedUid);
         }
 
-        // Get SUMMARY (title) with [TODO] prefix
+        // Get SUMMARY (title) with [TODO] prefix, DESCRIPTION and LOCATION
         Summary summary = todo.getSummary();
-        String title = summary != null ? summary.getValue() : "Untitled Task";
-        String todoId = taskRequest.getUid(); // Use UID for logging
-        // Add [TODO] prefix and truncate if necessary (accounting for prefix length)
-        String prefixedTitle = "[TODO] " + title;
-        taskRequest.setTitle(truncateField(prefixedTitle, MAX_TITLE_LENGTH, "title", "todo " + todoId));
-
-        // Get DESCRIPTION
         Description description = todo.getDescription();
-        if (description != null) {
-            String descValue = truncateField(description.getValue(), MAX_DESCRIPTION_LENGTH,
-                "description", "todo " + todoId);
-            taskRequest.setDescription(descValue);
-        }
-
-        // Get LOCATION
         net.fortuna.ical4j.model.property.Location location = todo.getLocation();
-        if (location != null) {
-            String locValue = truncateField(location.getValue(), MAX_LOCATION_LENGTH,
-                "location", "todo " + todoId);
-            taskRequest.setLocation(locValue);
-        }
+        String todoId = taskRequest.getUid(); // Use UID for logging
+        applyTextFields(taskRequest, "[TODO] " + (summary != null ? summary.getValue() : "Untitled Task"),
+            description != null ? description.getValue() : null,
+            location != null ? location.getValue() : null, "todo " + todoId);
 
         // Get DUE date (treat as end time)
         Due due = todo.getProperty(Property.DUE);
@@ -465,35 +427,9 @@ public class ICalConverter {
                 }
             }
 
-            // Convert DUE to LocalDateTime
-            Instant dueInstant = Instant.ofEpochMilli(dueDate.getTime());
-            ZoneId zoneId = ZoneId.of(timezone);
-            LocalDateTime dueDatetime = dueInstant.atZone(zoneId).toLocalDateTime();
-
-            if (hasTimeComponent) {
-                // Timed task: set start = due - 30 minutes, end = due
-                taskRequest.setStartDatetimeLocal(dueDatetime.minusMinutes(DEFAULT_TODO_DURATION_MINUTES));
-                taskRequest.setEndDatetimeLocal(dueDatetime);
-            } else {
-                // All-day task: set to full day
-                LocalDateTime dayStart = dueDatetime.toLocalDate().atStartOfDay();
-                LocalDateTime dayEnd = dayStart.plusDays(1).minusSeconds(1);
-                taskRequest.setStartDatetimeLocal(dayStart);
-                taskRequest.setEndDatetimeLocal(dayEnd);
-            }
-
-            taskRequest.setTimezone(timezone);
-
-            logger.debug("Imported VTODO: due={} timezone={} isAllDay={}",
-                dueDatetime, timezone, taskRequest.getIsAllDay());
+            applyTodoDue(taskRequest, Instant.ofEpochMilli(dueDate.getTime()), hasTimeComponent, timezone);
         } else {
-            // No DUE → all-day task for today
-            LocalDate today = LocalDate.now(ZoneOffset.UTC);
-            taskRequest.setStartDatetimeLocal(today.atStartOfDay());
-            taskRequest.setEndDatetimeLocal(today.plusDays(1).atStartOfDay());
-            taskRequest.setTimezone("UTC");
-            taskRequest.setIsAllDay(true);
-            logger.debug("VTODO without DUE: using today");
+            applyTodoWithoutDue(taskRequest);
         }
 
         // Get recurrence rule
@@ -511,6 +447,325 @@ public class ICalConverter {
         return taskRequest;
     }
 
+    /**
+     * Convert a VEVENT or VTODO read by IcsTokenizer to TaskRequest (bulk import)
+     *
+     * Common components are converted directly from their raw properties, with the same result as
+     * veventToTaskRequest/vtodoToTaskRequest. Components this lightweight conversion does not handle
+     * (missing UID or DTEND, floating times, DURATION, PERIOD values, TZIDs unknown to ical4j, encoded values,
+     * nested components other than VALARM, or values it cannot parse) are built by ical4j and converted
+     * by those methods, so ical4j stays the reference for anything unusual.
+     *
+     * @return TaskRequest, or null for other components
+     * @throws IllegalArgumentException if ical4j rejects a component that needed the fallback
+     */
+    public TaskRequest toTaskRequest(IcsComponent component) {
+        if (lightweightImportEnabled) {
+            try {
+                TaskRequest taskRequest = "VEVENT".equals(component.getName())
+                    ? lightweightVEventToTaskRequest(component)
+                    : lightweightVTodoToTaskRequest(component);
+                if (taskRequest != null) {
+                    return taskRequest;
+                }
+            } catch (DateTimeException | IllegalArgumentException | java.text.ParseException e) {
+                logger.debug("{} not handled by lightweight conversion: {}", component.getName(), e.getMessage());
+            }
+        }
+
+        var calendarComponent = component.toCalendarComponent();
+        if (calendarComponent instanceof VEvent) {
+            return veventToTaskRequest((VEvent) calendarComponent);
+        }
+        if (calendarComponent instanceof VToDo) {
+            return vtodoToTaskRequest((VToDo) calendarComponent);
+        }
+        return null;
+    }
+
+    /**
+     * @return TaskRequest, or null if the event needs ical4j
+     */
+    private TaskRequest lightweightVEventToTaskRequest(IcsComponent event) throws java.text.ParseException {
+        IcsComponent.Property uid = event.getProperty(Property.UID);
+        IcsComponent.Property dtStart = event.getProperty(Property.DTSTART);
+        IcsComponent.Property dtEnd = event.getProperty(Property.DTEND);
+        if (uid == null || dtStart == null || dtEnd == null || !isLightweightSupported(event)) {
+            return null;
+        }
+
+        TaskRequest taskRequest = new TaskRequest();
+        taskRequest.setUid(unescape(uid));
+        String eventId = taskRequest.getUid();
+        IcsComponent.Property summary = event.getProperty(Property.SUMMARY);
+        applyTextFields(taskRequest, summary != null ? unescape(summary) : "Untitled Event",
+            unescape(event.getProperty(Property.DESCRIPTION)), unescape(event.getProperty(Property.LOCATION)),
+            "event " + eventId);
+
+        LightweightDate start = parseDate(event, dtStart, dtStart.getValue());
+        LightweightDate end = parseDate(event, dtEnd, dtEnd.getValue());
+        if (start == null || end == null) {
+            return null;
+        }
+        taskRequest.setIsAllDay(start.dateOnly);
+        applyEventDates(taskRequest, start.instant, end.instant, start.timezone);
+
+        IcsComponent.Property rrule = event.getProperty(Property.RRULE);
+        if (rrule != null) {
+            // Normalized like RRule.getValue()
+            taskRequest.setRecurrenceRule(new Recur(rrule.getValue()).toString());
+        }
+
+        List<String> exceptionInstantStrings = new ArrayList<>();
+        for (IcsComponent.Property exDate : event.getProperties(Property.EXDATE)) {
+            for (String value : exDate.getValue().split(",")) {
+                LightweightDate date = parseDate(event, exDate, value);
+                if (date == null) {
+                    return null;
+                }
+                exceptionInstantStrings.add(date.instant.toString());
+            }
+        }
+        if (!exceptionInstantStrings.isEmpty()) {
+            taskRequest.setRecurrenceExceptions(String.join(",", exceptionInstantStrings));
+        }
+
+        IcsComponent.Property colorProp = event.getProperty("X-APPLE-CALENDAR-COLOR");
+        if (colorProp != null) {
+            taskRequest.setColor(unescape(colorProp));
+        }
+
+        List<ReminderRequest> reminderRequests = new ArrayList<>();
+        for (IcsComponent alarm : event.getComponents()) {
+            IcsComponent.Property trigger = alarm.getProperty(Property.TRIGGER);
+            if (trigger == null) {
+                continue;
+            }
+            // Only relative triggers are imported (absolute ones have VALUE=DATE-TIME)
+            String valueType = trigger.getParameter("VALUE");
+            if (valueType == null || "DURATION".equals(valueType)) {
+                java.time.temporal.TemporalAmount duration = TemporalAmountAdapter.parse(trigger.getValue()).getDuration();
+                addReminder(reminderRequests, java.time.Duration.parse(duration.toString()), eventId);
+            } else if (!"DATE-TIME".equals(valueType)) {
+                return null;
+            }
+        }
+        if (!reminderRequests.isEmpty()) {
+            taskRequest.setReminders(reminderRequests);
+        }
+
+        return taskRequest;
+    }
+
+    /**
+     * @return TaskRequest, or null if the todo needs ical4j
+     */
+    private TaskRequest lightweightVTodoToTaskRequest(IcsComponent todo) throws java.text.ParseException {
+        IcsComponent.Property uid = todo.getProperty(Property.UID);
+        if (uid == null || !isLightweightSupported(todo)) {
+            return null;
+        }
+
+        TaskRequest taskRequest = new TaskRequest();
+        taskRequest.setUid(unescape(uid));
+        IcsComponent.Property summary = todo.getProperty(Property.SUMMARY);
+        applyTextFields(taskRequest, "[TODO] " + (summary != null ? unescape(summary) : "Untitled Task"),
+            unescape(todo.getProperty(Property.DESCRIPTION)), unescape(todo.getProperty(Property.LOCATION)),
+            "todo " + taskRequest.getUid());
+
+        IcsComponent.Property due = todo.getProperty(Property.DUE);
+        if (due != null) {
+            LightweightDate dueDate = parseDate(todo, due, due.getValue());
+            if (dueDate == null) {
+                return null;
+            }
+            taskRequest.setIsAllDay(dueDate.dateOnly);
+            applyTodoDue(taskRequest, dueDate.instant, !dueDate.dateOnly, dueDate.timezone);
+        } else {
+            applyTodoWithoutDue(taskRequest);
+        }
+
+        IcsComponent.Property rrule = todo.getProperty(Property.RRULE);
+        if (rrule != null) {
+            taskRequest.setRecurrenceRule(new Recur(rrule.getValue()).toString());
+        }
+
+        IcsComponent.Property colorProp = todo.getProperty("X-APPLE-CALENDAR-COLOR");
+        if (colorProp != null) {
+            taskRequest.setColor(unescape(colorProp));
+        }
+
+        return taskRequest;
+    }
+
+    private boolean isLightweightSupported(IcsComponent component) {
+        for (IcsComponent.Property property : component.getProperties()) {
+            if (property.getParameter("ENCODING") != null) {
+                return false;
+            }
+        }
+        for (IcsComponent nested : component.getComponents()) {
+            if (!"VALARM".equals(nested.getName()) || !nested.getComponents().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse a DATE or DATE-TIME value of a property the way ical4j does
+     *
+     * @return the date, or null for values that need ical4j (floating time, unknown TZID, other value types)
+     */
+    private LightweightDate parseDate(IcsComponent component, IcsComponent.Property property, String value) {
+        String valueType = property.getParameter("VALUE");
+        String tzid = property.getParameter("TZID");
+
+        if ("DATE".equals(valueType)) {
+            // Dates are midnight UTC in ical4j, and keep the UTC timezone
+            if (tzid != null || value.length() != 8) {
+                return null;
+            }
+            Instant instant = LocalDate.parse(value, DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay(ZoneOffset.UTC).toInstant();
+            return new LightweightDate(instant, true, "UTC");
+        }
+        if (valueType != null && !"DATE-TIME".equals(valueType)) {
+            return null;
+        }
+
+        if (value.length() == 16 && value.charAt(15) == 'Z') {
+            if (tzid != null) {
+                return null;
+            }
+            LocalDateTime utc = LocalDateTime.parse(value.substring(0, 15), ICS_DATE_TIME);
+            return new LightweightDate(utc.toInstant(ZoneOffset.UTC), false, "UTC");
+        }
+        if (value.length() != 15 || tzid == null) {
+            return null;
+        }
+        String timezone = resolveTimeZone(component, tzid);
+        if (timezone == null) {
+            return null;
+        }
+        LocalDateTime local = LocalDateTime.parse(value, ICS_DATE_TIME);
+        return new LightweightDate(ZonedDateTime.ofLocal(local, ZoneId.of(timezone), null).toInstant(), false, timezone);
+    }
+
+    /**
+     * Timezone ID ical4j would give a TZID: the TZID itself if the file defines it, otherwise the
+     * registry zone it maps to (e.g. US/Eastern -> America/New_York). Registry lookups are cached.
+     *
+     * @return timezone ID, or null if ical4j does not know the TZID
+     */
+    private String resolveTimeZone(IcsComponent component, String tzid) {
+        if (component.isFileTimeZone(tzid)) {
+            return tzid;
+        }
+        String resolved = registryTimeZoneIds.computeIfAbsent(tzid, id -> {
+            net.fortuna.ical4j.model.TimeZone timeZone = timeZoneRegistry.getTimeZone(id);
+            return timeZone != null ? timeZone.getID() : "";
+        });
+        return resolved.isEmpty() ? null : resolved;
+    }
+
+    private String unescape(IcsComponent.Property property) {
+        return property != null ? net.fortuna.ical4j.util.Strings.unescape(property.getValue()) : null;
+    }
+
+    private static final class LightweightDate {
+        private final Instant instant;
+        private final boolean dateOnly;
+        private final String timezone;
+
+        LightweightDate(Instant instant, boolean dateOnly, String timezone) {
+            this.instant = instant;
+            this.dateOnly = dateOnly;
+            this.timezone = timezone;
+        }
+    }
+
+    /**
+     * Set title, description and location, truncated to the column sizes
+     */
+    private void applyTextFields(TaskRequest taskRequest, String title, String description, String location,
+                                 String itemContext) {
+        taskRequest.setTitle(truncateField(title, MAX_TITLE_LENGTH, "title", itemContext));
+        if (description != null) {
+            taskRequest.setDescription(truncateField(description, MAX_DESCRIPTION_LENGTH, "description", itemContext));
+        }
+        if (location != null) {
+            taskRequest.setLocation(truncateField(location, MAX_LOCATION_LENGTH, "location", itemContext));
+        }
+    }
+
+    /**
+     * Set event start and end as local date-times in the event timezone (floating time)
+     */
+    private void applyEventDates(TaskRequest taskRequest, Instant startInstant, Instant endInstant, String timezone) {
+        ZoneId zoneId = ZoneId.of(timezone);
+        taskRequest.setStartDatetimeLocal(startInstant.atZone(zoneId).toLocalDateTime());
+        taskRequest.setEndDatetimeLocal(endInstant.atZone(zoneId).toLocalDateTime());
+        taskRequest.setTimezone(timezone);
+
+        logger.debug("Imported task: start={} end={} timezone={}",
+            taskRequest.getStartDatetimeLocal(), taskRequest.getEndDatetimeLocal(), timezone);
+    }
+
+    /**
+     * Set todo dates from DUE: 30-minute task ending at DUE, or all-day task for a date-only DUE
+     */
+    private void applyTodoDue(TaskRequest taskRequest, Instant dueInstant, boolean hasTimeComponent, String timezone) {
+        // Convert DUE to LocalDateTime
+        ZoneId zoneId = ZoneId.of(timezone);
+        LocalDateTime dueDatetime = dueInstant.atZone(zoneId).toLocalDateTime();
+
+        if (hasTimeComponent) {
+            // Timed task: set start = due - 30 minutes, end = due
+            taskRequest.setStartDatetimeLocal(dueDatetime.minusMinutes(DEFAULT_TODO_DURATION_MINUTES));
+            taskRequest.setEndDatetimeLocal(dueDatetime);
+        } else {
+            // All-day task: set to full day
+            LocalDateTime dayStart = dueDatetime.toLocalDate().atStartOfDay();
+            LocalDateTime dayEnd = dayStart.plusDays(1).minusSeconds(1);
+            taskRequest.setStartDatetimeLocal(dayStart);
+            taskRequest.setEndDatetimeLocal(dayEnd);
+        }
+
+        taskRequest.setTimezone(timezone);
+
+        logger.debug("Imported VTODO: due={} timezone={} isAllDay={}",
+            dueDatetime, timezone, taskRequest.getIsAllDay());
+    }
+
+    private void applyTodoWithoutDue(TaskRequest taskRequest) {
+        // No DUE → all-day task for today
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        taskRequest.setStartDatetimeLocal(today.atStartOfDay());
+        taskRequest.setEndDatetimeLocal(today.plusDays(1).atStartOfDay());
+        taskRequest.setTimezone("UTC");
+        taskRequest.setIsAllDay(true);
+        logger.debug("VTODO without DUE: using today");
+    }
+
+    /**
+     * Add a reminder for a VALARM trigger offset (relative to the event)
+     */
+    private void addReminder(List<ReminderRequest> reminderRequests, java.time.Duration triggerOffset, String eventId) {
+        long minutes = Math.abs(triggerOffset.toMinutes());
+
+        // Only add if offset is positive (before event) and reasonable (max 1 month)
+        if (minutes > 0 && minutes <= (31*24*60)) { // Max 1 month
+            // Use EMAIL as default notification type regardless of ACTION value
+            // (CalDAV ACTION types: DISPLAY, EMAIL, AUDIO don't match with our notification system)
+            ReminderRequest reminderRequest =
+                new ReminderRequest((int) minutes, com.privatecal.dto.NotificationType.EMAIL);
+            reminderRequests.add(reminderRequest);
+            logger.debug("Imported VALARM for event {}: {} minutes before", eventId, minutes);
+        } else if (minutes > (31*24*60)) {
+            logger.warn("Skipping VALARM for event {}: offset too large ({} minutes, max {})", eventId, minutes, (31*24*60));
+        }
+    }
+
     /**
      * Truncate field to max length and log warning
      */
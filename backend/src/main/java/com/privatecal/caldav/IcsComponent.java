@@ -0,0 +1,177 @@
+package com.privatecal.caldav;
+
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.component.VToDo;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Top-level VEVENT or VTODO read by IcsTokenizer, as raw properties (name, parameters, unparsed value)
+ *
+ * Values are kept as they appear in the file (after unfolding): ICalConverter parses the few it needs.
+ * The unfolded lines of the component are kept as well, so the component can still be built by ical4j
+ * (toCalendarComponent) when it uses features the lightweight conversion does not handle.
+ */
+public final class IcsComponent {
+
+    private final String name;
+    private final List<Property> properties = new ArrayList<>();
+    private final List<IcsComponent> components = new ArrayList<>();
+    // Unfolded lines, from BEGIN to END (only kept for top-level components)
+    private final List<String> lines;
+    // VTIMEZONEs of the file read so far (TZID -> unfolded lines), shared by all components of the file
+    private final Map<String, List<String>> fileTimeZones;
+
+    IcsComponent(String name, List<String> lines, Map<String, List<String>> fileTimeZones) {
+        this.name = name;
+        this.lines = lines;
+        this.fileTimeZones = fileTimeZones;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Property> getProperties() {
+        return Collections.unmodifiableList(properties);
+    }
+
+    /**
+     * Nested components (e.g. VALARM)
+     */
+    public List<IcsComponent> getComponents() {
+        return Collections.unmodifiableList(components);
+    }
+
+    /**
+     * First property with the given name (upper case), null if absent
+     */
+    public Property getProperty(String propertyName) {
+        for (Property property : properties) {
+            if (property.name.equals(propertyName)) {
+                return property;
+            }
+        }
+        return null;
+    }
+
+    public List<Property> getProperties(String propertyName) {
+        List<Property> matching = new ArrayList<>();
+        for (Property property : properties) {
+            if (property.name.equals(propertyName)) {
+                matching.add(property);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Whether the file defines this TZID with a VTIMEZONE (read before this component)
+     */
+    public boolean isFileTimeZone(String tzid) {
+        return fileTimeZones.containsKey(tzid);
+    }
+
+    void addProperty(Property property) {
+        properties.add(property);
+    }
+
+    void addComponent(IcsComponent component) {
+        components.add(component);
+    }
+
+    /**
+     * Build this component with ical4j, together with the VTIMEZONEs of the file it references
+     *
+     * @throws IllegalArgumentException if ical4j rejects the component
+     */
+    public CalendarComponent toCalendarComponent() {
+        StringBuilder ics = new StringBuilder("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//P-Cal//Import//EN\r\n");
+        for (String tzid : referencedTimeZones()) {
+            List<String> timeZoneLines = fileTimeZones.get(tzid);
+            if (timeZoneLines != null) {
+                timeZoneLines.forEach(line -> ics.append(line).append("\r\n"));
+            }
+        }
+        lines.forEach(line -> ics.append(line).append("\r\n"));
+        ics.append("END:VCALENDAR\r\n");
+
+        CalendarComponent[] parsed = new CalendarComponent[1];
+        try {
+            IcsStreamParser.parse(new ByteArrayInputStream(ics.toString().getBytes(StandardCharsets.UTF_8)), component -> {
+                if (component instanceof VEvent || component instanceof VToDo) {
+                    parsed[0] = component;
+                }
+            });
+        } catch (ParserException | IOException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + e.getMessage(), e);
+        }
+        if (parsed[0] == null) {
+            throw new IllegalArgumentException("Invalid " + name);
+        }
+        return parsed[0];
+    }
+
+    private Set<String> referencedTimeZones() {
+        Set<String> tzids = new LinkedHashSet<>();
+        collectTimeZones(this, tzids);
+        return tzids;
+    }
+
+    private static void collectTimeZones(IcsComponent component, Set<String> tzids) {
+        for (Property property : component.properties) {
+            String tzid = property.getParameter("TZID");
+            if (tzid != null) {
+                tzids.add(tzid);
+            }
+        }
+        component.components.forEach(nested -> collectTimeZones(nested, tzids));
+    }
+
+    /**
+     * Property as read from the file: upper-case name, parameters (unquoted) and raw value
+     */
+    public static final class Property {
+        private final String name;
+        private final Map<String, String> parameters;
+        private final String value;
+
+        Property(String name, Map<String, String> parameters, String value) {
+            this.name = name;
+            this.parameters = parameters;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Parameter value (upper-case parameter name), null if absent
+         */
+        public String getParameter(String parameterName) {
+            return parameters.get(parameterName);
+        }
+
+        public Map<String, String> getParameters() {
+            return Collections.unmodifiableMap(parameters);
+        }
+
+        /**
+         * Raw value, still escaped for TEXT properties
+         */
+        public String getValue() {
+            return value;
+        }
+    }
+}
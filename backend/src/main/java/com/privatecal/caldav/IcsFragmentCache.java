@@ -0,0 +1,233 @@
+package com.privatecal.caldav;
+
+import com.privatecal.entity.Task;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of rendered iCalendar data (single-event VCALENDAR) per task
+ *
+ * Entries are keyed by task UID and validated with the task's creation time and version (Task.getStateTag).
+ * Every write of the task or of its reminders (rendered as VALARMs, see ReminderService.recordRemindersChanged)
+ * increments the version; the creation time keeps a UID deleted and created again (version restarting)
+ * from matching the entry of the deleted task. Delete paths also evict the entries of the deleted tasks.
+ * A task has at most one entry: rendering a new version replaces the previous one.
+ *
+ * The cache is bounded by the size of the rendered data (least recently used entries are evicted first)
+ * and can keep the data off-heap in direct buffers. Hits, misses and evictions are exposed as metrics:
+ * - caldav.ics.cache.requests{result=hit|miss}
+ * - caldav.ics.cache.evictions
+ * - caldav.ics.cache.size (bytes) and caldav.ics.cache.entries
+ */
+@Component
+public class IcsFragmentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(IcsFragmentCache.class);
+    // Approximate per-entry overhead (map node, key and fingerprint strings)
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final long maxBytes;
+    private final boolean offHeap;
+
+    // Access-ordered map: iteration starts from the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentBytes = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public IcsFragmentCache(@Value("${app.caldav.ics-cache.max-bytes:33554432}") long maxBytes,
+                            @Value("${app.caldav.ics-cache.off-heap:false}") boolean offHeap,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.offHeap = offHeap;
+        meterRegistry.ifAvailable(this::registerMetrics);
+        logger.info("ICS cache initialized: max {} bytes, {}", maxBytes, offHeap ? "off-heap" : "on-heap");
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("caldav.ics.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .description("Rendered ICS cache lookups")
+                .register(registry);
+        FunctionCounter.builder("caldav.ics.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .description("Rendered ICS cache lookups")
+                .register(registry);
+        FunctionCounter.builder("caldav.ics.cache.evictions", evictions, AtomicLong::get)
+                .description("Rendered ICS entries evicted to stay within the size bound")
+                .register(registry);
+        Gauge.builder("caldav.ics.cache.size", this, IcsFragmentCache::getSizeBytes)
+                .baseUnit("bytes")
+                .description("Size of the rendered ICS data held by the cache")
+                .register(registry);
+        Gauge.builder("caldav.ics.cache.entries", this, IcsFragmentCache::getEntryCount)
+                .description("Number of tasks with rendered ICS data in the cache")
+                .register(registry);
+    }
+
+    /**
+     * Get the rendered ICS of a task, if the cached entry matches the task's current state
+     *
+     * @return ICS data, or null on miss (also for tasks that cannot be cached)
+     */
+    public String get(Task task) {
+        String fingerprint = fingerprint(task);
+        if (fingerprint == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        byte[] data;
+        synchronized (this) {
+            Entry entry = entries.get(task.getUid());
+            data = entry != null && entry.fingerprint.equals(fingerprint) ? entry.read() : null;
+        }
+
+        if (data == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Store the rendered ICS of a task, replacing any entry of a previous version
+     */
+    public void put(Task task, String ics) {
+        String fingerprint = fingerprint(task);
+        if (fingerprint == null) {
+            return;
+        }
+
+        byte[] data = ics.getBytes(StandardCharsets.UTF_8);
+        long size = (long) data.length + ENTRY_OVERHEAD_BYTES;
+        if (size > maxBytes) {
+            return;
+        }
+        Entry entry = new Entry(fingerprint, data, offHeap, size);
+
+        synchronized (this) {
+            Entry previous = entries.put(task.getUid(), entry);
+            if (previous != null) {
+                currentBytes -= previous.size;
+            }
+            currentBytes += size;
+
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (currentBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Entry> evicted = eldest.next();
+                if (evicted.getValue() == entry) {
+                    continue;
+                }
+                currentBytes -= evicted.getValue().size;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drop the cached ICS of a task (e.g. after deletion)
+     */
+    public synchronized void evict(String taskUid) {
+        Entry removed = entries.remove(taskUid);
+        if (removed != null) {
+            currentBytes -= removed.size;
+        }
+    }
+
+    /**
+     * Drop the cached ICS of several tasks (e.g. all tasks of a deleted calendar or account)
+     */
+    public synchronized void evictAll(Collection<String> taskUids) {
+        for (String taskUid : taskUids) {
+            evict(taskUid);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized long getSizeBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Fingerprint of everything the rendered ICS depends on: the task version, within this incarnation
+     * of the UID (creation time)
+     *
+     * @return fingerprint, or null if the task has no UID, version or creation time yet (not persisted)
+     */
+    private String fingerprint(Task task) {
+        if (task.getUid() == null || task.getVersion() == null || task.getCreatedAt() == null) {
+            return null;
+        }
+        return task.getStateTag();
+    }
+
+    /**
+     * Cached rendering of a task, stored as heap array or direct buffer
+     */
+    private static class Entry {
+        private final String fingerprint;
+        private final byte[] heapData;
+        private final ByteBuffer directData;
+        private final long size;
+
+        Entry(String fingerprint, byte[] data, boolean offHeap, long size) {
+            this.fingerprint = fingerprint;
+            this.size = size;
+            if (offHeap) {
+                this.heapData = null;
+                this.directData = ByteBuffer.allocateDirect(data.length).put(data).flip();
+            } else {
+                this.heapData = data;
+                this.directData = null;
+            }
+        }
+
+        byte[] read() {
+            if (heapData != null) {
+                return heapData;
+            }
+            byte[] data = new byte[directData.remaining()];
+            directData.duplicate().get(data);
+            return data;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.privatecal.caldav;
+
+import net.fortuna.ical4j.data.CalendarParserFactory;
+import net.fortuna.ical4j.data.ContentHandler;
+import net.fortuna.ical4j.data.DefaultContentHandler;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.data.UnfoldingReader;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.TimeZoneRegistry;
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.function.Consumer;
+
+/**
+ * Incremental iCalendar parser: hands each top-level component (VEVENT, VTODO, VTIMEZONE, ...)
+ * to a consumer as soon as it is parsed, instead of building the whole Calendar like CalendarBuilder.
+ * Only one component is held in memory at a time, whatever the size of the file.
+ *
+ * Components are built by ical4j itself (one DefaultContentHandler per component), so they are identical
+ * to the ones of CalendarBuilder. VTIMEZONEs of the file are registered as they are parsed: like in most
+ * exports they must come before the events referencing them (IANA TZIDs are always resolved).
+ */
+public final class IcsStreamParser {
+
+    private IcsStreamParser() {
+    }
+
+    /**
+     * Parse an iCalendar stream
+     *
+     * @param inputStream ICS data (UTF-8)
+     * @param consumer Receives each top-level component, in file order
+     * @throws ParserException if the data is not valid iCalendar (components before the error were consumed)
+     */
+    public static void parse(InputStream inputStream, Consumer<CalendarComponent> consumer)
+            throws IOException, ParserException {
+        ComponentStreamHandler handler = new ComponentStreamHandler(
+            TimeZoneRegistryFactory.getInstance().createRegistry(), consumer);
+        try {
+            CalendarParserFactory.getInstance().get().parse(
+                new UnfoldingReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)), handler);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Content handler building one top-level component at a time
+     */
+    private static class ComponentStreamHandler implements ContentHandler {
+        private final TimeZoneRegistry tzRegistry;
+        private final Consumer<CalendarComponent> consumer;
+
+        // Builder of the top-level component being parsed (null between components)
+        private DefaultContentHandler current;
+        private int depth = 0;
+
+        ComponentStreamHandler(TimeZoneRegistry tzRegistry, Consumer<CalendarComponent> consumer) {
+            this.tzRegistry = tzRegistry;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startCalendar() {
+        }
+
+        @Override
+        public void endCalendar() {
+        }
+
+        @Override
+        public void startComponent(String name) {
+            if (depth == 0) {
+                current = new DefaultContentHandler(this::emit, tzRegistry);
+                current.startCalendar();
+            }
+            depth++;
+            current.startComponent(name);
+        }
+
+        @Override
+        public void endComponent(String name) {
+            current.endComponent(name);
+            depth--;
+            if (depth == 0) {
+                try {
+                    // Resolves the TZIDs of the component and emits it
+                    current.endCalendar();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                current = null;
+            }
+        }
+
+        private void emit(Calendar calendar) {
+            calendar.getComponents().forEach(consumer);
+        }
+
+        // Calendar properties (outside components) are not needed and skipped
+
+        @Override
+        public void startProperty(String name) {
+            if (current != null) {
+                current.startProperty(name);
+            }
+        }
+
+        @Override
+        public void propertyValue(String value) throws URISyntaxException, ParseException, IOException {
+            if (current != null) {
+                current.propertyValue(value);
+            }
+        }
+
+        @Override
+        public void endProperty(String name) throws URISyntaxException, ParseException, IOException {
+            if (current != null) {
+                current.endProperty(name);
+            }
+        }
+
+        @Override
+        public void parameter(String name, String value) throws URISyntaxException {
+            if (current != null) {
+                current.parameter(name, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.privatecal.caldav;
+
+import net.fortuna.ical4j.data.ParserException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Lightweight streaming iCalendar reader for bulk import
+ *
+ * Reads the file line by line (unfolding continuation lines) and hands each top-level VEVENT and VTODO
+ * to a consumer as an IcsComponent: raw properties and nested components (VALARM), without building
+ * ical4j objects or resolving timezones. Only the structure of the file is checked here, values are
+ * parsed by ICalConverter when the component is converted.
+ *
+ * VTIMEZONEs are kept as text, for components that ICalConverter hands to ical4j (see IcsComponent).
+ * Other top-level components (VJOURNAL, VFREEBUSY, ...) and calendar properties are skipped.
+ */
+public final class IcsTokenizer {
+
+    private IcsTokenizer() {
+    }
+
+    /**
+     * Read an iCalendar stream
+     *
+     * @param inputStream ICS data (UTF-8)
+     * @param consumer Receives each top-level VEVENT and VTODO, in file order
+     * @throws ParserException if the structure is not valid iCalendar (components before the error were consumed)
+     */
+    public static void parse(InputStream inputStream, Consumer<IcsComponent> consumer)
+            throws IOException, ParserException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        Map<String, List<String>> fileTimeZones = new ConcurrentHashMap<>();
+
+        boolean inCalendar = false;
+        boolean calendarFound = false;
+        // Components open below VCALENDAR (names), and the ones being built (VEVENT/VTODO and nested)
+        Deque<String> open = new ArrayDeque<>();
+        Deque<IcsComponent> building = new ArrayDeque<>();
+        // Unfolded lines of the current top-level VEVENT, VTODO or VTIMEZONE (null for skipped components)
+        List<String> rawLines = null;
+        String timeZoneId = null;
+
+        int lineNumber = 0;
+        int nextLineNumber = 0;
+        String next = reader.readLine();
+        if (next != null && next.startsWith("\uFEFF")) {
+            next = next.substring(1);
+        }
+        while (next != null) {
+            // Unfold: lines starting with a space or tab continue the previous line
+            StringBuilder unfolded = null;
+            String line = next;
+            lineNumber = ++nextLineNumber;
+            while ((next = reader.readLine()) != null && !next.isEmpty()
+                    && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+                nextLineNumber++;
+                if (unfolded == null) {
+                    unfolded = new StringBuilder(line);
+                }
+                unfolded.append(next, 1, next.length());
+            }
+            if (unfolded != null) {
+                line = unfolded.toString();
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+
+            IcsComponent.Property property = parseLine(line, lineNumber);
+            String name = property.getName();
+
+            if (name.equals("BEGIN")) {
+                String componentName = property.getValue().trim().toUpperCase(Locale.ROOT);
+                if (!inCalendar) {
+                    if (!componentName.equals("VCALENDAR")) {
+                        throw new ParserException("Expected BEGIN:VCALENDAR, found BEGIN:" + componentName, lineNumber);
+                    }
+                    inCalendar = true;
+                    calendarFound = true;
+                    continue;
+                }
+                if (open.isEmpty()) {
+                    boolean task = componentName.equals("VEVENT") || componentName.equals("VTODO");
+                    rawLines = task || componentName.equals("VTIMEZONE") ? new ArrayList<>() : null;
+                    timeZoneId = null;
+                    if (task) {
+                        building.push(new IcsComponent(componentName, rawLines, fileTimeZones));
+                    }
+                } else if (!building.isEmpty()) {
+                    IcsComponent nested = new IcsComponent(componentName, null, fileTimeZones);
+                    building.peek().addComponent(nested);
+                    building.push(nested);
+                }
+                open.push(componentName);
+                if (rawLines != null) {
+                    rawLines.add(line);
+                }
+
+            } else if (name.equals("END")) {
+                String componentName = property.getValue().trim().toUpperCase(Locale.ROOT);
+                if (open.isEmpty()) {
+                    if (!inCalendar || !componentName.equals("VCALENDAR")) {
+                        throw new ParserException("Unexpected END:" + componentName, lineNumber);
+                    }
+                    inCalendar = false;
+                    continue;
+                }
+                if (!open.peek().equals(componentName)) {
+                    throw new ParserException("Expected END:" + open.peek() + ", found END:" + componentName, lineNumber);
+                }
+                if (rawLines != null) {
+                    rawLines.add(line);
+                }
+                open.pop();
+                IcsComponent ended = building.isEmpty() ? null : building.pop();
+                if (open.isEmpty()) {
+                    if (ended != null) {
+                        consumer.accept(ended);
+                    } else if (componentName.equals("VTIMEZONE") && timeZoneId != null) {
+                        fileTimeZones.put(timeZoneId, rawLines);
+                    }
+                    rawLines = null;
+                }
+
+            } else {
+                if (!inCalendar) {
+                    throw new ParserException("Expected BEGIN:VCALENDAR, found " + name, lineNumber);
+                }
+                if (open.isEmpty()) {
+                    // Calendar property (VERSION, PRODID, X-WR-CALNAME, ...)
+                    continue;
+                }
+                if (rawLines != null) {
+                    rawLines.add(line);
+                }
+                if (!building.isEmpty()) {
+                    building.peek().addProperty(property);
+                } else if (open.size() == 1 && name.equals("TZID") && "VTIMEZONE".equals(open.peek())) {
+                    timeZoneId = property.getValue();
+                }
+            }
+        }
+
+        if (inCalendar || !open.isEmpty()) {
+            throw new ParserException("Unexpected end of file", lineNumber);
+        }
+        if (!calendarFound) {
+            throw new ParserException("No calendar data found", lineNumber);
+        }
+    }
+
+    /**
+     * Split a content line (RFC 5545 section 3.1): name *(";" param) ":" value
+     */
+    static IcsComponent.Property parseLine(String line, int lineNumber) throws ParserException {
+        int length = line.length();
+        int i = 0;
+        while (i < length && line.charAt(i) != ';' && line.charAt(i) != ':') {
+            i++;
+        }
+        if (i == 0 || i == length) {
+            throw new ParserException("Invalid content line: " + abbreviate(line), lineNumber);
+        }
+        String name = line.substring(0, i).trim().toUpperCase(Locale.ROOT);
+
+        Map<String, String> parameters = new HashMap<>(4);
+        while (line.charAt(i) == ';') {
+            int start = ++i;
+            while (i < length && line.charAt(i) != '=' && line.charAt(i) != ';' && line.charAt(i) != ':') {
+                i++;
+            }
+            if (i == length || line.charAt(i) != '=') {
+                throw new ParserException("Invalid parameter in: " + abbreviate(line), lineNumber);
+            }
+            String parameterName = line.substring(start, i).trim().toUpperCase(Locale.ROOT);
+            i++;
+
+            // Values may be quoted (and contain ';', ':' or ','), multiple values are separated by ','
+            StringBuilder parameterValue = new StringBuilder();
+            while (true) {
+                if (i < length && line.charAt(i) == '"') {
+                    int end = line.indexOf('"', i + 1);
+                    if (end < 0) {
+                        throw new ParserException("Unterminated quoted parameter in: " + abbreviate(line), lineNumber);
+                    }
+                    parameterValue.append(line, i + 1, end);
+                    i = end + 1;
+                } else {
+                    int valueStart = i;
+                    while (i < length && line.charAt(i) != ',' && line.charAt(i) != ';' && line.charAt(i) != ':') {
+                        i++;
+                    }
+                    parameterValue.append(line, valueStart, i);
+                }
+                if (i < length && line.charAt(i) == ',') {
+                    parameterValue.append(',');
+                    i++;
+                    continue;
+                }
+                break;
+            }
+            if (i == length) {
+                throw new ParserException("Missing value in: " + abbreviate(line), lineNumber);
+            }
+            parameters.putIfAbsent(parameterName, parameterValue.toString());
+        }
+        if (line.charAt(i) != ':') {
+            throw new ParserException("Invalid content line: " + abbreviate(line), lineNumber);
+        }
+
+        return new IcsComponent.Property(name, parameters, line.substring(i + 1));
+    }
+
+    private static String abbreviate(String line) {
+        return line.length() > 80 ? line.substring(0, 80) + "..." : line;
+    }
+}
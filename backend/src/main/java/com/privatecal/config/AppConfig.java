@@ -3,6 +3,7 @@ package com.privatecal.config;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
@@ -56,6 +57,80 @@ public class AppConfig implements WebMvcConfigurer {
         return executor;
     }
 
+    /**
+     * Executor for background ICS import jobs
+     * Bounded: submissions beyond the queue are rejected (reported to the client) instead of
+     * running on the request thread.
+     */
+    @Bean(name = "importExecutor")
+    public ThreadPoolTaskExecutor importExecutor(
+            @Value("${app.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+            @Value("${app.import.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentJobs);
+        executor.setMaxPoolSize(maxConcurrentJobs);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("PrivateCal-Import-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor converting parsed ICS components to tasks during import and import preview
+     * Conversion is CPU-bound: the pool size caps the threads used by all imports together
+     * (app.import.conversion-parallelism, 0 for the number of processors).
+     */
+    @Bean(name = "importConversionExecutor")
+    public ThreadPoolTaskExecutor importConversionExecutor(
+            @Value("${app.import.conversion-parallelism:4}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setThreadNamePrefix("PrivateCal-IcsConvert-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor rendering calendar snapshots in the background (CalendarSnapshotService)
+     * Rejected renderings stay pending and are retried on the next check.
+     */
+    @Bean(name = "snapshotExecutor")
+    public ThreadPoolTaskExecutor snapshotExecutor(
+            @Value("${app.caldav.snapshot.render-threads:2}") int renderThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(renderThreads);
+        executor.setMaxPoolSize(renderThreads);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("PrivateCal-Snapshot-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor delivering notifications of the outbox (NotificationOutboxService)
+     * Runs the blocking parts of a delivery (database, email); NTFY and Telegram requests are in flight
+     * on the notification WebClient without a thread. The queue holds the entries in flight.
+     */
+    @Bean(name = "notificationExecutor")
+    public ThreadPoolTaskExecutor notificationExecutor(
+            @Value("${app.notifications.outbox.threads:8}") int threads,
+            @Value("${app.notifications.outbox.max-in-flight:200}") int maxInFlight) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(maxInFlight);
+        executor.setThreadNamePrefix("PrivateCal-Notify-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
     /**
      * Auditor provider for JPA auditing
      */
@@ -31,6 +31,8 @@ public class EmailConfig {
 
     private Templates templates = new Templates();
 
+    private Pool pool = new Pool();
+
     // Getters and setters
     public boolean isEnabled() {
         return enabled;
@@ -80,9 +82,20 @@ public class EmailConfig {
         this.templates = templates;
     }
 
+    public Pool getPool() {
+        return pool;
+    }
+
+    public void setPool(Pool pool) {
+        this.pool = pool;
+    }
+
     public static class Templates {
         private String path = "classpath:/templates/email/";
 
+        // Cache parsed templates and pre-rendered reminder emails; disable to edit templates without restart
+        private boolean cache = true;
+
         public String getPath() {
             return path;
         }
@@ -90,5 +103,95 @@ public class EmailConfig {
         public void setPath(String path) {
             this.path = path;
         }
+
+        public boolean isCache() {
+            return cache;
+        }
+
+        public void setCache(boolean cache) {
+            this.cache = cache;
+        }
+    }
+
+    /**
+     * Pooled SMTP transport of reminder emails (PooledMailSender)
+     */
+    public static class Pool {
+        // Send reminder emails over persistent connections; when false every email opens its own
+        private boolean enabled = true;
+
+        // Sending workers, each holding one SMTP connection
+        private int connections = 2;
+
+        // Emails waiting for a worker; further emails are refused (and retried by the outbox)
+        private int queueCapacity = 500;
+
+        // Emails a worker takes from the queue at once
+        private int batchSize = 20;
+
+        // The connection is renewed after this many emails (SMTP servers limit messages per session)
+        private int maxMessagesPerConnection = 100;
+
+        // An unused connection is closed after this time
+        private long maxIdleSeconds = 30;
+
+        // A connection unused for this long is checked (NOOP) before sending
+        private long healthCheckIdleMillis = 5000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public void setConnections(int connections) {
+            this.connections = connections;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxMessagesPerConnection() {
+            return maxMessagesPerConnection;
+        }
+
+        public void setMaxMessagesPerConnection(int maxMessagesPerConnection) {
+            this.maxMessagesPerConnection = maxMessagesPerConnection;
+        }
+
+        public long getMaxIdleSeconds() {
+            return maxIdleSeconds;
+        }
+
+        public void setMaxIdleSeconds(long maxIdleSeconds) {
+            this.maxIdleSeconds = maxIdleSeconds;
+        }
+
+        public long getHealthCheckIdleMillis() {
+            return healthCheckIdleMillis;
+        }
+
+        public void setHealthCheckIdleMillis(long healthCheckIdleMillis) {
+            this.healthCheckIdleMillis = healthCheckIdleMillis;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.privatecal.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,6 +17,9 @@ import java.nio.charset.StandardCharsets;
 @Configuration
 public class EmailTemplateConfig {
 
+    @Value("${app.email.templates.cache:true}")
+    private boolean templateCache;
+
     /**
      * Template resolver for email templates
      * Templates are located in src/main/resources/templates/email/
@@ -27,7 +31,8 @@ public class EmailTemplateConfig {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode(TemplateMode.HTML);
         templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
-        templateResolver.setCacheable(false); // Set to true in production
+        // Parsed templates are kept per template name (app.email.templates.cache)
+        templateResolver.setCacheable(templateCache);
         templateResolver.setOrder(1);
         return templateResolver;
     }
@@ -0,0 +1,53 @@
+package com.privatecal.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking HTTP client of the push notification providers (NTFY, Telegram)
+ *
+ * Requests run on the Reactor Netty event loop instead of pinning a thread each.
+ * Connections are pooled and reused per host; at most max-connections requests are in flight
+ * per host, pending-acquire-max more wait for a connection, further requests fail at once.
+ */
+@Configuration
+public class NotificationHttpConfig {
+
+    @Bean(name = "notificationConnectionProvider", destroyMethod = "dispose")
+    public ConnectionProvider notificationConnectionProvider(
+            @Value("${app.notifications.http.max-connections:50}") int maxConnections,
+            @Value("${app.notifications.http.pending-acquire-max:1000}") int pendingAcquireMax,
+            @Value("${app.notifications.http.pending-acquire-timeout-ms:10000}") long pendingAcquireTimeoutMillis,
+            @Value("${app.notifications.http.max-idle-time-seconds:30}") long maxIdleTimeSeconds) {
+        return ConnectionProvider.builder("notifications")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMillis))
+                .maxIdleTime(Duration.ofSeconds(maxIdleTimeSeconds))
+                .evictInBackground(Duration.ofSeconds(maxIdleTimeSeconds))
+                .build();
+    }
+
+    @Bean(name = "notificationWebClient")
+    public WebClient notificationWebClient(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider notificationConnectionProvider,
+            @Value("${app.notifications.http.connect-timeout-ms:10000}") int connectTimeoutMillis,
+            @Value("${app.notifications.http.response-timeout-ms:30000}") long responseTimeoutMillis) {
+        HttpClient httpClient = HttpClient.create(notificationConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMillis));
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
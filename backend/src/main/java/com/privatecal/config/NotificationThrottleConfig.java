@@ -0,0 +1,114 @@
+package com.privatecal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Configuration properties for outbound notification throttling (rate limits and circuit breakers)
+ * Limits are configured per provider name in lower case (telegram, ntfy, email); providers without
+ * limits are not rate limited but still have a circuit breaker.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.notifications.throttle")
+public class NotificationThrottleConfig {
+
+    private static final ProviderLimits UNLIMITED = new ProviderLimits();
+
+    // Consecutive failures (provider unavailable) opening the circuit
+    private int failureThreshold = 5;
+
+    // Time an open circuit defers deliveries before a trial delivery
+    private long openSeconds = 30;
+
+    // Longest wait for a rate limit permit kept in memory; longer waits are deferred in the outbox
+    private long maxWaitSeconds = 30;
+
+    private Map<String, ProviderLimits> providers = new HashMap<>();
+
+    /**
+     * Limits of a provider, unlimited if not configured
+     */
+    public ProviderLimits limitsFor(String providerName) {
+        return providers.getOrDefault(providerName.toLowerCase(Locale.ROOT), UNLIMITED);
+    }
+
+    // Getters and setters
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public long getOpenSeconds() {
+        return openSeconds;
+    }
+
+    public void setOpenSeconds(long openSeconds) {
+        this.openSeconds = openSeconds;
+    }
+
+    public long getMaxWaitSeconds() {
+        return maxWaitSeconds;
+    }
+
+    public void setMaxWaitSeconds(long maxWaitSeconds) {
+        this.maxWaitSeconds = maxWaitSeconds;
+    }
+
+    public Map<String, ProviderLimits> getProviders() {
+        return providers;
+    }
+
+    public void setProviders(Map<String, ProviderLimits> providers) {
+        this.providers = providers;
+    }
+
+    /**
+     * Token bucket limits of one provider: rate in notifications per second (0 for unlimited),
+     * burst in notifications sent at once before the rate applies
+     */
+    public static class ProviderLimits {
+        private double ratePerSecond = 0;
+        private int burst = 1;
+        private double recipientRatePerSecond = 0;
+        private int recipientBurst = 1;
+
+        public double getRatePerSecond() {
+            return ratePerSecond;
+        }
+
+        public void setRatePerSecond(double ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+
+        public double getRecipientRatePerSecond() {
+            return recipientRatePerSecond;
+        }
+
+        public void setRecipientRatePerSecond(double recipientRatePerSecond) {
+            this.recipientRatePerSecond = recipientRatePerSecond;
+        }
+
+        public int getRecipientBurst() {
+            return recipientBurst;
+        }
+
+        public void setRecipientBurst(int recipientBurst) {
+            this.recipientBurst = recipientBurst;
+        }
+    }
+}
@@ -725,6 +725,7 @@ public class AuthController {
             preferences.put("calendarView", currentUser.getCalendarView());
             preferences.put("emailNotifications", currentUser.getEmailNotifications());
             preferences.put("reminderNotifications", currentUser.getReminderNotifications());
+            preferences.put("digestNotificationTypes", currentUser.getDigestNotificationTypes());
             exportData.put("preferences", preferences);
 
             java.util.Map<String, Object> security = new java.util.LinkedHashMap<>();
@@ -2,30 +2,34 @@ package com.privatecal.controller;
 
 import com.privatecal.dto.DuplicateStrategy;
 import com.privatecal.dto.ImportPreviewResponse;
-import com.privatecal.dto.TaskRequest;
-import com.privatecal.dto.TaskResponse;
-import com.privatecal.entity.Task;
 import com.privatecal.entity.User;
 import com.privatecal.repository.TaskRepository;
 import com.privatecal.service.CalDAVService;
-import com.privatecal.service.TaskService;
+import com.privatecal.service.CalendarFeedService;
+import com.privatecal.service.CalendarImportService;
+import com.privatecal.service.ImportJobService;
 import com.privatecal.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -40,7 +44,9 @@ public class CalDAVController {
     private static final Logger logger = LoggerFactory.getLogger(CalDAVController.class);
 
     private final CalDAVService calDAVService;
-    private final TaskService taskService;
+    private final CalendarImportService calendarImportService;
+    private final ImportJobService importJobService;
+    private final CalendarFeedService calendarFeedService;
     private final TaskRepository taskRepository;
     private final UserService userService;
 
@@ -48,27 +54,23 @@ public class CalDAVController {
      * Export user's calendar to iCalendar format (.ics)
      * GET /api/calendar/export
      *
-     * @return iCalendar file as downloadable attachment
+     * Events are streamed to the response while tasks are read from the database
+     *
+     * @return iCalendar file as downloadable attachment (written to the response)
      */
     @GetMapping("/export")
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
-    public ResponseEntity<byte[]> exportCalendar() {
+    public ResponseEntity<byte[]> exportCalendar(HttpServletResponse response) {
         logger.info("Calendar export requested");
 
         try {
             // Get current user
             User currentUser = userService.getCurrentUser();
-
-            // Get all tasks for user
-            List<Task> tasks = taskRepository.findByUserOrderByStartDatetimeAsc(currentUser);
-            logger.info("Exporting {} tasks for user: {}", tasks.size(), currentUser.getUsername());
+            logger.info("Exporting tasks for user: {}", currentUser.getUsername());
 
             // Generate calendar name
             String calendarName = calDAVService.generateCalendarName(currentUser);
 
-            // Export to ICS
-            byte[] icsData = calDAVService.exportToICS(tasks, calendarName);
-
             // Generate filename with timestamp
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             String filename = String.format("privatecal_%s_%s.ics",
@@ -82,13 +84,24 @@ public class CalDAVController {
             headers.setPragma("no-cache");
             headers.setExpires(0);
 
-            logger.info("Calendar export successful: {} bytes", icsData.length);
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(icsData);
+            response.setStatus(HttpStatus.OK.value());
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+            // Export to ICS
+            Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+            int eventCount = calDAVService.writeUserICS(currentUser, calendarName, writer);
+
+            logger.info("Calendar export successful: {} events", eventCount);
+            return null; // Response already written
 
         } catch (Exception e) {
             logger.error("Error exporting calendar: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                // Part of the file was already sent, the client sees a truncated download
+                return null;
+            }
+            response.reset();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(("Error: " + e.getMessage()).getBytes());
         }
@@ -108,8 +121,6 @@ public class CalDAVController {
         logger.info("Calendar import requested: {}", file.getOriginalFilename());
 
         Map<String, Object> response = new HashMap<>();
-        List<String> errors = new ArrayList<>();
-        List<String> warnings = new ArrayList<>();
 
         try {
             // Validate file
@@ -130,11 +141,10 @@ public class CalDAVController {
             // Get current user
             User currentUser = userService.getCurrentUser();
 
-            // Parse ICS file
-            List<TaskRequest> taskRequests;
+            // Parse and import ICS file (duplicate UIDs are reported as failed)
+            CalendarImportService.ImportResult result;
             try {
-                taskRequests = calDAVService.importFromICS(file.getInputStream(), currentUser);
-                logger.info("Parsed {} tasks from ICS file", taskRequests.size());
+                result = calendarImportService.importCalendar(file.getInputStream(), currentUser, null);
             } catch (IOException e) {
                 logger.error("Error parsing ICS file: {}", e.getMessage(), e);
                 response.put("success", false);
@@ -142,49 +152,18 @@ public class CalDAVController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-            // Import tasks
-            int successCount = 0;
-            int failedCount = 0;
-            List<TaskResponse> importedTasks = new ArrayList<>();
-
-            for (int i = 0; i < taskRequests.size(); i++) {
-                TaskRequest taskRequest = taskRequests.get(i);
-                try {
-                    // Validate and clean task request
-                    taskRequest.clean();
-
-                    // Create task
-                    TaskResponse taskResponse = taskService.createTask(taskRequest);
-                    importedTasks.add(taskResponse);
-                    successCount++;
-
-                    logger.debug("Imported task {}/{}: {}", i + 1, taskRequests.size(), taskRequest.getTitle());
-
-                } catch (Exception e) {
-                    failedCount++;
-                    String errorMsg = String.format("Task '%s': %s",
-                        taskRequest.getTitle(), e.getMessage());
-                    errors.add(errorMsg);
-                    logger.warn("Failed to import task: {}", errorMsg);
-                }
-            }
-
             // Prepare response
             response.put("success", true);
-            response.put("totalParsed", taskRequests.size());
-            response.put("successCount", successCount);
-            response.put("failedCount", failedCount);
-            response.put("importedTasks", importedTasks);
+            response.put("totalParsed", result.getTotalParsed());
+            response.put("successCount", result.getSuccessCount());
+            response.put("failedCount", result.getFailedCount());
 
-            if (!errors.isEmpty()) {
-                response.put("errors", errors);
-            }
-            if (!warnings.isEmpty()) {
-                response.put("warnings", warnings);
+            if (!result.getErrors().isEmpty()) {
+                response.put("errors", result.getErrors());
             }
 
             logger.info("Calendar import completed: {} success, {} failed",
-                successCount, failedCount);
+                result.getSuccessCount(), result.getFailedCount());
 
             return ResponseEntity.ok(response);
 
@@ -262,8 +241,6 @@ public class CalDAVController {
         logger.info("Confirm import requested with strategy {}: {}", strategy, file.getOriginalFilename());
 
         Map<String, Object> response = new HashMap<>();
-        List<String> errors = new ArrayList<>();
-        List<String> warnings = new ArrayList<>();
 
         try {
             // Validate file
@@ -285,10 +262,9 @@ public class CalDAVController {
             User currentUser = userService.getCurrentUser();
 
             // Import with duplicate handling
-            List<TaskRequest> taskRequests;
+            CalendarImportService.ImportResult result;
             try {
-                taskRequests = calDAVService.importWithDuplicateHandling(file, currentUser, strategy);
-                logger.info("Import with strategy {} returned {} tasks to process", strategy, taskRequests.size());
+                result = calendarImportService.importCalendar(file.getInputStream(), currentUser, strategy);
             } catch (IOException e) {
                 logger.error("Error importing with duplicate handling: {}", e.getMessage(), e);
                 response.put("success", false);
@@ -296,63 +272,23 @@ public class CalDAVController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-            // Process tasks (create or update based on ID presence)
-            int successCount = 0;
-            int failedCount = 0;
-            int updatedCount = 0;
-            int createdCount = 0;
-            List<TaskResponse> importedTasks = new ArrayList<>();
-
-            for (int i = 0; i < taskRequests.size(); i++) {
-                TaskRequest taskRequest = taskRequests.get(i);
-                try {
-                    // Validate and clean task request
-                    taskRequest.clean();
-
-                    TaskResponse taskResponse;
-                    if (taskRequest.getId() != null) {
-                        // Update existing task
-                        taskResponse = taskService.updateTask(taskRequest.getId(), taskRequest);
-                        updatedCount++;
-                        logger.debug("Updated task {}/{}: {}", i + 1, taskRequests.size(), taskRequest.getTitle());
-                    } else {
-                        // Create new task
-                        taskResponse = taskService.createTask(taskRequest);
-                        createdCount++;
-                        logger.debug("Created task {}/{}: {}", i + 1, taskRequests.size(), taskRequest.getTitle());
-                    }
-
-                    importedTasks.add(taskResponse);
-                    successCount++;
-
-                } catch (Exception e) {
-                    failedCount++;
-                    String errorMsg = String.format("Task '%s': %s",
-                        taskRequest.getTitle(), e.getMessage());
-                    errors.add(errorMsg);
-                    logger.warn("Failed to import task: {}", errorMsg);
-                }
-            }
-
             // Prepare response
             response.put("success", true);
-            response.put("totalParsed", taskRequests.size());
-            response.put("successCount", successCount);
-            response.put("failedCount", failedCount);
-            response.put("createdCount", createdCount);
-            response.put("updatedCount", updatedCount);
-            response.put("importedTasks", importedTasks);
+            response.put("totalParsed", result.getTotalParsed());
+            response.put("successCount", result.getSuccessCount());
+            response.put("failedCount", result.getFailedCount());
+            response.put("createdCount", result.getCreatedCount());
+            response.put("updatedCount", result.getUpdatedCount());
+            response.put("skippedCount", result.getSkippedCount());
             response.put("strategy", strategy.toString());
 
-            if (!errors.isEmpty()) {
-                response.put("errors", errors);
-            }
-            if (!warnings.isEmpty()) {
-                response.put("warnings", warnings);
+            if (!result.getErrors().isEmpty()) {
+                response.put("errors", result.getErrors());
             }
 
-            logger.info("Import confirmed: {} created, {} updated, {} failed (strategy: {})",
-                createdCount, updatedCount, failedCount, strategy);
+            logger.info("Import confirmed: {} created, {} updated, {} skipped, {} failed (strategy: {})",
+                result.getCreatedCount(), result.getUpdatedCount(), result.getSkippedCount(),
+                result.getFailedCount(), strategy);
 
             return ResponseEntity.ok(response);
 
@@ -364,6 +300,170 @@ public class CalDAVController {
         }
     }
 
+    /**
+     * Start a background import of an iCalendar file
+     * POST /api/calendar/import/async
+     *
+     * @param file ICS file to import
+     * @param strategy How to handle duplicates (SKIP, UPDATE, CREATE_ANYWAY), duplicates fail if omitted
+     * @return Job id and status, progress is available at /api/calendar/import/{jobId}
+     */
+    @PostMapping(value = "/import/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> startImportJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "duplicateStrategy", required = false) DuplicateStrategy strategy) {
+
+        logger.info("Background import requested with strategy {}: {}", strategy, file.getOriginalFilename());
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            // Validate file
+            if (file.isEmpty()) {
+                response.put("success", false);
+                response.put("error", "File is empty");
+                return ResponseEntity.badRequest().body(response);
+            }
+
+            // Validate file extension
+            String filename = file.getOriginalFilename();
+            if (filename == null || (!filename.endsWith(".ics") && !filename.endsWith(".ical"))) {
+                response.put("success", false);
+                response.put("error", "Invalid file format. Only .ics or .ical files are supported");
+                return ResponseEntity.badRequest().body(response);
+            }
+
+            // Get current user
+            User currentUser = userService.getCurrentUser();
+
+            ImportJobService.ImportJob job;
+            try {
+                job = importJobService.submit(file, currentUser, strategy);
+            } catch (TaskRejectedException e) {
+                logger.warn("Background import rejected: {}", e.getMessage());
+                response.put("success", false);
+                response.put("error", "Too many imports in progress, please retry later");
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+            }
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(toJobResponse(job));
+
+        } catch (Exception e) {
+            logger.error("Error starting import job: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("error", "Import failed: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Get the progress of a background import
+     * GET /api/calendar/import/{jobId}
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<Map<String, Object>> getImportJob(@PathVariable String jobId) {
+        ImportJobService.ImportJob job = importJobService.getJob(jobId, userService.getCurrentUser());
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(toJobResponse(job));
+    }
+
+    /**
+     * Cancel a background import (tasks already imported are kept)
+     * DELETE /api/calendar/import/{jobId}
+     */
+    @DeleteMapping("/import/{jobId}")
+    public ResponseEntity<Map<String, Object>> cancelImportJob(@PathVariable String jobId) {
+        ImportJobService.ImportJob job = importJobService.cancel(jobId, userService.getCurrentUser());
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(toJobResponse(job));
+    }
+
+    private Map<String, Object> toJobResponse(ImportJobService.ImportJob job) {
+        CalendarImportService.ImportResult result = job.getResult();
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("filename", job.getFilename());
+        response.put("status", job.getStatus().toString());
+        response.put("cancelRequested", job.isCancelRequested());
+        response.put("totalParsed", result.getTotalParsed());
+        response.put("successCount", result.getSuccessCount());
+        response.put("createdCount", result.getCreatedCount());
+        response.put("updatedCount", result.getUpdatedCount());
+        response.put("skippedCount", result.getSkippedCount());
+        response.put("duplicateCount", result.getDuplicateCount());
+        response.put("failedCount", result.getFailedCount());
+        response.put("errors", result.getErrors());
+        response.put("createdAt", job.getCreatedAt());
+        response.put("startedAt", job.getStartedAt());
+        response.put("finishedAt", job.getFinishedAt());
+        if (job.getStrategy() != null) {
+            response.put("strategy", job.getStrategy().toString());
+        }
+        if (job.getError() != null) {
+            response.put("error", job.getError());
+        }
+        return response;
+    }
+
+    /**
+     * Get the public subscription feed of a calendar
+     * GET /api/calendar/feed/{calendarId}
+     */
+    @GetMapping("/feed/{calendarId}")
+    public ResponseEntity<Map<String, Object>> getFeed(@PathVariable Long calendarId) {
+        try {
+            return ResponseEntity.ok(toFeedResponse(calendarFeedService.getFeedToken(calendarId)));
+        } catch (RuntimeException e) {
+            logger.warn("Feed of calendar {} not available: {}", calendarId, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Share a calendar through a public read-only feed URL, replacing (revoking) the previous one
+     * POST /api/calendar/feed/{calendarId}
+     */
+    @PostMapping("/feed/{calendarId}")
+    public ResponseEntity<Map<String, Object>> regenerateFeed(@PathVariable Long calendarId) {
+        try {
+            return ResponseEntity.ok(toFeedResponse(calendarFeedService.regenerateFeedToken(calendarId)));
+        } catch (RuntimeException e) {
+            logger.warn("Feed of calendar {} not available: {}", calendarId, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Revoke the public feed of a calendar
+     * DELETE /api/calendar/feed/{calendarId}
+     */
+    @DeleteMapping("/feed/{calendarId}")
+    public ResponseEntity<Void> revokeFeed(@PathVariable Long calendarId) {
+        try {
+            calendarFeedService.revokeFeedToken(calendarId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            logger.warn("Feed of calendar {} not available: {}", calendarId, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private Map<String, Object> toFeedResponse(String token) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("shared", token != null);
+        if (token != null) {
+            String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/public/feed/{token}.ics").buildAndExpand(token).toUriString();
+            response.put("url", url);
+            response.put("webcalUrl", url.replaceFirst("^https?://", "webcal://"));
+        }
+        return response;
+    }
+
     /**
      * Get import/export statistics
      * GET /api/calendar/stats
@@ -8,18 +8,26 @@ import com.privatecal.entity.User;
 import com.privatecal.repository.TaskRepository;
 import com.privatecal.service.CalDAVService;
 import com.privatecal.service.CalendarService;
+import com.privatecal.service.CalendarSnapshotService;
+import com.privatecal.service.CalendarSyncService;
 import com.privatecal.service.UserService;
 import lombok.RequiredArgsConstructor;
-
-import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 /**
@@ -29,10 +37,12 @@ import java.util.List;
  * URL Structure: /caldav/{username}/{calendar-slug}/
  *
  * Supported Methods:
+ * - GET    /caldav/{username}/{calendar}/               → Whole calendar as ICS (subscriptions)
  * - GET    /caldav/{username}/{calendar}/{eventId}.ics  → Get single event
  * - PUT    /caldav/{username}/{calendar}/{eventId}.ics  → Create/Update event
  * - DELETE /caldav/{username}/{calendar}/{eventId}.ics  → Delete event
  * - PROPFIND /caldav/{username}/{calendar}/             → List events (WebDAV)
+ * - REPORT   /caldav/{username}/{calendar}/             → calendar-multiget, calendar-query, sync-collection (RFC 6578)
  * - OPTIONS  /caldav/{username}/{calendar}/             → Declare CalDAV support
  *
  * Authentication:
@@ -42,7 +52,8 @@ import java.util.List;
  * CalDAV Compliance:
  * - ✅ FULLY RFC 4791 COMPLIANT (as of v0.14.1)
  * - UID in URL is the primary key, ensuring stable resource URLs
- * - ETag-based conflict detection
+ * - ETag-based conflict detection (ETag = task creation time and version, If-Match enforced by a version-guarded UPDATE)
+ * - Conditional GET of events (If-None-Match / If-Modified-Since → 304 from a version-only lookup)
  * - Supports GET, PUT, DELETE, PROPFIND, OPTIONS
  *
  * Known Limitations:
@@ -60,6 +71,8 @@ public class CalDAVServerController {
     private final CalendarService calendarService;
     private final UserService userService;
     private final TaskRepository taskRepository;
+    private final CalendarSyncService calendarSyncService;
+    private final CalendarSnapshotService calendarSnapshotService;
     private final CalDAVXmlBuilder xmlBuilder;
     private final CalDAVValidator validator;
 
@@ -82,13 +95,19 @@ public class CalDAVServerController {
      *
      * CalDAV RFC 4791 compliant: eventUid in URL is the actual task UID (primary key)
      * This ensures stable URLs across all operations
+     *
+     * Conditional GET (RFC 7232): If-None-Match (or If-Modified-Since when no If-None-Match is sent)
+     * is checked against the task version and last modification read by a version-only query,
+     * so an unchanged event gets 304 without loading the task or rendering ICS
      */
     @GetMapping(value = "/{username}/{calendarSlug}/{eventUid}.ics",
                 produces = "text/calendar; charset=utf-8")
     public ResponseEntity<String> getEvent(
             @PathVariable String username,
             @PathVariable String calendarSlug,
-            @PathVariable String eventUid) {
+            @PathVariable String eventUid,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+            @RequestHeader(value = "If-Modified-Since", required = false) String ifModifiedSince) {
 
         logger.info("CalDAV GET: /{}/{}/{}.ics", username, calendarSlug, eventUid);
 
@@ -109,27 +128,48 @@ public class CalDAVServerController {
             // Verify calendar exists and belongs to user
             Calendar calendar = calendarService.getCalendarBySlugAndUsername(calendarSlug, username);
 
-            // Verify task exists and belongs to this calendar
-            // findById now uses UID as primary key
-            Task task = taskRepository.findById(eventUid)
-                    .orElseThrow(() -> new RuntimeException("Event not found"));
-
-            if (!task.getCalendar().getId().equals(calendar.getId())) {
+            // Verify task exists and belongs to this calendar (version-only lookup, UID is the primary key)
+            List<Object[]> versionInfo = taskRepository.findVersionInfoByUid(eventUid);
+            if (versionInfo.isEmpty()) {
+                throw new RuntimeException("Event not found");
+            }
+            Object[] row = versionInfo.get(0);
+            if (!calendar.getId().equals(row[0])) {
                 logger.warn("Event {} does not belong to calendar {}/{}", eventUid, username, calendarSlug);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
 
-            // Export task as ICS
-            String icsContent = calDAVService.exportTaskAsICS(eventUid);
-            String etag = calDAVService.getTaskETag(eventUid);
+            String currentETag = calDAVService.toETag((Instant) row[3], (Long) row[1]);
+            Instant lastModified = (Instant) row[2];
+            if (isNotModified(ifNoneMatch, ifModifiedSince, currentETag, lastModified)) {
+                logger.debug("CalDAV GET: event {} not modified (ETag {})", eventUid, currentETag);
+                ResponseEntity.HeadersBuilder<?> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .header("ETag", "\"" + validator.sanitizeHeaderValue(currentETag) + "\"");
+                if (lastModified != null) {
+                    notModified.lastModified(lastModified);
+                }
+                return notModified.build();
+            }
+
+            // Changed (or unconditional request): load the task with its reminders and export it
+            List<Task> tasks = taskRepository.findWithRemindersByCalendarIdAndUidIn(calendar.getId(), List.of(eventUid));
+            if (tasks.isEmpty()) {
+                throw new RuntimeException("Event not found");
+            }
+            Task task = tasks.get(0);
+            String icsContent = calDAVService.exportTaskAsICS(task);
+            String etag = calDAVService.getTaskETag(task);
 
             logger.info("CalDAV GET successful: event {} exported", eventUid);
 
-            return ResponseEntity.ok()
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
                     .contentType(MediaType.parseMediaType("text/calendar; charset=utf-8"))
                     .header("ETag", "\"" + validator.sanitizeHeaderValue(etag) + "\"")
-                    .header("Content-Disposition", "inline; filename=\"" + validator.sanitizeHeaderValue(eventUid) + ".ics\"")
-                    .body(icsContent);
+                    .header("Content-Disposition", "inline; filename=\"" + validator.sanitizeHeaderValue(eventUid) + ".ics\"");
+            if (task.getUpdatedAt() != null) {
+                ok.lastModified(task.getUpdatedAt());
+            }
+            return ok.body(icsContent);
 
         } catch (IllegalArgumentException e) {
             // Validation errors - safe to expose
@@ -144,6 +184,92 @@ public class CalDAVServerController {
         }
     }
 
+    /**
+     * Evaluate the preconditions of a conditional GET (RFC 7232 section 6)
+     * If-Modified-Since is only considered when the request has no If-None-Match
+     *
+     * @param ifNoneMatch If-None-Match header: "*" or a list of (possibly weak) entity tags, can be null
+     * @param ifModifiedSince If-Modified-Since header (HTTP date), can be null
+     * @param currentETag Current ETag of the resource (unquoted)
+     * @param lastModified Last modification of the resource, can be null
+     * @return true if the client copy is current and 304 Not Modified must be returned
+     */
+    private boolean isNotModified(String ifNoneMatch, String ifModifiedSince, String currentETag, Instant lastModified) {
+        if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.equals("*")) {
+                    return true;
+                }
+                // Weak comparison: W/"1" matches "1"
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.replaceAll("^\"|\"$", "").equals(currentETag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (ifModifiedSince != null && lastModified != null) {
+            try {
+                Instant since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                // HTTP dates have a one second resolution
+                return !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+            } catch (DateTimeParseException e) {
+                // Invalid dates are ignored (RFC 7232 section 3.3)
+                logger.debug("Ignoring invalid If-Modified-Since header: {}", ifModifiedSince);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * GET /caldav/{username}/{calendar}/ and /caldav/{username}/{calendar}
+     * Whole calendar in iCalendar format, for read-only subscription clients (subscribe by URL)
+     *
+     * Served from the precomputed snapshot file of the calendar (CalendarSnapshotService) instead of
+     * rendering every event on each poll. Conditional requests (If-None-Match, If-Modified-Since) and
+     * Range requests are answered by Spring from the ETag and the file resource.
+     */
+    @GetMapping(value = {"/{username}/{calendarSlug}", "/{username}/{calendarSlug}/"})
+    public ResponseEntity<Resource> getCalendar(
+            @PathVariable String username,
+            @PathVariable String calendarSlug) {
+
+        logger.info("CalDAV GET calendar: /{}/{}/", username, calendarSlug);
+
+        try {
+            validator.validateUsername(username);
+            validator.validateCalendarSlug(calendarSlug);
+
+            User currentUser = userService.getCurrentUser();
+            if (!currentUser.getUsername().equals(username) && !currentUser.getEmail().equals(username)) {
+                logger.warn("Unauthorized CalDAV access attempt: user {} tried to access {}",
+                    currentUser.getUsername(), username);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            Calendar calendar = calendarService.getCalendarBySlugAndUsername(calendarSlug, username);
+            CalendarSnapshotService.Snapshot snapshot = calendarSnapshotService.getSnapshot(calendar);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/calendar; charset=utf-8"))
+                    .header("ETag", "\"" + validator.sanitizeHeaderValue(snapshot.getETag()) + "\"")
+                    .lastModified(snapshot.getRenderedAt())
+                    .header("Content-Disposition", "inline; filename=\"" + validator.sanitizeHeaderValue(calendarSlug) + ".ics\"")
+                    .body(new FileSystemResource(snapshot.getPath()));
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("CalDAV GET calendar validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error handling CalDAV GET calendar for {}/{}: {}", username, calendarSlug, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * PUT /caldav/{username}/{calendar}/{eventUid}.ics
      * Create or update event from iCalendar data
@@ -191,28 +317,13 @@ public class CalDAVServerController {
                 logger.debug("CalDAV PUT If-Match header: raw='{}', cleaned='{}'", ifMatch, expectedETag);
             }
 
-            // Check if task with this UID already exists
-            Optional<Task> existingTask = taskRepository.findById(eventUid);
-
-            // If If-Match header is present and task exists, verify ETag
-            if (expectedETag != null && existingTask.isPresent()) {
-                String currentETag = calDAVService.getTaskETag(eventUid);
-                logger.debug("CalDAV PUT ETag comparison: expected='{}' (len={}), current='{}' (len={})",
-                    expectedETag, expectedETag.length(), currentETag, currentETag.length());
-
-                if (!currentETag.equals(expectedETag)) {
-                    logger.warn("CalDAV PUT ETag mismatch: expected '{}' but current is '{}'", expectedETag, currentETag);
-                    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
-                            .body("ETag mismatch - conflict detected");
-                }
-                logger.info("CalDAV PUT ETag match verified for task {}", eventUid);
-            }
-
             // Import/update event - eventUid from URL is the primary key
+            // If-Match is checked by the service on the task it loads for the update (no separate ETag lookup);
+            // the UPDATE is guarded by the same version, so a concurrent edit still fails with 412
             Task task = calDAVService.importSingleEventFromICS(icsContent, calendar, currentUser, eventUid, expectedETag);
 
-            // Generate new ETag for response
-            String newETag = calDAVService.getTaskETag(task.getUid());
+            // New ETag is the state (creation time and version) of the saved task
+            String newETag = calDAVService.getTaskETag(task);
 
             // Build resource URL for Location header
             String resourceUrl = String.format("/caldav/%s/%s/%s.ics", username, calendarSlug, task.getUid());
@@ -239,12 +350,12 @@ public class CalDAVServerController {
             logger.warn("CalDAV PUT validation error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body("<?xml version=\"1.0\" encoding=\"UTF-8\"?><error><message>Invalid request parameter</message></error>");
+        } catch (OptimisticLockingFailureException e) {
+            // If-Match did not match the current version, or a concurrent edit won the race
+            logger.warn("CalDAV PUT conflict: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("<?xml version=\"1.0\" encoding=\"UTF-8\"?><error><message>ETag mismatch - conflict detected</message></error>");
         } catch (RuntimeException e) {
-            if (e.getMessage() != null && e.getMessage().contains("ETag mismatch")) {
-                logger.warn("CalDAV PUT conflict: {}", e.getMessage());
-                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
-                        .body("<?xml version=\"1.0\" encoding=\"UTF-8\"?><error><message>ETag mismatch - conflict detected</message></error>");
-            }
             // Don't expose internal error details
             logger.error("Error handling CalDAV PUT for {}/{}/{}: {}", username, calendarSlug, eventUid, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -294,8 +405,8 @@ public class CalDAVServerController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
 
-            // Delete task
-            taskRepository.delete(task);
+            // Delete task (recorded as tombstone for sync-collection)
+            calDAVService.deleteTask(task);
 
             logger.info("CalDAV DELETE successful: event {} deleted", eventUid);
 
@@ -338,10 +449,14 @@ public class CalDAVServerController {
      *
      * Spring doesn't have PROPFIND/REPORT as standard methods, so we handle them
      * via custom filter (WebDAVMethodFilter) and check method manually.
+     *
+     * The 207 Multi-Status body is streamed to the response (one D:response per task),
+     * in that case null is returned as the response is already handled.
      */
     @RequestMapping(value = {"/{username}/{calendarSlug}", "/{username}/{calendarSlug}/"})
     public ResponseEntity<String> propfindOrReport(
             jakarta.servlet.http.HttpServletRequest request,
+            jakarta.servlet.http.HttpServletResponse response,
             @PathVariable String username,
             @PathVariable String calendarSlug,
             @RequestBody(required = false) String requestXML,
@@ -370,60 +485,91 @@ public class CalDAVServerController {
             // Verify calendar exists
             Calendar calendar = calendarService.getCalendarBySlugAndUsername(calendarSlug, username);
 
-            // Parse calendar-multiget requests using validator
+            // WebDAV sync-collection REPORT (RFC 6578): only members changed since the client's token
+            if ("REPORT".equalsIgnoreCase(method)) {
+                String clientSyncToken = validator.parseSyncCollectionToken(requestXML);
+                if (clientSyncToken != null) {
+                    return syncCollection(response, username, calendarSlug, calendar, clientSyncToken, requestXML);
+                }
+            }
+
+            // Parse calendar-multiget and calendar-query time-range requests using validator
             List<String> requestedUids = null;
+            CalDAVValidator.TimeRange timeRange = null;
             if ("REPORT".equalsIgnoreCase(method)) {
                 requestedUids = validator.parseCalendarMultigetUids(requestXML);
                 if (requestedUids != null) {
                     logger.info("CalDAV calendar-multiget: {} UIDs requested", requestedUids.size());
+                } else {
+                    timeRange = validator.parseCalendarQueryTimeRange(requestXML);
+                    if (timeRange != null) {
+                        logger.info("CalDAV calendar-query: time-range {} - {}", timeRange.getStart(), timeRange.getEnd());
+                    }
                 }
             }
 
+            // Check if client requested calendar-data
+            boolean includeCalendarData = "REPORT".equalsIgnoreCase(method) ||
+                (requestXML != null && (requestXML.contains("calendar-data") || requestXML.contains("allprop")));
+
             // Get tasks based on request type
-            List<Task> tasks;
-            if (requestedUids != null && !requestedUids.isEmpty()) {
-                // For calendar-multiget, only fetch requested events
-                tasks = taskRepository.findAllById(requestedUids);
+            // Depth 0 PROPFIND only describes the collection itself, so tasks are not loaded at all.
+            // When calendar-data is rendered, reminders are fetched together with the tasks (VALARMs).
+            List<Task> tasksToInclude;
+            if ("0".equals(depth) && "PROPFIND".equalsIgnoreCase(method)) {
+                tasksToInclude = java.util.Collections.emptyList();
+            } else if (requestedUids != null && !requestedUids.isEmpty()) {
+                // For calendar-multiget, only fetch requested events of this calendar
+                tasksToInclude = taskRepository.findWithRemindersByCalendarIdAndUidIn(calendar.getId(), requestedUids);
                 logger.debug("CalDAV calendar-multiget: fetched {} out of {} requested events",
-                           tasks.size(), requestedUids.size());
+                           tasksToInclude.size(), requestedUids.size());
+            } else if (timeRange != null) {
+                // For calendar-query with time-range, the range is applied in SQL and recurrences are expanded
+                tasksToInclude = calDAVService.findTasksInTimeRange(calendar.getId(), timeRange.getStart(), timeRange.getEnd());
+            } else if (includeCalendarData) {
+                tasksToInclude = taskRepository.findWithRemindersByCalendarId(calendar.getId());
             } else {
-                // For normal PROPFIND/REPORT, get all tasks in calendar
-                tasks = taskRepository.findByCalendar_IdOrderByStartDatetimeAsc(calendar.getId());
+                // For normal PROPFIND (hrefs and ETags only), get all tasks in calendar
+                tasksToInclude = taskRepository.findByCalendar_IdOrderByStartDatetimeAsc(calendar.getId());
             }
 
-            // Check if client requested calendar-data
-            boolean includeCalendarData = "REPORT".equalsIgnoreCase(method) ||
-                (requestXML != null && (requestXML.contains("calendar-data") || requestXML.contains("allprop")));
-
-            // Filter tasks based on depth for PROPFIND (always include for REPORT)
-            List<Task> tasksToInclude = ("0".equals(depth) && "PROPFIND".equalsIgnoreCase(method))
-                ? java.util.Collections.emptyList()
-                : tasks;
+            // Sync token and CTag are a primary key read of the calendar's sync revision (no task is loaded),
+            // so a Depth 0 PROPFIND is enough for clients to check the calendar for changes
+            String syncToken = null;
+            String ctag = null;
+            if ("PROPFIND".equalsIgnoreCase(method)) {
+                long changeId = calendarSyncService.getCurrentChangeId(calendar.getId());
+                syncToken = calendarSyncService.toSyncToken(calendar.getId(), changeId);
+                ctag = calendarSyncService.toCTag(changeId);
+            }
 
-            // Build WebDAV multistatus response using builder
-            String xmlResponse = xmlBuilder.buildCalendarCollectionResponse(
+            // Stream WebDAV multistatus response using builder
+            // Tasks are already loaded: ETag and ICS rendering must not hit the repository again
+            java.io.Writer writer = openMultiStatusWriter(response);
+            xmlBuilder.writeCalendarCollectionResponse(
+                writer,
                 username,
                 calendarSlug,
                 calendar.getName(),
                 tasksToInclude,
                 includeCalendarData,
                 method,
-                uid -> {
+                task -> {
                     try {
-                        return calDAVService.exportTaskAsICS(uid);
+                        return calDAVService.exportTaskAsICS(task);
                     } catch (IOException e) {
                         throw new RuntimeException("Failed to export task as ICS", e);
                     }
                 },
-                calDAVService::getTaskETag
+                calDAVService::getTaskETag,
+                syncToken,
+                ctag
             );
+            writer.flush();
 
-            logger.info("CalDAV {} successful: {} events listed, response size: {} KB",
-                       method, tasksToInclude.size(), xmlResponse.length() / 1024);
+            logger.info("CalDAV {} successful: {} events listed", method, tasksToInclude.size());
 
-            return ResponseEntity.status(207)  // 207 Multi-Status
-                    .contentType(MediaType.APPLICATION_XML)
-                    .body(xmlResponse);
+            return null;  // 207 Multi-Status already written
 
         } catch (IllegalArgumentException e) {
             // Validation errors - safe to expose
@@ -433,11 +579,96 @@ public class CalDAVServerController {
         } catch (Exception e) {
             // Don't expose internal error details
             logger.error("Error handling CalDAV {} for {}/{}: {}", method, username, calendarSlug, e.getMessage(), e);
+            if (response.isCommitted()) {
+                // Part of the multistatus was already sent, the status can no longer change
+                return null;
+            }
+            response.reset();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("<?xml version=\"1.0\" encoding=\"UTF-8\"?><error><message>An error occurred processing your request</message></error>");
         }
     }
 
+    /**
+     * sync-collection REPORT (RFC 6578)
+     * Without token (initial sync) all members are listed; otherwise only members changed since the token,
+     * plus a 404 response for each member removed since the token. The new sync token is the committed
+     * sync revision, read before the changes: revisions follow commit order, so a concurrent write is at
+     * worst reported again on the next sync, never lost.
+     */
+    private ResponseEntity<String> syncCollection(jakarta.servlet.http.HttpServletResponse response,
+                                                  String username, String calendarSlug, Calendar calendar,
+                                                  String clientSyncToken, String requestXML) throws IOException {
+        long currentChangeId = calendarSyncService.getCurrentChangeId(calendar.getId());
+        boolean includeCalendarData = requestXML.contains("calendar-data");
+
+        List<Task> changedTasks;
+        List<String> deletedUids;
+        if (clientSyncToken.isEmpty()) {
+            changedTasks = includeCalendarData
+                ? taskRepository.findWithRemindersByCalendarId(calendar.getId())
+                : taskRepository.findByCalendar_IdOrderByStartDatetimeAsc(calendar.getId());
+            deletedUids = java.util.Collections.emptyList();
+        } else {
+            Long since = calendarSyncService.parseSyncToken(calendar.getId(), clientSyncToken);
+            if (since == null || since > currentChangeId) {
+                // Unknown token (or one of another calendar): client must restart with an initial sync (RFC 6578 section 3.2)
+                logger.warn("CalDAV sync-collection: invalid sync token for {}/{}", username, calendarSlug);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .contentType(MediaType.APPLICATION_XML)
+                        .body("<?xml version=\"1.0\" encoding=\"UTF-8\"?><D:error xmlns:D=\"DAV:\"><D:valid-sync-token/></D:error>");
+            }
+
+            CalendarSyncService.SyncChanges changes = calendarSyncService.getChanges(calendar.getId(), since, currentChangeId);
+            List<String> changedUids = changes.getChangedUids();
+            if (changedUids.isEmpty()) {
+                changedTasks = java.util.Collections.emptyList();
+            } else if (includeCalendarData) {
+                changedTasks = taskRepository.findWithRemindersByCalendarIdAndUidIn(calendar.getId(), changedUids);
+            } else {
+                changedTasks = taskRepository.findByCalendar_IdAndUidIn(calendar.getId(), changedUids);
+            }
+            deletedUids = changes.getDeletedUids();
+        }
+
+        java.io.Writer writer = openMultiStatusWriter(response);
+        xmlBuilder.writeSyncCollectionResponse(
+            writer,
+            username,
+            calendarSlug,
+            changedTasks,
+            deletedUids,
+            includeCalendarData,
+            task -> {
+                try {
+                    return calDAVService.exportTaskAsICS(task);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to export task as ICS", e);
+                }
+            },
+            calDAVService::getTaskETag,
+            calendarSyncService.toSyncToken(calendar.getId(), currentChangeId)
+        );
+        writer.flush();
+
+        logger.info("CalDAV sync-collection successful: {} changed, {} removed events since token '{}'",
+                   changedTasks.size(), deletedUids.size(), clientSyncToken);
+
+        return null;  // 207 Multi-Status already written
+    }
+
+    /**
+     * Start a streamed 207 Multi-Status response and open a writer on its body
+     * Status and headers are sent with the first flushed bytes, so this is called only once
+     * everything that can fail with a different status has been done.
+     */
+    private java.io.Writer openMultiStatusWriter(jakarta.servlet.http.HttpServletResponse response) throws IOException {
+        response.setStatus(207);  // 207 Multi-Status
+        response.setContentType(MediaType.APPLICATION_XML_VALUE);
+        return new java.io.BufferedWriter(
+            new java.io.OutputStreamWriter(response.getOutputStream(), java.nio.charset.StandardCharsets.UTF_8));
+    }
+
     /**
      * PROPFIND /caldav/ and /caldav
      * CalDAV root discovery - allows clients to discover available calendars
@@ -506,11 +737,17 @@ public class CalDAVServerController {
             // Get user's calendars
             List<com.privatecal.dto.CalendarResponse> calendars = calendarService.getAllCalendars();
 
+            // CTags of all calendars in one query, clients skip unchanged calendars
+            java.util.Map<Long, String> ctags = "0".equals(depth)
+                ? java.util.Collections.emptyMap()
+                : calendarSyncService.getCTags(calendars.stream().map(com.privatecal.dto.CalendarResponse::getId).toList());
+
             // Build WebDAV multistatus response using builder
             String xmlResponse = xmlBuilder.buildUserPrincipalResponse(
                 username,
                 currentUser.getEmail(),
                 calendars,
+                ctags,
                 depth
             );
 
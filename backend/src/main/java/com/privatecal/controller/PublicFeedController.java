@@ -0,0 +1,74 @@
+package com.privatecal.controller;
+
+import com.privatecal.entity.Calendar;
+import com.privatecal.service.CalendarFeedService;
+import com.privatecal.service.CalendarSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Optional;
+
+/**
+ * Public read-only calendar feeds (webcal subscriptions)
+ *
+ * GET /api/public/feed/{token}.ics serves the snapshot of the calendar shared with the token,
+ * without authentication (the secret token is the credential, see CalendarFeedService).
+ * Conditional (ETag / Last-Modified) and Range requests are answered by Spring from the snapshot file.
+ */
+@RestController
+@RequestMapping("/api/public/feed")
+@RequiredArgsConstructor
+public class PublicFeedController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicFeedController.class);
+
+    private final CalendarFeedService calendarFeedService;
+    private final CalendarSnapshotService calendarSnapshotService;
+
+    @GetMapping("/{token}.ics")
+    public ResponseEntity<Resource> getFeed(@PathVariable String token) {
+        // Malformed tokens get no rate limit bucket
+        if (!calendarFeedService.isWellFormed(token)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            // Looked up first: only tokens of shared calendars get their own rate limit bucket
+            Optional<Calendar> calendar = calendarFeedService.findCalendarByToken(token);
+
+            long retryAfterSeconds = calendarFeedService.tryAcquire(token, calendar.isPresent());
+            if (retryAfterSeconds > 0) {
+                logger.debug("Public feed rate limit exceeded, retry after {}s", retryAfterSeconds);
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header("Retry-After", String.valueOf(retryAfterSeconds))
+                        .build();
+            }
+
+            if (calendar.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            CalendarSnapshotService.Snapshot snapshot = calendarSnapshotService.getSnapshot(calendar.get());
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/calendar; charset=utf-8"))
+                    .header("ETag", "\"" + snapshot.getETag() + "\"")
+                    .lastModified(snapshot.getRenderedAt())
+                    .header("Content-Disposition", "inline; filename=\"" + calendar.get().getSlug() + ".ics\"")
+                    .body(new FileSystemResource(snapshot.getPath()));
+
+        } catch (Exception e) {
+            logger.error("Error serving public feed: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
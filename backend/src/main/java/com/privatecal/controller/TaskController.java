@@ -14,6 +14,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -181,6 +182,10 @@ public class TaskController {
 
             return ResponseEntity.ok(response);
 
+        } catch (OptimisticLockingFailureException e) {
+            // Task version changed by a concurrent REST or CalDAV edit
+            logger.warn("Concurrent modification updating task UID: {}: {}", taskUid, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Error updating task UID: {}", taskUid, e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -8,6 +8,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Set;
+
 /**
  * Data Transfer Object for User Preferences Request
  * Used for updating user preferences via API
@@ -39,4 +41,7 @@ public class UserPreferencesRequest {
     @Min(value = 0, message = "Week start day must be 0 (Sunday) or 1 (Monday)")
     @Max(value = 1, message = "Week start day must be 0 (Sunday) or 1 (Monday)")
     private Integer weekStartDay;
+
+    // Notification types whose reminders due together are sent as one digest (empty to disable)
+    private Set<NotificationType> digestNotificationTypes;
 }
\ No newline at end of file
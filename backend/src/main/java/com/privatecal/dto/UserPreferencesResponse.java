@@ -5,6 +5,8 @@ import com.privatecal.entity.User;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Set;
+
 /**
  * Data Transfer Object for User Preferences Response
  * Used for returning user preferences via API
@@ -22,6 +24,7 @@ public class UserPreferencesResponse {
     private Boolean emailNotifications;
     private Boolean reminderNotifications;
     private Integer weekStartDay;
+    private Set<NotificationType> digestNotificationTypes;
 
     // Constructor from User entity
     public UserPreferencesResponse(User user) {
@@ -33,6 +36,7 @@ public class UserPreferencesResponse {
         this.emailNotifications = user.getEmailNotifications();
         this.reminderNotifications = user.getReminderNotifications();
         this.weekStartDay = user.getWeekStartDay();
+        this.digestNotificationTypes = user.getDigestNotificationTypes();
     }
 
     // Full constructor
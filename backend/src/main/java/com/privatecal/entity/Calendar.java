@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -65,6 +66,20 @@ public class Calendar {
     @Column(length = 50)
     private String timezone;
 
+    /**
+     * Secret of the public subscription feed (/api/public/feed/{token}.ics), null when not shared
+     */
+    @Column(name = "feed_token", length = 64, unique = true)
+    private String feedToken;
+
+    /**
+     * Revision of the calendar's change journal (CalDAV sync token and CTag). Bumped and read only
+     * by CalendarSyncService inside the writing transaction, never written through this entity
+     */
+    @ColumnDefault("0")
+    @Column(name = "sync_revision", nullable = false, insertable = false, updatable = false)
+    private Long syncRevision;
+
     @OneToMany(mappedBy = "calendar", cascade = CascadeType.ALL, orphanRemoval = false)
     private List<Task> tasks = new ArrayList<>();
 
@@ -188,6 +203,14 @@ public class Calendar {
         this.timezone = timezone;
     }
 
+    public String getFeedToken() {
+        return feedToken;
+    }
+
+    public void setFeedToken(String feedToken) {
+        this.feedToken = feedToken;
+    }
+
     public List<Task> getTasks() {
         return tasks;
     }
@@ -0,0 +1,59 @@
+package com.privatecal.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Entry of the per-calendar change journal used by WebDAV sync-collection (RFC 6578).
+ * The revision is the calendar's sync revision of the writing transaction (see CalendarSyncService),
+ * so revisions are ordered by commit and the latest one is exposed to CalDAV clients as sync token.
+ * Deleted tasks are kept as tombstones (deleted = true) so clients can remove them.
+ */
+@Entity
+@Table(name = "calendar_changes", indexes = {
+    @Index(name = "idx_calendar_changes_calendar_revision", columnList = "calendar_id, revision"),
+    @Index(name = "idx_calendar_changes_calendar_uid", columnList = "calendar_id, task_uid")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class CalendarChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "calendar_id", nullable = false)
+    private Long calendarId;
+
+    @NotNull
+    @Column(name = "revision", nullable = false)
+    private Long revision;
+
+    @NotBlank
+    @Column(name = "task_uid", nullable = false, length = 255)
+    private String taskUid;
+
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted = false;
+
+    @NotNull
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    // Constructor with parameters
+    public CalendarChange(Long calendarId, long revision, String taskUid, boolean deleted) {
+        this.calendarId = calendarId;
+        this.revision = revision;
+        this.taskUid = taskUid;
+        this.deleted = deleted;
+        this.changedAt = Instant.now();
+    }
+}
@@ -0,0 +1,123 @@
+package com.privatecal.entity;
+
+import com.privatecal.dto.NotificationType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Reminder notification waiting for delivery (transactional outbox)
+ * Written in the transaction that marks the reminder as sent or moves it to its next occurrence,
+ * delivered afterwards by NotificationOutboxService. The fired occurrence is copied, since a recurring
+ * reminder has already moved on when the notification is delivered.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class NotificationOutbox {
+
+    public enum Status {
+        PENDING,
+        SENT,
+        // Gave up after the maximum number of attempts
+        DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "reminder_id", nullable = false)
+    private Long reminderId;
+
+    @NotNull
+    @Column(name = "task_uid", nullable = false, length = 255)
+    private String taskUid;
+
+    // Recipient of the notification, for the per-recipient rate limit
+    @Column(name = "user_id")
+    private Long userId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_type", nullable = false, length = 20)
+    private NotificationType notificationType;
+
+    // Delivered in one notification with the other digest entries of its user and notification type
+    @Column(name = "digest", nullable = false)
+    private boolean digest = false;
+
+    @NotNull
+    @Column(name = "reminder_time", nullable = false)
+    private Instant reminderTime;
+
+    @NotNull
+    @Column(name = "reminder_offset_minutes", nullable = false)
+    private Integer reminderOffsetMinutes;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    /**
+     * Outbox entry for the occurrence of a reminder that just fired
+     */
+    public NotificationOutbox(Reminder reminder) {
+        this.reminderId = reminder.getId();
+        this.taskUid = reminder.getTask().getUid();
+        this.userId = reminder.getTask().getUser().getId();
+        this.notificationType = reminder.getNotificationType();
+        this.reminderTime = reminder.getReminderTime();
+        this.reminderOffsetMinutes = reminder.getReminderOffsetMinutes();
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    /**
+     * Key of the recipient for rate limiting: the user, or the task for entries written without one
+     */
+    public String getRecipientKey() {
+        return userId != null ? "user:" + userId : "task:" + taskUid;
+    }
+
+    /**
+     * Reminder as it was when the entry was written, for the notification providers (not persisted)
+     *
+     * @param task the reminder's task, with its user
+     */
+    public Reminder toReminder(Task task) {
+        Reminder reminder = new Reminder();
+        reminder.setId(reminderId);
+        reminder.setTask(task);
+        reminder.setReminderOffsetMinutes(reminderOffsetMinutes);
+        reminder.setNotificationType(notificationType);
+        // Last: the setters above compute the reminder time of the task's first occurrence
+        reminder.setReminderTime(reminderTime);
+        return reminder;
+    }
+}
@@ -1,6 +1,7 @@
 package com.privatecal.entity;
 
 import com.privatecal.dto.NotificationType;
+import com.privatecal.service.ReminderScheduleListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -8,11 +9,14 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.Instant;
+import java.util.List;
 
 @Entity
 @Table(name = "reminders")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, ReminderScheduleListener.class})
 public class Reminder {
+
+    private static final int UPCOMING_OCCURRENCES_LENGTH = 1000;
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -45,6 +49,22 @@ public class Reminder {
     @Column(name = "last_sent_occurrence")
     private Instant lastSentOccurrence;
 
+    // Claim lease: instance sending the reminder and until when (see ReminderService.claimReminders)
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    // Recurring tasks: start times of the occurrences following the one of reminderTime (epoch seconds,
+    // comma separated, "" if there are none), so firing the reminder does not expand the RRULE again
+    @Column(name = "upcoming_occurrences", length = UPCOMING_OCCURRENCES_LENGTH)
+    private String upcomingOccurrences;
+
+    // Task.getRecurrenceFingerprint the upcoming occurrences were computed for
+    @Column(name = "upcoming_fingerprint")
+    private Integer upcomingFingerprint;
+
 
     // Constructors
     public Reminder() {}
@@ -74,6 +94,8 @@ public class Reminder {
             Instant taskStartInstant = task.getStartDatetimeAsInstant();
             // Subtract offset to get reminder time
             this.reminderTime = taskStartInstant.minus(java.time.Duration.ofMinutes(reminderOffsetMinutes));
+            // Occurrences precomputed for the previous reminder time no longer follow it
+            clearUpcomingOccurrences();
         }
     }
 
@@ -169,6 +191,99 @@ public class Reminder {
         this.lastSentOccurrence = lastSentOccurrence;
     }
 
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public Instant getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(Instant claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+
+    /**
+     * Release the claim lease once the reminder is sent or moved to its next occurrence
+     */
+    public void releaseClaim() {
+        this.claimedBy = null;
+        this.claimedUntil = null;
+    }
+
+    /**
+     * Store the start times of the occurrences following the one of reminderTime
+     * @param occurrenceStarts ascending; empty if the series has no more occurrences
+     * @param fingerprint Task.getRecurrenceFingerprint they were computed for
+     */
+    public void setUpcomingOccurrences(List<Instant> occurrenceStarts, int fingerprint) {
+        this.upcomingOccurrences = encodeUpcomingOccurrences(occurrenceStarts);
+        this.upcomingFingerprint = fingerprint;
+    }
+
+    /**
+     * Column value of upcoming occurrences (as many as fit in the column)
+     */
+    public static String encodeUpcomingOccurrences(List<Instant> occurrenceStarts) {
+        StringBuilder encoded = new StringBuilder();
+        for (Instant occurrenceStart : occurrenceStarts) {
+            String entry = Long.toString(occurrenceStart.getEpochSecond());
+            if (encoded.length() + entry.length() + 1 > UPCOMING_OCCURRENCES_LENGTH) {
+                break;
+            }
+            if (encoded.length() > 0) {
+                encoded.append(',');
+            }
+            encoded.append(entry);
+        }
+        return encoded.toString();
+    }
+
+    public void clearUpcomingOccurrences() {
+        this.upcomingOccurrences = null;
+        this.upcomingFingerprint = null;
+    }
+
+    public String getUpcomingOccurrences() {
+        return upcomingOccurrences;
+    }
+
+    /**
+     * Take the first precomputed occurrence starting after an occurrence (the one just fired)
+     * The occurrences up to it are removed; once none are left the reminder needs a new expansion.
+     *
+     * @param fingerprint current Task.getRecurrenceFingerprint: occurrences of a changed recurrence are not used
+     * @return the occurrence start, null if none is precomputed (not computed yet, changed or used up)
+     */
+    public Instant pollUpcomingOccurrence(Instant afterOccurrence, int fingerprint) {
+        if (upcomingOccurrences == null || upcomingOccurrences.isEmpty()
+                || upcomingFingerprint == null || upcomingFingerprint != fingerprint) {
+            return null;
+        }
+
+        int from = 0;
+        while (from < upcomingOccurrences.length()) {
+            int comma = upcomingOccurrences.indexOf(',', from);
+            int to = comma >= 0 ? comma : upcomingOccurrences.length();
+            Instant occurrenceStart = Instant.ofEpochSecond(Long.parseLong(upcomingOccurrences.substring(from, to)));
+            from = to + 1;
+            if (occurrenceStart.isAfter(afterOccurrence)) {
+                if (from < upcomingOccurrences.length()) {
+                    upcomingOccurrences = upcomingOccurrences.substring(from);
+                } else {
+                    clearUpcomingOccurrences();
+                }
+                return occurrenceStart;
+            }
+        }
+        clearUpcomingOccurrences();
+        return null;
+    }
+
     public boolean isDue() {
         return reminderTime != null && !isSent && Instant.now().isAfter(reminderTime);
     }
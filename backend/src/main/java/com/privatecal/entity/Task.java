@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -15,6 +16,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Entity
 @Table(name = "tasks")
@@ -113,7 +115,9 @@ public class Task {
     @Column(name = "recurrence_exceptions", columnDefinition = "TEXT")
     private String recurrenceExceptions;
 
+    // Batch loading avoids one query per task when many tasks are rendered (e.g. ICS export)
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<Reminder> reminders = new ArrayList<>();
     
     @CreatedDate
@@ -123,6 +127,16 @@ public class Task {
     @LastModifiedDate
     @Column(name = "updated_at")
     private Instant updatedAt;
+
+    /**
+     * Optimistic locking version, incremented by Hibernate on every update.
+     * Part of the CalDAV ETag (see getStateTag): UPDATEs are guarded by "WHERE version = ?" so concurrent
+     * REST and CalDAV edits cannot silently overwrite each other.
+     * Null until the task is first persisted (marks the entity as new for Spring Data).
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
     
     // Constructors
     public Task() {}
@@ -279,6 +293,31 @@ public class Task {
         return recurrenceRule != null && !recurrenceRule.trim().isEmpty();
     }
 
+    /**
+     * Hash of the fields the occurrence starts depend on (rule, local start, timezone, end, EXDATEs):
+     * occurrences precomputed for a reminder are used only while it is unchanged, so a deleted or
+     * detached occurrence is never reminded of
+     */
+    public int getRecurrenceFingerprint() {
+        return Objects.hash(recurrenceRule, startDatetimeLocal, taskTimezone, recurrenceEnd, recurrenceExceptions);
+    }
+
+    /**
+     * Identity of the current state of the task: creation time (epoch millis) and version.
+     * The version restarts when a UID is deleted and created again; the creation time tells
+     * these incarnations apart. Used as CalDAV ETag.
+     */
+    public String getStateTag() {
+        return stateTag(createdAt, version);
+    }
+
+    /**
+     * State tag from columns read without loading the task (see getStateTag)
+     */
+    public static String stateTag(Instant createdAt, Long version) {
+        return (createdAt != null ? createdAt.toEpochMilli() : 0L) + "-" + (version != null ? version : 0L);
+    }
+
     public List<Reminder> getReminders() {
         return reminders;
     }
@@ -313,6 +352,14 @@ public class Task {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getStartDatetimeLocal() {
         return startDatetimeLocal;
     }
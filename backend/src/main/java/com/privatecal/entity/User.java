@@ -1,5 +1,6 @@
 package com.privatecal.entity;
 
+import com.privatecal.dto.NotificationType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -10,7 +11,11 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users")
@@ -91,6 +96,11 @@ public class User {
     @Column(length = 10)
     private String locale;
 
+    // Notification types whose reminders are grouped into digests, comma separated (e.g. "TELEGRAM,PUSH")
+    @Size(max = 50)
+    @Column(name = "digest_notification_types", length = 50)
+    private String digestNotificationTypes;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Task> tasks = new ArrayList<>();
     
@@ -305,6 +315,30 @@ public class User {
         this.telegramChatId = telegramChatId;
     }
 
+    public Set<NotificationType> getDigestNotificationTypes() {
+        Set<NotificationType> types = EnumSet.noneOf(NotificationType.class);
+        if (digestNotificationTypes != null && !digestNotificationTypes.isBlank()) {
+            Arrays.stream(digestNotificationTypes.split(","))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .forEach(name -> types.add(NotificationType.valueOf(name)));
+        }
+        return types;
+    }
+
+    public void setDigestNotificationTypes(Set<NotificationType> types) {
+        this.digestNotificationTypes = types == null || types.isEmpty()
+                ? null
+                : EnumSet.copyOf(types).stream().map(Enum::name).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Check if reminders of a notification type are grouped into digests for this user
+     */
+    public boolean isDigestEnabled(NotificationType type) {
+        return digestNotificationTypes != null && getDigestNotificationTypes().contains(type);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,39 @@
+package com.privatecal.repository;
+
+import com.privatecal.entity.CalendarChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the calendar change journal (CalDAV sync-collection)
+ */
+@Repository
+public interface CalendarChangeRepository extends JpaRepository<CalendarChange, Long> {
+
+    /**
+     * Changes of a calendar in the token range (since, until], oldest first
+     */
+    @Query("SELECT c FROM CalendarChange c WHERE c.calendarId = :calendarId AND c.revision > :since AND c.revision <= :until ORDER BY c.revision ASC, c.id ASC")
+    List<CalendarChange> findChangesInRange(@Param("calendarId") Long calendarId,
+                                            @Param("since") Long since,
+                                            @Param("until") Long until);
+
+    /**
+     * Remove previous journal entries of a task (compaction, only the latest entry per UID is needed)
+     */
+    @Modifying
+    @Query("DELETE FROM CalendarChange c WHERE c.calendarId = :calendarId AND c.taskUid = :taskUid")
+    void deleteByCalendarIdAndTaskUid(@Param("calendarId") Long calendarId, @Param("taskUid") String taskUid);
+
+    /**
+     * Remove previous journal entries of several tasks (compaction for batched writes, e.g. ICS import)
+     */
+    @Modifying
+    @Query("DELETE FROM CalendarChange c WHERE c.calendarId = :calendarId AND c.taskUid IN :taskUids")
+    void deleteByCalendarIdAndTaskUidIn(@Param("calendarId") Long calendarId, @Param("taskUids") List<String> taskUids);
+}
@@ -3,6 +3,7 @@ package com.privatecal.repository;
 import com.privatecal.entity.Calendar;
 import com.privatecal.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -50,6 +51,33 @@ public interface CalendarRepository extends JpaRepository<Calendar, Long> {
     @Query("SELECT c FROM Calendar c WHERE c.slug = :slug AND (c.user.username = :usernameOrEmail OR c.user.email = :usernameOrEmail)")
     Optional<Calendar> findBySlugAndUsername(@Param("slug") String slug, @Param("usernameOrEmail") String usernameOrEmail);
 
+    /**
+     * Find calendar by public feed token (unauthenticated subscription feed)
+     */
+    Optional<Calendar> findByFeedToken(String feedToken);
+
+    /**
+     * Bump the sync revision of a calendar (change journal). The row lock taken by the UPDATE is held
+     * until commit, so concurrent writers of a calendar get their revisions in commit order.
+     *
+     * @return number of updated rows (0 if the calendar does not exist)
+     */
+    @Modifying
+    @Query(value = "UPDATE calendars SET sync_revision = sync_revision + 1 WHERE id = :calendarId", nativeQuery = true)
+    int incrementSyncRevision(@Param("calendarId") Long calendarId);
+
+    /**
+     * Committed sync revision of a calendar (or the one bumped by the current transaction), null if not found
+     */
+    @Query(value = "SELECT sync_revision FROM calendars WHERE id = :calendarId", nativeQuery = true)
+    Long findSyncRevision(@Param("calendarId") Long calendarId);
+
+    /**
+     * Sync revisions of several calendars as [calendarId, syncRevision] rows
+     */
+    @Query(value = "SELECT id, sync_revision FROM calendars WHERE id IN :calendarIds", nativeQuery = true)
+    List<Object[]> findSyncRevisions(@Param("calendarIds") List<Long> calendarIds);
+
     /**
      * Find default calendar for a user
      */
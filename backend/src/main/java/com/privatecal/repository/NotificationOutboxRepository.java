@@ -0,0 +1,76 @@
+package com.privatecal.repository;
+
+import com.privatecal.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Lock pending entries due for a delivery attempt, oldest first, at most limit of them
+     * Rows locked by another instance are skipped (FOR UPDATE SKIP LOCKED)
+     */
+    @Query(value = "SELECT * FROM notification_outbox o WHERE o.status = 'PENDING' AND o.next_attempt_at <= :currentTime " +
+           "ORDER BY o.next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> lockDueEntries(@Param("currentTime") Instant currentTime, @Param("limit") int limit);
+
+    /**
+     * Lease entries for a delivery attempt: not due again before leasedUntil
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.attempts = o.attempts + 1, o.nextAttemptAt = :leasedUntil " +
+           "WHERE o.id IN :ids")
+    void leaseEntries(@Param("ids") List<Long> ids, @Param("leasedUntil") Instant leasedUntil);
+
+    /**
+     * Give a leased entry back without counting the attempt (delivery deferred by the rate limit or
+     * an open circuit): due again at nextAttemptAt
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.attempts = o.attempts - 1, o.nextAttemptAt = :nextAttemptAt " +
+           "WHERE o.id = :id")
+    void deferEntry(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    /**
+     * Mark an entry as delivered
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = 'SENT', o.sentAt = :sentAt, o.lastError = NULL WHERE o.id = :id")
+    void markSent(@Param("id") Long id, @Param("sentAt") Instant sentAt);
+
+    /**
+     * Record a failed attempt: retried at nextAttemptAt (PENDING) or given up (DEAD)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.status = :status, o.nextAttemptAt = :nextAttemptAt, " +
+           "o.lastError = :lastError WHERE o.id = :id")
+    void markFailed(@Param("id") Long id,
+                    @Param("status") NotificationOutbox.Status status,
+                    @Param("nextAttemptAt") Instant nextAttemptAt,
+                    @Param("lastError") String lastError);
+
+    /**
+     * Count entries by status (metrics)
+     */
+    long countByStatus(NotificationOutbox.Status status);
+
+    /**
+     * Delete sent and dead entries created before a date (cleanup)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationOutbox o WHERE o.status <> 'PENDING' AND o.createdAt < :cutoffDate")
+    int deleteFinishedBefore(@Param("cutoffDate") Instant cutoffDate);
+}
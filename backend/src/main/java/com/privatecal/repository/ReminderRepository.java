@@ -3,6 +3,7 @@ package com.privatecal.repository;
 import com.privatecal.dto.NotificationType;
 import com.privatecal.entity.Reminder;
 import com.privatecal.entity.Task;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -53,6 +54,72 @@ public interface ReminderRepository extends JpaRepository<Reminder, Long> {
            "AND (r.lastSentOccurrence IS NOT NULL OR r.task.endDatetime > :currentTime) " +
            "ORDER BY r.reminderTime ASC")
     List<Reminder> findDueReminders(@Param("currentTime") Instant currentTime);
+
+    /**
+     * Lock the given reminders that are due (same conditions as findDueReminders) and not claimed by
+     * an unexpired lease, at most limit of them
+     * Rows locked by another instance are skipped (FOR UPDATE SKIP LOCKED). Native query: the JPQL
+     * lock would also lock the joined tasks, and the task condition is a subquery for the same reason.
+     */
+    @Query(value = "SELECT r.id FROM reminders r WHERE r.id IN (:reminderIds) AND r.reminder_time <= :currentTime " +
+           "AND r.is_sent = false AND (r.last_sent_occurrence IS NOT NULL OR EXISTS " +
+           "(SELECT 1 FROM tasks t WHERE t.uid = r.task_uid AND t.end_datetime > :currentTime)) " +
+           "AND (r.claimed_until IS NULL OR r.claimed_until < :currentTime) " +
+           "ORDER BY r.reminder_time LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimableReminders(@Param("reminderIds") List<Long> reminderIds,
+                                      @Param("currentTime") Instant currentTime,
+                                      @Param("limit") int limit);
+
+    /**
+     * Claim reminders for an instance until the end of the lease
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Reminder r SET r.claimedBy = :claimedBy, r.claimedUntil = :claimedUntil WHERE r.id IN :reminderIds")
+    void claimReminders(@Param("reminderIds") List<Long> reminderIds,
+                        @Param("claimedBy") String claimedBy,
+                        @Param("claimedUntil") Instant claimedUntil);
+
+    /**
+     * Find the given unsent reminders still claimed by an instance, with their task and its user
+     */
+    @Query("SELECT r FROM Reminder r JOIN FETCH r.task t JOIN FETCH t.user " +
+           "WHERE r.id IN :reminderIds AND r.claimedBy = :claimedBy AND r.isSent = false " +
+           "ORDER BY r.reminderTime ASC")
+    List<Reminder> findClaimedReminders(@Param("reminderIds") List<Long> reminderIds,
+                                        @Param("claimedBy") String claimedBy);
+
+    /**
+     * Find unsent reminders of recurring tasks without precomputed upcoming occurrences, with their task
+     * Reminders currently claimed are left to the instance sending them.
+     */
+    @Query("SELECT r FROM Reminder r JOIN FETCH r.task t WHERE r.isSent = false AND r.upcomingOccurrences IS NULL " +
+           "AND t.recurrenceRule IS NOT NULL AND t.recurrenceRule <> '' " +
+           "AND (r.claimedUntil IS NULL OR r.claimedUntil < :currentTime) ORDER BY r.reminderTime ASC")
+    List<Reminder> findRemindersWithoutUpcomingOccurrences(@Param("currentTime") Instant currentTime, Pageable pageable);
+
+    /**
+     * Store the upcoming occurrences of a reminder, unless it was moved or given occurrences meanwhile
+     * (a reminder fired concurrently keeps the occurrences matching its new reminder time)
+     *
+     * @return 1 if stored, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Reminder r SET r.upcomingOccurrences = :upcomingOccurrences, r.upcomingFingerprint = :fingerprint " +
+           "WHERE r.id = :reminderId AND r.reminderTime = :reminderTime AND r.upcomingOccurrences IS NULL")
+    int storeUpcomingOccurrences(@Param("reminderId") Long reminderId,
+                                 @Param("reminderTime") Instant reminderTime,
+                                 @Param("upcomingOccurrences") String upcomingOccurrences,
+                                 @Param("fingerprint") Integer fingerprint);
+
+    /**
+     * Find ID and reminder time of the unsent reminders due until a time, including overdue ones
+     * Rows are [reminderId, reminderTime]; reminders of ended non-recurring tasks are excluded
+     */
+    @Query("SELECT r.id, r.reminderTime FROM Reminder r WHERE r.reminderTime <= :until AND r.isSent = false " +
+           "AND (r.lastSentOccurrence IS NOT NULL OR r.task.endDatetime > :currentTime)")
+    List<Object[]> findScheduleUntil(@Param("currentTime") Instant currentTime, @Param("until") Instant until);
     
     /**
      * Find all unsent reminders for a specific user
@@ -91,19 +158,19 @@ public interface ReminderRepository extends JpaRepository<Reminder, Long> {
     List<Reminder> findRemindersInNextMinutes(@Param("now") Instant now, @Param("futureTime") Instant futureTime);
     
     /**
-     * Mark reminder as sent
+     * Mark reminder as sent (and release its claim)
      */
     @Modifying
     @Transactional
-    @Query("UPDATE Reminder r SET r.isSent = true WHERE r.id = :reminderId")
+    @Query("UPDATE Reminder r SET r.isSent = true, r.claimedBy = NULL, r.claimedUntil = NULL WHERE r.id = :reminderId")
     void markReminderAsSent(@Param("reminderId") Long reminderId);
     
     /**
-     * Mark multiple reminders as sent
+     * Mark multiple reminders as sent (and release their claims)
      */
     @Modifying
     @Transactional
-    @Query("UPDATE Reminder r SET r.isSent = true WHERE r.id IN :reminderIds")
+    @Query("UPDATE Reminder r SET r.isSent = true, r.claimedBy = NULL, r.claimedUntil = NULL WHERE r.id IN :reminderIds")
     void markRemindersAsSent(@Param("reminderIds") List<Long> reminderIds);
     
     /**
@@ -172,6 +239,14 @@ public interface ReminderRepository extends JpaRepository<Reminder, Long> {
            "ORDER BY r.reminderTime ASC")
     Optional<Reminder> findNextReminderForTask(@Param("taskUid") String taskUid, @Param("now") Instant now);
     
+    /**
+     * Find calendar ID and UID of the tasks with sent reminders older than specified date
+     * Rows are [calendarId, taskUid]
+     */
+    @Query("SELECT DISTINCT t.calendar.id, t.uid FROM Reminder r JOIN r.task t " +
+           "WHERE r.isSent = true AND r.reminderTime < :cutoffDate")
+    List<Object[]> findTasksWithOldSentReminders(@Param("cutoffDate") Instant cutoffDate);
+
     /**
      * Delete sent reminders older than specified date (cleanup)
      */
@@ -3,13 +3,19 @@ package com.privatecal.repository;
 import com.privatecal.entity.Task;
 import com.privatecal.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, String> {  // Changed from Long to String (UID)
@@ -19,6 +25,20 @@ public interface TaskRepository extends JpaRepository<Task, String> {  // Change
      */
     List<Task> findByUserOrderByStartDatetimeAsc(User user);
 
+    /**
+     * Stream all tasks of a user through a database cursor (streaming ICS export)
+     * Must be consumed inside a transaction and closed
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Task> streamByUserOrderByStartDatetimeAsc(User user);
+
+    /**
+     * Timezones referenced by the timed tasks of a user (VTIMEZONEs of an ICS export)
+     */
+    @Query("SELECT DISTINCT t.taskTimezone FROM Task t WHERE t.user = :user " +
+           "AND t.taskTimezone IS NOT NULL AND (t.isAllDay IS NULL OR t.isAllDay = false)")
+    List<String> findTimezonesByUser(@Param("user") User user);
+
     /**
      * Find all tasks for a specific user by user ID
      */
@@ -36,6 +56,12 @@ public interface TaskRepository extends JpaRepository<Task, String> {  // Change
      */
     Optional<Task> findByUidAndUser_Id(String uid, Long userId);
 
+    /**
+     * Find task by UID with its user (notification delivery, outside of any transaction)
+     */
+    @Query("SELECT t FROM Task t JOIN FETCH t.user WHERE t.uid = :uid")
+    Optional<Task> findWithUserByUid(@Param("uid") String uid);
+
     /**
      * Find tasks within a date range for a user
      * Includes recurring tasks regardless of their original date (they will be expanded later)
@@ -102,6 +128,18 @@ public interface TaskRepository extends JpaRepository<Task, String> {  // Change
      */
     long countByUser_Id(Long userId);
     
+    /**
+     * UIDs of all tasks of a user (e.g. to evict their cached renderings before deleting them)
+     */
+    @Query("SELECT t.uid FROM Task t WHERE t.user = :user")
+    List<String> findUidsByUser(@Param("user") User user);
+
+    /**
+     * UIDs of all tasks of a calendar (e.g. to evict their cached renderings before deleting them)
+     */
+    @Query("SELECT t.uid FROM Task t WHERE t.calendar.id = :calendarId")
+    List<String> findUidsByCalendarId(@Param("calendarId") Long calendarId);
+
     /**
      * Delete all tasks for a user
      */
@@ -163,4 +201,72 @@ public interface TaskRepository extends JpaRepository<Task, String> {  // Change
      * Find all tasks for a specific calendar
      */
     List<Task> findByCalendar_IdOrderByStartDatetimeAsc(Long calendarId);
-}
\ No newline at end of file
+
+    /**
+     * Stream all tasks of a calendar through a database cursor (streaming ICS export)
+     * Must be consumed inside a transaction and closed
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Task> streamByCalendar_IdOrderByStartDatetimeAsc(Long calendarId);
+
+    /**
+     * Timezones referenced by the timed tasks of a calendar (VTIMEZONEs of an ICS export)
+     */
+    @Query("SELECT DISTINCT t.taskTimezone FROM Task t WHERE t.calendar.id = :calendarId " +
+           "AND t.taskTimezone IS NOT NULL AND (t.isAllDay IS NULL OR t.isAllDay = false)")
+    List<String> findTimezonesByCalendarId(@Param("calendarId") Long calendarId);
+
+    /**
+     * Calendar, version, last modification and creation of a task as a [calendarId, version, updatedAt, createdAt] row
+     * Used by CalDAV conditional GET to answer 304 without loading or rendering the task (ETag from version and createdAt)
+     */
+    @Query("SELECT t.calendar.id, t.version, t.updatedAt, t.createdAt FROM Task t WHERE t.uid = :uid")
+    List<Object[]> findVersionInfoByUid(@Param("uid") String uid);
+
+    /**
+     * Increment the version (ETag) of tasks whose rendering changed without an update of the task itself
+     * (e.g. reminders removed by the cleanup)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.version = t.version + 1 WHERE t.uid IN :uids")
+    int incrementVersions(@Param("uids") List<String> uids);
+
+    /**
+     * Find tasks of a calendar by UID (hrefs and ETags only)
+     * Used by CalDAV sync-collection REPORT for changed members
+     */
+    List<Task> findByCalendar_IdAndUidIn(Long calendarId, List<String> uids);
+
+    /**
+     * Find all tasks for a specific calendar with their reminders fetched in the same query
+     * Used by CalDAV responses that render calendar-data (VALARMs) for every task
+     */
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.reminders " +
+           "WHERE t.calendar.id = :calendarId ORDER BY t.startDatetime ASC")
+    List<Task> findWithRemindersByCalendarId(@Param("calendarId") Long calendarId);
+
+    /**
+     * Find tasks of a calendar by UID with their reminders fetched in the same query
+     * Used by CalDAV calendar-multiget REPORT
+     */
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.reminders " +
+           "WHERE t.calendar.id = :calendarId AND t.uid IN :uids")
+    List<Task> findWithRemindersByCalendarIdAndUidIn(@Param("calendarId") Long calendarId,
+                                                     @Param("uids") List<String> uids);
+
+    /**
+     * Find candidate tasks of a calendar for a time range with their reminders fetched in the same query
+     * Used by CalDAV calendar-query REPORT with time-range filter: non-recurring tasks must overlap the range,
+     * recurring tasks only need to start before its end and not to finish before its start
+     * (actual occurrences are checked by RecurrenceService)
+     */
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.reminders " +
+           "WHERE t.calendar.id = :calendarId AND t.startDatetime < :rangeEnd AND " +
+           "((t.recurrenceRule IS NULL AND (t.endDatetime > :rangeStart OR t.startDatetime >= :rangeStart)) OR " +
+           "(t.recurrenceRule IS NOT NULL AND (t.recurrenceEnd IS NULL OR t.recurrenceEnd >= :rangeStart))) " +
+           "ORDER BY t.startDatetime ASC")
+    List<Task> findWithRemindersByCalendarIdInTimeRange(@Param("calendarId") Long calendarId,
+                                                        @Param("rangeStart") Instant rangeStart,
+                                                        @Param("rangeEnd") Instant rangeEnd);
+}
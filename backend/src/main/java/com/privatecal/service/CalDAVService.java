@@ -1,6 +1,7 @@
 package com.privatecal.service;
 
-import com.privatecal.dto.DuplicateStrategy;
+import com.privatecal.caldav.IcsComponent;
+import com.privatecal.caldav.IcsTokenizer;
 import com.privatecal.dto.ImportPreviewResponse;
 import com.privatecal.dto.TaskRequest;
 import com.privatecal.entity.Reminder;
@@ -8,16 +9,20 @@ import com.privatecal.entity.Task;
 import com.privatecal.entity.User;
 import com.privatecal.repository.ReminderRepository;
 import com.privatecal.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 import net.fortuna.ical4j.data.CalendarBuilder;
 import net.fortuna.ical4j.data.CalendarOutputter;
 import net.fortuna.ical4j.model.*;
 import net.fortuna.ical4j.model.component.VEvent;
-import net.fortuna.ical4j.model.component.VToDo;
 import net.fortuna.ical4j.model.property.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -25,6 +30,8 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -32,11 +39,16 @@ import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for CalDAV integration: import/export iCalendar (.ics) format
@@ -48,6 +60,16 @@ public class CalDAVService {
 
     private static final Logger logger = LoggerFactory.getLogger(CalDAVService.class);
     private static final String PRODID = "-//FilTer87//P-Cal v1.0.0-rc1//EN";
+    private static final String END_VCALENDAR = "END:VCALENDAR";
+    // Tasks converted per chunk when streaming an export (matches Task.reminders batch size)
+    private static final int EXPORT_CHUNK_SIZE = 100;
+    // Parsed events checked for duplicates per query in import preview
+    private static final int PREVIEW_CHUNK_SIZE = 500;
+    // Minimum components per parallel conversion task (smaller chunks are converted on the calling thread)
+    private static final int MIN_CONVERSION_SLICE = 50;
+    // Bounds used for calendar-query time-ranges without start or end
+    private static final Instant OPEN_RANGE_START = Instant.parse("0001-01-01T00:00:00Z");
+    private static final Instant OPEN_RANGE_END = Instant.parse("9999-12-31T23:59:59Z");
     
     @Autowired
     private TaskRepository taskRepository;
@@ -64,8 +86,25 @@ public class CalDAVService {
     @Autowired
     private com.privatecal.caldav.ICalConverter icalConverter;
 
+    @Autowired
+    private CalendarSyncService calendarSyncService;
+
+    @Autowired
+    private com.privatecal.caldav.IcsFragmentCache icsCache;
+
+    @Autowired
+    @Qualifier("importConversionExecutor")
+    private ThreadPoolTaskExecutor importConversionExecutor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rendered VTIMEZONE by timezone ID
+    private final Map<String, String> vtimezoneCache = new ConcurrentHashMap<>();
+
     /**
      * Export tasks to iCalendar format (.ics)
+     * The whole file is built in memory: use writeUserICS / writeCalendarICS to stream large exports
      *
      * @param tasks List of tasks to export
      * @param calendarName Name of the calendar
@@ -74,13 +113,6 @@ public class CalDAVService {
     public byte[] exportToICS(List<Task> tasks, String calendarName) throws IOException {
         logger.info("Exporting {} tasks to iCalendar format", tasks.size());
 
-        // Create calendar
-        Calendar calendar = new Calendar();
-        calendar.getProperties().add(new ProdId(PRODID));
-        calendar.getProperties().add(Version.VERSION_2_0);
-        calendar.getProperties().add(new XProperty("X-WR-CALNAME", calendarName));
-        calendar.getProperties().add(CalScale.GREGORIAN);
-
         // Collect unique timezones from tasks to add VTIMEZONE components
         // This is CRITICAL for CalDAV clients to interpret TZID references correctly
         java.util.Set<String> timezones = new java.util.HashSet<>();
@@ -90,55 +122,159 @@ public class CalDAVService {
             }
         }
 
-        // Add VTIMEZONE components for all referenced timezones
-        net.fortuna.ical4j.model.TimeZoneRegistry registry =
-            net.fortuna.ical4j.model.TimeZoneRegistryFactory.getInstance().createRegistry();
+        StringWriter out = new StringWriter();
+        writeICS(tasks.stream(), timezones, calendarName, out, false);
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stream all tasks of a user in iCalendar format (.ics) to a writer
+     * Tasks are read through a database cursor, memory usage does not depend on the number of tasks
+     *
+     * @param user Owner of the tasks
+     * @param calendarName Name of the calendar (X-WR-CALNAME)
+     * @param out Destination, flushed but not closed
+     * @return number of exported events
+     */
+    @Transactional(readOnly = true)
+    public int writeUserICS(User user, String calendarName, Writer out) throws IOException {
+        List<String> timezones = taskRepository.findTimezonesByUser(user);
+        try (Stream<Task> tasks = taskRepository.streamByUserOrderByStartDatetimeAsc(user)) {
+            return writeICS(tasks, timezones, calendarName, out, true);
+        }
+    }
+
+    /**
+     * Stream the tasks of a specific calendar in iCalendar format (.ics) to a writer
+     *
+     * @param calendar Calendar entity
+     * @param out Destination, flushed but not closed
+     * @return number of exported events
+     */
+    @Transactional(readOnly = true)
+    public int writeCalendarICS(com.privatecal.entity.Calendar calendar, Writer out) throws IOException {
+        logger.info("Exporting calendar '{}' (id={}) to iCalendar format", calendar.getName(), calendar.getId());
+
+        List<String> timezones = taskRepository.findTimezonesByCalendarId(calendar.getId());
+        try (Stream<Task> tasks = taskRepository.streamByCalendar_IdOrderByStartDatetimeAsc(calendar.getId())) {
+            return writeICS(tasks, timezones, calendar.getName(), out, true);
+        }
+    }
+
+    /**
+     * Write tasks in iCalendar format: header and VTIMEZONEs first, then the VEVENT of each task
+     * taken from its single-event rendering (served from the ICS cache when unchanged).
+     * Tasks that fail to convert are logged and skipped.
+     *
+     * @param detach Detach tasks from the persistence context once written (streamed from the database)
+     * @return number of exported events
+     */
+    private int writeICS(Stream<Task> tasks, java.util.Collection<String> timezones, String calendarName,
+                         Writer out, boolean detach) throws IOException {
+        // Calendar header, rendered by ical4j for escaping and folding of the calendar name
+        Calendar calendar = new Calendar();
+        calendar.getProperties().add(new ProdId(PRODID));
+        calendar.getProperties().add(Version.VERSION_2_0);
+        calendar.getProperties().add(new XProperty("X-WR-CALNAME", calendarName));
+        calendar.getProperties().add(CalScale.GREGORIAN);
+        String header = outputWithoutValidation(calendar);
+        out.write(header, 0, header.lastIndexOf(END_VCALENDAR));
+
         for (String tzId : timezones) {
-            try {
-                net.fortuna.ical4j.model.TimeZone tz = registry.getTimeZone(tzId);
-                if (tz != null) {
-                    calendar.getComponents().add(tz.getVTimeZone());
-                    logger.debug("Added VTIMEZONE for {}", tzId);
-                } else {
-                    logger.warn("Timezone not found in registry: {}", tzId);
-                }
-            } catch (Exception e) {
-                logger.warn("Error adding VTIMEZONE for {}: {}", tzId, e.getMessage());
+            String vtimezone = renderVTimeZone(tzId);
+            if (vtimezone != null) {
+                out.write(vtimezone);
             }
         }
 
-        // Add tasks as VEVENTs
         int successCount = 0;
         int failedCount = 0;
-        for (Task task : tasks) {
-            try {
-                logger.debug("Converting task {} to VEVENT: {}", task.getUid(), task.getTitle());
-                VEvent event = taskToVEvent(task);
-                calendar.getComponents().add(event);
+        List<Task> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        java.util.Iterator<Task> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            // Tasks are converted in chunks, so reminders are loaded with one query per chunk (@BatchSize)
+            chunk.add(iterator.next());
+            if (chunk.size() < EXPORT_CHUNK_SIZE && iterator.hasNext()) {
+                continue;
+            }
+
+            for (Task task : chunk) {
+                String event;
+                try {
+                    logger.debug("Converting task {} to VEVENT: {}", task.getUid(), task.getTitle());
+                    event = extractComponent(exportTaskAsICS(task), "VEVENT");
+                } catch (Exception e) {
+                    failedCount++;
+                    logger.error("Error converting task {} ('{}') to VEVENT: {}",
+                        task.getUid(), task.getTitle(), e.getMessage(), e);
+                    continue;
+                }
+                out.write(event);
                 successCount++;
-                logger.debug("Successfully added task {} to calendar", task.getUid());
-            } catch (Exception e) {
-                failedCount++;
-                logger.error("Error converting task {} ('{}') to VEVENT: {}",
-                    task.getUid(), task.getTitle(), e.getMessage(), e);
             }
+            if (detach && entityManager != null) {
+                chunk.forEach(entityManager::detach);
+            }
+            chunk.clear();
         }
-        logger.info("Export conversion summary: {} succeeded, {} failed out of {} total tasks",
-            successCount, failedCount, tasks.size());
+        logger.info("Export conversion summary: {} succeeded, {} failed", successCount, failedCount);
 
-        // Output to byte array
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        CalendarOutputter outputter = new CalendarOutputter();
+        out.write(END_VCALENDAR);
+        out.write("\r\n");
+        out.flush();
+        logger.info("Successfully exported {} events to ICS", successCount);
+        return successCount;
+    }
+
+    /**
+     * Rendered VTIMEZONE component of a timezone, cached as timezone definitions do not change at runtime
+     *
+     * @return VTIMEZONE text, or null if the timezone is unknown
+     */
+    private String renderVTimeZone(String tzId) {
+        return vtimezoneCache.computeIfAbsent(tzId, id -> {
+            try {
+                net.fortuna.ical4j.model.TimeZoneRegistry registry =
+                    net.fortuna.ical4j.model.TimeZoneRegistryFactory.getInstance().createRegistry();
+                net.fortuna.ical4j.model.TimeZone tz = registry.getTimeZone(id);
+                if (tz == null) {
+                    logger.warn("Timezone not found in registry: {}", id);
+                    return null;
+                }
+                Calendar wrapper = new Calendar();
+                wrapper.getComponents().add(tz.getVTimeZone());
+                logger.debug("Rendered VTIMEZONE for {}", id);
+                return extractComponent(outputWithoutValidation(wrapper), "VTIMEZONE");
+            } catch (Exception e) {
+                logger.warn("Error adding VTIMEZONE for {}: {}", id, e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    private String outputWithoutValidation(Calendar calendar) throws IOException {
         try {
-            outputter.output(calendar, out);
-            logger.info("Successfully exported {} events to ICS", calendar.getComponents().size());
-            return out.toByteArray();
+            StringWriter writer = new StringWriter();
+            new CalendarOutputter(false).output(calendar, writer);
+            return writer.toString();
         } catch (Exception e) {
             logger.error("Error outputting calendar: {}", e.getMessage(), e);
             throw new IOException("Failed to export calendar", e);
         }
     }
 
+    /**
+     * Extract the components of a type (with their subcomponents, e.g. VALARMs) from a rendered VCALENDAR
+     */
+    private String extractComponent(String ics, String name) throws IOException {
+        int start = ics.indexOf("BEGIN:" + name);
+        int end = ics.lastIndexOf("END:" + name);
+        if (start < 0 || end < start) {
+            throw new IOException("Rendered calendar has no " + name);
+        }
+        return ics.substring(start, end + ("END:" + name).length()) + "\r\n";
+    }
+
     /**
      * Convert Task entity to iCalendar VEVENT
      */
@@ -159,28 +295,14 @@ public class CalDAVService {
         List<TaskRequest> taskRequests = new ArrayList<>();
 
         try {
-            CalendarBuilder builder = new CalendarBuilder();
-            Calendar calendar = builder.build(inputStream);
-
-            // Process VEVENTs
-            calendar.getComponents(Component.VEVENT).forEach(component -> {
-                try {
-                    VEvent event = (VEvent) component;
-                    TaskRequest taskRequest = veventToTaskRequest(event);
-                    taskRequests.add(taskRequest);
-                } catch (Exception e) {
-                    logger.error("Error converting VEVENT to TaskRequest: {}", e.getMessage(), e);
-                }
-            });
-
-            // Process VTODOs
-            calendar.getComponents(Component.VTODO).forEach(component -> {
+            IcsTokenizer.parse(inputStream, component -> {
                 try {
-                    VToDo todo = (VToDo) component;
-                    TaskRequest taskRequest = vtodoToTaskRequest(todo);
-                    taskRequests.add(taskRequest);
+                    TaskRequest taskRequest = componentToTaskRequest(component);
+                    if (taskRequest != null) {
+                        taskRequests.add(taskRequest);
+                    }
                 } catch (Exception e) {
-                    logger.error("Error converting VTODO to TaskRequest: {}", e.getMessage(), e);
+                    logger.error("Error converting {} to TaskRequest: {}", component.getName(), e.getMessage(), e);
                 }
             });
 
@@ -194,19 +316,69 @@ public class CalDAVService {
     }
 
     /**
-     * Convert VEVENT to TaskRequest
+     * Convert a VEVENT or VTODO read by IcsTokenizer to TaskRequest
+     *
+     * @return TaskRequest, or null for other components
      */
-    private TaskRequest veventToTaskRequest(VEvent event) {
-        return icalConverter.veventToTaskRequest(event);
+    public TaskRequest componentToTaskRequest(IcsComponent component) {
+        return icalConverter.toTaskRequest(component);
+    }
+
+    /**
+     * Convert components read by IcsTokenizer to TaskRequest, in parallel on the import conversion pool
+     * Conversion is CPU-bound and independent per component: the list is split in contiguous slices,
+     * the calling thread converts the first one. Results keep the input order (errors are reported in file order).
+     *
+     * @return One result per component: TaskRequest (null for other components) or conversion error
+     */
+    public List<ComponentConversion> convertComponents(List<IcsComponent> components) {
+        ComponentConversion[] results = new ComponentConversion[components.size()];
+        int slices = importConversionExecutor == null ? 1
+            : Math.min(importConversionExecutor.getMaxPoolSize(),
+                (components.size() + MIN_CONVERSION_SLICE - 1) / MIN_CONVERSION_SLICE);
+        if (slices <= 1) {
+            convertSlice(components, results, 0, components.size());
+            return Arrays.asList(results);
+        }
+
+        int sliceSize = (components.size() + slices - 1) / slices;
+        List<Future<?>> futures = new ArrayList<>(slices - 1);
+        for (int start = sliceSize; start < components.size(); start += sliceSize) {
+            int from = start;
+            int to = Math.min(start + sliceSize, components.size());
+            futures.add(importConversionExecutor.submit(() -> convertSlice(components, results, from, to)));
+        }
+        convertSlice(components, results, 0, sliceSize);
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while converting calendar components", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to convert calendar components", e.getCause());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void convertSlice(List<IcsComponent> components, ComponentConversion[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            IcsComponent component = components.get(i);
+            try {
+                results[i] = new ComponentConversion(component.getName(), componentToTaskRequest(component), null);
+            } catch (Exception e) {
+                results[i] = new ComponentConversion(component.getName(), null, e);
+            }
+        }
     }
 
     /**
-     * Convert VTODO to TaskRequest with hybrid logic:
-     * - If DUE has time component → 30-minute timed task
-     * - If DUE is date-only or absent → all-day task
+     * Convert VEVENT to TaskRequest
      */
-    private TaskRequest vtodoToTaskRequest(VToDo todo) {
-        return icalConverter.vtodoToTaskRequest(todo);
+    private TaskRequest veventToTaskRequest(VEvent event) {
+        return icalConverter.veventToTaskRequest(event);
     }
 
     /**
@@ -229,97 +401,29 @@ public class CalDAVService {
 
         ImportPreviewResponse response = new ImportPreviewResponse();
         List<ImportPreviewResponse.DuplicateEventInfo> duplicates = new ArrayList<>();
+        int[] counts = new int[3]; // new, duplicate, error
 
         try (InputStream inputStream = file.getInputStream()) {
-            CalendarBuilder builder = new CalendarBuilder();
-            Calendar calendar = builder.build(inputStream);
-
-            // Parse all events/todos
-            List<TaskRequest> parsedRequests = new ArrayList<>();
-            List<String> parseErrors = new ArrayList<>();
-
-            // Process VEVENTs
-            calendar.getComponents(Component.VEVENT).forEach(component -> {
-                try {
-                    VEvent event = (VEvent) component;
-                    TaskRequest taskRequest = veventToTaskRequest(event);
-                    parsedRequests.add(taskRequest);
-                } catch (Exception e) {
-                    parseErrors.add("VEVENT: " + e.getMessage());
-                    logger.warn("Failed to parse VEVENT: {}", e.getMessage());
-                }
-            });
-
-            // Process VTODOs
-            calendar.getComponents(Component.VTODO).forEach(component -> {
-                try {
-                    VToDo todo = (VToDo) component;
-                    TaskRequest taskRequest = vtodoToTaskRequest(todo);
-                    parsedRequests.add(taskRequest);
-                } catch (Exception e) {
-                    parseErrors.add("VTODO: " + e.getMessage());
-                    logger.warn("Failed to parse VTODO: {}", e.getMessage());
+            // Events are read incrementally, converted in parallel and checked for duplicates
+            // in chunks (one query per chunk)
+            List<IcsComponent> chunk = new ArrayList<>(PREVIEW_CHUNK_SIZE);
+            IcsTokenizer.parse(inputStream, component -> {
+                chunk.add(component);
+                if (chunk.size() == PREVIEW_CHUNK_SIZE) {
+                    analyzeComponents(chunk, user, duplicates, counts);
+                    chunk.clear();
                 }
             });
+            analyzeComponents(chunk, user, duplicates, counts);
 
-            response.setTotalEvents(parsedRequests.size() + parseErrors.size());
-            response.setErrorEvents(parseErrors.size());
-
-            // Check for duplicates using UID
-            List<String> uids = parsedRequests.stream()
-                .map(TaskRequest::getUid)
-                .filter(uid -> uid != null && !uid.isEmpty())
-                .collect(Collectors.toList());
-
-            // Batch query to find existing tasks by UID
-            Map<String, Task> existingTasksByUid = new HashMap<>();
-            if (!uids.isEmpty()) {
-                List<Task> existingTasks = taskRepository.findByUserAndUidIn(user, uids);
-                existingTasksByUid = existingTasks.stream()
-                    .collect(Collectors.toMap(Task::getUid, task -> task));
-            }
-
-            // Categorize events as new or duplicate
-            int newCount = 0;
-            int duplicateCount = 0;
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
-                .withZone(ZoneOffset.UTC);
-
-            for (TaskRequest taskRequest : parsedRequests) {
-                String uid = taskRequest.getUid();
-                if (uid != null && existingTasksByUid.containsKey(uid)) {
-                    // Duplicate found
-                    duplicateCount++;
-                    Task existingTask = existingTasksByUid.get(uid);
-
-                    // Check if content changed
-                    boolean contentChanged = hasContentChanged(existingTask, taskRequest);
-
-                    ImportPreviewResponse.DuplicateEventInfo dupInfo =
-                        new ImportPreviewResponse.DuplicateEventInfo();
-                    dupInfo.setUid(uid);
-                    dupInfo.setTitle(taskRequest.getTitle());
-                    dupInfo.setExistingDate(dateFormatter.format(existingTask.getStartDatetimeAsInstant()));
-                    // Convert TaskRequest local time to Instant for display
-                    Instant newStartInstant = taskRequest.getStartDatetimeLocal()
-                        .atZone(java.time.ZoneId.of(taskRequest.getTimezone()))
-                        .toInstant();
-                    dupInfo.setNewDate(dateFormatter.format(newStartInstant));
-                    dupInfo.setContentChanged(contentChanged);
-
-                    duplicates.add(dupInfo);
-                } else {
-                    // New event
-                    newCount++;
-                }
-            }
-
-            response.setNewEvents(newCount);
-            response.setDuplicateEvents(duplicateCount);
+            response.setTotalEvents(counts[0] + counts[1] + counts[2]);
+            response.setErrorEvents(counts[2]);
+            response.setNewEvents(counts[0]);
+            response.setDuplicateEvents(counts[1]);
             response.setDuplicates(duplicates);
 
             logger.info("Analysis complete: {} total, {} new, {} duplicates, {} errors",
-                response.getTotalEvents(), newCount, duplicateCount, parseErrors.size());
+                response.getTotalEvents(), counts[0], counts[1], counts[2]);
 
             return response;
         } catch (Exception e) {
@@ -329,98 +433,71 @@ public class CalDAVService {
     }
 
     /**
-     * Import ICS file with duplicate handling strategy
-     *
-     * @param file ICS file to import
-     * @param user User to import for
-     * @param strategy How to handle duplicates
-     * @return List of imported task requests
+     * Convert a chunk of components and categorize the events
      */
-    public List<TaskRequest> importWithDuplicateHandling(
-            MultipartFile file,
-            User user,
-            DuplicateStrategy strategy) throws IOException {
-
-        logger.info("Importing ICS file with strategy {} for user: {}", strategy, user.getUsername());
-
-        try (InputStream inputStream = file.getInputStream()) {
-            CalendarBuilder builder = new CalendarBuilder();
-            Calendar calendar = builder.build(inputStream);
-
-            List<TaskRequest> parsedRequests = new ArrayList<>();
-
-            // Process VEVENTs
-            calendar.getComponents(Component.VEVENT).forEach(component -> {
-                try {
-                    VEvent event = (VEvent) component;
-                    TaskRequest taskRequest = veventToTaskRequest(event);
-                    parsedRequests.add(taskRequest);
-                } catch (Exception e) {
-                    logger.warn("Failed to parse VEVENT: {}", e.getMessage());
-                }
-            });
-
-            // Process VTODOs
-            calendar.getComponents(Component.VTODO).forEach(component -> {
-                try {
-                    VToDo todo = (VToDo) component;
-                    TaskRequest taskRequest = vtodoToTaskRequest(todo);
-                    parsedRequests.add(taskRequest);
-                } catch (Exception e) {
-                    logger.warn("Failed to parse VTODO: {}", e.getMessage());
-                }
-            });
-
-            // Apply duplicate strategy
-            List<TaskRequest> resultRequests = new ArrayList<>();
-
-            for (TaskRequest taskRequest : parsedRequests) {
-                String uid = taskRequest.getUid();
-                if (uid == null || uid.isEmpty()) {
-                    // No UID, always import
-                    resultRequests.add(taskRequest);
-                    continue;
-                }
-
-                Optional<Task> existingTask = taskRepository.findByUserAndUid(user, uid);
-
-                if (existingTask.isPresent()) {
-                    // Duplicate found - apply strategy
-                    switch (strategy) {
-                        case SKIP:
-                            logger.debug("Skipping duplicate: {}", uid);
-                            // Don't add to result
-                            break;
-
-                        case UPDATE:
-                            logger.debug("Updating existing task: {}", uid);
-                            // Keep the existing task ID to trigger update
-                            taskRequest.setId(existingTask.get().getUid());
-                            resultRequests.add(taskRequest);
-                            break;
-
-                        case CREATE_ANYWAY:
-                            logger.debug("Creating duplicate anyway: {}", uid);
-                            // Generate new UID to avoid constraint violation
-                            String newUid = "privatecal-dup-" + System.currentTimeMillis() + "-" +
-                                Math.abs(uid.hashCode());
-                            taskRequest.setUid(newUid);
-                            resultRequests.add(taskRequest);
-                            break;
-                    }
-                } else {
-                    // New event, always import
-                    resultRequests.add(taskRequest);
-                }
+    private void analyzeComponents(List<IcsComponent> components, User user,
+                                   List<ImportPreviewResponse.DuplicateEventInfo> duplicates, int[] counts) {
+        List<TaskRequest> parsedRequests = new ArrayList<>(components.size());
+        for (ComponentConversion conversion : convertComponents(components)) {
+            if (conversion.getError() != null) {
+                counts[2]++;
+                logger.warn("Failed to parse {}: {}", conversion.getComponentName(), conversion.getError().getMessage());
+            } else if (conversion.getTaskRequest() != null) {
+                parsedRequests.add(conversion.getTaskRequest());
             }
+        }
+        analyzeChunk(parsedRequests, user, duplicates, counts);
+    }
 
-            logger.info("Import complete: {} tasks to be imported (strategy: {})",
-                resultRequests.size(), strategy);
+    /**
+     * Categorize parsed events as new or duplicate (same UID as an existing task of the user)
+     */
+    private void analyzeChunk(List<TaskRequest> parsedRequests, User user,
+                              List<ImportPreviewResponse.DuplicateEventInfo> duplicates, int[] counts) {
+        // Check for duplicates using UID
+        List<String> uids = parsedRequests.stream()
+            .map(TaskRequest::getUid)
+            .filter(uid -> uid != null && !uid.isEmpty())
+            .collect(Collectors.toList());
+
+        // Batch query to find existing tasks by UID
+        Map<String, Task> existingTasksByUid = new HashMap<>();
+        if (!uids.isEmpty()) {
+            List<Task> existingTasks = taskRepository.findByUserAndUidIn(user, uids);
+            existingTasksByUid = existingTasks.stream()
+                .collect(Collectors.toMap(Task::getUid, task -> task));
+        }
 
-            return resultRequests;
-        } catch (Exception e) {
-            logger.error("Error importing ICS file: {}", e.getMessage(), e);
-            throw new IOException("Failed to import ICS file", e);
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+            .withZone(ZoneOffset.UTC);
+
+        for (TaskRequest taskRequest : parsedRequests) {
+            String uid = taskRequest.getUid();
+            if (uid != null && existingTasksByUid.containsKey(uid)) {
+                // Duplicate found
+                counts[1]++;
+                Task existingTask = existingTasksByUid.get(uid);
+
+                // Check if content changed
+                boolean contentChanged = hasContentChanged(existingTask, taskRequest);
+
+                ImportPreviewResponse.DuplicateEventInfo dupInfo =
+                    new ImportPreviewResponse.DuplicateEventInfo();
+                dupInfo.setUid(uid);
+                dupInfo.setTitle(taskRequest.getTitle());
+                dupInfo.setExistingDate(dateFormatter.format(existingTask.getStartDatetimeAsInstant()));
+                // Convert TaskRequest local time to Instant for display
+                Instant newStartInstant = taskRequest.getStartDatetimeLocal()
+                    .atZone(java.time.ZoneId.of(taskRequest.getTimezone()))
+                    .toInstant();
+                dupInfo.setNewDate(dateFormatter.format(newStartInstant));
+                dupInfo.setContentChanged(contentChanged);
+
+                duplicates.add(dupInfo);
+            } else {
+                // New event
+                counts[0]++;
+            }
         }
     }
 
@@ -448,20 +525,6 @@ public class CalDAVService {
         return a.equals(b);
     }
 
-    /**
-     * Export tasks from a specific calendar to iCalendar format
-     * Used by CalDAV server to export calendar-specific events
-     *
-     * @param calendar Calendar entity
-     * @return iCalendar data as byte array
-     */
-    public byte[] exportCalendarToICS(com.privatecal.entity.Calendar calendar) throws IOException {
-        logger.info("Exporting calendar '{}' (id={}) to iCalendar format", calendar.getName(), calendar.getId());
-
-        List<Task> tasks = taskRepository.findByCalendar_IdOrderByStartDatetimeAsc(calendar.getId());
-        return exportToICS(tasks, calendar.getName());
-    }
-
     /**
      * Export task as ICS by UID (CalDAV compliant)
      * @param taskUid Task UID (primary key)
@@ -472,6 +535,25 @@ public class CalDAVService {
         Task task = taskRepository.findById(taskUid)
                 .orElseThrow(() -> new RuntimeException("Task not found: " + taskUid));
 
+        return exportTaskAsICS(task);
+    }
+
+    /**
+     * Export an already loaded task as ICS (no repository access)
+     * Reminders must be initialized (e.g. fetched with the task) when called outside a transaction
+     *
+     * @param task Task entity
+     * @return ICS formatted string
+     */
+    public String exportTaskAsICS(Task task) throws IOException {
+        // Rendering only depends on the task version and its reminders, so unchanged tasks are served from cache
+        if (icsCache != null) {
+            String cached = icsCache.get(task);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         // Create calendar wrapper for single event
         net.fortuna.ical4j.model.Calendar calendar = new net.fortuna.ical4j.model.Calendar();
         calendar.getProperties().add(new ProdId(PRODID));
@@ -503,23 +585,48 @@ public class CalDAVService {
         CalendarOutputter outputter = new CalendarOutputter();
         outputter.output(calendar, out);
 
-        return out.toString("UTF-8");
+        String ics = out.toString("UTF-8");
+        if (icsCache != null) {
+            icsCache.put(task, ics);
+        }
+        return ics;
     }
 
     /**
      * Get ETag for a task (for CalDAV conflict detection)
-     * ETag is based on task's updatedAt timestamp
+     * ETag is the task's creation time and optimistic locking version (Task.getStateTag), so a UID
+     * deleted and created again never gets an ETag of the previous resource
      *
      * @param taskUid Task UID (primary key)
-     * @return ETag value (timestamp in millis)
+     * @return ETag value
      */
     @Transactional(readOnly = true)
     public String getTaskETag(String taskUid) {
         Task task = taskRepository.findById(taskUid)
                 .orElseThrow(() -> new RuntimeException("Task not found: " + taskUid));
 
-        Instant updated = task.getUpdatedAt() != null ? task.getUpdatedAt() : task.getCreatedAt();
-        return String.valueOf(updated.toEpochMilli());
+        return getTaskETag(task);
+    }
+
+    /**
+     * Get ETag for an already loaded task (no repository access)
+     *
+     * @param task Task entity
+     * @return ETag value
+     */
+    public String getTaskETag(Task task) {
+        return task.getStateTag();
+    }
+
+    /**
+     * ETag of a task read without loading it (e.g. TaskRepository.findVersionInfoByUid)
+     *
+     * @param createdAt Task creation time
+     * @param version Task version, null for a task not yet versioned
+     * @return ETag value
+     */
+    public String toETag(Instant createdAt, Long version) {
+        return Task.stateTag(createdAt, version);
     }
 
     /**
@@ -535,10 +642,11 @@ public class CalDAVService {
      * @param targetCalendar Target calendar
      * @param currentUser Current authenticated user
      * @param eventUid Event UID from URL (primary key, CalDAV resource identifier)
-     * @param expectedETag Expected ETag for conflict detection (optional, can be null)
+     * @param expectedETag Expected ETag (If-Match) for conflict detection (optional, can be null)
      * @return Created or updated Task
      * @throws IOException if parsing fails
-     * @throws RuntimeException if ETag mismatch (conflict)
+     * @throws OptimisticLockingFailureException if ETag mismatch (conflict), either detected on the
+     *         loaded task or by the version-guarded UPDATE when a concurrent edit won the race
      */
     @Transactional
     public Task importSingleEventFromICS(String icsContent, com.privatecal.entity.Calendar targetCalendar, User currentUser, String eventUid, String expectedETag) throws IOException {
@@ -546,6 +654,26 @@ public class CalDAVService {
             // Log ICS content for debugging
             logger.debug("CalDAV PUT received ICS content:\n{}", icsContent);
 
+            // CalDAV RFC 4791 compliant: URL UID is the primary key
+            // This ensures stable URLs - the URL UID IS the database UID
+            // Preconditions (If-Match) are evaluated before parsing the body
+            Optional<Task> existingTask = taskRepository.findById(eventUid);
+
+            if (existingTask.isPresent()) {
+                // If-Match: compared with the version of the task loaded for the update (the only read of it),
+                // and the UPDATE below is guarded by the same version. Not a bulk "WHERE version = ?" UPDATE:
+                // it would bypass the Task @PreUpdate validation and the managed entity needed for reminders,
+                // overrides and the sync journal.
+                String currentETag = getTaskETag(existingTask.get());
+                if (expectedETag != null && !expectedETag.equals(currentETag)) {
+                    throw new OptimisticLockingFailureException("ETag mismatch: expected '" + expectedETag +
+                        "' but current is '" + currentETag + "'");
+                }
+            } else if (expectedETag != null) {
+                // If-Match on a missing resource can never succeed (RFC 7232)
+                throw new OptimisticLockingFailureException("ETag mismatch: resource " + eventUid + " does not exist");
+            }
+
             // Parse ICS content
             CalendarBuilder builder = new CalendarBuilder();
             net.fortuna.ical4j.model.Calendar icalCalendar = builder.build(
@@ -588,12 +716,6 @@ public class CalDAVService {
             TaskRequest taskRequest = veventToTaskRequest(masterEvent);
             String uidFromICS = taskRequest.getUid();
 
-            // CalDAV RFC 4791 compliant: URL UID is the primary key
-            // This ensures stable URLs - the URL UID IS the database UID
-            // Priority: Use eventUid from URL as the definitive identifier
-
-            Optional<Task> existingTask = taskRepository.findById(eventUid);
-
             Task task;
 
             if (existingTask.isPresent()) {
@@ -621,6 +743,8 @@ public class CalDAVService {
             // Verify/update calendar
             if (!task.getCalendar().getId().equals(targetCalendar.getId())) {
                 logger.warn("Task {} exists in different calendar, moving to {}", eventUid, targetCalendar.getSlug());
+                // Leaves a tombstone in the old calendar for sync-collection clients
+                calendarSyncService.recordDeletion(task.getCalendar().getId(), eventUid);
                 task.setCalendar(targetCalendar);
             }
 
@@ -639,7 +763,9 @@ public class CalDAVService {
 
             logger.debug("CalDAV PUT: Saving recurrenceExceptions = '{}'", taskRequest.getRecurrenceExceptions());
 
-            Task savedTask = taskRepository.save(task);
+            // Flush now: the version-guarded UPDATE fails fast if a concurrent edit changed the task
+            Task savedTask = taskRepository.saveAndFlush(task);
+            calendarSyncService.recordChange(savedTask);
 
             // Sync reminders from ICS (if present in TaskRequest)
             if (taskRequest.getReminders() != null) {
@@ -650,6 +776,7 @@ public class CalDAVService {
                 if (!existingReminders.isEmpty()) {
                     reminderRepository.deleteAll(existingReminders);
                     reminderRepository.flush(); // Force immediate execution
+                    reminderService.recordRemindersChanged(savedTask);
                 }
 
                 // Add new reminders from VALARM
@@ -678,15 +805,63 @@ public class CalDAVService {
                 }
             }
 
+            // Flush pending override changes so the returned version is the final ETag
+            taskRepository.flush();
+
             logger.info("CalDAV PUT successful: task {} (UID: {})", savedTask.getTitle(), savedTask.getUid());
             return savedTask;
 
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("CalDAV PUT conflict for task {}: {}", eventUid, e.getMessage());
+            throw e;
         } catch (Exception e) {
             logger.error("Error importing single event from ICS: {}", e.getMessage(), e);
             throw new IOException("Failed to import event", e);
         }
     }
 
+    /**
+     * Find tasks of a calendar matching a calendar-query time-range filter (RFC 4791 section 9.9)
+     * The range is pushed into the query, then recurring candidates are kept only if one of their
+     * occurrences overlaps the range. Reminders are fetched for calendar-data rendering.
+     *
+     * @param calendarId Calendar ID
+     * @param rangeStart Start of the range (inclusive), null for open start
+     * @param rangeEnd End of the range (exclusive), null for open end
+     * @return Tasks with at least one occurrence in the range
+     */
+    @Transactional(readOnly = true)
+    public List<Task> findTasksInTimeRange(Long calendarId, Instant rangeStart, Instant rangeEnd) {
+        Instant start = rangeStart != null ? rangeStart : OPEN_RANGE_START;
+        Instant end = rangeEnd != null ? rangeEnd : OPEN_RANGE_END;
+
+        List<Task> candidates = taskRepository.findWithRemindersByCalendarIdInTimeRange(calendarId, start, end);
+
+        List<Task> tasks = candidates.stream()
+            .filter(task -> !task.isRecurring() || recurrenceService.hasOccurrenceInRange(task, start, end))
+            .collect(Collectors.toList());
+
+        logger.debug("CalDAV time-range {} - {}: {} candidate(s), {} task(s) in range",
+                    start, end, candidates.size(), tasks.size());
+        return tasks;
+    }
+
+    /**
+     * Delete a task through CalDAV (DELETE on the event resource)
+     * The deletion is recorded as tombstone for sync-collection clients
+     *
+     * @param task Task to delete (already checked against the request calendar)
+     */
+    @Transactional
+    public void deleteTask(Task task) {
+        taskRepository.delete(task);
+        calendarSyncService.recordDeletion(task);
+        if (icsCache != null) {
+            icsCache.evict(task.getUid());
+        }
+        logger.info("CalDAV DELETE: task {} deleted", task.getUid());
+    }
+
     /**
      * Process override event (VEVENT with RECURRENCE-ID) from CalDAV PUT.
      * This represents a modified single occurrence of a recurring event.
@@ -768,6 +943,7 @@ public class CalDAVService {
         overrideTask.setUpdatedAt(Instant.now());
 
         taskRepository.save(overrideTask);
+        calendarSyncService.recordChange(overrideTask);
 
         logger.info("CalDAV PUT: Saved override task {} for occurrence {}",
                    overrideTask.getUid(), occurrenceLocalDateTime);
@@ -785,4 +961,23 @@ public class CalDAVService {
         logger.info("CalDAV PUT: Added EXDATE {} to master task {} for override occurrence",
                    occurrenceLocalDateTime, masterTask.getUid());
     }
+
+    /**
+     * Result of the conversion of one component: TaskRequest or error
+     */
+    public static class ComponentConversion {
+        private final String componentName;
+        private final TaskRequest taskRequest;
+        private final Exception error;
+
+        public ComponentConversion(String componentName, TaskRequest taskRequest, Exception error) {
+            this.componentName = componentName;
+            this.taskRequest = taskRequest;
+            this.error = error;
+        }
+
+        public String getComponentName() { return componentName; }
+        public TaskRequest getTaskRequest() { return taskRequest; }
+        public Exception getError() { return error; }
+    }
 }
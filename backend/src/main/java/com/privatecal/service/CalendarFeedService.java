@@ -0,0 +1,193 @@
+package com.privatecal.service;
+
+import com.privatecal.entity.Calendar;
+import com.privatecal.entity.User;
+import com.privatecal.repository.CalendarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Public read-only subscription feeds of calendars (webcal)
+ *
+ * A calendar can be shared through a secret URL, /api/public/feed/{token}.ics, which needs neither
+ * Basic auth nor JWT: the token is the credential. Regenerating the token revokes the previous URL.
+ * The feed content is the calendar snapshot (CalendarSnapshotService), so a poll costs a token lookup
+ * and a file send.
+ *
+ * Requests are rate limited per token with a token bucket (app.caldav.feed.requests-per-minute,
+ * bursts up to app.caldav.feed.burst), so a misbehaving client cannot monopolize the server.
+ * Buckets are created only for tokens of shared calendars: requests with unknown tokens (guesses,
+ * revoked URLs) all share one bucket, so they can neither grow the map nor get a fresh burst each.
+ */
+@Service
+public class CalendarFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarFeedService.class);
+
+    // 32 random bytes, URL-safe Base64 without padding (43 characters)
+    private static final int TOKEN_BYTES = 32;
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("^[A-Za-z0-9_-]{43}$");
+
+    private final CalendarRepository calendarRepository;
+    private final UserService userService;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final Map<String, RateLimit> rateLimits = new ConcurrentHashMap<>();
+    private volatile RateLimit unknownTokenRateLimit;
+
+    @Value("${app.caldav.feed.requests-per-minute:30}")
+    private double requestsPerMinute;
+
+    @Value("${app.caldav.feed.burst:10}")
+    private int burst;
+
+    public CalendarFeedService(CalendarRepository calendarRepository, UserService userService) {
+        this.calendarRepository = calendarRepository;
+        this.userService = userService;
+    }
+
+    /**
+     * Get the feed token of a calendar of the current user
+     *
+     * @return the token, or null if the calendar is not shared
+     */
+    @Transactional(readOnly = true)
+    public String getFeedToken(Long calendarId) {
+        return getOwnCalendar(calendarId).getFeedToken();
+    }
+
+    /**
+     * Share a calendar of the current user with a new feed token (the previous one is revoked)
+     *
+     * @return the new token
+     */
+    @Transactional
+    public String regenerateFeedToken(Long calendarId) {
+        Calendar calendar = getOwnCalendar(calendarId);
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        if (calendar.getFeedToken() != null) {
+            rateLimits.remove(calendar.getFeedToken());
+        }
+        calendar.setFeedToken(token);
+        calendarRepository.save(calendar);
+        logger.info("Public feed enabled for calendar {}", calendarId);
+        return token;
+    }
+
+    /**
+     * Stop sharing a calendar of the current user
+     */
+    @Transactional
+    public void revokeFeedToken(Long calendarId) {
+        Calendar calendar = getOwnCalendar(calendarId);
+        if (calendar.getFeedToken() != null) {
+            rateLimits.remove(calendar.getFeedToken());
+            calendar.setFeedToken(null);
+            calendarRepository.save(calendar);
+            logger.info("Public feed revoked for calendar {}", calendarId);
+        }
+    }
+
+    /**
+     * Find the calendar shared with a feed token
+     *
+     * @return the calendar, empty if the token is malformed, unknown or revoked
+     */
+    @Transactional(readOnly = true)
+    public Optional<Calendar> findCalendarByToken(String token) {
+        if (!isWellFormed(token)) {
+            return Optional.empty();
+        }
+        return calendarRepository.findByFeedToken(token);
+    }
+
+    public boolean isWellFormed(String token) {
+        return token != null && TOKEN_PATTERN.matcher(token).matches();
+    }
+
+    /**
+     * Take one request from the rate limit of a feed token, looked up first (findCalendarByToken)
+     *
+     * @param known whether the token shares a calendar: unknown tokens take from the shared bucket
+     * @return 0 if the request is allowed, otherwise the seconds to wait before the next one
+     */
+    public long tryAcquire(String token, boolean known) {
+        RateLimit rateLimit;
+        if (known) {
+            rateLimit = rateLimits.computeIfAbsent(token, t -> new RateLimit(burst));
+        } else {
+            rateLimit = unknownTokenRateLimit;
+            if (rateLimit == null) {
+                synchronized (this) {
+                    if (unknownTokenRateLimit == null) {
+                        unknownTokenRateLimit = new RateLimit(burst);
+                    }
+                    rateLimit = unknownTokenRateLimit;
+                }
+            }
+        }
+        return rateLimit.tryAcquire(burst, requestsPerMinute);
+    }
+
+    int getRateLimitCount() {
+        return rateLimits.size();
+    }
+
+    /**
+     * Drop the rate limits of tokens idle long enough to have a full bucket again
+     */
+    @Scheduled(fixedRate = 600000) // 10 minutes
+    public void cleanupRateLimits() {
+        long refillNanos = (long) (burst * 60_000_000_000L / requestsPerMinute);
+        long cutoff = System.nanoTime() - refillNanos;
+        rateLimits.values().removeIf(rateLimit -> rateLimit.isIdleSince(cutoff));
+    }
+
+    private Calendar getOwnCalendar(Long calendarId) {
+        User currentUser = userService.getCurrentUser();
+        return calendarRepository.findByIdAndUser(calendarId, currentUser)
+                .orElseThrow(() -> new RuntimeException("Calendar not found"));
+    }
+
+    /**
+     * Token bucket of a feed token: holds up to burst requests, refilled at requestsPerMinute
+     */
+    private static class RateLimit {
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        RateLimit(int burst) {
+            this.tokens = burst;
+        }
+
+        synchronized long tryAcquire(int burst, double requestsPerMinute) {
+            long now = System.nanoTime();
+            double perNano = requestsPerMinute / 60_000_000_000.0;
+            tokens = Math.min(burst, tokens + (now - lastRefill) * perNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / perNano / 1_000_000_000.0);
+        }
+
+        synchronized boolean isIdleSince(long nanos) {
+            return lastRefill - nanos < 0;
+        }
+    }
+}
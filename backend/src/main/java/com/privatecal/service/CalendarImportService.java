@@ -0,0 +1,319 @@
+package com.privatecal.service;
+
+import com.privatecal.caldav.IcsComponent;
+import com.privatecal.caldav.IcsTokenizer;
+import com.privatecal.dto.DuplicateStrategy;
+import com.privatecal.dto.ReminderRequest;
+import com.privatecal.dto.TaskRequest;
+import com.privatecal.entity.Calendar;
+import com.privatecal.entity.Reminder;
+import com.privatecal.entity.Task;
+import com.privatecal.entity.User;
+import com.privatecal.repository.ReminderRepository;
+import com.privatecal.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import net.fortuna.ical4j.data.ParserException;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Batched import of iCalendar files (.ics) into the user's default calendar
+ *
+ * The file is read one component at a time (IcsTokenizer) and events are processed in chunks
+ * of app.import.batch-size:
+ * - components are converted to TaskRequests in parallel (CalDAVService.convertComponents)
+ * - duplicates are resolved with one query on the UIDs of the chunk
+ * - new tasks, their reminders and the sync journal entries are saved in one transaction per chunk,
+ *   with JDBC batches of the same size; a chunk that cannot be saved is retried task by task
+ * - existing tasks to update (UPDATE strategy) go through TaskService.updateTask, one transaction each
+ */
+@Service
+@RequiredArgsConstructor
+public class CalendarImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarImportService.class);
+    // Error messages returned to the client (failedCount always counts all failures)
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final CalDAVService calDAVService;
+    private final TaskService taskService;
+    private final ReminderService reminderService;
+    private final CalendarService calendarService;
+    private final CalendarSyncService calendarSyncService;
+    private final TaskRepository taskRepository;
+    private final ReminderRepository reminderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Import an iCalendar stream into the user's default calendar
+     *
+     * @param inputStream ICS data
+     * @param user User importing the calendar
+     * @param strategy How to handle events with the UID of an existing task, null to report them as failed
+     * @return Import summary
+     * @throws IOException if the data cannot be parsed at all
+     */
+    public ImportResult importCalendar(InputStream inputStream, User user, DuplicateStrategy strategy) throws IOException {
+        ImportResult result = new ImportResult();
+        importCalendar(inputStream, user, strategy, result, () -> false);
+        return result;
+    }
+
+    /**
+     * Import an iCalendar stream, updating a result object that can be read while the import runs
+     * Used by background import jobs for progress reporting and cancellation.
+     *
+     * @param result Import summary, updated after each parsed event and each chunk
+     * @param cancelRequested Checked before each parsed event: the import stops (chunks already saved are kept)
+     * @throws IOException if the data cannot be parsed at all
+     */
+    public void importCalendar(InputStream inputStream, User user, DuplicateStrategy strategy,
+                               ImportResult result, BooleanSupplier cancelRequested) throws IOException {
+        logger.info("Importing calendar for user {} (strategy: {}, batch size: {})", user.getUsername(), strategy, batchSize);
+
+        Calendar calendar = calendarService.getDefaultCalendarEntity(user);
+        // UIDs imported so far, to detect events repeated in the file
+        Set<String> importedUids = new HashSet<>();
+        List<IcsComponent> chunk = new ArrayList<>(batchSize);
+
+        try {
+            IcsTokenizer.parse(inputStream, component -> {
+                if (cancelRequested.getAsBoolean()) {
+                    throw new CancellationException();
+                }
+                chunk.add(component);
+                if (chunk.size() >= batchSize) {
+                    importComponents(chunk, user, calendar, strategy, importedUids, result);
+                    chunk.clear();
+                }
+            });
+        } catch (ParserException e) {
+            if (result.totalParsed == 0 && chunk.isEmpty()) {
+                throw new IOException("Failed to parse calendar file", e);
+            }
+            // Events before the invalid data are imported, the rest of the file is not
+            logger.warn("ICS parsing stopped at line {}: {}", e.getLineNo(), e.getMessage());
+            result.addError("Import stopped at invalid calendar data: " + e.getMessage());
+        } catch (CancellationException e) {
+            logger.info("Calendar import cancelled after {} events ({} created)", result.totalParsed, result.createdCount);
+            result.cancelled = true;
+            return;
+        }
+        importComponents(chunk, user, calendar, strategy, importedUids, result);
+
+        logger.info("Calendar import completed: {} parsed, {} created, {} updated, {} skipped, {} failed",
+            result.totalParsed, result.createdCount, result.updatedCount, result.skippedCount, result.failedCount);
+    }
+
+    /**
+     * Convert a chunk of components (in parallel, see CalDAVService.convertComponents) and import the events
+     */
+    private void importComponents(List<IcsComponent> components, User user, Calendar calendar,
+                                  DuplicateStrategy strategy, Set<String> importedUids, ImportResult result) {
+        List<TaskRequest> chunk = new ArrayList<>(components.size());
+        for (CalDAVService.ComponentConversion conversion : calDAVService.convertComponents(components)) {
+            if (conversion.getError() != null) {
+                result.totalParsed++;
+                result.addFailure(conversion.getComponentName() + ": " + conversion.getError().getMessage());
+            } else if (conversion.getTaskRequest() != null) {
+                result.totalParsed++;
+                chunk.add(conversion.getTaskRequest());
+            }
+        }
+        importChunk(chunk, user, calendar, strategy, importedUids, result);
+    }
+
+    /**
+     * Resolve duplicates of a chunk of parsed events, then save new tasks and update existing ones
+     */
+    private void importChunk(List<TaskRequest> chunk, User user, Calendar calendar, DuplicateStrategy strategy,
+                             Set<String> importedUids, ImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // UIDs are primary keys: look them up for all users, so conflicts are found before saving
+        List<String> uids = chunk.stream()
+            .map(TaskRequest::getUid)
+            .filter(StringUtils::hasText)
+            .distinct()
+            .collect(Collectors.toList());
+        Map<String, Task> existingTasksByUid = new HashMap<>();
+        for (Task task : taskRepository.findAllById(uids)) {
+            existingTasksByUid.put(task.getUid(), task);
+        }
+
+        List<Task> newTasks = new ArrayList<>();
+        List<Reminder> newReminders = new ArrayList<>();
+        List<TaskRequest> updates = new ArrayList<>();
+
+        for (TaskRequest taskRequest : chunk) {
+            // Validate and clean task request
+            taskRequest.clean();
+
+            String uid = taskRequest.getUid();
+            if (StringUtils.hasText(uid)) {
+                Task existingTask = existingTasksByUid.get(uid);
+                boolean ownTask = existingTask != null && Objects.equals(existingTask.getUser().getId(), user.getId());
+                boolean repeatedInFile = importedUids.contains(uid);
+
+                if (existingTask != null || repeatedInFile) {
+                    result.duplicateCount++;
+                    if (strategy == DuplicateStrategy.CREATE_ANYWAY) {
+                        // Generate new UID to avoid constraint violation
+                        taskRequest.setUid("privatecal-dup-" + UUID.randomUUID());
+                    } else if (strategy == DuplicateStrategy.SKIP) {
+                        logger.debug("Skipping duplicate: {}", uid);
+                        result.skippedCount++;
+                        continue;
+                    } else if (strategy == DuplicateStrategy.UPDATE && ownTask && !repeatedInFile) {
+                        // Keep the existing task ID to trigger update
+                        taskRequest.setId(uid);
+                        updates.add(taskRequest);
+                        continue;
+                    } else {
+                        result.addFailure(String.format("Task '%s': a task with UID %s already exists",
+                            taskRequest.getTitle(), uid));
+                        continue;
+                    }
+                }
+            }
+
+            try {
+                Task task = taskService.buildTask(taskRequest, user, calendar);
+                if (taskRequest.getReminders() != null) {
+                    for (ReminderRequest reminderRequest : taskRequest.getReminders()) {
+                        newReminders.add(reminderService.buildReminder(task, reminderRequest));
+                    }
+                }
+                newTasks.add(task);
+                importedUids.add(task.getUid());
+            } catch (Exception e) {
+                result.addFailure(String.format("Task '%s': %s", taskRequest.getTitle(), e.getMessage()));
+            }
+        }
+
+        saveNewTasks(newTasks, newReminders, calendar, result);
+
+        for (TaskRequest taskRequest : updates) {
+            try {
+                taskService.updateTask(taskRequest.getId(), taskRequest);
+                result.updatedCount++;
+            } catch (Exception e) {
+                result.addFailure(String.format("Task '%s': %s", taskRequest.getTitle(), e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Save new tasks with their reminders in one transaction, or task by task if the chunk fails
+     */
+    private void saveNewTasks(List<Task> tasks, List<Reminder> reminders, Calendar calendar, ImportResult result) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(tasks, reminders, calendar));
+            result.createdCount += tasks.size();
+            logger.debug("Imported chunk of {} tasks", tasks.size());
+            return;
+        } catch (Exception e) {
+            logger.warn("Saving chunk of {} tasks failed, retrying task by task: {}", tasks.size(), e.getMessage());
+        }
+
+        Map<Task, List<Reminder>> remindersByTask = reminders.stream()
+            .collect(Collectors.groupingBy(Reminder::getTask));
+        for (Task task : tasks) {
+            List<Reminder> taskReminders = remindersByTask.getOrDefault(task, List.of());
+            // Reset state assigned by the rolled back attempt
+            task.setVersion(null);
+            taskReminders.forEach(reminder -> reminder.setId(null));
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(List.of(task), taskReminders, calendar));
+                result.createdCount++;
+            } catch (Exception e) {
+                result.addFailure(String.format("Task '%s': %s", task.getTitle(), e.getMessage()));
+            }
+        }
+    }
+
+    private void persist(List<Task> tasks, List<Reminder> reminders, Calendar calendar) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+        // Tasks are flushed first (batched inserts), reminders reference them
+        taskRepository.saveAll(tasks);
+        entityManager.flush();
+        reminderRepository.saveAll(reminders);
+        calendarSyncService.recordChanges(calendar.getId(),
+            tasks.stream().map(Task::getUid).collect(Collectors.toList()));
+        entityManager.flush();
+
+        // Nothing of the chunk is needed afterwards
+        entityManager.clear();
+    }
+
+    /**
+     * Summary of an import
+     * Written by the importing thread only, counters are volatile so progress can be read by other threads
+     */
+    public static class ImportResult {
+        private volatile int totalParsed;
+        private volatile int createdCount;
+        private volatile int updatedCount;
+        private volatile int skippedCount;
+        private volatile int duplicateCount;
+        private volatile int failedCount;
+        private volatile boolean cancelled;
+        private final List<String> errors = new CopyOnWriteArrayList<>();
+
+        private void addFailure(String error) {
+            failedCount++;
+            addError(error);
+        }
+
+        private void addError(String error) {
+            logger.warn("Failed to import task: {}", error);
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        public int getTotalParsed() { return totalParsed; }
+        public int getCreatedCount() { return createdCount; }
+        public int getUpdatedCount() { return updatedCount; }
+        public int getSkippedCount() { return skippedCount; }
+        public int getDuplicateCount() { return duplicateCount; }
+        public int getFailedCount() { return failedCount; }
+        public boolean isCancelled() { return cancelled; }
+        public int getSuccessCount() { return createdCount + updatedCount; }
+        public List<String> getErrors() { return errors; }
+    }
+}
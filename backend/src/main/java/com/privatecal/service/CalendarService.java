@@ -1,5 +1,6 @@
 package com.privatecal.service;
 
+import com.privatecal.caldav.IcsFragmentCache;
 import com.privatecal.dto.CalendarRequest;
 import com.privatecal.dto.CalendarResponse;
 import com.privatecal.entity.Calendar;
@@ -28,6 +29,7 @@ public class CalendarService {
     private final CalendarRepository calendarRepository;
     private final TaskRepository taskRepository;
     private final UserService userService;
+    private final IcsFragmentCache icsCache;
 
     /**
      * Get all calendars for current user
@@ -192,6 +194,8 @@ public class CalendarService {
             }
         }
 
+        // Tasks are deleted with the calendar (cascade), drop their cached renderings
+        icsCache.evictAll(taskRepository.findUidsByCalendarId(calendar.getId()));
         calendarRepository.delete(calendar);
         logger.info("Calendar '{}' deleted successfully", calendar.getName());
     }
@@ -0,0 +1,326 @@
+package com.privatecal.service;
+
+import com.privatecal.entity.Calendar;
+import com.privatecal.repository.CalendarRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed whole-calendar ICS snapshots for read-only subscription clients
+ *
+ * The first request for a calendar renders its export (CalDAVService.writeCalendarICS) to a file,
+ * later requests are served from that file instead of reading and rendering every task again.
+ *
+ * A snapshot is labelled with the sync revision (CTag) the calendar had when it was rendered:
+ * - recorded writes of a calendar with a snapshot mark it dirty (CalendarChangedEvent, after commit)
+ * - dirty snapshots are rendered again in the background once the calendar had no write for
+ *   app.caldav.snapshot.debounce-ms (at most max-delay-ms after the first write), so a burst of
+ *   writes (import, sync session) costs a single rendering
+ * - requests compare the label with the current CTag (one indexed read) and keep serving the previous
+ *   snapshot while a newer one is rendered, which also catches writes made by other instances
+ *
+ * Every rendering goes to a new file, so a response always streams the file matching its ETag.
+ * Replaced files are deleted after a grace period, snapshots not requested for
+ * idle-eviction-minutes are dropped.
+ */
+@Service
+public class CalendarSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarSnapshotService.class);
+
+    // Replaced snapshot files are kept this long for responses still streaming them
+    private static final long RETIRED_FILE_GRACE_MILLIS = 60000;
+
+    private final CalDAVService calDAVService;
+    private final CalendarSyncService calendarSyncService;
+    private final CalendarRepository calendarRepository;
+    private final ThreadPoolTaskExecutor snapshotExecutor;
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    // Calendars waiting for a new rendering: calendar ID -> {first write, last write} (epoch millis)
+    private final Map<Long, long[]> dirty = new ConcurrentHashMap<>();
+    // Calendars queued or being rendered in the background
+    private final Set<Long> rendering = ConcurrentHashMap.newKeySet();
+    // One rendering per calendar at a time
+    private final Map<Long, Object> renderLocks = new ConcurrentHashMap<>();
+    private final Queue<Snapshot> retired = new ConcurrentLinkedQueue<>();
+    private final AtomicLong fileSequence = new AtomicLong();
+
+    @Value("${app.caldav.snapshot.dir:}")
+    private String baseDir;
+
+    @Value("${app.caldav.snapshot.debounce-ms:5000}")
+    private long debounceMillis;
+
+    @Value("${app.caldav.snapshot.max-delay-ms:60000}")
+    private long maxDelayMillis;
+
+    @Value("${app.caldav.snapshot.idle-eviction-minutes:1440}")
+    private long idleEvictionMinutes;
+
+    // Directory of this instance, deleted on shutdown
+    private Path directory;
+
+    public CalendarSnapshotService(CalDAVService calDAVService,
+                                   CalendarSyncService calendarSyncService,
+                                   CalendarRepository calendarRepository,
+                                   @Qualifier("snapshotExecutor") ThreadPoolTaskExecutor snapshotExecutor) {
+        this.calDAVService = calDAVService;
+        this.calendarSyncService = calendarSyncService;
+        this.calendarRepository = calendarRepository;
+        this.snapshotExecutor = snapshotExecutor;
+    }
+
+    @PostConstruct
+    void createDirectory() throws IOException {
+        Path base = StringUtils.hasText(baseDir)
+            ? Files.createDirectories(Paths.get(baseDir))
+            : Paths.get(System.getProperty("java.io.tmpdir"));
+        directory = Files.createTempDirectory(base, "calendar-snapshots-");
+        logger.info("Calendar snapshots stored in {}", directory);
+    }
+
+    @PreDestroy
+    void deleteDirectory() {
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+        } catch (IOException e) {
+            logger.warn("Failed to delete snapshot directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Get the snapshot of a calendar, rendering it if the calendar has none yet
+     * A snapshot older than the calendar is returned while the new one is rendered in the background.
+     *
+     * @param calendar Calendar entity (its name is the X-WR-CALNAME of the snapshot)
+     * @return the snapshot to serve
+     * @throws IOException if the snapshot cannot be written
+     */
+    public Snapshot getSnapshot(Calendar calendar) throws IOException {
+        Long calendarId = calendar.getId();
+        Snapshot snapshot = snapshots.get(calendarId);
+        if (snapshot == null || !Files.exists(snapshot.path)) {
+            synchronized (renderLock(calendarId)) {
+                snapshot = snapshots.get(calendarId);
+                if (snapshot == null || !Files.exists(snapshot.path)) {
+                    snapshot = render(calendar);
+                }
+            }
+        } else if (!isCurrent(snapshot, calendar)) {
+            // Written by another instance, or renamed: does not postpone a pending rendering
+            long now = System.currentTimeMillis();
+            dirty.putIfAbsent(calendarId, new long[] {now, now});
+        }
+        snapshot.lastAccess = System.currentTimeMillis();
+        return snapshot;
+    }
+
+    /**
+     * Mark the snapshot of a changed calendar for rendering (calendars without snapshot are ignored)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCalendarChanged(CalendarSyncService.CalendarChangedEvent event) {
+        if (snapshots.containsKey(event.getCalendarId())) {
+            markDirty(event.getCalendarId());
+        }
+    }
+
+    private void markDirty(Long calendarId) {
+        long now = System.currentTimeMillis();
+        dirty.merge(calendarId, new long[] {now, now}, (previous, current) -> new long[] {previous[0], now});
+    }
+
+    /**
+     * Render dirty snapshots whose calendar is quiet (or waited too long) on the snapshot executor
+     */
+    @Scheduled(fixedDelayString = "${app.caldav.snapshot.check-interval-ms:1000}")
+    public void renderDirtySnapshots() {
+        long now = System.currentTimeMillis();
+        dirty.forEach((calendarId, writes) -> {
+            if (now - writes[1] < debounceMillis && now - writes[0] < maxDelayMillis) {
+                return;
+            }
+            if (!rendering.add(calendarId)) {
+                return;
+            }
+            dirty.remove(calendarId, writes);
+            try {
+                snapshotExecutor.execute(() -> {
+                    try {
+                        renderInBackground(calendarId);
+                    } finally {
+                        rendering.remove(calendarId);
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                // Executor saturated: retried on the next run
+                rendering.remove(calendarId);
+                dirty.putIfAbsent(calendarId, writes);
+            }
+        });
+
+        Snapshot oldest;
+        while ((oldest = retired.peek()) != null && now - oldest.retiredAt >= RETIRED_FILE_GRACE_MILLIS) {
+            retired.poll();
+            deleteFile(oldest.path);
+        }
+    }
+
+    private void renderInBackground(Long calendarId) {
+        Calendar calendar = calendarRepository.findById(calendarId).orElse(null);
+        if (calendar == null) {
+            evict(calendarId);
+            return;
+        }
+        try {
+            synchronized (renderLock(calendarId)) {
+                Snapshot snapshot = snapshots.get(calendarId);
+                if (snapshot != null && Files.exists(snapshot.path) && isCurrent(snapshot, calendar)) {
+                    return;
+                }
+                render(calendar);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to render snapshot of calendar {}: {}", calendarId, e.getMessage(), e);
+        }
+    }
+
+    private boolean isCurrent(Snapshot snapshot, Calendar calendar) {
+        return snapshot.changeId == calendarSyncService.getCurrentChangeId(calendar.getId())
+            && snapshot.calendarName.equals(calendar.getName());
+    }
+
+    /**
+     * Render a calendar to a new file and make it the current snapshot (caller holds the render lock)
+     */
+    private Snapshot render(Calendar calendar) throws IOException {
+        long start = System.currentTimeMillis();
+        Long calendarId = calendar.getId();
+        // Read before the export: writes made meanwhile leave the snapshot labelled as stale
+        long changeId = calendarSyncService.getCurrentChangeId(calendarId);
+
+        Path path = directory.resolve("calendar-" + calendarId + "-" + fileSequence.incrementAndGet() + ".ics");
+        int eventCount;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8))) {
+            eventCount = calDAVService.writeCalendarICS(calendar, out);
+        } catch (IOException | RuntimeException e) {
+            deleteFile(path);
+            throw e;
+        }
+
+        Snapshot snapshot = new Snapshot(calendarId, calendar.getName(), changeId, path, Files.size(path), Instant.now());
+        Snapshot previous = snapshots.put(calendarId, snapshot);
+        if (previous != null) {
+            snapshot.lastAccess = previous.lastAccess;
+            retire(previous);
+        }
+        logger.info("Rendered snapshot of calendar {} at change {}: {} events, {} bytes in {} ms",
+            calendarId, changeId, eventCount, snapshot.size, System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    /**
+     * Drop snapshots that were not requested for the idle period
+     */
+    @Scheduled(fixedRate = 600000) // 10 minutes
+    public void evictIdleSnapshots() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMinutes * 60000;
+        snapshots.forEach((calendarId, snapshot) -> {
+            if (snapshot.lastAccess < cutoff) {
+                evict(calendarId);
+            }
+        });
+    }
+
+    private void evict(Long calendarId) {
+        dirty.remove(calendarId);
+        synchronized (renderLock(calendarId)) {
+            Snapshot snapshot = snapshots.remove(calendarId);
+            if (snapshot != null) {
+                retire(snapshot);
+                logger.debug("Evicted snapshot of calendar {}", calendarId);
+            }
+        }
+    }
+
+    private void retire(Snapshot snapshot) {
+        snapshot.retiredAt = System.currentTimeMillis();
+        retired.add(snapshot);
+    }
+
+    private Object renderLock(Long calendarId) {
+        return renderLocks.computeIfAbsent(calendarId, id -> new Object());
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete snapshot file {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Rendered ICS file of a calendar
+     */
+    public static class Snapshot {
+        private final Long calendarId;
+        private final String calendarName;
+        private final long changeId;
+        private final Path path;
+        private final long size;
+        private final Instant renderedAt;
+        private volatile long lastAccess = System.currentTimeMillis();
+        private volatile long retiredAt;
+
+        private Snapshot(Long calendarId, String calendarName, long changeId, Path path, long size, Instant renderedAt) {
+            this.calendarId = calendarId;
+            this.calendarName = calendarName;
+            this.changeId = changeId;
+            this.path = path;
+            this.size = size;
+            this.renderedAt = renderedAt;
+        }
+
+        /**
+         * ETag of the snapshot: sync revision and calendar name it was rendered with
+         */
+        public String getETag() {
+            return changeId + "-" + Integer.toHexString(calendarName.hashCode());
+        }
+
+        public Long getCalendarId() { return calendarId; }
+        public long getChangeId() { return changeId; }
+        public Path getPath() { return path; }
+        public long getSize() { return size; }
+        public Instant getRenderedAt() { return renderedAt; }
+    }
+}
@@ -0,0 +1,227 @@
+package com.privatecal.service;
+
+import com.privatecal.entity.CalendarChange;
+import com.privatecal.entity.Task;
+import com.privatecal.repository.CalendarChangeRepository;
+import com.privatecal.repository.CalendarRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service maintaining the per-calendar change journal used by WebDAV sync-collection (RFC 6578)
+ *
+ * Every write of a task must be recorded here, in the same transaction as the write:
+ * - recordChange: task created or updated in its calendar
+ * - recordDeletion: task deleted from (or moved out of) a calendar, kept as tombstone
+ *
+ * Each recording transaction bumps the calendar's sync revision (calendars.sync_revision) and stores
+ * it on its journal entries. The UPDATE locks the calendar row until commit, so writers of a calendar
+ * are serialized and revisions follow commit order: once a revision is visible, every entry up to it
+ * is committed. The committed revision is the sync token handed to clients and the collection CTag
+ * (CS:getctag), so a client can check a calendar for changes with one primary key read.
+ *
+ * Each recorded write also publishes a CalendarChangedEvent (e.g. to refresh calendar snapshots).
+ */
+@Service
+@RequiredArgsConstructor
+public class CalendarSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarSyncService.class);
+
+    /**
+     * Sync tokens must be URIs (RFC 6578 section 6.2): prefix, calendar ID and revision,
+     * e.g. urn:p-cal:sync:12:345
+     */
+    public static final String SYNC_TOKEN_PREFIX = "urn:p-cal:sync:";
+
+    private final CalendarChangeRepository calendarChangeRepository;
+    private final CalendarRepository calendarRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Record that a task was created or updated in its calendar
+     */
+    @Transactional
+    public void recordChange(Task task) {
+        if (task.getCalendar() == null) {
+            return;
+        }
+        record(task.getCalendar().getId(), task.getUid(), false);
+    }
+
+    /**
+     * Record that a task was deleted from its calendar
+     */
+    @Transactional
+    public void recordDeletion(Task task) {
+        if (task.getCalendar() == null) {
+            return;
+        }
+        record(task.getCalendar().getId(), task.getUid(), true);
+    }
+
+    /**
+     * Record that a task left a calendar (deleted or moved to another calendar)
+     */
+    @Transactional
+    public void recordDeletion(Long calendarId, String taskUid) {
+        record(calendarId, taskUid, true);
+    }
+
+    /**
+     * Record that several tasks were created or updated in a calendar (batched writes, e.g. ICS import)
+     */
+    @Transactional
+    public void recordChanges(Long calendarId, List<String> taskUids) {
+        if (taskUids.isEmpty()) {
+            return;
+        }
+        long revision = nextRevision(calendarId);
+        calendarChangeRepository.deleteByCalendarIdAndTaskUidIn(calendarId, taskUids);
+        List<CalendarChange> changes = new ArrayList<>(taskUids.size());
+        for (String taskUid : taskUids) {
+            changes.add(new CalendarChange(calendarId, revision, taskUid, false));
+        }
+        calendarChangeRepository.saveAll(changes);
+        eventPublisher.publishEvent(new CalendarChangedEvent(calendarId));
+        logger.debug("Recorded changes of {} tasks in calendar {}", taskUids.size(), calendarId);
+    }
+
+    private void record(Long calendarId, String taskUid, boolean deleted) {
+        long revision = nextRevision(calendarId);
+        // Only the latest entry per UID matters for sync, older ones are dropped
+        calendarChangeRepository.deleteByCalendarIdAndTaskUid(calendarId, taskUid);
+        calendarChangeRepository.save(new CalendarChange(calendarId, revision, taskUid, deleted));
+        eventPublisher.publishEvent(new CalendarChangedEvent(calendarId));
+        logger.debug("Recorded {} of task {} in calendar {}", deleted ? "deletion" : "change", taskUid, calendarId);
+    }
+
+    /**
+     * Bump the sync revision of a calendar and return it. Blocks while another transaction holds the
+     * calendar row, which is what orders revisions by commit (H2 lacks UPDATE ... RETURNING, so the
+     * bumped value is read back in the same transaction).
+     */
+    private long nextRevision(Long calendarId) {
+        if (calendarRepository.incrementSyncRevision(calendarId) == 0) {
+            throw new IllegalStateException("Calendar not found: " + calendarId);
+        }
+        return calendarRepository.findSyncRevision(calendarId);
+    }
+
+    /**
+     * Committed sync revision of a calendar (0 if nothing was recorded yet)
+     */
+    @Transactional(readOnly = true)
+    public long getCurrentChangeId(Long calendarId) {
+        Long revision = calendarRepository.findSyncRevision(calendarId);
+        return revision != null ? revision : 0L;
+    }
+
+    /**
+     * CTags of several calendars (calendarserver.org getctag), with a single query
+     *
+     * @return CTag by calendar ID, "0" for calendars without recorded changes
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, String> getCTags(List<Long> calendarIds) {
+        Map<Long, String> ctags = new HashMap<>();
+        if (calendarIds.isEmpty()) {
+            return ctags;
+        }
+        for (Long calendarId : calendarIds) {
+            ctags.put(calendarId, toCTag(0L));
+        }
+        for (Object[] row : calendarRepository.findSyncRevisions(calendarIds)) {
+            ctags.put(((Number) row[0]).longValue(), toCTag(((Number) row[1]).longValue()));
+        }
+        return ctags;
+    }
+
+    public String toCTag(long changeId) {
+        return String.valueOf(changeId);
+    }
+
+    public String toSyncToken(Long calendarId, long changeId) {
+        return SYNC_TOKEN_PREFIX + calendarId + ":" + changeId;
+    }
+
+    /**
+     * Parse a sync token received from a client for a calendar
+     *
+     * @return the sync revision, or null if the token was not issued by this server for this calendar
+     */
+    public Long parseSyncToken(Long calendarId, String syncToken) {
+        String calendarPrefix = SYNC_TOKEN_PREFIX + calendarId + ":";
+        if (syncToken == null || !syncToken.startsWith(calendarPrefix)) {
+            return null;
+        }
+        try {
+            long changeId = Long.parseLong(syncToken.substring(calendarPrefix.length()));
+            return changeId >= 0 ? changeId : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get task UIDs changed in a calendar in the token range (since, until]
+     *
+     * @param calendarId Calendar ID
+     * @param since Sync revision from the client's sync token (exclusive)
+     * @param until Sync revision of the new sync token (inclusive), read before the changes
+     */
+    @Transactional(readOnly = true)
+    public SyncChanges getChanges(Long calendarId, long since, long until) {
+        List<String> changedUids = new ArrayList<>();
+        List<String> deletedUids = new ArrayList<>();
+
+        // The journal is compacted, so there is a single entry per UID
+        for (CalendarChange change : calendarChangeRepository.findChangesInRange(calendarId, since, until)) {
+            if (change.isDeleted()) {
+                deletedUids.add(change.getTaskUid());
+            } else {
+                changedUids.add(change.getTaskUid());
+            }
+        }
+
+        return new SyncChanges(changedUids, deletedUids);
+    }
+
+    /**
+     * Published when a write of a calendar is recorded (listeners should run after commit)
+     */
+    public static class CalendarChangedEvent {
+        private final Long calendarId;
+
+        public CalendarChangedEvent(Long calendarId) {
+            this.calendarId = calendarId;
+        }
+
+        public Long getCalendarId() { return calendarId; }
+    }
+
+    /**
+     * Changes of a calendar since a sync token
+     */
+    public static class SyncChanges {
+        private final List<String> changedUids;
+        private final List<String> deletedUids;
+
+        public SyncChanges(List<String> changedUids, List<String> deletedUids) {
+            this.changedUids = changedUids;
+            this.deletedUids = deletedUids;
+        }
+
+        public List<String> getChangedUids() { return changedUids; }
+        public List<String> getDeletedUids() { return deletedUids; }
+    }
+}
@@ -16,6 +16,7 @@ import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.internet.InternetAddress;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for sending emails
@@ -29,6 +30,7 @@ public class EmailService {
     private final JavaMailSender mailSender;
     private final EmailConfig emailConfig;
     private final EmailTemplateBuilder emailTemplateBuilder;
+    private final PooledMailSender pooledMailSender;
 
     /**
      * Send a simple HTML email
@@ -57,28 +59,7 @@ public class EmailService {
         }
 
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(
-                message,
-                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
-                StandardCharsets.UTF_8.name()
-            );
-
-            // Set sender
-            helper.setFrom(emailConfig.getFromAddress(), emailConfig.getFromName());
-
-            // Set recipient
-            if (StringUtils.hasText(toName)) {
-                // Create InternetAddress with personal name
-                InternetAddress toAddress = new InternetAddress(to, toName);
-                helper.setTo(toAddress);
-            } else {
-                helper.setTo(to);
-            }
-
-            // Set subject and content
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true); // true = HTML content
+            MimeMessage message = createMessage(to, toName, subject, htmlContent);
 
             // Send the email
             mailSender.send(message);
@@ -101,6 +82,66 @@ public class EmailService {
         }
     }
 
+    /**
+     * Queue an HTML email on the pooled SMTP connections (PooledMailSender)
+     * @return future completed with true once sent, false if the email could not be built or was rejected;
+     *         completed exceptionally (ProviderUnavailableException) if the SMTP server is unavailable
+     */
+    public CompletableFuture<Boolean> sendEmailAsync(String to, String toName, String subject, String htmlContent) {
+        if (!emailConfig.isEnabled()) {
+            logger.debug("Email service is disabled - skipping email to: {}", to);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        if (!StringUtils.hasText(to) || !StringUtils.hasText(subject)) {
+            logger.warn("Cannot send email - recipient address or subject is empty");
+            return CompletableFuture.completedFuture(false);
+        }
+
+        try {
+            MimeMessage message = createMessage(to, toName, subject, htmlContent);
+            return pooledMailSender.send(message).thenApply(sent -> {
+                if (sent) {
+                    logger.info("Email sent successfully to: {} with subject: {}", to, subject);
+                }
+                return sent;
+            });
+        } catch (MessagingException | UnsupportedEncodingException e) {
+            logger.error("Failed to create email message for: {} - {}", to, e.getMessage(), e);
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * Build an HTML email from the configured sender
+     */
+    private MimeMessage createMessage(String to, String toName, String subject, String htmlContent)
+            throws MessagingException, UnsupportedEncodingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(
+            message,
+            MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
+            StandardCharsets.UTF_8.name()
+        );
+
+        // Set sender
+        helper.setFrom(emailConfig.getFromAddress(), emailConfig.getFromName());
+
+        // Set recipient
+        if (StringUtils.hasText(toName)) {
+            // Create InternetAddress with personal name
+            InternetAddress toAddress = new InternetAddress(to, toName);
+            helper.setTo(toAddress);
+        } else {
+            helper.setTo(to);
+        }
+
+        // Set subject and content
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true); // true = HTML content
+        return message;
+    }
+
     /**
      * Send task reminder email (multilingual)
      */
@@ -119,6 +160,25 @@ public class EmailService {
         return sendEmail(user.getEmail(), user.getFullName(), subject, htmlContent);
     }
 
+    /**
+     * Queue task reminder email on the pooled SMTP connections (multilingual)
+     * @see #sendEmailAsync(String, String, String, String)
+     */
+    public CompletableFuture<Boolean> sendTaskReminderEmailAsync(User user, String taskTitle, String taskDescription,
+                                                              String taskStartTime, String taskLocation) {
+        if (user == null || !StringUtils.hasText(user.getEmail())) {
+            logger.warn("Cannot send reminder email - user or email is null");
+            return CompletableFuture.completedFuture(false);
+        }
+
+        String subject = emailTemplateBuilder.getTaskReminderSubject(user, taskTitle);
+        String htmlContent = emailTemplateBuilder.buildTaskReminderEmail(
+            user, taskTitle, taskDescription, taskStartTime, taskLocation
+        );
+
+        return sendEmailAsync(user.getEmail(), user.getFullName(), subject, htmlContent);
+    }
+
     /**
      * Send welcome email to new users (multilingual)
      */
@@ -7,12 +7,24 @@ import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.util.EvaluationUtils;
+import org.unbescape.html.HtmlEscape;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Service for building HTML email templates using Thymeleaf
  * Supports multilingual emails based on user locale
+ *
+ * Task reminder emails, sent in bulk when reminders fire, are rendered by Thymeleaf once per locale and
+ * set of optional fields with markers in place of the per-task fields; each email then only substitutes
+ * the escaped fields into the cached rendering (app.email.templates.cache).
  */
 @Service
 @RequiredArgsConstructor
@@ -22,6 +34,16 @@ public class EmailTemplateBuilder {
     private final MessageSource emailMessageSource;
     private final EmailConfig emailConfig;
 
+    // Task reminder fields, in the order of the values given to CompiledTemplate.render
+    private static final String[] TASK_REMINDER_FIELDS =
+        {"userName", "taskTitle", "taskDescription", "taskStartTime", "taskLocation"};
+    private static final String FIELD_MARKER_PREFIX = "@@PCAL_FIELD_";
+    private static final Pattern FIELD_MARKER_PATTERN = Pattern.compile("@@PCAL_FIELD_(\\d+)@@");
+    // Bound on cached renderings (locales are user settings)
+    private static final int MAX_COMPILED_TEMPLATES = 256;
+
+    private final Map<String, CompiledTemplate> taskReminderTemplates = new ConcurrentHashMap<>();
+
     /**
      * Get user locale or fallback to en-US
      */
@@ -141,18 +163,52 @@ public class EmailTemplateBuilder {
     public String buildTaskReminderEmail(User user, String taskTitle, String taskDescription,
                                         String taskStartTime, String taskLocation) {
         Locale locale = getUserLocale(user);
+        String[] values = {
+            user.getFirstName() != null ? user.getFirstName() : user.getUsername(),
+            taskTitle, taskDescription, taskStartTime, taskLocation
+        };
+
+        // Title and user name are message arguments: a null is formatted as "null", not substituted
+        if (!emailConfig.getTemplates().isCache() || values[0] == null || values[1] == null) {
+            return renderTaskReminder(locale, values);
+        }
+
+        // Each optional field has its own th:if block: one rendering per set of fields present
+        StringBuilder key = new StringBuilder(locale.toLanguageTag()).append(':');
+        String[] markers = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boolean present = EvaluationUtils.evaluateAsBoolean(values[i]);
+            key.append(present ? '1' : '0');
+            markers[i] = present ? FIELD_MARKER_PREFIX + i + "@@" : null;
+        }
+
+        CompiledTemplate template = taskReminderTemplates.get(key.toString());
+        if (template == null) {
+            template = CompiledTemplate.compile(renderTaskReminder(locale, markers));
+            if (taskReminderTemplates.size() < MAX_COMPILED_TEMPLATES) {
+                taskReminderTemplates.put(key.toString(), template);
+            }
+        }
+        return template.render(values);
+    }
 
+    /**
+     * Render the task reminder template with Thymeleaf
+     */
+    private String renderTaskReminder(Locale locale, String[] values) {
         Context context = new Context(locale);
-        context.setVariable("userName", user.getFirstName() != null ? user.getFirstName() : user.getUsername());
-        context.setVariable("taskTitle", taskTitle);
-        context.setVariable("taskDescription", taskDescription);
-        context.setVariable("taskStartTime", taskStartTime);
-        context.setVariable("taskLocation", taskLocation);
+        for (int i = 0; i < TASK_REMINDER_FIELDS.length; i++) {
+            context.setVariable(TASK_REMINDER_FIELDS[i], values[i]);
+        }
         context.setVariable("appUrl", emailConfig.getBaseUrl());
 
         return emailTemplateEngine.process("task-reminder", context);
     }
 
+    int getCompiledTemplateCount() {
+        return taskReminderTemplates.size();
+    }
+
     /**
      * Get task reminder email subject
      */
@@ -187,4 +243,49 @@ public class EmailTemplateBuilder {
             : Locale.forLanguageTag("en-US");
         return getMessage("email.test.title", locale);
     }
+
+    /**
+     * Rendered template split at the field markers: static segments with field slots between them
+     */
+    private static final class CompiledTemplate {
+        private final String[] segments;
+        private final int[] fields;
+        private final int staticLength;
+
+        private CompiledTemplate(String[] segments, int[] fields) {
+            this.segments = segments;
+            this.fields = fields;
+            int length = 0;
+            for (String segment : segments) {
+                length += segment.length();
+            }
+            this.staticLength = length;
+        }
+
+        static CompiledTemplate compile(String rendered) {
+            List<String> segments = new ArrayList<>();
+            List<Integer> fields = new ArrayList<>();
+            Matcher matcher = FIELD_MARKER_PATTERN.matcher(rendered);
+            int start = 0;
+            while (matcher.find()) {
+                segments.add(rendered.substring(start, matcher.start()));
+                fields.add(Integer.parseInt(matcher.group(1)));
+                start = matcher.end();
+            }
+            segments.add(rendered.substring(start));
+            return new CompiledTemplate(segments.toArray(new String[0]),
+                fields.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        /**
+         * Substitute the field values, escaped as th:text escapes them
+         */
+        String render(String[] values) {
+            StringBuilder html = new StringBuilder(staticLength + 256);
+            for (int i = 0; i < fields.length; i++) {
+                html.append(segments[i]).append(HtmlEscape.escapeHtml4Xml(values[fields[i]]));
+            }
+            return html.append(segments[segments.length - 1]).toString();
+        }
+    }
 }
@@ -0,0 +1,218 @@
+package com.privatecal.service;
+
+import com.privatecal.dto.DuplicateStrategy;
+import com.privatecal.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * Background ICS imports
+ *
+ * The upload is copied to a temporary file and imported by CalendarImportService on the bounded
+ * importExecutor, so the request returns immediately with a job id. Progress is read from the live
+ * ImportResult of the job. Jobs are kept in memory (not shared between instances) and dropped
+ * app.import.job-retention-minutes after they finished.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final CalendarImportService calendarImportService;
+    private final ThreadPoolTaskExecutor importExecutor;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${app.import.temp-dir:}")
+    private String tempDir;
+
+    @Value("${app.import.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    public ImportJobService(CalendarImportService calendarImportService,
+                            @Qualifier("importExecutor") ThreadPoolTaskExecutor importExecutor) {
+        this.calendarImportService = calendarImportService;
+        this.importExecutor = importExecutor;
+    }
+
+    /**
+     * Store an uploaded file and queue its import
+     * The security context of the caller is propagated to the job (task updates check the current user).
+     *
+     * @param strategy How to handle duplicate UIDs, null to report them as failed
+     * @return the queued job
+     * @throws IOException if the upload cannot be stored
+     * @throws TaskRejectedException if too many imports are running or queued
+     */
+    public ImportJob submit(MultipartFile file, User user, DuplicateStrategy strategy) throws IOException {
+        Path path = StringUtils.hasText(tempDir)
+            ? Files.createTempFile(Files.createDirectories(Paths.get(tempDir)), "import-", ".ics")
+            : Files.createTempFile("import-", ".ics");
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), user, file.getOriginalFilename(), strategy, path);
+        try {
+            file.transferTo(path);
+            jobs.put(job.id, job);
+            job.future = importExecutor.submit(new DelegatingSecurityContextRunnable(() -> run(job)));
+        } catch (IOException | RuntimeException e) {
+            jobs.remove(job.id);
+            deleteFile(path);
+            throw e;
+        }
+
+        logger.info("Import job {} queued for user {}: {}", job.id, user.getUsername(), job.filename);
+        return job;
+    }
+
+    private void run(ImportJob job) {
+        synchronized (job) {
+            if (job.status != ImportJobStatus.QUEUED) {
+                return;
+            }
+            job.status = ImportJobStatus.RUNNING;
+            job.startedAt = LocalDateTime.now();
+        }
+
+        ImportJobStatus status;
+        try (InputStream inputStream = Files.newInputStream(job.file)) {
+            calendarImportService.importCalendar(inputStream, job.user, job.strategy, job.result, () -> job.cancelRequested);
+            status = job.result.isCancelled() ? ImportJobStatus.CANCELLED : ImportJobStatus.COMPLETED;
+        } catch (Exception e) {
+            logger.error("Import job {} failed: {}", job.id, e.getMessage(), e);
+            job.error = e.getMessage();
+            status = ImportJobStatus.FAILED;
+        } finally {
+            deleteFile(job.file);
+        }
+
+        synchronized (job) {
+            job.status = status;
+            job.finishedAt = LocalDateTime.now();
+        }
+        logger.info("Import job {} {}: {} parsed, {} created, {} updated, {} failed", job.id, status,
+            job.result.getTotalParsed(), job.result.getCreatedCount(), job.result.getUpdatedCount(),
+            job.result.getFailedCount());
+    }
+
+    /**
+     * Get a job of a user
+     *
+     * @return the job, or null if it does not exist (anymore) or belongs to another user
+     */
+    public ImportJob getJob(String jobId, User user) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !Objects.equals(job.user.getId(), user.getId())) {
+            return null;
+        }
+        return job;
+    }
+
+    /**
+     * Cancel a job: a queued job does not start, a running one stops before its next event
+     * (tasks already imported are kept)
+     *
+     * @return the job, or null if it does not exist (anymore) or belongs to another user
+     */
+    public ImportJob cancel(String jobId, User user) {
+        ImportJob job = getJob(jobId, user);
+        if (job == null) {
+            return null;
+        }
+
+        synchronized (job) {
+            if (job.status == ImportJobStatus.QUEUED) {
+                job.status = ImportJobStatus.CANCELLED;
+                job.finishedAt = LocalDateTime.now();
+                if (job.future != null) {
+                    job.future.cancel(false);
+                }
+                deleteFile(job.file);
+            } else if (job.status == ImportJobStatus.RUNNING) {
+                job.cancelRequested = true;
+            }
+        }
+        logger.info("Cancellation requested for import job {}", jobId);
+        return job;
+    }
+
+    /**
+     * Drop finished jobs after the retention period
+     */
+    @Scheduled(fixedRate = 600000) // 10 minutes
+    public void cleanupFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete import file {}: {}", path, e.getMessage());
+        }
+    }
+
+    public enum ImportJobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    /**
+     * State of an import job, read by progress requests while the import thread updates it
+     */
+    public static class ImportJob {
+        private final String id;
+        private final User user;
+        private final String filename;
+        private final DuplicateStrategy strategy;
+        private final Path file;
+        private final CalendarImportService.ImportResult result = new CalendarImportService.ImportResult();
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Future<?> future;
+
+        private ImportJob(String id, User user, String filename, DuplicateStrategy strategy, Path file) {
+            this.id = id;
+            this.user = user;
+            this.filename = filename;
+            this.strategy = strategy;
+            this.file = file;
+        }
+
+        public String getId() { return id; }
+        public String getFilename() { return filename; }
+        public DuplicateStrategy getStrategy() { return strategy; }
+        public ImportJobStatus getStatus() { return status; }
+        public boolean isCancelRequested() { return cancelRequested; }
+        public CalendarImportService.ImportResult getResult() { return result; }
+        public String getError() { return error; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+    }
+}
@@ -0,0 +1,630 @@
+package com.privatecal.service;
+
+import com.privatecal.config.NotificationThrottleConfig;
+import com.privatecal.dto.NotificationType;
+import com.privatecal.entity.NotificationOutbox;
+import com.privatecal.entity.Reminder;
+import com.privatecal.entity.Task;
+import com.privatecal.entity.User;
+import com.privatecal.repository.NotificationOutboxRepository;
+import com.privatecal.repository.TaskRepository;
+import com.privatecal.service.notification.NotificationProvider;
+import com.privatecal.service.notification.ProviderThrottle;
+import com.privatecal.service.notification.ProviderUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Reliable delivery of reminder notifications (transactional outbox)
+ *
+ * ReminderService writes an outbox entry in the transaction that marks a reminder as sent or moves it
+ * to its next occurrence, so a fired reminder is never lost and never waits for a provider.
+ * Entries are delivered on the notification executor:
+ * - after the commit of new entries, and every poll-interval-ms for retries and other instances' entries
+ * - entries are locked with SKIP LOCKED and leased (next attempt moved lease-seconds ahead), so
+ *   instances sharing the database deliver each entry once, and a crashed instance's entries are retried
+ * - each provider delivers at most provider-concurrency entries at a time: a slow provider does not
+ *   hold the capacity of the others. Providers with a non-blocking client (NTFY, Telegram) do not keep
+ *   an executor thread while their request is in flight, the outcome is recorded on the executor.
+ * - each provider is throttled (ProviderThrottle, app.notifications.throttle): deliveries wait in memory
+ *   for a rate limit permit (global and per recipient), or go back to the outbox without counting an
+ *   attempt when the wait is longer than max-wait-seconds or the provider's circuit is open
+ * - failed attempts are retried with exponential backoff (initial-backoff-ms doubled up to
+ *   max-backoff-ms), the entry is DEAD after max-attempts
+ * - digest mode (opt-in per user and notification type, for providers supporting digests): entries are
+ *   due at the end of the current digest-window-seconds window, so the reminders of a user firing in
+ *   the same window are claimed together and delivered as one notification (up to digest-max-size
+ *   reminders), with one rate limit permit
+ *
+ * Metrics: notifications.outbox.deliveries (provider, result), notifications.outbox.delivery.duration,
+ * notifications.outbox.digests (provider), notifications.outbox.circuit.opened (provider),
+ * notifications.outbox.pending and notifications.outbox.in-flight.
+ */
+@Service
+public class NotificationOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxService.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final TaskRepository taskRepository;
+    private final NotificationService notificationService;
+    private final ThreadPoolTaskExecutor notificationExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationThrottleConfig throttleConfig;
+    private final MeterRegistry meterRegistry;
+    // Starts deliveries waiting for a rate limit permit
+    private final ScheduledExecutorService throttleScheduler;
+
+    @Value("${app.notifications.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.notifications.outbox.max-in-flight:200}")
+    private int maxInFlight;
+
+    @Value("${app.notifications.outbox.provider-concurrency:50}")
+    private int providerConcurrency;
+
+    @Value("${app.notifications.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMillis;
+
+    @Value("${app.notifications.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMillis;
+
+    @Value("${app.notifications.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.notifications.outbox.retention-days:7}")
+    private long retentionDays;
+
+    @Value("${app.notifications.outbox.digest-window-seconds:60}")
+    private long digestWindowSeconds;
+
+    @Value("${app.notifications.outbox.digest-max-size:10}")
+    private int digestMaxSize;
+
+    private final Map<String, ProviderLane> lanes = new ConcurrentHashMap<>();
+    // Entries claimed and not yet delivered (or failed)
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong pendingCount = new AtomicLong();
+    // One drain at a time; a drain requested meanwhile makes the running one loop again
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    // The last claim was cut by max-in-flight: more entries may be due
+    private volatile boolean saturated;
+
+    public NotificationOutboxService(NotificationOutboxRepository outboxRepository,
+                                     TaskRepository taskRepository,
+                                     NotificationService notificationService,
+                                     @Qualifier("notificationExecutor") ThreadPoolTaskExecutor notificationExecutor,
+                                     TransactionTemplate transactionTemplate,
+                                     NotificationThrottleConfig throttleConfig,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.taskRepository = taskRepository;
+        this.notificationService = notificationService;
+        this.notificationExecutor = notificationExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.throttleConfig = throttleConfig;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        if (this.meterRegistry != null) {
+            registerMetrics(this.meterRegistry);
+        }
+        this.throttleScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PrivateCal-Notify-Throttle");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Entries waiting for a permit stay leased in the outbox and are delivered after the lease
+        throttleScheduler.shutdownNow();
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        Gauge.builder("notifications.outbox.pending", pendingCount, AtomicLong::get)
+                .description("Notifications waiting for delivery (refreshed every poll)")
+                .register(registry);
+        Gauge.builder("notifications.outbox.in-flight", inFlight, AtomicInteger::get)
+                .description("Notifications claimed by this instance and being delivered")
+                .register(registry);
+    }
+
+    /**
+     * Write the notification of a fired reminder to the outbox, in the caller's transaction
+     * Delivery starts once the transaction commits.
+     */
+    public void enqueue(Reminder reminder) {
+        NotificationOutbox entry = new NotificationOutbox(reminder);
+        if (isDigest(reminder)) {
+            // Due with the user's other reminders of the window
+            entry.setDigest(true);
+            entry.setNextAttemptAt(digestWindowEnd(entry.getCreatedAt()));
+        }
+        outboxRepository.save(entry);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestDrain();
+                }
+            });
+        } else {
+            requestDrain();
+        }
+    }
+
+    /**
+     * Check if the notification of a reminder goes into a digest: enabled by its user for the
+     * notification type, and supported by the provider
+     */
+    private boolean isDigest(Reminder reminder) {
+        User user = reminder.getTask().getUser();
+        NotificationType type = reminder.getNotificationType();
+        return user.isDigestEnabled(type)
+                && notificationService.findProvider(type).map(NotificationProvider::supportsDigest).orElse(false);
+    }
+
+    /**
+     * End of the digest window containing a time (windows aligned on the epoch)
+     */
+    private Instant digestWindowEnd(Instant time) {
+        long window = Math.max(1, digestWindowSeconds);
+        return Instant.ofEpochSecond((time.getEpochSecond() / window + 1) * window);
+    }
+
+    /**
+     * Deliver due entries (retries, entries of other instances) and refresh the pending gauge
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.poll-interval-ms:5000}")
+    public void pollOutbox() {
+        try {
+            pendingCount.set(outboxRepository.countByStatus(NotificationOutbox.Status.PENDING));
+        } catch (Exception e) {
+            logger.error("Error counting pending notifications", e);
+        }
+        Instant now = Instant.now();
+        lanes.values().forEach(lane -> lane.throttle.evictIdleRecipients(now));
+        requestDrain();
+    }
+
+    /**
+     * Delete delivered and dead entries after the retention period
+     */
+    @Scheduled(cron = "0 30 2 * * ?") // Daily at 2:30 AM
+    public void cleanupOutbox() {
+        try {
+            Instant cutoffDate = Instant.now().minus(Duration.ofDays(retentionDays));
+            int deleted = outboxRepository.deleteFinishedBefore(cutoffDate);
+            logger.info("Cleaned up {} finished outbox notifications older than {}", deleted, cutoffDate);
+        } catch (Exception e) {
+            logger.error("Error cleaning up notification outbox", e);
+        }
+    }
+
+    private void requestDrain() {
+        drainRequested.set(true);
+        if (draining.compareAndSet(false, true)) {
+            try {
+                notificationExecutor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                // Retried on the next poll
+                draining.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            while (drainRequested.getAndSet(false)) {
+                // A full batch: more entries may be due
+                while (claimAndSubmit() == batchSize) {
+                    // continue with the next batch
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error draining notification outbox", e);
+        } finally {
+            draining.set(false);
+        }
+        // Requested between the last check and the reset
+        if (drainRequested.get()) {
+            requestDrain();
+        }
+    }
+
+    /**
+     * Claim a batch of due entries and hand them to their provider lanes
+     *
+     * @return number of claimed entries
+     */
+    private int claimAndSubmit() {
+        int limit = Math.min(batchSize, maxInFlight - inFlight.get());
+        if (limit <= 0) {
+            saturated = true;
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        List<NotificationOutbox> entries = transactionTemplate.execute(status -> {
+            List<NotificationOutbox> due = outboxRepository.lockDueEntries(now, limit);
+            if (!due.isEmpty()) {
+                outboxRepository.leaseEntries(due.stream().map(NotificationOutbox::getId).collect(Collectors.toList()),
+                        now.plusSeconds(leaseSeconds));
+            }
+            return due;
+        });
+
+        saturated = limit < batchSize && entries.size() == limit;
+        for (List<NotificationOutbox> delivery : groupDigests(entries)) {
+            inFlight.addAndGet(delivery.size());
+            submit(delivery);
+        }
+        return entries.size();
+    }
+
+    /**
+     * Group claimed entries into deliveries: digest entries of the same user and notification type
+     * together (at most digest-max-size per delivery), every other entry on its own
+     */
+    private List<List<NotificationOutbox>> groupDigests(List<NotificationOutbox> entries) {
+        Map<String, List<NotificationOutbox>> groups = new LinkedHashMap<>();
+        for (NotificationOutbox entry : entries) {
+            String key = entry.isDigest()
+                    ? entry.getRecipientKey() + ":" + entry.getNotificationType()
+                    : "entry:" + entry.getId();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+        }
+
+        List<List<NotificationOutbox>> deliveries = new ArrayList<>();
+        int maxSize = Math.max(1, digestMaxSize);
+        for (List<NotificationOutbox> group : groups.values()) {
+            for (int from = 0; from < group.size(); from += maxSize) {
+                deliveries.add(group.subList(from, Math.min(group.size(), from + maxSize)));
+            }
+        }
+        return deliveries;
+    }
+
+    /**
+     * Hand a delivery (one entry, or the entries of a digest) to its provider lane
+     */
+    private void submit(List<NotificationOutbox> entries) {
+        NotificationType type = entries.get(0).getNotificationType();
+        Optional<NotificationProvider> provider = notificationService.findProvider(type);
+        if (provider.isEmpty()) {
+            recordFailure(entries, "none", "No enabled provider for " + type, null);
+            complete(entries.size());
+            return;
+        }
+        NotificationProvider selectedProvider = provider.get();
+        ProviderLane lane = lanes.computeIfAbsent(selectedProvider.getProviderName(), ProviderLane::new);
+        lane.offer(entries, () -> deliver(entries, selectedProvider, lane.throttle));
+    }
+
+    /**
+     * Deliver entries through their provider, as one digest notification if several, and record the outcome
+     *
+     * @return future completed once the outcome is recorded
+     */
+    private CompletableFuture<Void> deliver(List<NotificationOutbox> entries, NotificationProvider provider,
+                                            ProviderThrottle throttle) {
+        String providerName = provider.getProviderName();
+        long start = System.nanoTime();
+        List<NotificationOutbox> delivered = new ArrayList<>(entries.size());
+        List<NotificationOutbox> dropped = new ArrayList<>();
+        CompletableFuture<Boolean> sending;
+        try {
+            List<Reminder> reminders = new ArrayList<>(entries.size());
+            for (NotificationOutbox entry : entries) {
+                Optional<Task> task = taskRepository.findWithUserByUid(entry.getTaskUid());
+                if (task.isEmpty()) {
+                    // Deleted since the reminder fired: nothing left to notify about
+                    outboxRepository.markFailed(entry.getId(), NotificationOutbox.Status.DEAD, Instant.now(), "Task deleted");
+                    count(providerName, "dropped");
+                    dropped.add(entry);
+                    continue;
+                }
+                delivered.add(entry);
+                reminders.add(entry.toReminder(task.get()));
+            }
+            if (reminders.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            sending = reminders.size() == 1
+                    ? provider.sendReminderNotificationAsync(reminders.get(0))
+                    : provider.sendDigestNotificationAsync(reminders);
+        } catch (Exception e) {
+            delivered = entries.stream().filter(entry -> !dropped.contains(entry)).collect(Collectors.toList());
+            sending = CompletableFuture.failedFuture(e);
+        }
+
+        List<NotificationOutbox> outcomeEntries = delivered;
+        CompletableFuture<Void> recorded = new CompletableFuture<>();
+        // Completed on the HTTP client's event loop: the database writes go back to the executor
+        sending.whenComplete((sent, error) -> onExecutor(() -> {
+            try {
+                recordOutcome(outcomeEntries, providerName, throttle, start, sent, error);
+            } finally {
+                recorded.complete(null);
+            }
+        }));
+        return recorded;
+    }
+
+    private void recordOutcome(List<NotificationOutbox> entries, String providerName, ProviderThrottle throttle,
+                               long start, Boolean sent, Throwable error) {
+        if (meterRegistry != null) {
+            meterRegistry.timer("notifications.outbox.delivery.duration", "provider", providerName)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ProviderUnavailableException unavailable) {
+            if (throttle.recordFailure(Instant.now(), unavailable.getRetryAfter())) {
+                logger.warn("Circuit opened for provider {}: {}", providerName, unavailable.getMessage());
+                if (meterRegistry != null) {
+                    meterRegistry.counter("notifications.outbox.circuit.opened", "provider", providerName).increment();
+                }
+            }
+            recordFailure(entries, providerName, unavailable.getMessage(), unavailable.getRetryAfter());
+            return;
+        }
+        if (cause == null) {
+            // Reached the provider, whether or not it took this notification
+            throttle.recordSuccess();
+        }
+
+        String failure;
+        if (error == null && Boolean.TRUE.equals(sent)) {
+            Instant sentAt = Instant.now();
+            for (NotificationOutbox entry : entries) {
+                try {
+                    outboxRepository.markSent(entry.getId(), sentAt);
+                    count(providerName, "sent");
+                } catch (Exception e) {
+                    // Lease expires: delivered again then
+                    logger.error("Error recording sent notification {}", entry.getId(), e);
+                }
+            }
+            if (entries.size() > 1 && meterRegistry != null) {
+                meterRegistry.counter("notifications.outbox.digests", "provider", providerName).increment();
+            }
+            logger.info("Notification sent successfully via {} for {}", providerName, describe(entries));
+            return;
+        } else if (error == null) {
+            failure = "Provider " + providerName + " failed to send the notification";
+        } else {
+            failure = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+            logger.error("Error sending notification via {} for {}", providerName, describe(entries), cause);
+        }
+        recordFailure(entries, providerName, failure, null);
+    }
+
+    /**
+     * Reminders of a delivery, for logging
+     */
+    private static String describe(List<NotificationOutbox> entries) {
+        if (entries.size() == 1) {
+            return "reminder ID: " + entries.get(0).getReminderId();
+        }
+        return "digest of reminder IDs: " + entries.stream().map(NotificationOutbox::getReminderId).toList();
+    }
+
+    /**
+     * Give claimed entries back to the outbox without counting an attempt (rate limit, open circuit)
+     */
+    private void defer(List<NotificationOutbox> entries, String providerName, Instant until) {
+        onExecutor(() -> {
+            for (NotificationOutbox entry : entries) {
+                try {
+                    outboxRepository.deferEntry(entry.getId(), until);
+                    count(providerName, "deferred");
+                } catch (Exception e) {
+                    // Lease expires: delivered then
+                    logger.error("Error deferring notification {}", entry.getId(), e);
+                }
+            }
+            logger.debug("Notification for {} deferred until {}", describe(entries), until);
+            complete(entries.size());
+        });
+    }
+
+    private void onExecutor(Runnable task) {
+        try {
+            notificationExecutor.execute(task);
+        } catch (TaskRejectedException e) {
+            // Executor saturated: recorded on the completing thread rather than lost
+            task.run();
+        }
+    }
+
+    /**
+     * Record a failed attempt of a delivery's entries
+     */
+    private void recordFailure(List<NotificationOutbox> entries, String providerName, String error, Duration retryAfter) {
+        for (NotificationOutbox entry : entries) {
+            recordFailure(entry, providerName, error, retryAfter);
+        }
+    }
+
+    /**
+     * Record a failed attempt: retried after the backoff, or DEAD after max-attempts
+     */
+    private void recordFailure(NotificationOutbox entry, String providerName, String error, Duration retryAfter) {
+        // The lease counted this attempt
+        int attempt = entry.getAttempts() + 1;
+        String lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        try {
+            if (attempt >= maxAttempts) {
+                outboxRepository.markFailed(entry.getId(), NotificationOutbox.Status.DEAD, Instant.now(), lastError);
+                count(providerName, "dead");
+                logger.warn("Giving up notification for reminder ID {} after {} attempts: {}",
+                        entry.getReminderId(), attempt, lastError);
+            } else {
+                long backoffMillis = Math.min(maxBackoffMillis, initialBackoffMillis * (1L << Math.min(attempt - 1, 20)));
+                if (retryAfter != null) {
+                    // Not before the provider accepts notifications again
+                    backoffMillis = Math.max(backoffMillis, retryAfter.toMillis());
+                }
+                outboxRepository.markFailed(entry.getId(), NotificationOutbox.Status.PENDING,
+                        Instant.now().plusMillis(backoffMillis), lastError);
+                count(providerName, "retry");
+                logger.warn("Notification for reminder ID {} failed (attempt {}), retrying in {} s: {}",
+                        entry.getReminderId(), attempt, backoffMillis / 1000, lastError);
+            }
+        } catch (Exception e) {
+            // Lease expires: retried then
+            logger.error("Error recording failed notification {}", entry.getId(), e);
+        }
+    }
+
+    private void complete(int entries) {
+        if (inFlight.addAndGet(-entries) <= maxInFlight / 2 && saturated) {
+            saturated = false;
+            requestDrain();
+        }
+    }
+
+    private void count(String providerName, String result) {
+        if (meterRegistry != null) {
+            meterRegistry.counter("notifications.outbox.deliveries", "provider", providerName, "result", result)
+                    .increment();
+        }
+    }
+
+    /**
+     * Deliveries of one provider: throttled, then at most provider-concurrency at a time, the others
+     * wait in memory. A delivery holds its slot until its outcome is recorded, not only while it runs on
+     * the executor.
+     */
+    private final class ProviderLane {
+        private final String providerName;
+        private final ProviderThrottle throttle;
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        private int running;
+
+        private ProviderLane(String providerName) {
+            this.providerName = providerName;
+            this.throttle = new ProviderThrottle(throttleConfig.limitsFor(providerName),
+                    throttleConfig.getFailureThreshold(), Duration.ofSeconds(throttleConfig.getOpenSeconds()));
+        }
+
+        /**
+         * Offer a delivery: one entry, or the entries of a digest (one notification, one permit)
+         */
+        void offer(List<NotificationOutbox> entries, Supplier<CompletableFuture<Void>> delivery) {
+            Instant now = Instant.now();
+            Instant openUntil = throttle.openUntil(now);
+            if (openUntil != null) {
+                defer(entries, providerName, openUntil);
+                return;
+            }
+
+            Instant latest = now.plusSeconds(throttleConfig.getMaxWaitSeconds());
+            Instant permitAt = throttle.reserve(entries.get(0).getRecipientKey(), now, latest);
+            long waitMillis = Duration.between(now, permitAt).toMillis();
+            if (permitAt.isAfter(latest)) {
+                defer(entries, providerName, permitAt);
+            } else if (waitMillis > 0) {
+                try {
+                    throttleScheduler.schedule(() -> enter(entries, delivery), waitMillis, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    defer(entries, providerName, permitAt);
+                }
+            } else {
+                enter(entries, delivery);
+            }
+        }
+
+        private synchronized void enter(List<NotificationOutbox> entries, Supplier<CompletableFuture<Void>> delivery) {
+            Runnable task = () -> {
+                CompletableFuture<Void> recorded;
+                try {
+                    recorded = delivery.get();
+                } catch (RuntimeException e) {
+                    logger.error("Error delivering notification for {}", describe(entries), e);
+                    recorded = CompletableFuture.completedFuture(null);
+                }
+                recorded.whenComplete((result, error) -> {
+                    throttle.deliveryFinished();
+                    complete(entries.size());
+                    next();
+                });
+            };
+            if (running < providerConcurrency) {
+                start(entries, task);
+            } else {
+                waiting.add(() -> start(entries, task));
+            }
+        }
+
+        private synchronized void next() {
+            running--;
+            Runnable next;
+            while (running < providerConcurrency && (next = waiting.poll()) != null) {
+                next.run();
+            }
+        }
+
+        private void start(List<NotificationOutbox> entries, Runnable task) {
+            // The circuit may have opened while the entries waited
+            Instant deferUntil = throttle.tryStart(Instant.now());
+            if (deferUntil != null) {
+                defer(entries, providerName, deferUntil);
+                return;
+            }
+            running++;
+            try {
+                notificationExecutor.execute(task);
+            } catch (TaskRejectedException e) {
+                running--;
+                recordFailure(entries, providerName, "Notification executor saturated", null);
+                complete(entries.size());
+            }
+        }
+    }
+}
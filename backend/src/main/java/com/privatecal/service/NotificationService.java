@@ -1,6 +1,5 @@
 package com.privatecal.service;
 
-import com.privatecal.entity.Reminder;
 import com.privatecal.entity.User;
 import com.privatecal.dto.NotificationType;
 import com.privatecal.service.notification.NotificationProvider;
@@ -8,7 +7,6 @@ import com.privatecal.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
@@ -52,48 +50,16 @@ public class NotificationService {
     }
 
     /**
-     * Send notification for a reminder using the appropriate provider
+     * Find the enabled provider handling a notification type
+     * Reminder notifications are delivered through the outbox (NotificationOutboxService).
      */
-    @Async
-    public void sendReminderNotification(Reminder reminder) {
-        if (reminder == null) {
-            logger.warn("Cannot send notification: reminder is null");
-            return;
-        }
-
-        NotificationType notificationType = reminder.getNotificationType();
+    public Optional<NotificationProvider> findProvider(NotificationType notificationType) {
         if (notificationType == null) {
-            logger.warn("Cannot send notification: reminder {} has no notification type", reminder.getId());
-            return;
+            return Optional.empty();
         }
-
-        logger.debug("Sending {} notification for reminder ID: {}", notificationType, reminder.getId());
-
-        // Find provider that supports this notification type
-        Optional<NotificationProvider> provider = providers.stream()
+        return providers.stream()
                 .filter(p -> p.supports(notificationType) && p.isEnabled())
                 .findFirst();
-
-        if (provider.isEmpty()) {
-            logger.warn("No enabled provider found for notification type: {}", notificationType);
-            return;
-        }
-
-        // Send notification
-        NotificationProvider selectedProvider = provider.get();
-        try {
-            boolean success = selectedProvider.sendReminderNotification(reminder);
-            if (success) {
-                logger.info("Notification sent successfully via {} for reminder ID: {}",
-                        selectedProvider.getProviderName(), reminder.getId());
-            } else {
-                logger.warn("Failed to send notification via {} for reminder ID: {}",
-                        selectedProvider.getProviderName(), reminder.getId());
-            }
-        } catch (Exception e) {
-            logger.error("Error sending notification via {} for reminder ID: {}",
-                    selectedProvider.getProviderName(), reminder.getId(), e);
-        }
     }
 
     /**
@@ -106,9 +72,7 @@ public class NotificationService {
         }
 
         // Find provider for the notification type
-        Optional<NotificationProvider> provider = providers.stream()
-                .filter(p -> p.supports(type) && p.isEnabled())
-                .findFirst();
+        Optional<NotificationProvider> provider = findProvider(type);
 
         if (provider.isEmpty()) {
             logger.warn("No enabled provider found for notification type: {}", type);
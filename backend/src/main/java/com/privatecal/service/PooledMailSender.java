@@ -0,0 +1,298 @@
+package com.privatecal.service;
+
+import com.privatecal.config.EmailConfig;
+import com.privatecal.service.notification.ProviderUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends emails over persistent SMTP connections
+ *
+ * JavaMailSender.send opens a connection (connect, STARTTLS, AUTH) for every email, which takes
+ * longer than sending the email itself. Here emails are queued (bounded, app.email.pool.queue-capacity)
+ * and sent by app.email.pool.connections workers, each keeping its own SMTP connection open:
+ * - a worker takes up to batch-size emails at once and sends them over its connection
+ * - a connection unused for health-check-idle-ms is checked (NOOP) before it is used again, a connection
+ *   dropped by the server is reopened and the email sent again once
+ * - connections are renewed after max-messages-per-connection emails and closed after max-idle-seconds
+ *
+ * Without a JavaMailSenderImpl (or with app.email.pool.enabled false) emails are sent by
+ * JavaMailSender on the calling thread.
+ *
+ * The workers are daemon threads owned by this bean, not tasks of a Spring executor: an executor waits for
+ * its running tasks when the context closes, which these loops never finish. On shutdown they are stopped
+ * and the emails still queued are failed with ProviderUnavailableException (the outbox sends them again).
+ */
+@Service
+public class PooledMailSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledMailSender.class);
+    private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+
+    private final JavaMailSender mailSender;
+    private final EmailConfig.Pool poolConfig;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<PendingEmail> queue;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public PooledMailSender(JavaMailSender mailSender,
+                            EmailConfig emailConfig,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.mailSender = mailSender;
+        this.poolConfig = emailConfig.getPool();
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, poolConfig.getQueueCapacity()));
+        if (this.meterRegistry != null) {
+            Gauge.builder("mail.pool.queue.size", queue, BlockingQueue::size)
+                    .description("Emails waiting for an SMTP connection")
+                    .register(this.meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isPooled()) {
+            logger.info("SMTP connection pool disabled: emails are sent with one connection each");
+            return;
+        }
+        running = true;
+        for (int i = 0; i < poolConfig.getConnections(); i++) {
+            Thread worker = new Thread(this::work, "PrivateCal-Mail-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        logger.info("SMTP connection pool started with {} connections", poolConfig.getConnections());
+    }
+
+    /**
+     * Stop the workers (an email being sent is finished first, for at most SHUTDOWN_WAIT_MILLIS)
+     * and fail the emails still queued
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join(SHUTDOWN_WAIT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+
+        List<PendingEmail> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        ProviderUnavailableException stopped = new ProviderUnavailableException("Email sender stopped");
+        pending.forEach(email -> email.result.completeExceptionally(stopped));
+        if (!pending.isEmpty()) {
+            logger.info("SMTP connection pool stopped, {} queued emails not sent", pending.size());
+        }
+    }
+
+    /**
+     * Queue an email for sending
+     *
+     * @return future completed with true once the server accepted the email, false if it was rejected
+     *         (e.g. invalid recipient); completed exceptionally with ProviderUnavailableException if the
+     *         queue is full or the SMTP server cannot be reached
+     */
+    public CompletableFuture<Boolean> send(MimeMessage message) {
+        if (!isPooled()) {
+            try {
+                mailSender.send(message);
+                return CompletableFuture.completedFuture(true);
+            } catch (Exception e) {
+                logger.error("Failed to send email: {}", e.getMessage(), e);
+                return CompletableFuture.completedFuture(false);
+            }
+        }
+
+        try {
+            // What JavaMailSenderImpl does before sending: date and Message-ID
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+        } catch (MessagingException e) {
+            logger.error("Failed to prepare email: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        if (!running) {
+            return CompletableFuture.failedFuture(new ProviderUnavailableException("Email sender stopped"));
+        }
+        PendingEmail email = new PendingEmail(message);
+        if (!queue.offer(email)) {
+            return CompletableFuture.failedFuture(new ProviderUnavailableException("Email sending queue is full"));
+        }
+        if (!running && queue.remove(email)) {
+            // Queued while stopping, after the queue was drained
+            email.result.completeExceptionally(new ProviderUnavailableException("Email sender stopped"));
+        }
+        return email.result;
+    }
+
+    /**
+     * Emails waiting for a connection
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private boolean isPooled() {
+        return poolConfig.isEnabled() && mailSender instanceof JavaMailSenderImpl;
+    }
+
+    /**
+     * Worker loop: send batches of queued emails over one connection
+     */
+    private void work() {
+        SmtpConnection connection = new SmtpConnection((JavaMailSenderImpl) mailSender);
+        List<PendingEmail> batch = new ArrayList<>(poolConfig.getBatchSize());
+        try {
+            while (running) {
+                PendingEmail first = queue.poll(poolConfig.getMaxIdleSeconds(), TimeUnit.SECONDS);
+                if (first == null) {
+                    // Idle: do not keep the server's connection busy
+                    connection.close();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, poolConfig.getBatchSize() - 1);
+                for (PendingEmail email : batch) {
+                    connection.send(email);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ProviderUnavailableException stopped = new ProviderUnavailableException("Email sender stopped");
+            batch.forEach(email -> email.result.completeExceptionally(stopped));
+            connection.close();
+        }
+    }
+
+    /**
+     * Email waiting in the queue and the future of its outcome
+     */
+    private static final class PendingEmail {
+        private final MimeMessage message;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private PendingEmail(MimeMessage message) {
+            this.message = message;
+        }
+    }
+
+    /**
+     * SMTP connection of one worker, opened on demand and reopened when dropped
+     */
+    private final class SmtpConnection {
+        private final JavaMailSenderImpl sender;
+        private Transport transport;
+        private int sentMessages;
+        private long lastUsedNanos;
+
+        private SmtpConnection(JavaMailSenderImpl sender) {
+            this.sender = sender;
+        }
+
+        void send(PendingEmail email) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    ensureOpen();
+                    MimeMessage message = email.message;
+                    transport.sendMessage(message, message.getAllRecipients());
+                    sentMessages++;
+                    lastUsedNanos = System.nanoTime();
+                    email.result.complete(true);
+                    return;
+                } catch (SendFailedException e) {
+                    // Rejected by the server (recipients): about the email, not the connection
+                    logger.error("Email rejected by the SMTP server: {}", e.getMessage());
+                    lastUsedNanos = System.nanoTime();
+                    email.result.complete(false);
+                    return;
+                } catch (MessagingException e) {
+                    close();
+                    if (attempt >= 2) {
+                        logger.error("SMTP server unavailable: {}", e.getMessage());
+                        email.result.completeExceptionally(new ProviderUnavailableException("SMTP server unavailable", e));
+                        return;
+                    }
+                    // Connection dropped by the server: send again over a new one
+                    logger.debug("SMTP connection lost, reconnecting: {}", e.getMessage());
+                } catch (RuntimeException e) {
+                    logger.error("Unexpected error sending email: {}", e.getMessage(), e);
+                    email.result.complete(false);
+                    return;
+                }
+            }
+        }
+
+        private void ensureOpen() throws MessagingException {
+            if (transport != null && sentMessages >= poolConfig.getMaxMessagesPerConnection()) {
+                close();
+            }
+            if (transport != null
+                    && System.nanoTime() - lastUsedNanos > TimeUnit.MILLISECONDS.toNanos(poolConfig.getHealthCheckIdleMillis())
+                    && !transport.isConnected()) {
+                // isConnected sends a NOOP: the server may have closed an idle connection
+                close();
+            }
+            if (transport == null) {
+                // As JavaMailSenderImpl: without a protocol, the session's default transport (mail.transport.protocol)
+                Transport opened = sender.getProtocol() != null
+                        ? sender.getSession().getTransport(sender.getProtocol())
+                        : sender.getSession().getTransport();
+                opened.connect(sender.getHost(), sender.getPort(),
+                        StringUtils.hasLength(sender.getUsername()) ? sender.getUsername() : null,
+                        sender.getPassword());
+                transport = opened;
+                sentMessages = 0;
+                lastUsedNanos = System.nanoTime();
+                if (meterRegistry != null) {
+                    meterRegistry.counter("mail.pool.connections.opened").increment();
+                }
+            }
+        }
+
+        void close() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    logger.debug("Error closing SMTP connection: {}", e.getMessage());
+                }
+                transport = null;
+            }
+        }
+    }
+}
@@ -62,6 +62,28 @@ public class RecurrenceService {
         }
     }
 
+    /**
+     * Check if a task has at least one occurrence overlapping a date range
+     * Used by CalDAV calendar-query time-range filters (RFC 4791 section 9.9): occurrences that
+     * started before the range but are still running at its start are included as well.
+     *
+     * @param task Task with optional recurrenceRule
+     * @param rangeStart Start of the range
+     * @param rangeEnd End of the range
+     * @return true if any (non-excluded) occurrence overlaps the range
+     */
+    public boolean hasOccurrenceInRange(Task task, Instant rangeStart, Instant rangeEnd) {
+        if (!task.isRecurring()) {
+            return isInRange(task, rangeStart, rangeEnd);
+        }
+
+        // Expansion only yields occurrences starting in the range, look back by the task duration
+        long durationMillis = ChronoUnit.MILLIS.between(task.getStartDatetimeLocal(), task.getEndDatetimeLocal());
+        return expandRecurrences(task, rangeStart.minusMillis(durationMillis), rangeEnd).stream()
+            .anyMatch(occurrence -> isOccurrenceInRange(occurrence.getOccurrenceStart(), occurrence.getOccurrenceEnd(),
+                                                       rangeStart, rangeEnd));
+    }
+
     /**
      * Expand recurring task using ical4j with floating time (DST-safe).
      *
@@ -272,9 +294,6 @@ public class RecurrenceService {
      * @return The next TaskOccurrence or null if none exists
      */
     public TaskOccurrence getNextOccurrence(Task task, Instant afterTime) {
-        logger.debug("getNextOccurrence for task {}: afterTime={}, recurrenceRule={}",
-                    task.getUid(), afterTime, task.getRecurrenceRule());
-
         if (task.getRecurrenceRule() == null || task.getRecurrenceRule().trim().isEmpty()) {
             // Non-recurring task - return the task itself if it's after the given time
             Instant taskStart = task.getStartDatetimeAsInstant();
@@ -284,17 +303,44 @@ public class RecurrenceService {
             return null;
         }
 
+        List<Instant> starts = getNextOccurrenceStarts(task, afterTime, 1);
+        if (starts.isEmpty()) {
+            return null;
+        }
+
+        // Calculate task duration in local time
+        long durationMillis = ChronoUnit.MILLIS.between(
+            task.getStartDatetimeLocal(),
+            task.getEndDatetimeLocal()
+        );
+        Instant occStart = starts.get(0);
+        return new TaskOccurrence(task, occStart, occStart.plusMillis(durationMillis));
+    }
+
+    /**
+     * Get the start times of the next occurrences of a recurring task after a given time
+     * Same search as getNextOccurrence (up to recurrenceEnd, or 2 years after afterTime), for up to count
+     * occurrences in one RRULE expansion. Occurrences excluded by EXDATE (deleted or detached) are skipped.
+     * Used to precompute the upcoming fire times of recurring reminders.
+     *
+     * @param task The recurring task
+     * @param afterTime Get the occurrences after this time
+     * @param count Maximum number of occurrences
+     * @return Occurrence starts in ascending order, empty if there are no more occurrences
+     */
+    public List<Instant> getNextOccurrenceStarts(Task task, Instant afterTime, int count) {
+        logger.debug("getNextOccurrenceStarts for task {}: afterTime={}, count={}, recurrenceRule={}",
+                    task.getUid(), afterTime, count, task.getRecurrenceRule());
+
+        if (task.getRecurrenceRule() == null || task.getRecurrenceRule().trim().isEmpty() || count <= 0) {
+            return List.of();
+        }
+
         try {
             // Parse RRULE
             RRule rrule = new RRule(task.getRecurrenceRule());
             Recur recur = rrule.getRecur();
 
-            // Calculate task duration in local time
-            long durationMillis = ChronoUnit.MILLIS.between(
-                task.getStartDatetimeLocal(),
-                task.getEndDatetimeLocal()
-            );
-
             // Get task timezone
             ZoneId taskZone = ZoneId.of(task.getTaskTimezone());
 
@@ -312,7 +358,7 @@ public class RecurrenceService {
             DateTime periodEnd = toDateTime(effectiveEnd);
 
             if (logger.isDebugEnabled()) {
-                logger.debug("🔍 getNextOccurrence DEBUG:");
+                logger.debug("🔍 getNextOccurrenceStarts DEBUG:");
                 logger.debug("  task.getStartDatetimeLocal()={}", task.getStartDatetimeLocal());
                 logger.debug("  task.getTaskTimezone()={}", task.getTaskTimezone());
                 logger.debug("  afterTime={}", afterTime);
@@ -323,50 +369,47 @@ public class RecurrenceService {
                 logger.debug("  RRULE={}", task.getRecurrenceRule());
             }
 
-            // Generate occurrences starting from afterTime + 1 second
+            // Generate occurrences starting from afterTime + 1 second, enough to still have count after EXDATEs
+            Set<Instant> exceptions = parseExceptionDates(task.getRecurrenceExceptions());
             DateList dates = recur.getDates(
                 startDate,
                 searchFrom,
                 periodEnd,
                 Value.DATE_TIME,
-                1 // We only need the first occurrence
+                Math.min(count + exceptions.size(), MAX_OCCURRENCES)
             );
 
-            if (logger.isDebugEnabled()) {
-                logger.debug("  Found {} dates from recur.getDates()", dates.size());
-                if (!dates.isEmpty()) {
-                    logger.debug("  First date: {}", dates.get(0));
-                }
-            }
-
-            // Return the first occurrence after afterTime
-            if (!dates.isEmpty()) {
-                Date firstDate = dates.get(0);
-                Instant occStart = Instant.ofEpochMilli(firstDate.getTime());
-                Instant occEnd = occStart.plusMillis(durationMillis);
-
-                logger.debug("First date found: {}, occStart={}, isAfter(afterTime)={}",
-                            firstDate, occStart, occStart.isAfter(afterTime));
-
-                // Make sure it's actually after the requested time
-                if (occStart.isAfter(afterTime)) {
-                    logger.info("Next occurrence found for task {}: {}", task.getUid(), occStart);
-                    return new TaskOccurrence(task, occStart, occEnd);
+            logger.debug("  Found {} dates from recur.getDates()", dates.size());
+
+            // Keep the occurrences actually after the requested time
+            List<Instant> starts = new ArrayList<>(dates.size());
+            for (Date date : dates) {
+                Instant occStart = Instant.ofEpochMilli(date.getTime());
+                if (exceptions.contains(occStart)) {
+                    logger.debug("Skipping exception date: {}", occStart);
+                } else if (starts.size() == count) {
+                    break;
+                } else if (occStart.isAfter(afterTime)) {
+                    starts.add(occStart);
                 } else {
                     logger.warn("Found occurrence {} is not after requested time {}", occStart, afterTime);
                 }
-            } else {
+            }
+
+            if (starts.isEmpty()) {
                 logger.warn("No dates found for task {} with RRULE {} after {}",
                            task.getUid(), task.getRecurrenceRule(), afterTime);
+            } else {
+                logger.info("Next occurrence found for task {}: {} ({} occurrences)",
+                           task.getUid(), starts.get(0), starts.size());
             }
-
-            return null;
+            return starts;
         } catch (ParseException e) {
             logger.error("Invalid RRULE for task {}: {}", task.getUid(), task.getRecurrenceRule(), e);
-            return null;
+            return List.of();
         } catch (Exception e) {
-            logger.error("Error getting next occurrence for task {}: {}", task.getUid(), e.getMessage(), e);
-            return null;
+            logger.error("Error getting next occurrences for task {}: {}", task.getUid(), e.getMessage(), e);
+            return List.of();
         }
     }
 
@@ -0,0 +1,57 @@
+package com.privatecal.service;
+
+import com.privatecal.entity.Reminder;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * JPA listener keeping ReminderScheduler in sync with reminder writes
+ * The scheduler is updated after commit, so rolled back writes never reach it.
+ * Bulk JPQL updates and deletes bypass entity listeners: they are caught by the reconciliation scan.
+ */
+public class ReminderScheduleListener {
+
+    // Created by Hibernate through the Spring bean container: the scheduler is looked up lazily
+    @Autowired
+    private ObjectProvider<ReminderScheduler> reminderScheduler;
+
+    @PostPersist
+    @PostUpdate
+    public void reminderSaved(Reminder reminder) {
+        Long reminderId = reminder.getId();
+        Instant reminderTime = reminder.getReminderTime();
+        boolean sent = Boolean.TRUE.equals(reminder.getIsSent());
+        afterCommit(scheduler -> scheduler.schedule(reminderId, reminderTime, sent));
+    }
+
+    @PostRemove
+    public void reminderRemoved(Reminder reminder) {
+        Long reminderId = reminder.getId();
+        afterCommit(scheduler -> scheduler.cancel(reminderId));
+    }
+
+    private void afterCommit(Consumer<ReminderScheduler> update) {
+        ReminderScheduler scheduler = reminderScheduler != null ? reminderScheduler.getIfAvailable() : null;
+        if (scheduler == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.accept(scheduler);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.accept(scheduler);
+            }
+        });
+    }
+}
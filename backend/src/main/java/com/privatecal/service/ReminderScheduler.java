@@ -0,0 +1,196 @@
+package com.privatecal.service;
+
+import com.privatecal.repository.ReminderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory scheduler firing reminders at their reminder time
+ *
+ * Unsent reminders due within app.reminders.scheduler.horizon-minutes are kept in a DelayQueue,
+ * a dispatcher thread takes them when their time comes and hands them to ReminderService.
+ * - reminder writes update the queue after commit (ReminderScheduleListener)
+ * - a reconciliation scan (every reconcile-interval-ms) loads the reminders entering the horizon,
+ *   and catches reminders written by other instances, bulk updates or missed while the queue was down
+ *
+ * The queue is only a hint: every reminder is claimed in the database before it is sent
+ * (ReminderService.claimReminders), so a stale entry (deleted, rescheduled or already sent reminder)
+ * is simply dropped, and instances sharing the database never send the same reminder twice.
+ */
+@Service
+public class ReminderScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+
+    private final ReminderRepository reminderRepository;
+    private final ReminderService reminderService;
+
+    private final DelayQueue<ScheduledReminder> queue = new DelayQueue<>();
+    // Current fire time of each queued reminder: queue entries with another time are stale
+    private final Map<Long, Instant> scheduled = new ConcurrentHashMap<>();
+    // End of the horizon loaded by the last scan: later reminders are left to the next scans
+    private volatile Instant loadedUntil = Instant.EPOCH;
+
+    @Value("${app.reminders.scheduler.horizon-minutes:10}")
+    private long horizonMinutes;
+
+    @Value("${app.reminders.claim-batch-size:100}")
+    private int claimBatchSize;
+
+    private volatile boolean running;
+    private Thread dispatcherThread;
+
+    public ReminderScheduler(ReminderRepository reminderRepository, ReminderService reminderService) {
+        this.reminderRepository = reminderRepository;
+        this.reminderService = reminderService;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcherThread = new Thread(this::dispatch, "ReminderDispatcherThread");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        dispatcherThread.interrupt();
+        try {
+            dispatcherThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedule a saved reminder (called after commit)
+     * Sent reminders and reminders beyond the loaded horizon are removed from the queue.
+     */
+    public void schedule(Long reminderId, Instant reminderTime, boolean sent) {
+        if (sent || reminderTime == null || reminderTime.isAfter(loadedUntil)) {
+            scheduled.remove(reminderId);
+            return;
+        }
+        enqueue(reminderId, reminderTime);
+    }
+
+    /**
+     * Remove a deleted reminder from the queue (called after commit)
+     */
+    public void cancel(Long reminderId) {
+        scheduled.remove(reminderId);
+    }
+
+    /**
+     * Number of reminders waiting in the queue
+     */
+    public int getScheduledCount() {
+        return scheduled.size();
+    }
+
+    /**
+     * Load the reminders due until the end of the horizon, including overdue ones
+     */
+    @Scheduled(fixedDelayString = "${app.reminders.scheduler.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        try {
+            Instant now = Instant.now();
+            Instant until = now.plus(Duration.ofMinutes(horizonMinutes));
+            // Moved before the scan: reminders committed while it runs are queued by the listener
+            loadedUntil = until;
+
+            int loaded = 0;
+            for (Object[] row : reminderRepository.findScheduleUntil(now, until)) {
+                Long reminderId = (Long) row[0];
+                Instant reminderTime = (Instant) row[1];
+                if (!reminderTime.equals(scheduled.get(reminderId))) {
+                    enqueue(reminderId, reminderTime);
+                    loaded++;
+                }
+            }
+            if (loaded > 0) {
+                logger.debug("Reminder scan loaded {} reminders due until {}", loaded, until);
+            }
+        } catch (Exception e) {
+            logger.error("Error scanning reminders to schedule", e);
+        }
+    }
+
+    private void enqueue(Long reminderId, Instant reminderTime) {
+        scheduled.put(reminderId, reminderTime);
+        queue.add(new ScheduledReminder(reminderId, reminderTime));
+    }
+
+    /**
+     * Dispatcher loop: wait for the next due reminder, then process every reminder due at once
+     */
+    private void dispatch() {
+        while (running) {
+            try {
+                List<Long> dueIds = new ArrayList<>();
+                ScheduledReminder entry = queue.take();
+                do {
+                    if (scheduled.remove(entry.reminderId, entry.reminderTime)) {
+                        dueIds.add(entry.reminderId);
+                    }
+                } while ((entry = queue.poll()) != null);
+
+                // Claimed and processed a page at a time (a backlog after an outage can be large),
+                // reminders claimed by another instance are left to it
+                for (int from = 0; from < dueIds.size(); from += claimBatchSize) {
+                    List<Long> page = dueIds.subList(from, Math.min(from + claimBatchSize, dueIds.size()));
+                    List<Long> claimedIds = reminderService.claimReminders(page);
+                    if (!claimedIds.isEmpty()) {
+                        reminderService.processClaimedReminders(claimedIds);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // Reminders still unsent are queued again by the next scan
+                logger.error("Error dispatching due reminders", e);
+            }
+        }
+    }
+
+    /**
+     * Queue entry: a reminder and the time it was scheduled for
+     */
+    private static final class ScheduledReminder implements Delayed {
+        private final Long reminderId;
+        private final Instant reminderTime;
+
+        private ScheduledReminder(Long reminderId, Instant reminderTime) {
+            this.reminderId = reminderId;
+            this.reminderTime = reminderTime;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), reminderTime));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return reminderTime.compareTo(((ScheduledReminder) other).reminderTime);
+        }
+    }
+}
@@ -7,16 +7,26 @@ import com.privatecal.entity.Task;
 import com.privatecal.entity.User;
 import com.privatecal.repository.ReminderRepository;
 import com.privatecal.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -32,8 +42,29 @@ public class ReminderService {
     private final ReminderRepository reminderRepository;
     private final TaskRepository taskRepository;
     private final UserService userService;
-    private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutboxService;
     private final RecurrenceService recurrenceService;
+    private final CalendarSyncService calendarSyncService;
+
+    // Identifies this instance in reminder claims (default: pid@hostname)
+    @Value("${app.reminders.instance-id:#{T(java.lang.management.ManagementFactory).getRuntimeMXBean().getName()}}")
+    private String instanceId;
+
+    @Value("${app.reminders.claim-lease-seconds:300}")
+    private long claimLeaseSeconds;
+
+    @Value("${app.reminders.claim-batch-size:100}")
+    private int claimBatchSize;
+
+    // Occurrences of a recurring task precomputed per reminder, used as it fires
+    @Value("${app.reminders.horizon.size:32}")
+    private int horizonSize;
+
+    @Value("${app.reminders.horizon.refill-batch-size:500}")
+    private int horizonRefillBatchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
     
     /**
      * Create reminder for a task
@@ -55,6 +86,27 @@ public class ReminderService {
             logger.debug("  task.getRecurrenceRule() = {}", task.getRecurrenceRule());
         }
 
+        // Validate reminder request and compute reminder time
+        Reminder reminder = buildReminder(task, reminderRequest);
+
+        // Save reminder
+        Reminder savedReminder = reminderRepository.save(reminder);
+        recordRemindersChanged(task);
+
+        logger.info("Reminder created for task: {} at {} minutes before ({})",
+                   task.getTitle(), reminderRequest.getReminderOffsetMinutes(), savedReminder.getReminderTime());
+
+        return ReminderResponse.fromReminder(savedReminder);
+    }
+    
+    /**
+     * Validate a reminder request and create the (not yet saved) reminder of a task, with its reminder time
+     * Also used by the batched ICS import, which saves reminders in chunks
+     *
+     * @throws RuntimeException if the request is not valid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Reminder buildReminder(Task task, ReminderRequest reminderRequest) {
         // Validate reminder request
         validateReminderRequest(reminderRequest);
 
@@ -70,17 +122,21 @@ public class ReminderService {
             Instant occurrenceStart;
             Instant taskStartInstant = task.getStartDatetimeAsInstant();
 
+            List<Instant> upcomingOccurrences;
+
             // If task hasn't started yet, use the original task start time
             if (taskStartInstant.isAfter(now)) {
                 occurrenceStart = taskStartInstant;
+                upcomingOccurrences = recurrenceService.getNextOccurrenceStarts(task, occurrenceStart, horizonSize);
                 logger.info("Recurring task hasn't started yet, using original start time: {}", occurrenceStart);
             } else {
-                // Task has already started - find the next occurrence from now
-                RecurrenceService.TaskOccurrence nextOccurrence =
-                    recurrenceService.getNextOccurrence(task, now.minusSeconds(2));
+                // Task has already started - find the next occurrences from now
+                List<Instant> nextOccurrences =
+                    recurrenceService.getNextOccurrenceStarts(task, now.minusSeconds(2), horizonSize + 1);
 
-                if (nextOccurrence != null) {
-                    occurrenceStart = nextOccurrence.getOccurrenceStart();
+                if (!nextOccurrences.isEmpty()) {
+                    occurrenceStart = nextOccurrences.get(0);
+                    upcomingOccurrences = nextOccurrences.subList(1, nextOccurrences.size());
                     logger.info("Recurring task started in past, next occurrence at: {}", occurrenceStart);
 
                     // Set lastSentOccurrence to indicate this is a recurring reminder
@@ -94,8 +150,7 @@ public class ReminderService {
                     reminder.setIsSent(true);
                     logger.warn("No future occurrences found for recurring task {}, marking reminder as sent",
                                task.getUid());
-                    Reminder savedReminder = reminderRepository.save(reminder);
-                    return ReminderResponse.fromReminder(savedReminder);
+                    return reminder;
                 }
             }
 
@@ -104,6 +159,7 @@ public class ReminderService {
                 .minus(java.time.Duration.ofMinutes(reminderRequest.getReminderOffsetMinutes()));
 
             reminder.setReminderTime(reminderTime);
+            reminder.setUpcomingOccurrences(upcomingOccurrences, task.getRecurrenceFingerprint());
 
             logger.info("Recurring task reminder: occurrence at {}, reminder time set to {}",
                        occurrenceStart, reminderTime);
@@ -118,15 +174,9 @@ public class ReminderService {
             }
         }
 
-        // Save reminder
-        Reminder savedReminder = reminderRepository.save(reminder);
-
-        logger.info("Reminder created for task: {} at {} minutes before ({})",
-                   task.getTitle(), reminderRequest.getReminderOffsetMinutes(), savedReminder.getReminderTime());
-
-        return ReminderResponse.fromReminder(savedReminder);
+        return reminder;
     }
-    
+
     /**
      * Get reminder by ID (with user ownership validation)
      */
@@ -232,6 +282,7 @@ public class ReminderService {
         
         // Save reminder
         Reminder savedReminder = reminderRepository.save(reminder);
+        recordRemindersChanged(reminder.getTask());
         
         logger.info("Reminder updated: {} minutes before task", 
                    reminderRequest.getReminderOffsetMinutes());
@@ -253,6 +304,7 @@ public class ReminderService {
         
         // Delete reminder
         reminderRepository.delete(reminder);
+        recordRemindersChanged(reminder.getTask());
         
         logger.info("Reminder deleted successfully");
     }
@@ -271,10 +323,25 @@ public class ReminderService {
 
         // Delete reminders
         reminderRepository.deleteByTask(task);
+        recordRemindersChanged(task);
 
         logger.info("All reminders deleted for task: {}", task.getTitle());
     }
     
+    /**
+     * Record a change of the reminders of a task, in the transaction of the change
+     * Reminders are rendered as VALARMs of the task's event: the task version (CalDAV ETag) is incremented
+     * at commit, and the change is journaled for sync-collection, CTags and calendar snapshots.
+     * Writes that delete reminders without this service (e.g. replacing them all) must call it too.
+     *
+     * @param task the managed task the reminders belong to
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemindersChanged(Task task) {
+        entityManager.lock(task, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        calendarSyncService.recordChange(task);
+    }
+
     /**
      * Mark reminder as sent
      */
@@ -306,65 +373,94 @@ public class ReminderService {
     }
     
     /**
-     * Process due reminders - scheduled task that runs every 30 seconds
+     * Claim due reminders fired by ReminderScheduler for this instance (one page, at most claim-batch-size)
+     * Reminders deleted, rescheduled or already sent since they were queued are skipped, as well as
+     * reminders locked or claimed by another instance: each reminder is sent by a single instance.
+     * A claim expires after claim-lease-seconds, so the reminders of a crashed instance are claimed again.
+     *
+     * @return IDs of the claimed reminders, to pass to processClaimedReminders
      */
-    @Scheduled(fixedRate = 30000) // 30 seconds
-    @Async
-    public void processDueReminders() {
+    public List<Long> claimReminders(List<Long> reminderIds) {
+        Instant now = Instant.now();
+        List<Long> claimedIds = reminderRepository.lockClaimableReminders(reminderIds, now, claimBatchSize);
+
+        if (!claimedIds.isEmpty()) {
+            reminderRepository.claimReminders(claimedIds, instanceId, now.plusSeconds(claimLeaseSeconds));
+            logger.debug("Claimed {} due reminders for {}", claimedIds.size(), instanceId);
+        }
+        return claimedIds;
+    }
+
+    /**
+     * Process reminders claimed by this instance (one page, see claimReminders)
+     * Reminders are loaded with their task and user in one query, and their state changes are applied
+     * in batch: one UPDATE for the reminders now sent, batched updates for the recurring reminders
+     * moved to their next occurrence. Both release the claims.
+     */
+    public void processClaimedReminders(List<Long> reminderIds) {
         try {
-            Instant currentTime = Instant.now();
-            List<Reminder> dueReminders = reminderRepository.findDueReminders(currentTime);
-            
+            List<Reminder> dueReminders = reminderRepository.findClaimedReminders(reminderIds, instanceId);
+
             if (!dueReminders.isEmpty()) {
                 logger.info("Processing {} due reminders", dueReminders.size());
-                
+                entityManager.unwrap(Session.class).setJdbcBatchSize(dueReminders.size());
+
+                List<Long> sentIds = new ArrayList<>();
                 for (Reminder reminder : dueReminders) {
-                    try {
-                        processReminder(reminder);
-                    } catch (Exception e) {
-                        logger.error("Failed to process reminder ID {}: {}", 
-                                   reminder.getId(), e.getMessage());
+                    if (processReminder(reminder)) {
+                        sentIds.add(reminder.getId());
                     }
                 }
+
+                // Flushes the advanced recurring reminders first (batched), then marks the others as sent
+                if (!sentIds.isEmpty()) {
+                    markRemindersAsSent(sentIds);
+                }
             }
         } catch (Exception e) {
             logger.error("Error processing due reminders", e);
         }
     }
-    
+
     /**
      * Process individual reminder
+     *
+     * @return true if the reminder is done and must be marked as sent,
+     *         false if it was moved to the next occurrence of its recurring task
      */
-    private void processReminder(Reminder reminder) {
+    private boolean processReminder(Reminder reminder) {
         try {
             Task task = reminder.getTask();
             logger.debug("Processing reminder ID: {} for task: {}",
                         reminder.getId(), task.getTitle());
 
-            // Send notification using unified service
-            notificationService.sendReminderNotification(reminder);
+            // Notification delivered after commit, retried until the provider accepts it
+            notificationOutboxService.enqueue(reminder);
 
             // Handle recurring task reminders
+            boolean done = true;
             if (task.getRecurrenceRule() != null && !task.getRecurrenceRule().trim().isEmpty()) {
-                handleRecurringReminder(reminder, task);
-            } else {
-                // Non-recurring task: mark as sent
-                markReminderAsSent(reminder.getId());
+                done = handleRecurringReminder(reminder, task);
             }
 
             logger.info("Reminder processed successfully for task: {}", task.getTitle());
+            return done;
 
         } catch (Exception e) {
+            // Left unsent and claimed: sent again by the next claim once the lease expires
             logger.error("Failed to process reminder ID {}: {}",
                         reminder.getId(), e.getMessage());
+            return false;
         }
     }
 
     /**
      * Handle reminder for recurring task
      * Updates reminder time to next occurrence instead of marking as sent
+     *
+     * @return true if the series is complete (or failed) and the reminder must be marked as sent
      */
-    private void handleRecurringReminder(Reminder reminder, Task task) {
+    private boolean handleRecurringReminder(Reminder reminder, Task task) {
         try {
             // Calculate which occurrence we just processed
             // reminderTime + offset = occurrence start time
@@ -376,43 +472,95 @@ public class ReminderService {
                         reminder.getReminderOffsetMinutes());
 
             // Get the next occurrence after the one we just processed
-            RecurrenceService.TaskOccurrence nextOccurrence =
-                recurrenceService.getNextOccurrence(task, currentOccurrenceStart);
+            Instant nextOccurrenceStart = nextOccurrenceStart(reminder, task, currentOccurrenceStart);
 
-            if (nextOccurrence != null) {
+            if (nextOccurrenceStart != null) {
                 // Calculate new reminder time: next occurrence start - offset
-                Instant newReminderTime = nextOccurrence.getOccurrenceStart()
+                Instant newReminderTime = nextOccurrenceStart
                     .minus(java.time.Duration.ofMinutes(reminder.getReminderOffsetMinutes()));
 
                 logger.info("Next occurrence found at {}. New reminder time will be {}",
-                           nextOccurrence.getOccurrenceStart(), newReminderTime);
+                           nextOccurrenceStart, newReminderTime);
 
                 // Update reminder with new time and track which occurrence was processed
+                // (managed entity: written with the batch when the transaction flushes)
                 reminder.setReminderTime(newReminderTime);
                 reminder.setLastSentOccurrence(currentOccurrenceStart);
                 reminder.setIsSent(false); // Keep as unsent so it will be processed again
-
-                Reminder saved = reminderRepository.save(reminder);
-
-                logger.info("Saved recurring reminder {}: reminderTime={}, lastSentOccurrence={}, isSent={}",
-                           saved.getId(), saved.getReminderTime(), saved.getLastSentOccurrence(),
-                           saved.getIsSent());
-            } else {
-                // No more occurrences - mark as sent (series is complete)
-                reminder.setLastSentOccurrence(currentOccurrenceStart);
-                markReminderAsSent(reminder.getId());
-                logger.info("No more occurrences for recurring reminder {}, marked as sent",
-                           reminder.getId());
+                reminder.releaseClaim();
+                return false;
             }
 
+            // No more occurrences - mark as sent (series is complete)
+            reminder.setLastSentOccurrence(currentOccurrenceStart);
+            logger.info("No more occurrences for recurring reminder {}, marked as sent",
+                       reminder.getId());
+            return true;
+
         } catch (Exception e) {
             logger.error("Error handling recurring reminder {}: {}",
                         reminder.getId(), e.getMessage());
             // Fallback: mark as sent to prevent infinite loop
-            markReminderAsSent(reminder.getId());
+            return true;
         }
     }
     
+    /**
+     * Start of the occurrence following the one just fired
+     * Taken from the occurrences precomputed for the reminder; when there are none left (or the task's
+     * recurrence changed) the next horizon-size occurrences are expanded at once and the others kept.
+     *
+     * @return null if the series has no more occurrences
+     */
+    private Instant nextOccurrenceStart(Reminder reminder, Task task, Instant currentOccurrenceStart) {
+        int fingerprint = task.getRecurrenceFingerprint();
+        Instant nextOccurrenceStart = reminder.pollUpcomingOccurrence(currentOccurrenceStart, fingerprint);
+        if (nextOccurrenceStart != null) {
+            return nextOccurrenceStart;
+        }
+
+        List<Instant> nextOccurrences =
+            recurrenceService.getNextOccurrenceStarts(task, currentOccurrenceStart, horizonSize + 1);
+        if (nextOccurrences.isEmpty()) {
+            reminder.clearUpcomingOccurrences();
+            return null;
+        }
+        reminder.setUpcomingOccurrences(nextOccurrences.subList(1, nextOccurrences.size()), fingerprint);
+        return nextOccurrences.get(0);
+    }
+
+    /**
+     * Precompute the upcoming occurrences of recurring reminders without them (one page per run):
+     * reminders edited or whose occurrences were used up, so that firing them does not expand the RRULE
+     */
+    @Scheduled(fixedDelayString = "${app.reminders.horizon.refill-interval-ms:60000}",
+               initialDelayString = "${app.reminders.horizon.refill-interval-ms:60000}")
+    public void refillUpcomingOccurrences() {
+        try {
+            List<Reminder> reminders = reminderRepository.findRemindersWithoutUpcomingOccurrences(
+                    Instant.now(), PageRequest.of(0, horizonRefillBatchSize));
+
+            int refilled = 0;
+            for (Reminder reminder : reminders) {
+                Task task = reminder.getTask();
+                Instant currentOccurrenceStart = reminder.getReminderTime()
+                    .plus(java.time.Duration.ofMinutes(reminder.getReminderOffsetMinutes()));
+
+                // Conditional update: skipped if the reminder fired meanwhile (it keeps its own occurrences)
+                String upcomingOccurrences = Reminder.encodeUpcomingOccurrences(
+                    recurrenceService.getNextOccurrenceStarts(task, currentOccurrenceStart, horizonSize));
+                refilled += reminderRepository.storeUpcomingOccurrences(reminder.getId(), reminder.getReminderTime(),
+                        upcomingOccurrences, task.getRecurrenceFingerprint());
+            }
+
+            if (refilled > 0) {
+                logger.debug("Precomputed upcoming occurrences of {} recurring reminders", refilled);
+            }
+        } catch (Exception e) {
+            logger.error("Error precomputing upcoming occurrences of recurring reminders", e);
+        }
+    }
+
     /**
      * Get reminder statistics for current user
      */
@@ -456,6 +604,17 @@ public class ReminderService {
     public void cleanupOldReminders() {
         try {
             Instant cutoffDate = Instant.now().minus(java.time.Duration.ofDays(30)); // Keep for 30 days
+
+            // The deleted reminders disappear from the VALARMs of their tasks: new versions and journal entries
+            Map<Long, List<String>> taskUidsByCalendar = new HashMap<>();
+            for (Object[] row : reminderRepository.findTasksWithOldSentReminders(cutoffDate)) {
+                taskUidsByCalendar.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+            for (Map.Entry<Long, List<String>> calendar : taskUidsByCalendar.entrySet()) {
+                taskRepository.incrementVersions(calendar.getValue());
+                calendarSyncService.recordChanges(calendar.getKey(), calendar.getValue());
+            }
+
             reminderRepository.deleteOldSentReminders(cutoffDate);
             logger.info("Cleaned up old sent reminders older than {}", cutoffDate);
         } catch (Exception e) {
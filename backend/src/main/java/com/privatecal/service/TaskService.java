@@ -1,5 +1,6 @@
 package com.privatecal.service;
 
+import com.privatecal.caldav.IcsFragmentCache;
 import com.privatecal.dto.*;
 import com.privatecal.entity.Reminder;
 import com.privatecal.entity.Task;
@@ -14,6 +15,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
@@ -40,6 +42,8 @@ public class TaskService {
     private final ReminderService reminderService;
     private final RecurrenceService recurrenceService;
     private final CalendarService calendarService;
+    private final CalendarSyncService calendarSyncService;
+    private final IcsFragmentCache icsCache;
     
     /**
      * Create a new task
@@ -50,16 +54,47 @@ public class TaskService {
         // Get current user
         User currentUser = userService.getCurrentUser();
         
-        // Validate task request
-        validateTaskRequest(taskRequest);
-        
         // Get default calendar for user
         com.privatecal.entity.Calendar defaultCalendar = calendarService.getDefaultCalendarEntity(currentUser);
 
+        // Validate task request and create task entity
+        Task task = buildTask(taskRequest, currentUser, defaultCalendar);
+
+        // Save task
+        Task savedTask = taskRepository.save(task);
+        calendarSyncService.recordChange(savedTask);
+
+        // Create reminders if provided
+        if (taskRequest.getReminders() != null && !taskRequest.getReminders().isEmpty()) {
+            for (ReminderRequest reminderRequest : taskRequest.getReminders()) {
+                reminderService.createReminderForTask(savedTask.getUid(), reminderRequest);
+            }
+        }
+        
+        // Reload task with reminders
+        savedTask = taskRepository.findById(savedTask.getUid()).orElse(savedTask);
+        // savedTask = taskRepository.findById(savedTask.getUid()).orElseThrow( () -> new NullPointerException("Task not found after creation") );
+        
+        logger.info("Task created successfully: {} for user: {}", savedTask.getTitle(), currentUser.getUsername());
+        
+        return TaskResponse.fromTask(savedTask);
+    }
+    
+    /**
+     * Validate a task request and create the (not yet saved) task entity
+     * Also used by the batched ICS import, which saves tasks in chunks
+     *
+     * @throws RuntimeException if the request is not valid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Task buildTask(TaskRequest taskRequest, User user, com.privatecal.entity.Calendar calendar) {
+        // Validate task request
+        validateTaskRequest(taskRequest);
+
         // Create task entity
         Task task = new Task();
-        task.setUser(currentUser);
-        task.setCalendar(defaultCalendar);
+        task.setUser(user);
+        task.setCalendar(calendar);
         task.setTitle(taskRequest.getTitle().trim());
         task.setDescription(taskRequest.getDescription() != null ? taskRequest.getDescription().trim() : null);
 
@@ -86,25 +121,9 @@ public class TaskService {
             task.setRecurrenceEnd(null);
         }
 
-        // Save task
-        Task savedTask = taskRepository.save(task);
-
-        // Create reminders if provided
-        if (taskRequest.getReminders() != null && !taskRequest.getReminders().isEmpty()) {
-            for (ReminderRequest reminderRequest : taskRequest.getReminders()) {
-                reminderService.createReminderForTask(savedTask.getUid(), reminderRequest);
-            }
-        }
-        
-        // Reload task with reminders
-        savedTask = taskRepository.findById(savedTask.getUid()).orElse(savedTask);
-        // savedTask = taskRepository.findById(savedTask.getUid()).orElseThrow( () -> new NullPointerException("Task not found after creation") );
-        
-        logger.info("Task created successfully: {} for user: {}", savedTask.getTitle(), currentUser.getUsername());
-        
-        return TaskResponse.fromTask(savedTask);
+        return task;
     }
-    
+
     /**
      * Get task by UID (with user ownership validation)
      */
@@ -318,6 +337,7 @@ public class TaskService {
 
         // Save task
         Task savedTask = taskRepository.save(task);
+        calendarSyncService.recordChange(savedTask);
 
         // Update reminders if provided
         if (taskRequest.getReminders() != null) {
@@ -328,6 +348,7 @@ public class TaskService {
             if (!existingReminders.isEmpty()) {
                 reminderRepository.deleteAll(existingReminders);
                 reminderRepository.flush(); // Force immediate execution of delete in PostgreSQL
+                reminderService.recordRemindersChanged(savedTask);
             }
 
             // Add new reminders
@@ -377,6 +398,7 @@ public class TaskService {
         // Add exception date to master task (EXDATE) using local datetime
         recurrenceService.addExceptionDate(masterTask, occurrenceStartLocal);
         taskRepository.save(masterTask);
+        calendarSyncService.recordChange(masterTask);
 
         logger.info("Added EXDATE {} to master task {}", occurrenceStartLocal, masterTask.getUid());
 
@@ -399,6 +421,7 @@ public class TaskService {
         newTask.setRecurrenceEnd(null);
 
         Task savedTask = taskRepository.save(newTask);
+        calendarSyncService.recordChange(savedTask);
 
         // Add reminders if provided
         if (taskRequest.getReminders() != null) {
@@ -429,6 +452,8 @@ public class TaskService {
 
         // Delete task (cascade will delete reminders)
         taskRepository.delete(task);
+        calendarSyncService.recordDeletion(task);
+        icsCache.evict(task.getUid());
 
         logger.info("Task deleted successfully: {} for user: {}", task.getTitle(), currentUser.getUsername());
     }
@@ -457,6 +482,7 @@ public class TaskService {
         // Add exception date to master task (EXDATE)
         recurrenceService.addExceptionDate(masterTask, occurrenceStartLocal);
         taskRepository.save(masterTask);
+        calendarSyncService.recordChange(masterTask);
 
         logger.info("Added EXDATE {} to master task {}, occurrence deleted", occurrenceStartLocal, masterTask.getUid());
     }
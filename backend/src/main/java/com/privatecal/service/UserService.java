@@ -1,5 +1,6 @@
 package com.privatecal.service;
 
+import com.privatecal.caldav.IcsFragmentCache;
 import com.privatecal.dto.UserResponse;
 import com.privatecal.dto.UserPreferencesRequest;
 import com.privatecal.dto.UserPreferencesResponse;
@@ -36,6 +37,7 @@ public class UserService {
     private final TaskRepository taskRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailConfig emailConfig;
+    private final IcsFragmentCache icsCache;
     
     /**
      * Get current authenticated user
@@ -285,7 +287,8 @@ public class UserService {
         // 3. Keep data for audit purposes
         
         // For this implementation, we'll do a hard delete
-        // Delete all user tasks (cascade will handle reminders)
+        // Delete all user tasks (cascade will handle reminders) and their cached renderings
+        icsCache.evictAll(taskRepository.findUidsByUser(user));
         taskRepository.deleteByUser(user);
         
         // Delete user
@@ -417,6 +420,10 @@ public class UserService {
             user.setWeekStartDay(preferencesRequest.getWeekStartDay());
         }
 
+        if (preferencesRequest.getDigestNotificationTypes() != null) {
+            user.setDigestNotificationTypes(preferencesRequest.getDigestNotificationTypes());
+        }
+
         User updatedUser = userRepository.save(user);
 
         logger.info("Preferences updated successfully for user: {}", updatedUser.getUsername());
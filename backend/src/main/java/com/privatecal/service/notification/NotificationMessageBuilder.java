@@ -9,12 +9,16 @@ import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for building localized notification messages
  * Supports all notification providers (NTFY, Telegram, Slack, etc.)
+ * Reminder labels are resolved once per locale (ReminderLabels) instead of once per notification.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,6 +26,11 @@ public class NotificationMessageBuilder {
 
     private final MessageSource notificationMessageSource;
 
+    // Bound on cached locales (locales are user settings)
+    private static final int MAX_CACHED_LOCALES = 256;
+
+    private final Map<Locale, ReminderLabels> reminderLabels = new ConcurrentHashMap<>();
+
     @Value("${app.email.base-url:http://localhost:3000}")
     private String appBaseUrl;
 
@@ -29,15 +38,37 @@ public class NotificationMessageBuilder {
      * Build task reminder notification message
      */
     public NotificationMessage buildTaskReminder(User user, NotificationData data) {
-        Locale locale = getUserLocale(user);
+        ReminderLabels labels = getReminderLabels(getUserLocale(user));
 
         return NotificationMessage.builder()
-            .title(getMessage("notification.reminder.title", locale))
-            .body(buildReminderBody(locale, data))
+            .title(labels.title())
+            .body(buildReminderBody(labels, data))
             .priority(NotificationMessage.NotificationPriority.DEFAULT)
             .iconEmoji("⏰")
             .formatType(NotificationMessage.FormatType.PLAIN_TEXT) // Can be changed to MARKDOWN if needed
-            .actions(buildReminderActions(locale, data))
+            .actions(buildReminderActions(labels, data))
+            .build();
+    }
+
+    /**
+     * Build digest notification message: several task reminders of a user in one message
+     */
+    public NotificationMessage buildTaskDigest(User user, List<NotificationData> reminders) {
+        Locale locale = getUserLocale(user);
+        ReminderLabels labels = getReminderLabels(locale);
+
+        return NotificationMessage.builder()
+            .title(getMessage("notification.digest.title", locale, reminders.size()))
+            .body(buildDigestBody(labels, reminders))
+            .priority(NotificationMessage.NotificationPriority.DEFAULT)
+            .iconEmoji("⏰")
+            .formatType(NotificationMessage.FormatType.PLAIN_TEXT)
+            .actions(List.of(NotificationMessage.NotificationAction.builder()
+                .id("open_app")
+                .label(getMessage("notification.action.openApp", locale))
+                .url(appBaseUrl)
+                .type("view")
+                .build()))
             .build();
     }
 
@@ -67,11 +98,11 @@ public class NotificationMessageBuilder {
     /**
      * Build reminder message body with localized text
      */
-    private String buildReminderBody(Locale locale, NotificationData data) {
+    private String buildReminderBody(ReminderLabels labels, NotificationData data) {
         StringBuilder body = new StringBuilder();
 
         // Task title prefix
-        body.append(getMessage("notification.reminder.prefix", locale))
+        body.append(labels.prefix())
             .append(" ").append(data.getTaskTitle());
 
         // Start time
@@ -81,14 +112,14 @@ public class NotificationMessageBuilder {
                 data.getUserTimezone()
             );
             body.append("\n\n")
-                .append(getMessage("notification.reminder.scheduledFor", locale))
+                .append(labels.scheduledFor())
                 .append(" ").append(startTime);
         }
 
         // Location
         if (data.getTaskLocation() != null && !data.getTaskLocation().trim().isEmpty()) {
             body.append("\n")
-                .append(getMessage("notification.reminder.location", locale))
+                .append(labels.location())
                 .append(" ").append(data.getTaskLocation());
         }
 
@@ -99,43 +130,72 @@ public class NotificationMessageBuilder {
                 description = description.substring(0, 100) + "...";
             }
             body.append("\n")
-                .append(getMessage("notification.reminder.description", locale))
+                .append(labels.description())
                 .append(" ").append(description);
         }
 
         // Time until start
-        body.append("\n\n").append(formatTimeUntilStart(locale, data));
+        body.append("\n\n").append(formatTimeUntilStart(labels, data));
+
+        return body.toString();
+    }
+
+    /**
+     * Build digest message body: one line per task, by start time
+     */
+    private String buildDigestBody(ReminderLabels labels, List<NotificationData> reminders) {
+        List<NotificationData> sorted = new ArrayList<>(reminders);
+        sorted.sort(Comparator.comparing(NotificationData::getTaskStartTime,
+            Comparator.nullsLast(Comparator.naturalOrder())));
+
+        StringBuilder body = new StringBuilder();
+        for (NotificationData data : sorted) {
+            if (body.length() > 0) {
+                body.append("\n");
+            }
+            body.append("• ").append(data.getTaskTitle());
 
+            if (data.getTaskStartTime() != null) {
+                body.append(" - ").append(TimezoneUtils.formatInstantInTimezone(
+                    data.getTaskStartTime(),
+                    data.getUserTimezone()
+                ));
+            }
+
+            if (data.getTaskLocation() != null && !data.getTaskLocation().trim().isEmpty()) {
+                body.append("\n  ").append(labels.location()).append(" ").append(data.getTaskLocation());
+            }
+        }
         return body.toString();
     }
 
     /**
      * Format time until task starts with localized text
      */
-    private String formatTimeUntilStart(Locale locale, NotificationData data) {
+    private String formatTimeUntilStart(ReminderLabels labels, NotificationData data) {
         long minutesUntil = data.getMinutesUntilTaskStart();
 
         if (minutesUntil > 0) {
             String timeFormatted = data.getFormattedTimeUntilStart();
-            return getMessage("notification.reminder.startsIn", locale) + " " + timeFormatted;
+            return labels.startsIn() + " " + timeFormatted;
         } else if (minutesUntil == 0) {
-            return getMessage("notification.reminder.startingNow", locale);
+            return labels.startingNow();
         } else {
-            return getMessage("notification.reminder.alreadyStarted", locale);
+            return labels.alreadyStarted();
         }
     }
 
     /**
      * Build action buttons for reminder notification
      */
-    private List<NotificationMessage.NotificationAction> buildReminderActions(Locale locale, NotificationData data) {
+    private List<NotificationMessage.NotificationAction> buildReminderActions(ReminderLabels labels, NotificationData data) {
         List<NotificationMessage.NotificationAction> actions = new ArrayList<>();
 
         // Add "View Task" action if task ID is available
         if (data.getTaskId() != null) {
             actions.add(NotificationMessage.NotificationAction.builder()
                 .id("view_task")
-                .label(getMessage("notification.action.viewTask", locale))
+                .label(labels.viewTask())
                 .url(appBaseUrl + "/tasks/" + data.getTaskId())
                 .type("view")
                 .build());
@@ -154,10 +214,41 @@ public class NotificationMessageBuilder {
         return Locale.forLanguageTag("en-US");
     }
 
+    /**
+     * Get the reminder labels of a locale, resolved on first use
+     */
+    private ReminderLabels getReminderLabels(Locale locale) {
+        ReminderLabels labels = reminderLabels.get(locale);
+        if (labels == null) {
+            labels = new ReminderLabels(
+                getMessage("notification.reminder.title", locale),
+                getMessage("notification.reminder.prefix", locale),
+                getMessage("notification.reminder.scheduledFor", locale),
+                getMessage("notification.reminder.location", locale),
+                getMessage("notification.reminder.description", locale),
+                getMessage("notification.reminder.startsIn", locale),
+                getMessage("notification.reminder.startingNow", locale),
+                getMessage("notification.reminder.alreadyStarted", locale),
+                getMessage("notification.action.viewTask", locale));
+            if (reminderLabels.size() < MAX_CACHED_LOCALES) {
+                reminderLabels.put(locale, labels);
+            }
+        }
+        return labels;
+    }
+
     /**
      * Get localized message from properties file
      */
     private String getMessage(String key, Locale locale, Object... params) {
         return notificationMessageSource.getMessage(key, params, locale);
     }
+
+    /**
+     * Localized labels of reminder notifications
+     */
+    private record ReminderLabels(String title, String prefix, String scheduledFor, String location,
+                                  String description, String startsIn, String startingNow,
+                                  String alreadyStarted, String viewTask) {
+    }
 }
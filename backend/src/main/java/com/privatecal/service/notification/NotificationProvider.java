@@ -3,6 +3,10 @@ package com.privatecal.service.notification;
 import com.privatecal.entity.Reminder;
 import com.privatecal.dto.NotificationType;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Strategy interface for different notification providers
  * Allows extensibility for future notification implementations (Gotify, Slack, etc.)
@@ -16,6 +20,45 @@ public interface NotificationProvider {
      */
     boolean sendReminderNotification(Reminder reminder);
 
+    /**
+     * Send a notification for a task reminder without blocking the calling thread
+     * Providers with a non-blocking client override this; the default sends on the calling thread.
+     * @param reminder The reminder containing task and timing information (its task and user loaded)
+     * @return future completed with true if notification was sent successfully, false otherwise
+     */
+    default CompletableFuture<Boolean> sendReminderNotificationAsync(Reminder reminder) {
+        return CompletableFuture.completedFuture(sendReminderNotification(reminder));
+    }
+
+    /**
+     * Check if the provider sends several reminders as one notification (digest mode)
+     * @return true if sendDigestNotificationAsync sends a single notification
+     */
+    default boolean supportsDigest() {
+        return false;
+    }
+
+    /**
+     * Send the reminders of the same user together (digest mode)
+     * Providers supporting digests override this to send one notification; the default sends the
+     * reminders one by one with sendReminderNotificationAsync.
+     * @param reminders The reminders, all of the same user (their task and user loaded)
+     * @return future completed with true if all reminders were sent successfully, false otherwise;
+     *         completed exceptionally if sending one of them failed (the digest is retried as a whole)
+     */
+    default CompletableFuture<Boolean> sendDigestNotificationAsync(List<Reminder> reminders) {
+        List<CompletableFuture<Boolean>> sent = new ArrayList<>(reminders.size());
+        for (Reminder reminder : reminders) {
+            try {
+                sent.add(sendReminderNotificationAsync(reminder));
+            } catch (RuntimeException e) {
+                sent.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return CompletableFuture.allOf(sent.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> sent.stream().allMatch(CompletableFuture::join));
+    }
+
     /**
      * Send a test notification to verify the provider is working
      * @param userId The user ID to send test notification to
@@ -0,0 +1,200 @@
+package com.privatecal.service.notification;
+
+import com.privatecal.config.NotificationThrottleConfig;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outbound throttle of one notification provider
+ *
+ * - rate limits: a token bucket for the provider and one per recipient. A delivery reserves a permit
+ *   in both and starts at the time returned, so a burst is spread at the configured rates instead of
+ *   being rejected by the provider (e.g. Telegram: about 30 messages/s, 1 message/s per chat)
+ * - circuit breaker: failure-threshold consecutive ProviderUnavailableException open the circuit for
+ *   open-seconds (or the provider's Retry-After on HTTP 429, at once). While open, deliveries are deferred;
+ *   afterwards a single trial delivery closes it again or reopens it.
+ */
+public class ProviderThrottle {
+
+    public enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    // Deferral of deliveries while the trial delivery of a half-open circuit runs
+    private static final Duration HALF_OPEN_DEFER = Duration.ofSeconds(5);
+
+    private final TokenBucket providerBucket;
+    private final double recipientRatePerSecond;
+    private final int recipientBurst;
+    private final Map<String, TokenBucket> recipientBuckets = new ConcurrentHashMap<>();
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private Instant openUntil;
+    private boolean trialInFlight;
+
+    public ProviderThrottle(NotificationThrottleConfig.ProviderLimits limits, int failureThreshold, Duration openDuration) {
+        this.providerBucket = limits.getRatePerSecond() > 0
+                ? new TokenBucket(limits.getRatePerSecond(), limits.getBurst())
+                : null;
+        this.recipientRatePerSecond = limits.getRecipientRatePerSecond();
+        this.recipientBurst = limits.getRecipientBurst();
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+    }
+
+    // ==================== Rate limits ====================
+
+    /**
+     * Reserve a permit for a notification to a recipient, if one is available by latest
+     * @return time the notification may be sent (now if a permit is available); a time after latest
+     *         means nothing was reserved and the notification should be tried again then
+     */
+    public Instant reserve(String recipientKey, Instant now, Instant latest) {
+        TokenBucket recipientBucket = recipientRatePerSecond > 0
+                ? recipientBuckets.computeIfAbsent(recipientKey, key -> new TokenBucket(recipientRatePerSecond, recipientBurst))
+                : null;
+
+        Instant recipientPermitAt = recipientBucket != null ? recipientBucket.peek(now) : now;
+        Instant permitAt = providerBucket != null ? providerBucket.peek(recipientPermitAt) : recipientPermitAt;
+        if (permitAt.isAfter(latest)) {
+            return permitAt;
+        }
+
+        permitAt = recipientBucket != null ? recipientBucket.reserve(now) : now;
+        if (providerBucket != null) {
+            // Taken at the recipient's time: a recipient's backlog does not use the provider's permits meanwhile
+            permitAt = providerBucket.reserve(permitAt);
+        }
+        return permitAt;
+    }
+
+    /**
+     * Drop the buckets of recipients back to a full bucket (nothing reserved ahead)
+     */
+    public void evictIdleRecipients(Instant now) {
+        recipientBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    int getRecipientBucketCount() {
+        return recipientBuckets.size();
+    }
+
+    // ==================== Circuit breaker ====================
+
+    /**
+     * End of the open period if the circuit is open, null otherwise (no state change)
+     */
+    public synchronized Instant openUntil(Instant now) {
+        return state == CircuitState.OPEN && now.isBefore(openUntil) ? openUntil : null;
+    }
+
+    /**
+     * Ask to start a delivery
+     * @return null if the delivery may start, otherwise the time to defer it to
+     */
+    public synchronized Instant tryStart(Instant now) {
+        if (state == CircuitState.OPEN) {
+            if (now.isBefore(openUntil)) {
+                return openUntil;
+            }
+            state = CircuitState.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == CircuitState.HALF_OPEN) {
+            if (trialInFlight) {
+                return now.plus(HALF_OPEN_DEFER);
+            }
+            trialInFlight = true;
+        }
+        return null;
+    }
+
+    /**
+     * A started delivery finished: if it was the trial of a half-open circuit and recorded neither
+     * success nor failure (e.g. its task was deleted), the next delivery becomes the trial
+     */
+    public synchronized void deliveryFinished() {
+        trialInFlight = false;
+    }
+
+    /**
+     * The provider took a notification (sent, or rejected for reasons of the notification itself)
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        // An open circuit stays open for its period: deliveries started before it opened may still succeed
+        if (state == CircuitState.HALF_OPEN) {
+            state = CircuitState.CLOSED;
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * The provider was unavailable
+     * @param retryAfter wait requested by the provider (rate limited), null if none
+     * @return true if the circuit opened
+     */
+    public synchronized boolean recordFailure(Instant now, Duration retryAfter) {
+        consecutiveFailures++;
+        Duration wait;
+        if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            wait = retryAfter != null && retryAfter.compareTo(openDuration) > 0 ? retryAfter : openDuration;
+        } else if (retryAfter != null) {
+            // Rate limited: pause as long as the provider asked
+            wait = retryAfter;
+        } else {
+            return false;
+        }
+
+        Instant until = now.plus(wait);
+        boolean opened = state != CircuitState.OPEN;
+        if (opened || until.isAfter(openUntil)) {
+            openUntil = until;
+        }
+        state = CircuitState.OPEN;
+        trialInFlight = false;
+        return opened;
+    }
+
+    public synchronized CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * Token bucket as a virtual schedule (GCRA): permits are spaced by 1/rate, up to burst permits at once
+     */
+    private static final class TokenBucket {
+        private final long intervalNanos;
+        private final long burstToleranceNanos;
+        // Theoretical time of the next permit once the bucket is empty
+        private Instant nextFree = Instant.EPOCH;
+
+        private TokenBucket(double ratePerSecond, int burst) {
+            this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+            this.burstToleranceNanos = intervalNanos * (Math.max(1, burst) - 1L);
+        }
+
+        synchronized Instant peek(Instant earliest) {
+            Instant permitAt = nextFree.minusNanos(burstToleranceNanos);
+            return permitAt.isBefore(earliest) ? earliest : permitAt;
+        }
+
+        synchronized Instant reserve(Instant earliest) {
+            Instant permitAt = peek(earliest);
+            nextFree = (nextFree.isAfter(permitAt) ? nextFree : permitAt).plusNanos(intervalNanos);
+            return permitAt;
+        }
+
+        synchronized boolean isFull(Instant now) {
+            return !nextFree.isAfter(now);
+        }
+    }
+}
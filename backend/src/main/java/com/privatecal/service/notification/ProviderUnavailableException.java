@@ -0,0 +1,65 @@
+package com.privatecal.service.notification;
+
+import java.time.Duration;
+
+/**
+ * A notification provider could not take a notification: network error, timeout, server error or
+ * rate limited (HTTP 429)
+ * Unlike a rejected notification (provider returns false, e.g. no chat ID configured), this says nothing
+ * about the notification itself: it is retried, and it counts towards the provider's circuit breaker.
+ */
+public class ProviderUnavailableException extends RuntimeException {
+
+    // Wait after a 429 response without Retry-After
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(30);
+
+    // Wait requested by the provider (Retry-After), null if none
+    private final Duration retryAfter;
+
+    public ProviderUnavailableException(String message) {
+        this(message, (Duration) null);
+    }
+
+    public ProviderUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public ProviderUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = null;
+    }
+
+    /**
+     * The provider answered 429 Too Many Requests
+     * @param retryAfter wait requested by the provider, null for the default wait
+     */
+    public static ProviderUnavailableException rateLimited(String providerName, Duration retryAfter) {
+        Duration wait = retryAfter != null ? retryAfter : DEFAULT_RETRY_AFTER;
+        return new ProviderUnavailableException(
+                providerName + " rate limit reached, retry after " + wait.toSeconds() + " s", wait);
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public boolean isRateLimited() {
+        return retryAfter != null;
+    }
+
+    /**
+     * Parse a Retry-After header given in seconds (HTTP dates are not used by NTFY and Telegram)
+     * @return the wait, or null if the header is missing or not a number of seconds
+     */
+    public static Duration parseRetryAfter(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(header.trim())));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
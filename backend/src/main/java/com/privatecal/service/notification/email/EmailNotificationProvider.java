@@ -11,9 +11,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Email notification provider implementation
  * Sends email notifications using JavaMailSender
+ * Reminders are queued on the pooled SMTP connections of PooledMailSender
  */
 @Component
 @RequiredArgsConstructor
@@ -25,9 +29,24 @@ public class EmailNotificationProvider implements NotificationProvider {
 
     @Override
     public boolean sendReminderNotification(Reminder reminder) {
+        try {
+            return sendReminderNotificationAsync(reminder).join();
+        } catch (CompletionException e) {
+            // SMTP server unavailable, already logged
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Completes exceptionally with ProviderUnavailableException if the sending queue is full or the
+     * SMTP server cannot be reached
+     */
+    @Override
+    public CompletableFuture<Boolean> sendReminderNotificationAsync(Reminder reminder) {
         if (!isEnabled()) {
             logger.debug("Email provider is disabled");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         try {
@@ -35,7 +54,7 @@ public class EmailNotificationProvider implements NotificationProvider {
 
             if (data.getUserEmail() == null || data.getUserEmail().trim().isEmpty()) {
                 logger.warn("User {} has no email address configured", data.getUserId());
-                return false;
+                return CompletableFuture.completedFuture(false);
             }
 
             // Format task start time for email using user's timezone
@@ -47,29 +66,28 @@ public class EmailNotificationProvider implements NotificationProvider {
                 );
             }
 
-            // Send email using EmailService
-            boolean success = emailService.sendTaskReminderEmail(
+            // Queue email on the pooled SMTP connections
+            return emailService.sendTaskReminderEmailAsync(
                 reminder.getTask().getUser(),
                 data.getTaskTitle(),
                 data.getTaskDescription(),
                 formattedStartTime,
                 data.getTaskLocation()
-            );
-
-            if (success) {
-                logger.info("Email reminder sent successfully for task: {} to user: {}",
-                        data.getTaskTitle(), data.getUserEmail());
-            } else {
-                logger.warn("Failed to send email reminder for task: {} to user: {}",
-                        data.getTaskTitle(), data.getUserEmail());
-            }
-
-            return success;
+            ).thenApply(success -> {
+                if (success) {
+                    logger.info("Email reminder sent successfully for task: {} to user: {}",
+                            data.getTaskTitle(), data.getUserEmail());
+                } else {
+                    logger.warn("Failed to send email reminder for task: {} to user: {}",
+                            data.getTaskTitle(), data.getUserEmail());
+                }
+                return success;
+            });
 
         } catch (Exception e) {
             logger.error("Error processing email notification for reminder ID: {}",
                     reminder.getId(), e);
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
     }
 
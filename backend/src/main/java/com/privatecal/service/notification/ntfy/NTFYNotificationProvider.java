@@ -1,19 +1,20 @@
 package com.privatecal.service.notification.ntfy;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
 import com.privatecal.dto.NotificationMessage;
 import com.privatecal.dto.NotificationType;
@@ -23,10 +24,12 @@ import com.privatecal.repository.UserRepository;
 import com.privatecal.service.notification.NotificationData;
 import com.privatecal.service.notification.NotificationMessageBuilder;
 import com.privatecal.service.notification.NotificationProvider;
+import com.privatecal.service.notification.ProviderUnavailableException;
 
 /**
  * NTFY notification provider implementation
  * Handles sending push notifications via NTFY server
+ * Requests go through the shared non-blocking notificationWebClient (pooled connections, timeouts)
  */
 @Component
 public class NTFYNotificationProvider implements NotificationProvider {
@@ -42,19 +45,16 @@ public class NTFYNotificationProvider implements NotificationProvider {
     @Value("${app.ntfy.auth-token:}")
     private String ntfyAuthToken;
 
-    private final RestTemplate restTemplate;
+    private final WebClient webClient;
     private final UserRepository userRepository;
     private final NotificationMessageBuilder messageBuilder;
     private final NtfyFormatter ntfyFormatter;
 
-    public NTFYNotificationProvider(RestTemplateBuilder restTemplateBuilder,
+    public NTFYNotificationProvider(@Qualifier("notificationWebClient") WebClient webClient,
                                     UserRepository userRepository,
                                     NotificationMessageBuilder messageBuilder,
                                     NtfyFormatter ntfyFormatter) {
-        this.restTemplate = restTemplateBuilder
-                .setConnectTimeout(java.time.Duration.ofSeconds(10))
-                .setReadTimeout(java.time.Duration.ofSeconds(30))
-                .build();
+        this.webClient = webClient;
         this.userRepository = userRepository;
         this.messageBuilder = messageBuilder;
         this.ntfyFormatter = ntfyFormatter;
@@ -62,76 +62,131 @@ public class NTFYNotificationProvider implements NotificationProvider {
 
     @Override
     public boolean sendReminderNotification(Reminder reminder) {
+        try {
+            return sendReminderNotificationAsync(reminder).join();
+        } catch (CompletionException e) {
+            // Provider unavailable, already logged
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Completes exceptionally with ProviderUnavailableException on network errors, timeouts,
+     * server errors and HTTP 429 (rate limited, with the server's Retry-After)
+     */
+    @Override
+    public CompletableFuture<Boolean> sendReminderNotificationAsync(Reminder reminder) {
         if (!isEnabled()) {
             logger.debug("NTFY provider is disabled");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         try {
             User user = reminder.getTask().getUser();
             NotificationData data = NotificationData.fromReminder(reminder);
 
-            if (data.getUserNtfyTopic() == null || data.getUserNtfyTopic().trim().isEmpty()) {
-                logger.warn("User {} has no NTFY topic configured", data.getUserId());
-                return false;
-            }
-
-            String ntfyUrl = ntfyServerUrl + "/" + data.getUserNtfyTopic();
-
             // Build localized notification message
             NotificationMessage message = messageBuilder.buildTaskReminder(user, data);
 
-            // Format for NTFY
-            String title = ntfyFormatter.formatTitle(message);
-            String body = ntfyFormatter.formatBody(message);
-            String priority = ntfyFormatter.formatPriority(message.getPriority());
+            return sendNotification(user, message, "reminder ID " + reminder.getId());
 
-            // Create NTFY headers
-            HttpHeaders headers = createNtfyHeaders();
-            headers.set("X-Title", title);
-            headers.set("X-Priority", priority);
-            headers.set("X-Tags", "calendar,reminder," + message.getIconEmoji());
+        } catch (Exception e) {
+            logger.error("Unexpected error sending NTFY notification for reminder ID: {}",
+                    reminder.getId(), e);
+            return CompletableFuture.completedFuture(false);
+        }
+    }
 
-            // Enable Markdown if message uses it
-            if (ntfyFormatter.shouldEnableMarkdown(message)) {
-                headers.set("X-Markdown", "true");
-            }
+    @Override
+    public boolean supportsDigest() {
+        return true;
+    }
 
-            // Add action buttons
-            String actions = ntfyFormatter.formatActions(message);
-            if (actions != null) {
-                headers.set("X-Actions", actions);
-            }
+    /**
+     * {@inheritDoc}
+     * Completes exceptionally with ProviderUnavailableException as sendReminderNotificationAsync
+     */
+    @Override
+    public CompletableFuture<Boolean> sendDigestNotificationAsync(List<Reminder> reminders) {
+        if (!isEnabled()) {
+            logger.debug("NTFY provider is disabled");
+            return CompletableFuture.completedFuture(false);
+        }
+
+        try {
+            User user = reminders.get(0).getTask().getUser();
+            List<NotificationData> data = reminders.stream().map(NotificationData::fromReminder).toList();
+
+            // Build localized digest message
+            NotificationMessage message = messageBuilder.buildTaskDigest(user, data);
+
+            return sendNotification(user, message, "digest of " + reminders.size() + " reminders");
+
+        } catch (Exception e) {
+            logger.error("Unexpected error sending NTFY digest notification for {} reminders",
+                    reminders.size(), e);
+            return CompletableFuture.completedFuture(false);
+        }
+    }
 
-            // Create request entity with message body
-            HttpEntity<String> requestEntity = new HttpEntity<>(body, headers);
+    /**
+     * Send a reminder or digest message to the user's NTFY topic
+     * @param description what is sent, for logging
+     */
+    private CompletableFuture<Boolean> sendNotification(User user, NotificationMessage message, String description) {
+        if (user.getNtfyTopic() == null || user.getNtfyTopic().trim().isEmpty()) {
+            logger.warn("User {} has no NTFY topic configured", user.getId());
+            return CompletableFuture.completedFuture(false);
+        }
+
+        String ntfyUrl = ntfyServerUrl + "/" + user.getNtfyTopic();
+
+        // Format for NTFY
+        String title = ntfyFormatter.formatTitle(message);
+        String body = ntfyFormatter.formatBody(message);
+        String priority = ntfyFormatter.formatPriority(message.getPriority());
 
-            // Send notification
-            ResponseEntity<String> response = restTemplate.exchange(
-                    ntfyUrl,
-                    HttpMethod.POST,
-                    requestEntity,
-                    String.class
-            );
+        // Create NTFY headers
+        HttpHeaders headers = createNtfyHeaders();
+        headers.set("X-Title", title);
+        headers.set("X-Priority", priority);
+        headers.set("X-Tags", "calendar,reminder," + message.getIconEmoji());
+
+        // Enable Markdown if message uses it
+        if (ntfyFormatter.shouldEnableMarkdown(message)) {
+            headers.set("X-Markdown", "true");
+        }
+
+        // Add action buttons
+        String actions = ntfyFormatter.formatActions(message);
+        if (actions != null) {
+            headers.set("X-Actions", actions);
+        }
 
+        // Send notification
+        return post(ntfyUrl, headers, body).handle((response, error) -> {
+            if (error != null) {
+                logger.error("Network error sending NTFY notification for {}", description, error);
+                throw new ProviderUnavailableException("NTFY server unreachable", error);
+            }
             if (response.getStatusCode().is2xxSuccessful()) {
-                logger.info("NTFY reminder notification sent successfully for task: {} to user: {} (locale: {})",
-                        data.getTaskTitle(), data.getUserId(), user.getLocale());
+                logger.info("NTFY notification sent successfully for {} to user: {} (locale: {})",
+                        description, user.getId(), user.getLocale());
                 return true;
-            } else {
-                logger.warn("Failed to send NTFY notification. Status: {}", response.getStatusCode());
-                return false;
             }
-
-        } catch (RestClientException e) {
-            logger.error("Network error sending NTFY notification for reminder ID: {}",
-                    reminder.getId(), e);
-            return false;
-        } catch (Exception e) {
-            logger.error("Unexpected error sending NTFY notification for reminder ID: {}",
-                    reminder.getId(), e);
+            if (response.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+                logger.warn("NTFY rate limit reached for {}", description);
+                throw ProviderUnavailableException.rateLimited(getProviderName(),
+                        ProviderUnavailableException.parseRetryAfter(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)));
+            }
+            if (response.getStatusCode().is5xxServerError()) {
+                logger.warn("NTFY server error sending notification. Status: {}", response.getStatusCode());
+                throw new ProviderUnavailableException("NTFY server error " + response.getStatusCode().value());
+            }
+            logger.warn("Failed to send NTFY notification. Status: {}", response.getStatusCode());
             return false;
-        }
+        });
     }
 
     @Override
@@ -171,16 +226,8 @@ public class NTFYNotificationProvider implements NotificationProvider {
             headers.set("X-Priority", priority);
             headers.set("X-Tags", "test,calendar," + message.getIconEmoji());
 
-            // Create request entity with message body
-            HttpEntity<String> requestEntity = new HttpEntity<>(body, headers);
-
-            // Send test notification
-            ResponseEntity<String> response = restTemplate.exchange(
-                    ntfyUrl,
-                    HttpMethod.POST,
-                    requestEntity,
-                    String.class
-            );
+            // Send test notification (the caller waits for the result)
+            ResponseEntity<Void> response = post(ntfyUrl, headers, body).join();
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 logger.info("NTFY test notification sent successfully to user: {} (locale: {})",
@@ -191,9 +238,6 @@ public class NTFYNotificationProvider implements NotificationProvider {
                 return false;
             }
 
-        } catch (RestClientException e) {
-            logger.error("Network error sending NTFY test notification to user ID: {}", userId, e);
-            return false;
         } catch (Exception e) {
             logger.error("Error sending NTFY test notification to user ID: {}", userId, e);
             return false;
@@ -228,6 +272,19 @@ public class NTFYNotificationProvider implements NotificationProvider {
         return "NTFY";
     }
 
+    /**
+     * Post a message to an NTFY topic
+     * @return future completed with the response (status and headers), or exceptionally on network errors and timeouts
+     */
+    private CompletableFuture<ResponseEntity<Void>> post(String ntfyUrl, HttpHeaders headers, String body) {
+        return webClient.post()
+                .uri(ntfyUrl)
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .bodyValue(body)
+                .exchangeToMono(response -> response.toBodilessEntity())
+                .toFuture();
+    }
+
     /**
      * Create HTTP headers with authentication for NTFY requests
      */
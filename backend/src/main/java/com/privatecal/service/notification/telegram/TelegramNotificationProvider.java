@@ -12,35 +12,47 @@ import com.privatecal.repository.UserRepository;
 import com.privatecal.service.notification.NotificationData;
 import com.privatecal.service.notification.NotificationMessageBuilder;
 import com.privatecal.service.notification.NotificationProvider;
+import com.privatecal.service.notification.ProviderUnavailableException;
 
+import io.netty.handler.timeout.ReadTimeoutException;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.ApplicationContext;
-import org.springframework.http.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Telegram Bot notification provider implementation
  * Supports both webhook (for production with public HTTPS) and polling (for self-hosted/localhost)
+ * Requests go through the shared non-blocking notificationWebClient (pooled connections, timeouts)
  */
 @Component
 public class TelegramNotificationProvider implements NotificationProvider {
@@ -49,6 +61,8 @@ public class TelegramNotificationProvider implements NotificationProvider {
     private static final String TOKEN_PREFIX = "pcal_";
     private static final int TOKEN_LENGTH = 16;
     private static final int TOKEN_EXPIRY_MINUTES = 10;
+    // Long polling waits up to 30 seconds for updates: the response timeout must be longer
+    private static final Duration POLLING_RESPONSE_TIMEOUT = Duration.ofSeconds(40);
     private static final String ALLOWED_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
 
     @Value("${app.telegram.enabled:false}")
@@ -69,7 +83,7 @@ public class TelegramNotificationProvider implements NotificationProvider {
     @Value("${app.telegram.use-inline-buttons:false}")
     private boolean useInlineButtons;
 
-    private final RestTemplate restTemplate;
+    private final WebClient webClient;
     private final UserRepository userRepository;
     private final TelegramRegistrationTokenRepository tokenRepository;
     private final NotificationMessageBuilder messageBuilder;
@@ -83,17 +97,14 @@ public class TelegramNotificationProvider implements NotificationProvider {
     private final AtomicLong lastUpdateId = new AtomicLong(0);
     private Thread pollingThread;
 
-    public TelegramNotificationProvider(RestTemplateBuilder restTemplateBuilder,
+    public TelegramNotificationProvider(@Qualifier("notificationWebClient") WebClient webClient,
                                        UserRepository userRepository,
                                        TelegramRegistrationTokenRepository tokenRepository,
                                        NotificationMessageBuilder messageBuilder,
                                        TelegramFormatter telegramFormatter,
                                        ObjectMapper objectMapper,
                                        ApplicationContext applicationContext) {
-        this.restTemplate = restTemplateBuilder
-                .setConnectTimeout(java.time.Duration.ofSeconds(10))
-                .setReadTimeout(java.time.Duration.ofSeconds(30))
-                .build();
+        this.webClient = webClient;
         this.userRepository = userRepository;
         this.tokenRepository = tokenRepository;
         this.messageBuilder = messageBuilder;
@@ -135,39 +146,92 @@ public class TelegramNotificationProvider implements NotificationProvider {
 
     @Override
     public boolean sendReminderNotification(Reminder reminder) {
+        try {
+            return sendReminderNotificationAsync(reminder).join();
+        } catch (CompletionException e) {
+            // Provider unavailable, already logged
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Completes exceptionally with ProviderUnavailableException on network errors, timeouts,
+     * server errors and HTTP 429 (rate limited, with Telegram's retry_after)
+     */
+    @Override
+    public CompletableFuture<Boolean> sendReminderNotificationAsync(Reminder reminder) {
         if (!isEnabled()) {
             logger.debug("Telegram provider is disabled");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         try {
             User user = reminder.getTask().getUser();
             NotificationData data = NotificationData.fromReminder(reminder);
 
-            if (user.getTelegramChatId() == null || user.getTelegramChatId().trim().isEmpty()) {
-                logger.warn("User {} has no Telegram chat ID configured", data.getUserId());
-                return false;
-            }
-
             // Build localized notification message
             NotificationMessage message = messageBuilder.buildTaskReminder(user, data);
 
-            // Format for Telegram
-            String formattedText = telegramFormatter.formatBody(message);
-
-            // Include inline buttons only if configured (requires public HTTPS URL)
-            // Telegram rejects inline keyboard buttons with HTTP or non-public URLs
-            String replyMarkup = useInlineButtons ? telegramFormatter.formatActions(message) : null;
-
-            return sendMessage(user.getTelegramChatId(), formattedText, replyMarkup);
+            return sendNotification(user, message);
 
         } catch (Exception e) {
             logger.error("Error sending Telegram notification for reminder ID: {}",
                     reminder.getId(), e);
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
     }
 
+    @Override
+    public boolean supportsDigest() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Completes exceptionally with ProviderUnavailableException as sendReminderNotificationAsync
+     */
+    @Override
+    public CompletableFuture<Boolean> sendDigestNotificationAsync(List<Reminder> reminders) {
+        if (!isEnabled()) {
+            logger.debug("Telegram provider is disabled");
+            return CompletableFuture.completedFuture(false);
+        }
+
+        try {
+            User user = reminders.get(0).getTask().getUser();
+            List<NotificationData> data = reminders.stream().map(NotificationData::fromReminder).toList();
+
+            // Build localized digest message
+            NotificationMessage message = messageBuilder.buildTaskDigest(user, data);
+
+            return sendNotification(user, message);
+
+        } catch (Exception e) {
+            logger.error("Error sending Telegram digest notification for {} reminders", reminders.size(), e);
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * Send a reminder or digest message to the user's Telegram chat
+     */
+    private CompletableFuture<Boolean> sendNotification(User user, NotificationMessage message) {
+        if (user.getTelegramChatId() == null || user.getTelegramChatId().trim().isEmpty()) {
+            logger.warn("User {} has no Telegram chat ID configured", user.getId());
+            return CompletableFuture.completedFuture(false);
+        }
+
+        // Format for Telegram
+        String formattedText = telegramFormatter.formatBody(message);
+
+        // Include inline buttons only if configured (requires public HTTPS URL)
+        // Telegram rejects inline keyboard buttons with HTTP or non-public URLs
+        String replyMarkup = useInlineButtons ? telegramFormatter.formatActions(message) : null;
+
+        return sendMessage(user.getTelegramChatId(), formattedText, replyMarkup).toFuture();
+    }
+
     @Override
     public boolean sendTestNotification(Long userId, String customMessage) {
         if (!isEnabled()) {
@@ -194,8 +258,8 @@ public class TelegramNotificationProvider implements NotificationProvider {
             // Format for Telegram
             String formattedText = telegramFormatter.formatBody(message);
 
-            // Send test message
-            return sendMessage(user.getTelegramChatId(), formattedText, null);
+            // Send test message (the caller waits for the result)
+            return Boolean.TRUE.equals(sendMessage(user.getTelegramChatId(), formattedText, null).block());
 
         } catch (Exception e) {
             logger.error("Error sending Telegram test notification to user ID: {}", userId, e);
@@ -220,8 +284,10 @@ public class TelegramNotificationProvider implements NotificationProvider {
 
     /**
      * Send a message via Telegram Bot API
+     * @return true once Telegram accepted the message, false if Telegram rejected it;
+     *         ProviderUnavailableException if Telegram is unreachable, failing or rate limiting the bot
      */
-    private boolean sendMessage(String chatId, String text, String replyMarkup) {
+    private Mono<Boolean> sendMessage(String chatId, String text, String replyMarkup) {
         try {
             String url = String.format("%s/bot%s/sendMessage", apiUrl, botToken);
 
@@ -235,35 +301,78 @@ public class TelegramNotificationProvider implements NotificationProvider {
                 requestBody.put("reply_markup", objectMapper.readTree(replyMarkup));
             }
 
-            // Create headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(requestBody, headers);
-
             // Send request
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    requestEntity,
-                    String.class
-            );
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                logger.info("Telegram message sent successfully to chat: {}", chatId);
-                return true;
-            } else {
-                logger.warn("Failed to send Telegram message. Status: {}", response.getStatusCode());
-                return false;
-            }
+            return post(url, requestBody)
+                    .onErrorMap(e -> {
+                        logger.error("Network error sending Telegram message to chat: {}", chatId, e);
+                        return new ProviderUnavailableException("Telegram API unreachable", e);
+                    })
+                    .map(response -> {
+                        if (response.getStatusCode().is2xxSuccessful()) {
+                            logger.info("Telegram message sent successfully to chat: {}", chatId);
+                            return true;
+                        }
+                        if (response.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+                            logger.warn("Telegram rate limit reached sending to chat: {}", chatId);
+                            throw ProviderUnavailableException.rateLimited(getProviderName(), retryAfter(response));
+                        }
+                        if (response.getStatusCode().is5xxServerError()) {
+                            logger.warn("Telegram server error sending message. Status: {}", response.getStatusCode());
+                            throw new ProviderUnavailableException("Telegram server error " + response.getStatusCode().value());
+                        }
+                        logger.warn("Failed to send Telegram message. Status: {}", response.getStatusCode());
+                        return false;
+                    });
 
-        } catch (RestClientException e) {
-            logger.error("Network error sending Telegram message to chat: {}", chatId, e);
-            return false;
         } catch (Exception e) {
             logger.error("Unexpected error sending Telegram message to chat: {}", chatId, e);
-            return false;
+            return Mono.just(false);
+        }
+    }
+
+    /**
+     * POST a JSON request to the Bot API
+     * @return the response (any status); errors for network failures and timeouts
+     */
+    private Mono<ResponseEntity<String>> post(String url, Object requestBody) {
+        return webClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestBody)
+                .exchangeToMono(response -> response.toEntity(String.class));
+    }
+
+    /**
+     * Wait requested by a 429 response: Retry-After header, or parameters.retry_after of the body
+     */
+    private Duration retryAfter(ResponseEntity<String> response) {
+        Duration retryAfter = ProviderUnavailableException.parseRetryAfter(
+                response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        if (retryAfter == null && response.getBody() != null) {
+            try {
+                JsonNode parameters = objectMapper.readTree(response.getBody()).path("parameters");
+                if (parameters.has("retry_after")) {
+                    retryAfter = Duration.ofSeconds(parameters.get("retry_after").asLong());
+                }
+            } catch (Exception e) {
+                logger.debug("Unreadable Telegram 429 response: {}", response.getBody());
+            }
         }
+        return retryAfter;
+    }
+
+    /**
+     * GET a Bot API method
+     * @return the response body (null if empty); errors for error statuses, network failures and timeouts
+     */
+    private String get(String url, Duration responseTimeout) {
+        return webClient.get()
+                .uri(url)
+                .httpRequest(request -> ((HttpClientRequest) request.getNativeRequest())
+                        .responseTimeout(responseTimeout))
+                .retrieve()
+                .bodyToMono(String.class)
+                .block();
     }
 
     /**
@@ -276,22 +385,12 @@ public class TelegramNotificationProvider implements NotificationProvider {
             Map<String, String> requestBody = new HashMap<>();
             requestBody.put("url", webhookUrl);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+            ResponseEntity<String> response = post(url, requestBody).block();
 
-            HttpEntity<Map<String, String>> requestEntity = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    requestEntity,
-                    String.class
-            );
-
-            if (response.getStatusCode().is2xxSuccessful()) {
+            if (response != null && response.getStatusCode().is2xxSuccessful()) {
                 logger.info("Telegram webhook configured successfully: {}", webhookUrl);
             } else {
-                logger.error("Failed to set Telegram webhook. Response: {}", response.getBody());
+                logger.error("Failed to set Telegram webhook. Response: {}", response != null ? response.getBody() : null);
             }
 
         } catch (Exception e) {
@@ -341,10 +440,10 @@ public class TelegramNotificationProvider implements NotificationProvider {
                 String url = String.format("%s/bot%s/getUpdates?offset=%d&timeout=30",
                         apiUrl, botToken, lastUpdateId.get() + 1);
 
-                ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+                String updates = get(url, POLLING_RESPONSE_TIMEOUT);
 
-                if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                    processUpdates(response.getBody());
+                if (updates != null) {
+                    processUpdates(updates);
                 }
 
                 Thread.sleep(pollingInterval);
@@ -352,9 +451,9 @@ public class TelegramNotificationProvider implements NotificationProvider {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 break;
-            } catch (org.springframework.web.client.ResourceAccessException e) {
+            } catch (WebClientRequestException e) {
                 // Timeout is expected with long polling (30 seconds), just continue
-                if (e.getCause() instanceof java.net.SocketTimeoutException) {
+                if (e.getCause() instanceof ReadTimeoutException) {
                     logger.trace("Telegram long polling timeout (expected), continuing...");
                 } else {
                     logger.error("Network error polling Telegram updates", e);
@@ -459,10 +558,10 @@ public class TelegramNotificationProvider implements NotificationProvider {
 
         try {
             String url = String.format("%s/bot%s/getMe", apiUrl, botToken);
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            String body = get(url, Duration.ofSeconds(30));
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                JsonNode root = objectMapper.readTree(response.getBody());
+            if (body != null) {
+                JsonNode root = objectMapper.readTree(body);
                 if (root.get("ok").asBoolean()) {
                     JsonNode result = root.get("result");
                     Map<String, Object> info = new HashMap<>();
@@ -659,28 +758,14 @@ public class TelegramNotificationProvider implements NotificationProvider {
 
     /**
      * Send a simple text message to a Telegram chat (without reply markup)
+     * Sent in the background: the caller does not wait for Telegram, errors are logged
      * @param chatId The chat ID
      * @param text The message text
      */
     private void sendSimpleMessage(String chatId, String text) {
-        try {
-            String url = String.format("%s/bot%s/sendMessage", apiUrl, botToken);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("chat_id", chatId);
-            requestBody.put("text", text);
-            requestBody.put("parse_mode", "HTML");
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(requestBody, headers);
-
-            restTemplate.exchange(url, HttpMethod.POST, requestEntity, String.class);
-
-        } catch (Exception e) {
-            logger.error("Error sending Telegram message to chat: {}", chatId, e);
-        }
+        sendMessage(chatId, text, null).subscribe(
+                sent -> { },
+                error -> logger.warn("Could not send Telegram message to chat {}: {}", chatId, error.getMessage()));
     }
 
     /**
@@ -0,0 +1,156 @@
+package com.privatecal.caldav;
+
+import ch.qos.logback.classic.Level;
+import com.privatecal.dto.TaskRequest;
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.model.component.VEvent;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark of ICS import parsing: lightweight tokenizer vs ical4j
+ *
+ * Parses and converts a generated feed to TaskRequests with:
+ * - ical4j CalendarBuilder (whole calendar in memory, the original import path)
+ * - ical4j component by component (IcsStreamParser)
+ * - IcsTokenizer and the lightweight conversion of ICalConverter
+ *
+ * Run with: mvn test -P benchmarks
+ */
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class IcsParserBenchmarkTest {
+
+    private static final int EVENTS = 20000;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int ITERATIONS = 5;
+
+    private final ICalConverter icalConverter = new ICalConverter();
+
+    @BeforeAll
+    static void reduceLogging() {
+        // Per-event debug logs of the converter would dominate the measurements
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    @Test
+    void benchmarkImportParsing() throws Exception {
+        byte[] ics = generateFeed(EVENTS);
+        System.out.printf("ICS import parsing benchmark: %d events, %d KB%n", EVENTS, ics.length / 1024);
+
+        run("ical4j CalendarBuilder", ics, () -> {
+            Calendar calendar = new CalendarBuilder().build(
+                new InputStreamReader(new ByteArrayInputStream(ics), StandardCharsets.UTF_8));
+            List<TaskRequest> taskRequests = new ArrayList<>();
+            for (CalendarComponent component : calendar.getComponents()) {
+                if (component instanceof VEvent) {
+                    taskRequests.add(icalConverter.veventToTaskRequest((VEvent) component));
+                }
+            }
+            return taskRequests.size();
+        });
+
+        run("ical4j IcsStreamParser", ics, () -> {
+            int[] count = new int[1];
+            IcsStreamParser.parse(new ByteArrayInputStream(ics), component -> {
+                if (component instanceof VEvent) {
+                    icalConverter.veventToTaskRequest((VEvent) component);
+                    count[0]++;
+                }
+            });
+            return count[0];
+        });
+
+        run("IcsTokenizer (lightweight)", ics, () -> {
+            int[] count = new int[1];
+            IcsTokenizer.parse(new ByteArrayInputStream(ics), component -> {
+                icalConverter.toTaskRequest(component);
+                count[0]++;
+            });
+            return count[0];
+        });
+    }
+
+    private void run(String name, byte[] ics, ParseRun parseRun) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertEquals(EVENTS, parseRun.run());
+        }
+
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(EVENTS, parseRun.run());
+        }
+        long elapsedNanos = (System.nanoTime() - start) / ITERATIONS;
+        long allocatedBytes = (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / ITERATIONS;
+
+        System.out.printf("  %-28s %8.1f ms/run %10.0f events/s %8d MB allocated/run%n",
+            name, elapsedNanos / 1_000_000.0, EVENTS * 1_000_000_000.0 / elapsedNanos,
+            allocatedBytes / (1024 * 1024));
+    }
+
+    /**
+     * Feed typical of a calendar export: timezone definitions, timed events in a TZID, recurring
+     * events with exceptions, all-day events and reminders
+     */
+    private byte[] generateFeed(int events) {
+        StringBuilder ics = new StringBuilder(events * 400);
+        ics.append("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//Benchmark//EN\r\n");
+        ics.append("BEGIN:VTIMEZONE\r\nTZID:Europe/Rome\r\n")
+            .append("BEGIN:STANDARD\r\nDTSTART:19701025T030000\r\nTZOFFSETFROM:+0200\r\nTZOFFSETTO:+0100\r\n")
+            .append("RRULE:FREQ=YEARLY;BYMONTH=10;BYDAY=-1SU\r\nEND:STANDARD\r\n")
+            .append("BEGIN:DAYLIGHT\r\nDTSTART:19700329T020000\r\nTZOFFSETFROM:+0100\r\nTZOFFSETTO:+0200\r\n")
+            .append("RRULE:FREQ=YEARLY;BYMONTH=3;BYDAY=-1SU\r\nEND:DAYLIGHT\r\nEND:VTIMEZONE\r\n");
+
+        for (int i = 0; i < events; i++) {
+            int day = 1 + i % 28;
+            int month = 1 + (i / 28) % 12;
+            String date = String.format("2025%02d%02d", month, day);
+            ics.append("BEGIN:VEVENT\r\n");
+            ics.append("UID:benchmark-").append(i).append("@example.com\r\n");
+            ics.append("DTSTAMP:20250101T000000Z\r\n");
+            switch (i % 4) {
+                case 0 -> ics.append("DTSTART:").append(date).append("T090000Z\r\n")
+                    .append("DTEND:").append(date).append("T100000Z\r\n");
+                case 1 -> ics.append("DTSTART;TZID=Europe/Rome:").append(date).append("T140000\r\n")
+                    .append("DTEND;TZID=Europe/Rome:").append(date).append("T153000\r\n")
+                    .append("RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=20\r\n")
+                    .append("EXDATE;TZID=Europe/Rome:").append(date).append("T140000\r\n");
+                case 2 -> ics.append("DTSTART;VALUE=DATE:").append(date).append("\r\n")
+                    .append("DTEND;VALUE=DATE:").append(date).append("\r\n");
+                default -> ics.append("DTSTART;TZID=America/New_York:").append(date).append("T080000\r\n")
+                    .append("DTEND;TZID=America/New_York:").append(date).append("T083000\r\n");
+            }
+            ics.append("SUMMARY:Benchmark event ").append(i).append("\\, with escaped text\r\n");
+            ics.append("DESCRIPTION:Agenda:\\n- item one\\n- item two with a longer description that gets fo\r\n")
+                .append(" lded over two lines\r\n");
+            ics.append("LOCATION:Room ").append(i % 50).append("\r\n");
+            if (i % 2 == 0) {
+                ics.append("BEGIN:VALARM\r\nACTION:DISPLAY\r\nDESCRIPTION:Reminder\r\nTRIGGER:-PT15M\r\nEND:VALARM\r\n");
+            }
+            ics.append("END:VEVENT\r\n");
+        }
+        ics.append("END:VCALENDAR\r\n");
+        return ics.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface ParseRun {
+        int run() throws Exception;
+    }
+}
@@ -0,0 +1,230 @@
+package com.privatecal.caldav;
+
+import com.privatecal.dto.ReminderRequest;
+import com.privatecal.dto.TaskRequest;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.component.VToDo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IcsTokenizer and the lightweight conversion of ICalConverter
+ * The lightweight conversion must give the same TaskRequests as the ical4j path
+ */
+class IcsTokenizerTest {
+
+    private ICalConverter icalConverter;
+
+    @BeforeEach
+    void setUp() {
+        icalConverter = new ICalConverter();
+    }
+
+    @Test
+    void testLightweightConversionMatchesIcal4j() throws Exception {
+        String ics = String.join("\r\n",
+            "BEGIN:VCALENDAR",
+            "VERSION:2.0",
+            "PRODID:-//Test//Test//EN",
+            "X-WR-CALNAME:Test",
+            "BEGIN:VTIMEZONE",
+            "TZID:Europe/Rome",
+            "BEGIN:STANDARD",
+            "DTSTART:19701025T030000",
+            "TZOFFSETFROM:+0200",
+            "TZOFFSETTO:+0100",
+            "RRULE:FREQ=YEARLY;BYMONTH=10;BYDAY=-1SU",
+            "END:STANDARD",
+            "BEGIN:DAYLIGHT",
+            "DTSTART:19700329T020000",
+            "TZOFFSETFROM:+0100",
+            "TZOFFSETTO:+0200",
+            "RRULE:FREQ=YEARLY;BYMONTH=3;BYDAY=-1SU",
+            "END:DAYLIGHT",
+            "END:VTIMEZONE",
+            // UTC event with escaped text, folded description and reminders
+            "BEGIN:VEVENT",
+            "UID:utc@example.com",
+            "DTSTART:20251021T140000Z",
+            "DTEND:20251021T150000Z",
+            "SUMMARY:Review\\, planning\\; budget",
+            "DESCRIPTION:First line\\nSecond line with a long text that is folded o",
+            " ver two lines",
+            "LOCATION;LANGUAGE=en:Room \\\"1\\\"",
+            "X-APPLE-CALENDAR-COLOR:#FF0000",
+            "BEGIN:VALARM",
+            "ACTION:DISPLAY",
+            "TRIGGER:-PT15M",
+            "END:VALARM",
+            "BEGIN:VALARM",
+            "ACTION:EMAIL",
+            "TRIGGER;RELATED=END:-P1DT2H",
+            "END:VALARM",
+            "BEGIN:VALARM",
+            "ACTION:DISPLAY",
+            "TRIGGER;VALUE=DATE-TIME:20251021T120000Z",
+            "END:VALARM",
+            "END:VEVENT",
+            // Recurring event in a timezone defined by the file, with exceptions
+            "BEGIN:VEVENT",
+            "UID:rome@example.com",
+            "DTSTART;TZID=Europe/Rome:20250303T090000",
+            "DTEND;TZID=\"Europe/Rome\":20250303T100000",
+            "SUMMARY:Weekly",
+            "RRULE:BYDAY=MO,WE;FREQ=WEEKLY;COUNT=10",
+            "EXDATE;TZID=Europe/Rome:20250305T090000,20250310T090000",
+            "EXDATE;TZID=Europe/Rome:20250312T090000",
+            "END:VEVENT",
+            // Timezone alias resolved by the ical4j registry, end in another timezone
+            "BEGIN:VEVENT",
+            "UID:alias@example.com",
+            "DTSTART;TZID=US/Eastern:20251110T100000",
+            "DTEND;TZID=Europe/Paris:20251110T170000",
+            "SUMMARY:Alias",
+            "END:VEVENT",
+            // All-day event with date exceptions
+            "BEGIN:VEVENT",
+            "UID:allday@example.com",
+            "DTSTART;VALUE=DATE:20251225",
+            "DTEND;VALUE=DATE:20251226",
+            "SUMMARY:Holiday",
+            "RRULE:FREQ=YEARLY",
+            "EXDATE;VALUE=DATE:20261225",
+            "END:VEVENT",
+            // Handled by ical4j: DURATION instead of DTEND, floating time, missing UID
+            "BEGIN:VEVENT",
+            "UID:duration@example.com",
+            "DTSTART:20251021T140000Z",
+            "DURATION:PT45M",
+            "SUMMARY:Duration",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "UID:floating@example.com",
+            "DTSTART:20251021T140000",
+            "DTEND:20251021T150000",
+            "SUMMARY:Floating",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART:20251021T140000Z",
+            "DTEND:20251021T150000Z",
+            "SUMMARY:No UID",
+            "END:VEVENT",
+            // Todos: timed, date-only and without DUE
+            "BEGIN:VTODO",
+            "UID:todo-timed@example.com",
+            "DUE;TZID=Europe/Rome:20251022T180000",
+            "SUMMARY:Submit report",
+            "END:VTODO",
+            "BEGIN:VTODO",
+            "UID:todo-date@example.com",
+            "DUE;VALUE=DATE:20251023",
+            "SUMMARY:Pay bills",
+            "END:VTODO",
+            "BEGIN:VTODO",
+            "UID:todo-nodue@example.com",
+            "SUMMARY:Someday",
+            "END:VTODO",
+            "BEGIN:VJOURNAL",
+            "UID:journal@example.com",
+            "SUMMARY:Skipped",
+            "END:VJOURNAL",
+            "END:VCALENDAR",
+            "");
+
+        List<TaskRequest> lightweight = new ArrayList<>();
+        IcsTokenizer.parse(stream(ics), component -> lightweight.add(icalConverter.toTaskRequest(component)));
+
+        List<TaskRequest> reference = new ArrayList<>();
+        IcsStreamParser.parse(stream(ics), component -> {
+            if (component instanceof VEvent) {
+                reference.add(icalConverter.veventToTaskRequest((VEvent) component));
+            } else if (component instanceof VToDo) {
+                reference.add(icalConverter.vtodoToTaskRequest((VToDo) component));
+            }
+        });
+
+        assertEquals(10, reference.size());
+        assertEquals(reference.size(), lightweight.size());
+        for (int i = 0; i < reference.size(); i++) {
+            assertSameTaskRequest(reference.get(i), lightweight.get(i));
+        }
+
+        TaskRequest utc = lightweight.get(0);
+        assertEquals("Review, planning; budget", utc.getTitle());
+        assertTrue(utc.getDescription().contains("folded over two lines"));
+        assertEquals(List.of(15, 1560), utc.getReminders().stream()
+            .map(ReminderRequest::getReminderOffsetMinutes).collect(Collectors.toList()));
+        assertEquals("FREQ=WEEKLY;COUNT=10;BYDAY=MO,WE", lightweight.get(1).getRecurrenceRule());
+        assertEquals("America/New_York", lightweight.get(2).getTimezone());
+    }
+
+    @Test
+    void testTokenizerRejectsInvalidStructure() {
+        assertThrows(ParserException.class, () -> IcsTokenizer.parse(stream("not a calendar\r\n"), component -> { }));
+        assertThrows(ParserException.class, () -> IcsTokenizer.parse(stream(String.join("\r\n",
+            "BEGIN:VCALENDAR", "BEGIN:VEVENT", "UID:1", "END:VTODO", "END:VCALENDAR", "")), component -> { }));
+        assertThrows(ParserException.class, () -> IcsTokenizer.parse(stream(String.join("\r\n",
+            "BEGIN:VCALENDAR", "BEGIN:VEVENT", "UID:1", "")), component -> { }));
+    }
+
+    @Test
+    void testTokenizerEmitsComponentsBeforeInvalidData() {
+        String ics = String.join("\n",
+            "BEGIN:VCALENDAR",
+            "BEGIN:VEVENT",
+            "UID:first",
+            "DTSTART;TZID=\"Europe/Rome\":20251021T140000",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "garbage",
+            "END:VEVENT",
+            "END:VCALENDAR");
+
+        List<IcsComponent> components = new ArrayList<>();
+        ParserException e = assertThrows(ParserException.class, () -> IcsTokenizer.parse(stream(ics), components::add));
+
+        assertEquals(7, e.getLineNo());
+        assertEquals(1, components.size());
+        IcsComponent.Property dtStart = components.get(0).getProperty("DTSTART");
+        assertEquals("Europe/Rome", dtStart.getParameter("TZID"));
+        assertEquals("20251021T140000", dtStart.getValue());
+    }
+
+    private void assertSameTaskRequest(TaskRequest expected, TaskRequest actual) {
+        String uid = expected.getUid();
+        assertEquals(expected.getUid(), actual.getUid());
+        assertEquals(expected.getTitle(), actual.getTitle(), uid);
+        assertEquals(expected.getDescription(), actual.getDescription(), uid);
+        assertEquals(expected.getLocation(), actual.getLocation(), uid);
+        assertEquals(expected.getStartDatetimeLocal(), actual.getStartDatetimeLocal(), uid);
+        assertEquals(expected.getEndDatetimeLocal(), actual.getEndDatetimeLocal(), uid);
+        assertEquals(expected.getTimezone(), actual.getTimezone(), uid);
+        assertEquals(expected.getIsAllDay(), actual.getIsAllDay(), uid);
+        assertEquals(expected.getRecurrenceRule(), actual.getRecurrenceRule(), uid);
+        assertEquals(expected.getRecurrenceExceptions(), actual.getRecurrenceExceptions(), uid);
+        assertEquals(expected.getColor(), actual.getColor(), uid);
+        assertEquals(reminderOffsets(expected), reminderOffsets(actual), uid);
+    }
+
+    private List<Integer> reminderOffsets(TaskRequest taskRequest) {
+        if (taskRequest.getReminders() == null) {
+            return List.of();
+        }
+        return taskRequest.getReminders().stream()
+            .map(ReminderRequest::getReminderOffsetMinutes)
+            .collect(Collectors.toList());
+    }
+
+    private ByteArrayInputStream stream(String ics) {
+        return new ByteArrayInputStream(ics.getBytes(StandardCharsets.UTF_8));
+    }
+}
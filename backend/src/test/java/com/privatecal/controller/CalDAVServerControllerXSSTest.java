@@ -8,6 +8,8 @@ import com.privatecal.entity.User;
 import com.privatecal.repository.TaskRepository;
 import com.privatecal.service.CalDAVService;
 import com.privatecal.service.CalendarService;
+import com.privatecal.service.CalendarSnapshotService;
+import com.privatecal.service.CalendarSyncService;
 import com.privatecal.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,12 +18,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
@@ -44,6 +49,12 @@ class CalDAVServerControllerXSSTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private CalendarSyncService calendarSyncService;
+
+    @Mock
+    private CalendarSnapshotService calendarSnapshotService;
+
     private CalDAVXmlBuilder xmlBuilder;
 
     private CalDAVValidator validator;
@@ -66,6 +77,8 @@ class CalDAVServerControllerXSSTest {
             calendarService,
             userService,
             taskRepository,
+            calendarSyncService,
+            calendarSnapshotService,
             xmlBuilder,
             validator
         );
@@ -95,10 +108,10 @@ class CalDAVServerControllerXSSTest {
         when(userService.getCurrentUser()).thenReturn(testUser);
         when(calendarService.getCalendarBySlugAndUsername(anyString(), anyString())).thenReturn(testCalendar);
         when(taskRepository.findByCalendar_IdOrderByStartDatetimeAsc(anyLong())).thenReturn(Arrays.asList(task1));
-        when(calDAVService.getTaskETag(anyString())).thenReturn("etag-123");
+        when(calDAVService.getTaskETag(any(Task.class))).thenReturn("etag-123");
 
         // When
-        ResponseEntity<String> response = controller.propfindOrReport(request, "testuser", "test-calendar", null, "1");
+        ResponseEntity<String> response = propfind("testuser", "test-calendar");
 
         // Then
         assertNotNull(response);
@@ -121,10 +134,10 @@ class CalDAVServerControllerXSSTest {
         when(userService.getCurrentUser()).thenReturn(testUser);
         when(calendarService.getCalendarBySlugAndUsername(anyString(), anyString())).thenReturn(testCalendar);
         when(taskRepository.findByCalendar_IdOrderByStartDatetimeAsc(anyLong())).thenReturn(Arrays.asList(maliciousTask));
-        when(calDAVService.getTaskETag(anyString())).thenReturn("etag-123");
+        when(calDAVService.getTaskETag(any(Task.class))).thenReturn("etag-123");
 
         // When
-        ResponseEntity<String> response = controller.propfindOrReport(request, "testuser", "test-calendar", null, "1");
+        ResponseEntity<String> response = propfind("testuser", "test-calendar");
 
         // Then
         assertNotNull(response);
@@ -149,10 +162,10 @@ class CalDAVServerControllerXSSTest {
         when(userService.getCurrentUser()).thenReturn(testUser);
         when(calendarService.getCalendarBySlugAndUsername(anyString(), anyString())).thenReturn(testCalendar);
         when(taskRepository.findByCalendar_IdOrderByStartDatetimeAsc(anyLong())).thenReturn(Arrays.asList(task1));
-        when(calDAVService.getTaskETag(anyString())).thenReturn("etag-123");
+        when(calDAVService.getTaskETag(any(Task.class))).thenReturn("etag-123");
 
         // When
-        ResponseEntity<String> response = controller.propfindOrReport(request, "testuser", "test-calendar", null, "1");
+        ResponseEntity<String> response = propfind("testuser", "test-calendar");
 
         // Then
         assertNotNull(response);
@@ -183,10 +196,10 @@ class CalDAVServerControllerXSSTest {
         when(userService.getCurrentUser()).thenReturn(testUser);
         when(calendarService.getCalendarBySlugAndUsername(anyString(), anyString())).thenReturn(testCalendar);
         when(taskRepository.findByCalendar_IdOrderByStartDatetimeAsc(anyLong())).thenReturn(Arrays.asList(task1));
-        when(calDAVService.getTaskETag(anyString())).thenReturn("etag-123");
+        when(calDAVService.getTaskETag(any(Task.class))).thenReturn("etag-123");
 
         // When
-        ResponseEntity<String> response = controller.propfindOrReport(request, validUsername, validSlug, null, "1");
+        ResponseEntity<String> response = propfind(validUsername, validSlug);
 
         // Then
         assertNotNull(response);
@@ -213,7 +226,7 @@ class CalDAVServerControllerXSSTest {
         // Note: No mocking needed - validation fails before any service calls
 
         // When
-        ResponseEntity<String> response = controller.propfindOrReport(request, validUsername, maliciousSlug, null, "1");
+        ResponseEntity<String> response = propfind(validUsername, maliciousSlug);
 
         // Then - Should return 400 Bad Request due to validation failure
         assertNotNull(response);
@@ -233,7 +246,7 @@ class CalDAVServerControllerXSSTest {
         // Note: No mocking needed - validation fails before any service calls
 
         // When
-        ResponseEntity<String> response = controller.propfindOrReport(request, validUsername, traversalSlug, null, "1");
+        ResponseEntity<String> response = propfind(validUsername, traversalSlug);
 
         // Then - Should return 400 Bad Request due to validation failure
         assertNotNull(response);
@@ -256,11 +269,11 @@ class CalDAVServerControllerXSSTest {
         when(calendarService.getCalendarBySlugAndUsername(anyString(), anyString())).thenReturn(testCalendar);
         when(taskRepository.findByCalendar_IdOrderByStartDatetimeAsc(anyLong()))
                 .thenReturn(Arrays.asList(task1, task2));
-        when(calDAVService.getTaskETag("abc123-task")).thenReturn("etag-abc");
-        when(calDAVService.getTaskETag("def456-task")).thenReturn("etag-def");
+        when(calDAVService.getTaskETag(task1)).thenReturn("etag-abc");
+        when(calDAVService.getTaskETag(task2)).thenReturn("etag-def");
 
         // When
-        ResponseEntity<String> response = controller.propfindOrReport(request, "testuser", "test-calendar", null, "1");
+        ResponseEntity<String> response = propfind("testuser", "test-calendar");
 
         // Then
         assertNotNull(response);
@@ -288,10 +301,10 @@ class CalDAVServerControllerXSSTest {
         when(userService.getCurrentUser()).thenReturn(testUser);
         when(calendarService.getCalendarBySlugAndUsername(anyString(), anyString())).thenReturn(testCalendar);
         when(taskRepository.findByCalendar_IdOrderByStartDatetimeAsc(anyLong())).thenReturn(Arrays.asList(task1));
-        when(calDAVService.getTaskETag(anyString())).thenReturn("etag-<malicious>");
+        when(calDAVService.getTaskETag(any(Task.class))).thenReturn("etag-<malicious>");
 
         // When
-        ResponseEntity<String> response = controller.propfindOrReport(request, "testuser", "test-calendar", null, "1");
+        ResponseEntity<String> response = propfind("testuser", "test-calendar");
 
         // Then
         assertNotNull(response);
@@ -303,6 +316,17 @@ class CalDAVServerControllerXSSTest {
         assertFalse(body.contains("etag-<malicious>"), "ETag should not contain unescaped content");
     }
 
+    // Streamed 207 responses are written to the servlet response, errors are returned as ResponseEntity
+    private ResponseEntity<String> propfind(String username, String calendarSlug) throws Exception {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ResponseEntity<String> response = controller.propfindOrReport(request, servletResponse, username, calendarSlug, null, "1");
+        if (response != null) {
+            return response;
+        }
+        return ResponseEntity.status(servletResponse.getStatus())
+                .body(servletResponse.getContentAsString(StandardCharsets.UTF_8));
+    }
+
     // Helper method
     private Task createTask(String uid, String title) {
         Task task = new Task();
@@ -1,5 +1,8 @@
 package com.privatecal.integration;
 
+import com.privatecal.dto.NotificationType;
+import com.privatecal.dto.ReminderRequest;
+import com.privatecal.dto.ReminderResponse;
 import com.privatecal.entity.Calendar;
 import com.privatecal.entity.Task;
 import com.privatecal.entity.User;
@@ -7,6 +10,12 @@ import com.privatecal.repository.CalendarRepository;
 import com.privatecal.repository.TaskRepository;
 import com.privatecal.repository.UserRepository;
 import com.privatecal.security.UserDetailsImpl;
+import com.privatecal.dto.DuplicateStrategy;
+import com.privatecal.service.CalendarImportService;
+import com.privatecal.service.CalendarSnapshotService;
+import com.privatecal.service.CalendarSyncService;
+import com.privatecal.service.ReminderService;
+import com.privatecal.service.TaskService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,17 +24,34 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayInputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -36,12 +62,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Integration tests for CalDAV Server endpoints
  * Tests RFC 4791 CalDAV protocol implementation
  *
- * Test Coverage (18 tests):
+ * Test Coverage (32 tests):
  * - OPTIONS: CalDAV capability declaration
  * - GET: Retrieve events as ICS with ETag support
  * - PUT: Create/update events with ETag conflict detection
  * - DELETE: Remove events
  * - PROPFIND: List events in WebDAV multistatus format
+ * - REPORT: calendar-query and calendar-multiget with calendar-data
+ * - REPORT: calendar-query time-range filter, including recurring events
+ * - REPORT: sync-collection (RFC 6578) initial and incremental sync with tombstones
+ * - Sync tokens: ordered by commit, a change committed after a token was read is not lost
+ * - CTag: CS:getctag on calendar collections, changed by every write
  * - Authentication: HTTP Basic Auth validation
  * - Authorization: User isolation and access control
  *
@@ -78,6 +109,24 @@ class CalDAVServerIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CalendarSnapshotService calendarSnapshotService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private CalendarSyncService calendarSyncService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CalendarImportService calendarImportService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private User testUser;
     private User otherUser;
     private Calendar testCalendar;
@@ -220,6 +269,178 @@ class CalDAVServerIntegrationTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    void testCalDAVGet_WithMatchingETag_ShouldReturn304() throws Exception {
+        String url = "/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug() + "/" + testTask.getUid() + ".ics";
+        MockHttpServletResponse response = mockMvc.perform(get(url)
+                .with(httpBasic(testUser.getUsername(), testPassword)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse();
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+
+        mockMvc.perform(get(url)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("If-None-Match", "\"other\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get(url)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+
+        // Stale ETag: full response (If-Modified-Since is ignored when If-None-Match is present)
+        mockMvc.perform(get(url)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("If-None-Match", "\"stale\"")
+                .header("If-Modified-Since", lastModified))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(containsString("UID:test-uid-123")));
+    }
+
+    @Test
+    void testCalDAV_RecreatedEvent_ShouldNotMatchETagOfDeletedOne() throws Exception {
+        String url = "/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug() + "/" + testTask.getUid() + ".ics";
+        String oldETag = getETag(url);
+
+        // Delete the event and create it again under the same UID: its version starts over
+        mockMvc.perform(delete(url)
+                .with(httpBasic(testUser.getUsername(), testPassword)))
+                .andExpect(status().isNoContent());
+        String icsContent = """
+            BEGIN:VCALENDAR
+            VERSION:2.0
+            PRODID:-//PrivateCal//EN
+            BEGIN:VEVENT
+            UID:test-uid-123
+            SUMMARY:Recreated Event
+            DTSTART:20241226T100000Z
+            DTEND:20241226T110000Z
+            END:VEVENT
+            END:VCALENDAR
+            """;
+        String newETag = mockMvc.perform(put(url)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .contentType("text/calendar")
+                .content(icsContent))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(oldETag, newETag);
+
+        // A client holding the old ETag gets the new content, not a 304
+        mockMvc.perform(get(url)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("If-None-Match", oldETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", newETag))
+                .andExpect(content().string(containsString("SUMMARY:Recreated Event")));
+
+        // ... and cannot overwrite the new event with it
+        mockMvc.perform(put(url)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("If-Match", oldETag)
+                .contentType("text/calendar")
+                .content(icsContent.replace("Recreated Event", "Stale Write")))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get(url)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("If-None-Match", newETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testCalDAVGet_UidReimportedAfterDeletion_ShouldServeNewEvent() throws Exception {
+        String url = "/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug() + "/" + testTask.getUid() + ".ics";
+        // Rendered once, so the deleted event is in the ICS cache
+        mockMvc.perform(get(url)
+                .with(httpBasic(testUser.getUsername(), testPassword)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("SUMMARY:Test Event")));
+
+        // Deleted from the web UI, then the same UID is imported again
+        authenticateTestUser();
+        taskService.deleteTask(testTask.getUid());
+        String icsContent = """
+            BEGIN:VCALENDAR
+            VERSION:2.0
+            PRODID:-//PrivateCal//EN
+            BEGIN:VEVENT
+            UID:test-uid-123
+            SUMMARY:Reimported Event
+            DTSTART:20241225T100000Z
+            DTEND:20241225T110000Z
+            END:VEVENT
+            END:VCALENDAR
+            """;
+        CalendarImportService.ImportResult result = calendarImportService.importCalendar(
+            new ByteArrayInputStream(icsContent.getBytes(StandardCharsets.UTF_8)), testUser, DuplicateStrategy.SKIP);
+        assertEquals(1, result.getCreatedCount());
+
+        mockMvc.perform(get(url)
+                .with(httpBasic(testUser.getUsername(), testPassword)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("SUMMARY:Reimported Event")))
+                .andExpect(content().string(not(containsString("Test Description"))));
+    }
+
+    @Test
+    void testCalDAVGetCalendar_ShouldServeSnapshotWithETagAndRange() throws Exception {
+        String url = "/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug() + "/";
+        String etag = mockMvc.perform(get(url)
+                .with(httpBasic(testUser.getUsername(), testPassword)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("text/calendar")))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(content().string(startsWith("BEGIN:VCALENDAR")))
+                .andExpect(content().string(containsString("X-WR-CALNAME:Test Calendar")))
+                .andExpect(content().string(containsString("UID:test-uid-123")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(url)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get(url)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Range", "bytes=0-14"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("BEGIN:VCALENDAR"));
+
+        // A write marks the snapshot dirty: it is rendered again in the background
+        ReflectionTestUtils.setField(calendarSnapshotService, "debounceMillis", 0L);
+        try {
+            mockMvc.perform(put(url + "snapshot-uid.ics")
+                    .with(httpBasic(testUser.getUsername(), testPassword))
+                    .contentType("text/calendar")
+                    .content("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//Test//EN\r\nBEGIN:VEVENT\r\n" +
+                             "UID:snapshot-uid\r\nSUMMARY:Added\r\nDTSTART:20241226T100000Z\r\n" +
+                             "DTEND:20241226T110000Z\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n"))
+                    .andExpect(status().isCreated());
+
+            String newETag = etag;
+            for (int attempt = 0; attempt < 100 && etag.equals(newETag); attempt++) {
+                Thread.sleep(100);
+                newETag = mockMvc.perform(get(url)
+                        .with(httpBasic(testUser.getUsername(), testPassword)))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getHeader("ETag");
+            }
+            assertNotEquals(etag, newETag);
+            mockMvc.perform(get(url)
+                    .with(httpBasic(testUser.getUsername(), testPassword)))
+                    .andExpect(header().string("ETag", newETag))
+                    .andExpect(content().string(containsString("UID:snapshot-uid")));
+        } finally {
+            ReflectionTestUtils.setField(calendarSnapshotService, "debounceMillis", 5000L);
+        }
+    }
+
     // ==================== PUT Tests ====================
 
     @Test
@@ -320,6 +541,47 @@ class CalDAVServerIntegrationTest {
                 .andExpect(status().isPreconditionFailed());
     }
 
+    @Test
+    void testCalDAVPut_WithStaleETag_ShouldReturn412() throws Exception {
+        String eventUrl = "/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug() + "/" + testTask.getUid() + ".ics";
+        String staleEtag = mockMvc.perform(get(eventUrl)
+                .with(httpBasic(testUser.getUsername(), testPassword)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        String updatedIcsContent = """
+            BEGIN:VCALENDAR
+            VERSION:2.0
+            PRODID:-//PrivateCal//EN
+            BEGIN:VEVENT
+            UID:test-uid-123
+            SUMMARY:First Writer
+            DTSTART:20241225T100000Z
+            DTEND:20241225T110000Z
+            END:VEVENT
+            END:VCALENDAR
+            """;
+
+        // First conditional write wins and bumps the version
+        String newEtag = mockMvc.perform(put(eventUrl)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .contentType("text/calendar")
+                .header("If-Match", staleEtag)
+                .content(updatedIcsContent))
+                .andExpect(status().isNoContent())
+                .andReturn().getResponse().getHeader("ETag");
+
+        org.junit.jupiter.api.Assertions.assertNotEquals(staleEtag, newEtag);
+
+        // Second writer still holding the old ETag must be rejected
+        mockMvc.perform(put(eventUrl)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .contentType("text/calendar")
+                .header("If-Match", staleEtag)
+                .content(updatedIcsContent.replace("First Writer", "Second Writer")))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void testCalDAVPut_WithoutAuth_ShouldReturn401() throws Exception {
         String icsContent = "BEGIN:VCALENDAR\nVERSION:2.0\nEND:VCALENDAR";
@@ -402,7 +664,393 @@ class CalDAVServerIntegrationTest {
                 .andDo(print())
                 .andExpect(status().isMultiStatus())
                 .andExpect(content().string(containsString("<C:calendar/>")))
-                .andExpect(content().string(containsString(testCalendar.getName())));
+                .andExpect(content().string(containsString(testCalendar.getName())))
+                .andExpect(content().string(not(containsString(testTask.getUid() + ".ics"))));
+    }
+
+    @Test
+    void testCalDAVPropfind_CTag_ShouldChangeAfterWrite() throws Exception {
+        String calendarUrl = "/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug();
+
+        String before = mockMvc.perform(request("PROPFIND", URI.create(calendarUrl))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "0")
+                .contentType(MediaType.APPLICATION_XML))
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(containsString("<CS:getctag>")))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(delete(calendarUrl + "/" + testTask.getUid() + ".ics")
+                .with(httpBasic(testUser.getUsername(), testPassword)))
+                .andExpect(status().isNoContent());
+
+        String after = mockMvc.perform(request("PROPFIND", URI.create(calendarUrl))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "0")
+                .contentType(MediaType.APPLICATION_XML))
+                .andExpect(status().isMultiStatus())
+                .andReturn().getResponse().getContentAsString();
+
+        java.util.regex.Pattern ctagPattern = java.util.regex.Pattern.compile("<CS:getctag>([^<]+)</CS:getctag>");
+        java.util.regex.Matcher beforeMatcher = ctagPattern.matcher(before);
+        java.util.regex.Matcher afterMatcher = ctagPattern.matcher(after);
+        org.junit.jupiter.api.Assertions.assertTrue(beforeMatcher.find() && afterMatcher.find());
+        org.junit.jupiter.api.Assertions.assertNotEquals(beforeMatcher.group(1), afterMatcher.group(1));
+
+        // Calendar listing advertises the same CTag
+        mockMvc.perform(request("PROPFIND", URI.create("/caldav/" + testUser.getUsername() + "/"))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "1")
+                .contentType(MediaType.APPLICATION_XML))
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(containsString("<CS:getctag>" + afterMatcher.group(1) + "</CS:getctag>")));
+    }
+
+    @Test
+    void testCalDAV_ReminderWrites_ShouldChangeETagAndCTag() throws Exception {
+        String eventUrl = "/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug() + "/" + testTask.getUid() + ".ics";
+        String etag = getETag(eventUrl);
+        String ctag = getCTag();
+
+        // Reminders are rendered as VALARMs: each REST write of a reminder is a new version of the event
+        authenticateTestUser();
+        ReminderResponse reminder = reminderService.createReminderForTask(testTask.getUid(),
+                new ReminderRequest(15, NotificationType.PUSH));
+        String afterCreate = getETag(eventUrl);
+        assertNotEquals(etag, afterCreate);
+        assertNotEquals(ctag, getCTag());
+        mockMvc.perform(get(eventUrl)
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("BEGIN:VALARM")));
+
+        ctag = getCTag();
+        authenticateTestUser();
+        reminderService.updateReminder(reminder.getId(), new ReminderRequest(30, NotificationType.PUSH));
+        String afterUpdate = getETag(eventUrl);
+        assertNotEquals(afterCreate, afterUpdate);
+        assertNotEquals(ctag, getCTag());
+
+        ctag = getCTag();
+        authenticateTestUser();
+        reminderService.deleteReminder(reminder.getId());
+        assertNotEquals(afterUpdate, getETag(eventUrl));
+        assertNotEquals(ctag, getCTag());
+    }
+
+    /**
+     * Security context of the test user for service calls (MockMvc requests clear it)
+     */
+    private void authenticateTestUser() {
+        UserDetailsImpl userDetails = UserDetailsImpl.build(testUser);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    private String getETag(String eventUrl) throws Exception {
+        return mockMvc.perform(get(eventUrl)
+                .with(httpBasic(testUser.getUsername(), testPassword)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+    }
+
+    private String getCTag() throws Exception {
+        String body = mockMvc.perform(request("PROPFIND", URI.create("/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug()))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "0")
+                .contentType(MediaType.APPLICATION_XML))
+                .andExpect(status().isMultiStatus())
+                .andReturn().getResponse().getContentAsString();
+        java.util.regex.Matcher matcher = java.util.regex.Pattern.compile("<CS:getctag>([^<]+)</CS:getctag>").matcher(body);
+        org.junit.jupiter.api.Assertions.assertTrue(matcher.find());
+        return matcher.group(1);
+    }
+
+    @Test
+    void testCalDAVReport_ShouldIncludeCalendarData() throws Exception {
+        mockMvc.perform(request("REPORT", URI.create("/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug()))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "1")
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<C:calendar-query xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\">" +
+                         "<D:prop><D:getetag/><C:calendar-data/></D:prop></C:calendar-query>"))
+                .andDo(print())
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(containsString(testTask.getUid() + ".ics")))
+                .andExpect(content().string(containsString("<C:calendar-data>")))
+                .andExpect(content().string(containsString("UID:" + testTask.getUid())));
+    }
+
+    @Test
+    void testCalDAVReport_CalendarQueryTimeRange_ShouldReturnOnlyEventsInRange() throws Exception {
+        String calendarUrl = "/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug();
+
+        // Test event is on 2024-12-25, outside the requested range
+        mockMvc.perform(request("REPORT", URI.create(calendarUrl))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "1")
+                .contentType(MediaType.APPLICATION_XML)
+                .content(timeRangeQuery("20250101T000000Z", "20250201T000000Z")))
+                .andDo(print())
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(not(containsString(testTask.getUid() + ".ics"))));
+
+        // Range overlapping the event end only
+        mockMvc.perform(request("REPORT", URI.create(calendarUrl))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "1")
+                .contentType(MediaType.APPLICATION_XML)
+                .content(timeRangeQuery("20241225T103000Z", "20241226T000000Z")))
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(containsString(testTask.getUid() + ".ics")))
+                .andExpect(content().string(containsString("<C:calendar-data>")));
+    }
+
+    @Test
+    void testCalDAVReport_CalendarQueryTimeRange_ShouldIncludeRecurringEventOccurrences() throws Exception {
+        Task weekly = new Task();
+        weekly.setUser(testUser);
+        weekly.setCalendar(testCalendar);
+        weekly.setUid("weekly-uid");
+        weekly.setTitle("Weekly Event");
+        weekly.setStartDatetimeLocal(LocalDateTime.parse("2024-01-01T09:00:00"));
+        weekly.setEndDatetimeLocal(LocalDateTime.parse("2024-01-01T10:00:00"));
+        weekly.setTaskTimezone("UTC");
+        weekly.setStartDatetime(Instant.parse("2024-01-01T09:00:00Z"));
+        weekly.setEndDatetime(Instant.parse("2024-01-01T10:00:00Z"));
+        weekly.setIsAllDay(false);
+        weekly.setRecurrenceRule("FREQ=WEEKLY;UNTIL=20240301T000000Z");
+        weekly.setRecurrenceEnd(Instant.parse("2024-03-01T00:00:00Z"));
+        taskRepository.save(weekly);
+
+        String calendarUrl = "/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug();
+
+        // Occurrence on Monday 2024-02-05
+        mockMvc.perform(request("REPORT", URI.create(calendarUrl))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "1")
+                .contentType(MediaType.APPLICATION_XML)
+                .content(timeRangeQuery("20240205T000000Z", "20240206T000000Z")))
+                .andDo(print())
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(containsString("weekly-uid.ics")));
+
+        // No occurrence on Tuesday, nor after the series ended
+        mockMvc.perform(request("REPORT", URI.create(calendarUrl))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "1")
+                .contentType(MediaType.APPLICATION_XML)
+                .content(timeRangeQuery("20240206T000000Z", "20240207T000000Z")))
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(not(containsString("weekly-uid.ics"))));
+        mockMvc.perform(request("REPORT", URI.create(calendarUrl))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "1")
+                .contentType(MediaType.APPLICATION_XML)
+                .content(timeRangeQuery("20240401T000000Z", "20240501T000000Z")))
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(not(containsString("weekly-uid.ics"))));
+    }
+
+    private String timeRangeQuery(String start, String end) {
+        return "<C:calendar-query xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\">" +
+               "<D:prop><D:getetag/><C:calendar-data/></D:prop>" +
+               "<C:filter><C:comp-filter name=\"VCALENDAR\"><C:comp-filter name=\"VEVENT\">" +
+               "<C:time-range start=\"" + start + "\" end=\"" + end + "\"/>" +
+               "</C:comp-filter></C:comp-filter></C:filter></C:calendar-query>";
+    }
+
+    @Test
+    void testCalDAVReport_CalendarMultiget_ShouldReturnRequestedEvents() throws Exception {
+        String href = "/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug() + "/" + testTask.getUid() + ".ics";
+        mockMvc.perform(request("REPORT", URI.create("/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug()))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "1")
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<C:calendar-multiget xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\">" +
+                         "<D:prop><D:getetag/><C:calendar-data/></D:prop>" +
+                         "<D:href>" + href + "</D:href></C:calendar-multiget>"))
+                .andDo(print())
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(containsString(href)))
+                .andExpect(content().string(containsString("SUMMARY:Test Event")));
+    }
+
+    @Test
+    void testCalDAVReport_SyncCollection_InitialSync_ShouldReturnAllEventsAndToken() throws Exception {
+        mockMvc.perform(request("REPORT", URI.create("/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug()))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .contentType(MediaType.APPLICATION_XML)
+                .content(syncCollectionRequest("")))
+                .andDo(print())
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(containsString(testTask.getUid() + ".ics")))
+                .andExpect(content().string(containsString("<D:getetag>")))
+                .andExpect(content().string(containsString("<D:sync-token>")))
+                .andExpect(content().string(not(containsString("<C:calendar-data>"))));
+    }
+
+    @Test
+    void testCalDAVReport_SyncCollection_ShouldReturnOnlyChangesSinceToken() throws Exception {
+        String calendarUrl = "/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug();
+
+        // Collection PROPFIND advertises the current sync token
+        String propfindResponse = mockMvc.perform(request("PROPFIND", URI.create(calendarUrl))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "0")
+                .contentType(MediaType.APPLICATION_XML))
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(containsString("<D:sync-collection/>")))
+                .andReturn().getResponse().getContentAsString();
+        String syncToken = extractSyncToken(propfindResponse);
+
+        // Nothing changed yet
+        mockMvc.perform(request("REPORT", URI.create(calendarUrl))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .contentType(MediaType.APPLICATION_XML)
+                .content(syncCollectionRequest(syncToken)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(not(containsString(".ics"))))
+                .andExpect(content().string(containsString("<D:sync-token>" + syncToken + "</D:sync-token>")));
+
+        // Create one event and delete the existing one
+        String icsContent = """
+            BEGIN:VCALENDAR
+            VERSION:2.0
+            PRODID:-//PrivateCal//EN
+            BEGIN:VEVENT
+            UID:sync-event-uid
+            SUMMARY:Synced Event
+            DTSTART:20241227T100000Z
+            DTEND:20241227T110000Z
+            END:VEVENT
+            END:VCALENDAR
+            """;
+        mockMvc.perform(put(calendarUrl + "/sync-event-uid.ics")
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .contentType("text/calendar")
+                .content(icsContent))
+                .andExpect(status().isCreated());
+        mockMvc.perform(delete(calendarUrl + "/" + testTask.getUid() + ".ics")
+                .with(httpBasic(testUser.getUsername(), testPassword)))
+                .andExpect(status().isNoContent());
+
+        String syncResponse = mockMvc.perform(request("REPORT", URI.create(calendarUrl))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .contentType(MediaType.APPLICATION_XML)
+                .content(syncCollectionRequest(syncToken)))
+                .andDo(print())
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(containsString("sync-event-uid.ics")))
+                .andExpect(content().string(containsString(testTask.getUid() + ".ics</D:href>\n    <D:status>HTTP/1.1 404 Not Found</D:status>")))
+                .andReturn().getResponse().getContentAsString();
+
+        // The new token is ahead of the old one and reports no further changes
+        String newSyncToken = extractSyncToken(syncResponse);
+        org.junit.jupiter.api.Assertions.assertNotEquals(syncToken, newSyncToken);
+        mockMvc.perform(request("REPORT", URI.create(calendarUrl))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .contentType(MediaType.APPLICATION_XML)
+                .content(syncCollectionRequest(newSyncToken)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(content().string(not(containsString(".ics"))));
+    }
+
+    @Test
+    void testCalDAVReport_SyncCollection_WithInvalidToken_ShouldReturn403() throws Exception {
+        mockMvc.perform(request("REPORT", URI.create("/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug()))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .contentType(MediaType.APPLICATION_XML)
+                .content(syncCollectionRequest("http://example.com/unknown-token")))
+                .andDo(print())
+                .andExpect(status().isForbidden())
+                .andExpect(content().string(containsString("valid-sync-token")));
+    }
+
+    @Test
+    void testCalDAVSync_InterleavedWriters_ShouldNotLoseChangeCommittedLater() throws Exception {
+        Long calendarId = testCalendar.getId();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService writers = Executors.newFixedThreadPool(2);
+        CountDownLatch firstRecorded = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        try {
+            // First writer records its change and keeps its transaction open
+            Future<?> first = writers.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                calendarSyncService.recordChanges(calendarId, List.of("first-writer-uid"));
+                firstRecorded.countDown();
+                awaitLatch(releaseFirst);
+            }));
+            assertTrue(firstRecorded.await(10, TimeUnit.SECONDS));
+
+            // Second writer starts later and must wait for the first one to commit
+            Future<?> second = writers.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                calendarSyncService.recordChanges(calendarId, List.of("second-writer-uid"))));
+            assertThrows(TimeoutException.class, () -> second.get(300, TimeUnit.MILLISECONDS));
+
+            // A client syncing meanwhile gets a token without the uncommitted change
+            String syncToken = calendarSyncService.toSyncToken(calendarId, calendarSyncService.getCurrentChangeId(calendarId));
+
+            releaseFirst.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+
+            // Its next sync reports both writes, in commit order
+            long since = calendarSyncService.parseSyncToken(calendarId, syncToken);
+            CalendarSyncService.SyncChanges changes = calendarSyncService.getChanges(
+                calendarId, since, calendarSyncService.getCurrentChangeId(calendarId));
+            assertEquals(List.of("first-writer-uid", "second-writer-uid"), changes.getChangedUids());
+        } finally {
+            releaseFirst.countDown();
+            writers.shutdownNow();
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void testCalDAVReport_SyncCollection_WithTokenOfOtherCalendar_ShouldReturn403() throws Exception {
+        Calendar workCalendar = new Calendar(testUser, "Work", "work");
+        workCalendar.setTimezone("UTC");
+        workCalendar = calendarRepository.save(workCalendar);
+        calendarSyncService.recordChanges(workCalendar.getId(), List.of("work-uid-1", "work-uid-2"));
+
+        String propfindResponse = mockMvc.perform(request("PROPFIND", URI.create("/caldav/" + testUser.getUsername() + "/" + testCalendar.getSlug()))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .header("Depth", "0")
+                .contentType(MediaType.APPLICATION_XML))
+                .andExpect(status().isMultiStatus())
+                .andReturn().getResponse().getContentAsString();
+        String defaultCalendarToken = extractSyncToken(propfindResponse);
+
+        // The revision of the token is not ahead of the work calendar's, it must still be refused there
+        mockMvc.perform(request("REPORT", URI.create("/caldav/" + testUser.getUsername() + "/work"))
+                .with(httpBasic(testUser.getUsername(), testPassword))
+                .contentType(MediaType.APPLICATION_XML)
+                .content(syncCollectionRequest(defaultCalendarToken)))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string(containsString("valid-sync-token")));
+    }
+
+    private String syncCollectionRequest(String syncToken) {
+        return "<D:sync-collection xmlns:D=\"DAV:\">" +
+               "<D:sync-token>" + syncToken + "</D:sync-token>" +
+               "<D:sync-level>1</D:sync-level>" +
+               "<D:prop><D:getetag/></D:prop></D:sync-collection>";
+    }
+
+    private String extractSyncToken(String xml) {
+        java.util.regex.Matcher matcher = java.util.regex.Pattern.compile("<D:sync-token>([^<]+)</D:sync-token>").matcher(xml);
+        org.junit.jupiter.api.Assertions.assertTrue(matcher.find(), "Response should contain a sync token");
+        return matcher.group(1);
     }
 
     @Test
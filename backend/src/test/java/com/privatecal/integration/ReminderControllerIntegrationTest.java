@@ -4,13 +4,19 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.privatecal.dto.NotificationType;
 import com.privatecal.dto.ReminderRequest;
 import com.privatecal.entity.Calendar;
+import com.privatecal.entity.NotificationOutbox;
+import com.privatecal.entity.Reminder;
 import com.privatecal.entity.Task;
 import com.privatecal.entity.User;
 import com.privatecal.repository.CalendarRepository;
+import com.privatecal.repository.NotificationOutboxRepository;
 import com.privatecal.repository.TaskRepository;
 import com.privatecal.repository.UserRepository;
 import com.privatecal.repository.ReminderRepository;
 import com.privatecal.security.UserDetailsImpl;
+import com.privatecal.service.ReminderService;
+import com.privatecal.service.TaskService;
+import com.privatecal.service.notification.MockNTFYNotificationProvider;
 import com.privatecal.config.TestConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.AfterEach;
@@ -32,6 +38,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
@@ -69,6 +76,18 @@ class ReminderControllerIntegrationTest {
     @Autowired
     private ReminderRepository reminderRepository;
 
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private MockNTFYNotificationProvider mockNTFYNotificationProvider;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -128,6 +147,7 @@ class ReminderControllerIntegrationTest {
 
     @AfterEach
     void tearDown() {
+        notificationOutboxRepository.deleteAll();
         reminderRepository.deleteAll();
         taskRepository.deleteAll();
         calendarRepository.deleteAll();
@@ -568,4 +588,280 @@ class ReminderControllerIntegrationTest {
         System.out.println("  Reminder time: " + reminderTime);
         System.out.println("  Now: " + now);
     }
-}
\ No newline at end of file
+
+    @Test
+    void reminderScheduler_ShouldSendReminderAtItsTime() throws Exception {
+        // Task starting in 3 seconds, reminder at the start: far below the reconciliation interval
+        Instant start = Instant.now().plusSeconds(3).truncatedTo(java.time.temporal.ChronoUnit.SECONDS);
+        Task task = new Task();
+        task.setUid(java.util.UUID.randomUUID().toString());
+        task.setTitle("Imminent Task");
+        task.setStartDatetimeLocal(start.atZone(java.time.ZoneId.of("UTC")).toLocalDateTime());
+        task.setEndDatetimeLocal(start.plus(Duration.ofHours(1)).atZone(java.time.ZoneId.of("UTC")).toLocalDateTime());
+        task.setTaskTimezone("UTC");
+        task.setStartDatetime(start);
+        task.setEndDatetime(start.plus(Duration.ofHours(1)));
+        task.setUser(testUser);
+        task.setCalendar(testCalendar);
+        task.setCreatedAt(Instant.now());
+        task = taskRepository.save(task);
+
+        mockMvc.perform(post("/api/reminders/task/{taskId}", task.getUid())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReminderRequest(0, NotificationType.PUSH)))
+                .with(csrf()))
+                .andExpect(status().isCreated());
+
+        Long reminderId = reminderRepository.findByTask_UidOrderByReminderTimeAsc(task.getUid()).get(0).getId();
+        assert !reminderRepository.findById(reminderId).orElseThrow().getIsSent() : "Reminder sent before its time";
+
+        // Queued after commit, sent by the dispatcher once due
+        Instant deadline = Instant.now().plusSeconds(10);
+        while (!reminderRepository.findById(reminderId).orElseThrow().getIsSent() && Instant.now().isBefore(deadline)) {
+            Thread.sleep(100);
+        }
+        assert reminderRepository.findById(reminderId).orElseThrow().getIsSent() :
+            "Reminder should be sent at its time, not on the next scan";
+        assert !Instant.now().isBefore(start) : "Reminder sent before its time";
+    }
+
+    @Test
+    void claimReminders_ShouldSkipRemindersLeasedByAnotherInstance() throws Exception {
+        Instant now = Instant.now();
+        Task task = new Task();
+        task.setUid(java.util.UUID.randomUUID().toString());
+        task.setTitle("Claimed Task");
+        task.setStartDatetimeLocal(now.plus(Duration.ofHours(1)).atZone(java.time.ZoneId.of("UTC")).toLocalDateTime());
+        task.setEndDatetimeLocal(now.plus(Duration.ofHours(2)).atZone(java.time.ZoneId.of("UTC")).toLocalDateTime());
+        task.setTaskTimezone("UTC");
+        task.setStartDatetime(now.plus(Duration.ofHours(1)));
+        task.setEndDatetime(now.plus(Duration.ofHours(2)));
+        task.setUser(testUser);
+        task.setCalendar(testCalendar);
+        task.setCreatedAt(now);
+        task = taskRepository.save(task);
+
+        // Saved as sent so the scheduler leaves it alone, then made due and claimed by another instance
+        Reminder reminder = new Reminder(task, 90, NotificationType.PUSH);
+        reminder.setIsSent(true);
+        Long reminderId = reminderRepository.save(reminder).getId();
+        reminderRepository.resetReminderStatus(reminderId);
+        reminderRepository.claimReminders(List.of(reminderId), "other-instance", now.plus(Duration.ofMinutes(5)));
+
+        assert reminderService.claimReminders(List.of(reminderId)).isEmpty() : "Reminder leased by another instance";
+
+        // Lease of a crashed instance expired: claimed by this one, and only once
+        reminderRepository.claimReminders(List.of(reminderId), "other-instance", now.minusSeconds(1));
+        assert reminderService.claimReminders(List.of(reminderId)).equals(List.of(reminderId));
+        assert reminderService.claimReminders(List.of(reminderId)).isEmpty() : "Reminder claimed twice";
+
+        reminderService.processClaimedReminders(List.of(reminderId));
+        Reminder processed = reminderRepository.findById(reminderId).orElseThrow();
+        assert processed.getIsSent() : "Claimed reminder should be sent";
+        assert processed.getClaimedBy() == null && processed.getClaimedUntil() == null : "Claim should be released";
+    }
+
+    @Test
+    void processClaimedReminders_ShouldApplyStateChangesInBatch() throws Exception {
+        Instant now = Instant.now();
+        Task oneShotTask = createTask("One-shot Task", now.plus(Duration.ofHours(1)), null);
+        // Daily task started two days ago: its reminder moves to the next occurrence, in an hour
+        Instant recurringStart = now.minus(Duration.ofDays(2)).plus(Duration.ofHours(1))
+            .truncatedTo(java.time.temporal.ChronoUnit.SECONDS);
+        Task recurringTask = createTask("Daily Task", recurringStart, "FREQ=DAILY");
+
+        List<Long> reminderIds = new java.util.ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            reminderIds.add(saveDueReminder(new Reminder(oneShotTask, 90 + i, NotificationType.PUSH)));
+        }
+        Reminder recurring = new Reminder(recurringTask, 0, NotificationType.PUSH);
+        recurring.setReminderTime(recurringStart.plus(Duration.ofDays(1)));
+        recurring.setLastSentOccurrence(recurringStart);
+        Long recurringId = saveDueReminder(recurring);
+        reminderIds.add(recurringId);
+
+        List<Long> claimedIds = reminderService.claimReminders(reminderIds);
+        assert claimedIds.size() == 6 : "All due reminders should be claimed, got " + claimedIds;
+        reminderService.processClaimedReminders(claimedIds);
+
+        for (Long reminderId : reminderIds.subList(0, 5)) {
+            Reminder reminder = reminderRepository.findById(reminderId).orElseThrow();
+            assert reminder.getIsSent() && reminder.getClaimedBy() == null : "One-shot reminder should be sent";
+        }
+        Reminder advanced = reminderRepository.findById(recurringId).orElseThrow();
+        assert !advanced.getIsSent() : "Recurring reminder should stay unsent";
+        assert advanced.getReminderTime().equals(recurringStart.plus(Duration.ofDays(2))) :
+            "Recurring reminder should move to the next occurrence, got " + advanced.getReminderTime();
+        assert advanced.getClaimedBy() == null : "Claim should be released";
+    }
+
+    @Test
+    void processClaimedReminders_ShouldDeliverThroughOutboxWithRetry() throws Exception {
+        Task task = createTask("Outbox Task", Instant.now().plus(Duration.ofHours(1)), null);
+        // The test user has no Telegram chat ID: the Telegram delivery fails
+        Long pushId = saveDueReminder(new Reminder(task, 90, NotificationType.PUSH));
+        Long telegramId = saveDueReminder(new Reminder(task, 91, NotificationType.TELEGRAM));
+
+        List<Long> claimedIds = reminderService.claimReminders(List.of(pushId, telegramId));
+        reminderService.processClaimedReminders(claimedIds);
+
+        // Reminders are done as soon as their notification is in the outbox
+        assert reminderRepository.findById(pushId).orElseThrow().getIsSent();
+        assert reminderRepository.findById(telegramId).orElseThrow().getIsSent();
+
+        Instant deadline = Instant.now().plusSeconds(10);
+        NotificationOutbox push;
+        NotificationOutbox telegram;
+        do {
+            Thread.sleep(100);
+            push = outboxEntry(pushId);
+            telegram = outboxEntry(telegramId);
+        } while ((push.getStatus() != NotificationOutbox.Status.SENT || telegram.getLastError() == null)
+                && Instant.now().isBefore(deadline));
+
+        assert push.getStatus() == NotificationOutbox.Status.SENT && push.getSentAt() != null : "Push should be sent";
+        assert telegram.getStatus() == NotificationOutbox.Status.PENDING : "Failed delivery should be retried";
+        assert telegram.getAttempts() == 1 && telegram.getLastError() != null;
+        assert telegram.getNextAttemptAt().isAfter(Instant.now().plusSeconds(10)) : "Retry should back off";
+    }
+
+    @Test
+    void processClaimedReminders_ShouldGroupDigestRemindersIntoOneNotification() throws Exception {
+        testUser.setDigestNotificationTypes(Set.of(NotificationType.PUSH));
+        testUser = userRepository.save(testUser);
+
+        Task first = createTask("Digest Task 1", Instant.now().plus(Duration.ofHours(1)), null);
+        Task second = createTask("Digest Task 2", Instant.now().plus(Duration.ofHours(1)), null);
+        List<Long> reminderIds = List.of(
+                saveDueReminder(new Reminder(first, 60, NotificationType.PUSH)),
+                saveDueReminder(new Reminder(first, 61, NotificationType.PUSH)),
+                saveDueReminder(new Reminder(second, 62, NotificationType.PUSH)));
+
+        reminderService.processClaimedReminders(reminderService.claimReminders(reminderIds));
+
+        // Due at the end of the digest window (1 s in tests), delivered by the outbox poll
+        Instant deadline = Instant.now().plusSeconds(15);
+        List<NotificationOutbox> entries;
+        do {
+            Thread.sleep(200);
+            entries = reminderIds.stream().map(this::outboxEntry).toList();
+        } while (!entries.stream().allMatch(entry -> entry.getStatus() == NotificationOutbox.Status.SENT)
+                && Instant.now().isBefore(deadline));
+
+        assert entries.stream().allMatch(NotificationOutbox::isDigest) : "Entries should be digest entries";
+        assert entries.stream().allMatch(entry -> entry.getStatus() == NotificationOutbox.Status.SENT)
+                : "Digest entries should be sent";
+        assert mockNTFYNotificationProvider.getSentDigests().stream()
+                .anyMatch(digest -> digest.size() == 3 && digest.containsAll(reminderIds))
+                : "The three reminders should be sent as one digest, got " + mockNTFYNotificationProvider.getSentDigests();
+    }
+
+    @Test
+    void processClaimedReminders_ShouldTakeNextOccurrenceFromPrecomputedOnes() throws Exception {
+        Instant now = Instant.now();
+        Instant recurringStart = now.minus(Duration.ofDays(2)).plus(Duration.ofHours(1))
+            .truncatedTo(java.time.temporal.ChronoUnit.SECONDS);
+        Task recurringTask = createTask("Daily Task", recurringStart, "FREQ=DAILY");
+
+        // Precomputed occurrences skip the one of the day after (the RRULE expansion would return it)
+        Reminder recurring = new Reminder(recurringTask, 0, NotificationType.PUSH);
+        recurring.setReminderTime(recurringStart.plus(Duration.ofDays(1)));
+        recurring.setLastSentOccurrence(recurringStart);
+        recurring.setUpcomingOccurrences(List.of(recurringStart.plus(Duration.ofDays(3)),
+            recurringStart.plus(Duration.ofDays(4))), recurringTask.getRecurrenceFingerprint());
+        Long recurringId = saveDueReminder(recurring);
+
+        reminderService.processClaimedReminders(reminderService.claimReminders(List.of(recurringId)));
+
+        Reminder advanced = reminderRepository.findById(recurringId).orElseThrow();
+        assert advanced.getReminderTime().equals(recurringStart.plus(Duration.ofDays(3))) :
+            "Reminder should move to the first precomputed occurrence, got " + advanced.getReminderTime();
+        assert String.valueOf(recurringStart.plus(Duration.ofDays(4)).getEpochSecond())
+            .equals(advanced.getUpcomingOccurrences()) : "The other occurrence should be kept";
+    }
+
+    @Test
+    void processClaimedReminders_ShouldSkipOccurrenceDeletedAfterPrecomputation() throws Exception {
+        Instant now = Instant.now();
+        Instant recurringStart = now.minus(Duration.ofDays(2)).plus(Duration.ofHours(1))
+            .truncatedTo(java.time.temporal.ChronoUnit.SECONDS);
+        Task recurringTask = createTask("Daily Task", recurringStart, "FREQ=DAILY");
+
+        Reminder recurring = new Reminder(recurringTask, 0, NotificationType.PUSH);
+        recurring.setReminderTime(recurringStart.plus(Duration.ofDays(1)));
+        recurring.setLastSentOccurrence(recurringStart);
+        recurring.setUpcomingOccurrences(List.of(recurringStart.plus(Duration.ofDays(2)),
+            recurringStart.plus(Duration.ofDays(3))), recurringTask.getRecurrenceFingerprint());
+        Long recurringId = saveDueReminder(recurring);
+
+        // The user deletes the next precomputed occurrence (EXDATE on the task)
+        Instant deletedOccurrence = recurringStart.plus(Duration.ofDays(2));
+        taskService.deleteSingleOccurrence(recurringTask.getUid(),
+            deletedOccurrence.atZone(java.time.ZoneId.of("UTC")).toLocalDateTime());
+
+        reminderService.processClaimedReminders(reminderService.claimReminders(List.of(recurringId)));
+
+        Reminder advanced = reminderRepository.findById(recurringId).orElseThrow();
+        assert !advanced.getIsSent() : "Recurring reminder should stay unsent";
+        assert advanced.getReminderTime().equals(recurringStart.plus(Duration.ofDays(3))) :
+            "No reminder should be sent for the deleted occurrence, next reminder at " + advanced.getReminderTime();
+    }
+
+    @Test
+    void refillUpcomingOccurrences_ShouldPrecomputeOccurrencesOfRecurringReminders() throws Exception {
+        Instant recurringStart = Instant.now().plus(Duration.ofDays(1)).truncatedTo(java.time.temporal.ChronoUnit.SECONDS);
+        Task recurringTask = createTask("Daily Task", recurringStart, "FREQ=DAILY;COUNT=3");
+        Task oneShotTask = createTask("One-shot Task", recurringStart, null);
+
+        // Reminders saved without precomputed occurrences (e.g. edited)
+        Long recurringId = reminderRepository.save(new Reminder(recurringTask, 30, NotificationType.PUSH)).getId();
+        Long oneShotId = reminderRepository.save(new Reminder(oneShotTask, 30, NotificationType.PUSH)).getId();
+
+        reminderService.refillUpcomingOccurrences();
+
+        Reminder recurring = reminderRepository.findById(recurringId).orElseThrow();
+        assert (recurringStart.plus(Duration.ofDays(1)).getEpochSecond() + ","
+                + recurringStart.plus(Duration.ofDays(2)).getEpochSecond()).equals(recurring.getUpcomingOccurrences()) :
+            "Occurrences after the one of the reminder should be precomputed, got " + recurring.getUpcomingOccurrences();
+        assert recurring.pollUpcomingOccurrence(recurringStart, recurringTask.getRecurrenceFingerprint()) != null;
+        assert reminderRepository.findById(oneShotId).orElseThrow().getUpcomingOccurrences() == null :
+            "Reminders of non-recurring tasks have no occurrences to precompute";
+
+        // A changed recurrence discards them
+        recurringTask.setRecurrenceRule("FREQ=WEEKLY");
+        assert recurring.pollUpcomingOccurrence(recurringStart, recurringTask.getRecurrenceFingerprint()) == null;
+    }
+
+    private NotificationOutbox outboxEntry(Long reminderId) {
+        return notificationOutboxRepository.findAll().stream()
+                .filter(entry -> entry.getReminderId().equals(reminderId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Task createTask(String title, Instant start, String recurrenceRule) {
+        Task task = new Task();
+        task.setUid(java.util.UUID.randomUUID().toString());
+        task.setTitle(title);
+        task.setStartDatetimeLocal(start.atZone(java.time.ZoneId.of("UTC")).toLocalDateTime());
+        task.setEndDatetimeLocal(start.plus(Duration.ofHours(1)).atZone(java.time.ZoneId.of("UTC")).toLocalDateTime());
+        task.setTaskTimezone("UTC");
+        task.setStartDatetime(start);
+        task.setEndDatetime(start.plus(Duration.ofHours(1)));
+        task.setRecurrenceRule(recurrenceRule);
+        task.setUser(testUser);
+        task.setCalendar(testCalendar);
+        task.setCreatedAt(Instant.now());
+        return taskRepository.save(task);
+    }
+
+    /**
+     * Save a reminder as sent, then make it due with a bulk update, so the scheduler does not fire it
+     */
+    private Long saveDueReminder(Reminder reminder) {
+        reminder.setIsSent(true);
+        Long reminderId = reminderRepository.save(reminder).getId();
+        reminderRepository.resetReminderStatus(reminderId);
+        return reminderId;
+    }
+}
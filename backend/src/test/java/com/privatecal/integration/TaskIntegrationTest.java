@@ -1,15 +1,21 @@
 package com.privatecal.integration;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -25,6 +31,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -373,6 +380,213 @@ class TaskIntegrationTest {
         // No need to restore authentication as we used .with(authentication()) per-request
     }
 
+    @Test
+    void exportCalendar_ShouldStreamAllTasksAsICS() throws Exception {
+        // Given - A timed task with a reminder and an all-day task
+        TaskRequest timedTask = new TaskRequest();
+        timedTask.setTitle("Exported Meeting");
+        timedTask.setStartDatetimeLocal(LocalDateTime.parse("2024-12-25T10:00:00"));
+        timedTask.setEndDatetimeLocal(LocalDateTime.parse("2024-12-25T11:00:00"));
+        timedTask.setTimezone("Europe/Rome");
+        timedTask.setReminders(Arrays.asList(new ReminderRequest(15, NotificationType.PUSH)));
+
+        TaskRequest allDayTask = new TaskRequest();
+        allDayTask.setTitle("Exported Holiday");
+        allDayTask.setStartDatetimeLocal(LocalDateTime.parse("2024-12-26T00:00:00"));
+        allDayTask.setEndDatetimeLocal(LocalDateTime.parse("2024-12-27T00:00:00"));
+        allDayTask.setTimezone("UTC");
+        allDayTask.setIsAllDay(true);
+
+        for (TaskRequest request : Arrays.asList(timedTask, allDayTask)) {
+            mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request))
+                    .with(csrf()))
+                    .andExpect(status().isCreated());
+        }
+
+        // When - Export the calendar
+        String ics = mockMvc.perform(get("/api/calendar/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString(".ics")))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then - Header, one VTIMEZONE for the timed task, both events and the reminder
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertEquals(1, ics.split("BEGIN:VTIMEZONE", -1).length - 1);
+        assertTrue(ics.contains("TZID:Europe/Rome"));
+        assertEquals(2, ics.split("BEGIN:VEVENT", -1).length - 1);
+        assertTrue(ics.contains("SUMMARY:Exported Meeting"));
+        assertTrue(ics.contains("SUMMARY:Exported Holiday"));
+        assertTrue(ics.contains("BEGIN:VALARM"));
+    }
+
+    @Test
+    void importCalendar_ShouldCreateTasksAndApplyDuplicateStrategy() throws Exception {
+        String ics = String.join("\r\n",
+            "BEGIN:VCALENDAR",
+            "VERSION:2.0",
+            "PRODID:-//Test//Test//EN",
+            "BEGIN:VEVENT",
+            "UID:import-test-1@example.com",
+            "DTSTART:20241225T100000Z",
+            "DTEND:20241225T110000Z",
+            "SUMMARY:Imported Meeting",
+            "BEGIN:VALARM",
+            "ACTION:DISPLAY",
+            "DESCRIPTION:Reminder",
+            "TRIGGER:-PT15M",
+            "END:VALARM",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "UID:import-test-2@example.com",
+            "DTSTART:20241226T100000Z",
+            "DTEND:20241226T110000Z",
+            "SUMMARY:Imported Call",
+            "END:VEVENT",
+            "END:VCALENDAR",
+            "");
+        MockMultipartFile file = new MockMultipartFile("file", "calendar.ics", "text/calendar", ics.getBytes());
+
+        // When - First import creates both tasks
+        mockMvc.perform(multipart("/api/calendar/import").file(file).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalParsed").value(2))
+                .andExpect(jsonPath("$.successCount").value(2))
+                .andExpect(jsonPath("$.failedCount").value(0));
+
+        assertEquals(2, taskRepository.findByUserOrderByStartDatetimeAsc(testUser).size());
+        mockMvc.perform(get("/api/tasks/{taskId}", "import-test-1@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Imported Meeting"))
+                .andExpect(jsonPath("$.reminders", hasSize(1)));
+
+        // Then - Importing again reports duplicates, or applies the chosen strategy
+        mockMvc.perform(multipart("/api/calendar/import").file(file).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.successCount").value(0))
+                .andExpect(jsonPath("$.failedCount").value(2))
+                .andExpect(jsonPath("$.errors", hasSize(2)));
+
+        mockMvc.perform(multipart("/api/calendar/import/confirm").file(file)
+                .param("duplicateStrategy", "SKIP").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdCount").value(0))
+                .andExpect(jsonPath("$.skippedCount").value(2));
+
+        mockMvc.perform(multipart("/api/calendar/import/confirm").file(file)
+                .param("duplicateStrategy", "UPDATE").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedCount").value(2));
+
+        mockMvc.perform(multipart("/api/calendar/import/confirm").file(file)
+                .param("duplicateStrategy", "CREATE_ANYWAY").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdCount").value(2));
+
+        assertEquals(4, taskRepository.findByUserOrderByStartDatetimeAsc(testUser).size());
+    }
+
+    @Test
+    void calendarFeed_ShouldServeCalendarWithoutAuthenticationUntilRevoked() throws Exception {
+        String content = mockMvc.perform(post("/api/calendar/feed/{calendarId}", testCalendar.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shared").value(true))
+                .andExpect(jsonPath("$.webcalUrl").value(startsWith("webcal://")))
+                .andReturn().getResponse().getContentAsString();
+        String url = objectMapper.readTree(content).get("url").asText();
+        String feedPath = url.substring(url.indexOf("/api/public/feed/"));
+
+        String etag = mockMvc.perform(get(feedPath).with(anonymous()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("text/calendar")))
+                .andExpect(content().string(containsString("X-WR-CALNAME:Default Calendar")))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get(feedPath).with(anonymous()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // Calendars of other users cannot be shared
+        mockMvc.perform(post("/api/calendar/feed/{calendarId}", otherCalendar.getId()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(delete("/api/calendar/feed/{calendarId}", testCalendar.getId()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get(feedPath).with(anonymous()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/calendar/feed/{calendarId}", testCalendar.getId()))
+                .andExpect(jsonPath("$.shared").value(false));
+    }
+
+    @Test
+    void calendarFeed_ShouldRateLimitPerToken() throws Exception {
+        String token = "a".repeat(43);
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(get("/api/public/feed/" + token + ".ics").with(anonymous()))
+                    .andExpect(status().isNotFound());
+        }
+        mockMvc.perform(get("/api/public/feed/" + token + ".ics").with(anonymous()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void importJob_ShouldImportInBackgroundAndReportProgress() throws Exception {
+        String ics = String.join("\r\n",
+            "BEGIN:VCALENDAR",
+            "VERSION:2.0",
+            "PRODID:-//Test//Test//EN",
+            "BEGIN:VEVENT",
+            "UID:import-job-1@example.com",
+            "DTSTART:20241225T100000Z",
+            "DTEND:20241225T110000Z",
+            "SUMMARY:Background Meeting",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "UID:import-job-1@example.com",
+            "DTSTART:20241226T100000Z",
+            "DTEND:20241226T110000Z",
+            "SUMMARY:Repeated Meeting",
+            "END:VEVENT",
+            "END:VCALENDAR",
+            "");
+        MockMultipartFile file = new MockMultipartFile("file", "calendar.ics", "text/calendar", ics.getBytes());
+
+        // When
+        String content = mockMvc.perform(multipart("/api/calendar/import/async").file(file)
+                .param("duplicateStrategy", "SKIP").with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").exists())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(content).get("jobId").asText();
+
+        String jobStatus = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            content = mockMvc.perform(get("/api/calendar/import/{jobId}", jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            jobStatus = objectMapper.readTree(content).get("status").asText();
+            if (!"QUEUED".equals(jobStatus) && !"RUNNING".equals(jobStatus)) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+
+        // Then
+        assertEquals("COMPLETED", jobStatus);
+        mockMvc.perform(get("/api/calendar/import/{jobId}", jobId))
+                .andExpect(jsonPath("$.totalParsed").value(2))
+                .andExpect(jsonPath("$.createdCount").value(1))
+                .andExpect(jsonPath("$.duplicateCount").value(1))
+                .andExpect(jsonPath("$.skippedCount").value(1))
+                .andExpect(jsonPath("$.failedCount").value(0));
+        assertEquals(1, taskRepository.findByUserOrderByStartDatetimeAsc(testUser).size());
+
+        // Unknown (or expired) jobs are not found
+        mockMvc.perform(get("/api/calendar/import/{jobId}", "unknown-job"))
+                .andExpect(status().isNotFound());
+    }
+
     private LocalDateTime getLocalDateTime(int year, int month, int day, int hour, int minute) {
         return LocalDateTime.of(year, month, day, hour, minute);
     }
@@ -386,4 +600,4 @@ class TaskIntegrationTest {
         request.setTimezone("UTC");
         return request;
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,21 @@
 package com.privatecal.service;
 
+import com.privatecal.caldav.IcsComponent;
+import com.privatecal.caldav.IcsFragmentCache;
+import com.privatecal.caldav.IcsTokenizer;
 import com.privatecal.dto.NotificationType;
 import com.privatecal.dto.TaskRequest;
 import com.privatecal.entity.Calendar;
 import com.privatecal.entity.Reminder;
 import com.privatecal.entity.Task;
 import com.privatecal.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -621,8 +629,149 @@ class CalDAVServiceTest {
             "UID should be preserved through complete import/export cycle");
     }
 
+    // ==================== ICS CACHE TESTS ====================
+
+    @Test
+    void testExportTaskAsICS_UnchangedTask_ShouldBeServedFromCache() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        IcsFragmentCache cache = injectIcsCache(1024 * 1024, false, registry);
+
+        Task task = createTask("Cached", "Rendered once",
+            getInstant(2025, 10, 21, 14, 0), getInstant(2025, 10, 21, 15, 0), false);
+        task.setVersion(1L);
+
+        String first = calDAVService.exportTaskAsICS(task);
+        String second = calDAVService.exportTaskAsICS(task);
+
+        assertEquals(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1.0, registry.get("caldav.ics.cache.requests").tag("result", "hit").functionCounter().count());
+
+        // Full export reuses the cached rendering of the event
+        String exported = new String(calDAVService.exportToICS(List.of(task), "Test Calendar"));
+        assertEquals(2, cache.getHitCount());
+        assertTrue(exported.startsWith("BEGIN:VCALENDAR"));
+        assertTrue(exported.contains("X-WR-CALNAME:Test Calendar"));
+        assertTrue(exported.contains("SUMMARY:Cached"));
+        assertTrue(exported.endsWith("END:VCALENDAR\r\n"));
+    }
+
+    @Test
+    void testExportTaskAsICS_NewVersionOrReminder_ShouldRenderAgain() throws IOException {
+        IcsFragmentCache cache = injectIcsCache(1024 * 1024, true, new SimpleMeterRegistry());
+
+        Task task = createTask("Original", null,
+            getInstant(2025, 10, 21, 14, 0), getInstant(2025, 10, 21, 15, 0), false);
+        task.setVersion(1L);
+        calDAVService.exportTaskAsICS(task);
+
+        task.setTitle("Renamed");
+        task.setVersion(2L);
+        assertTrue(calDAVService.exportTaskAsICS(task).contains("SUMMARY:Renamed"));
+
+        // Reminder changes bump the task version (ReminderService.recordRemindersChanged)
+        Reminder reminder = new Reminder();
+        reminder.setReminderOffsetMinutes(15);
+        reminder.setNotificationType(NotificationType.EMAIL);
+        task.addReminder(reminder);
+        task.setVersion(3L);
+        assertTrue(calDAVService.exportTaskAsICS(task).contains("BEGIN:VALARM"));
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(1, cache.getEntryCount(), "Previous renderings of the task should be replaced");
+    }
+
+    @Test
+    void testExportTaskAsICS_RecreatedUid_ShouldNotMatchDeletedTask() throws IOException {
+        IcsFragmentCache cache = injectIcsCache(1024 * 1024, false, new SimpleMeterRegistry());
+
+        Task deleted = createTask("Deleted", "Private notes",
+            getInstant(2025, 10, 21, 14, 0), getInstant(2025, 10, 21, 15, 0), false);
+        deleted.setVersion(0L);
+        calDAVService.exportTaskAsICS(deleted);
+
+        // Same UID created again: its version starts over, only the creation time differs
+        Task recreated = createTask("Recreated", null,
+            getInstant(2025, 10, 21, 14, 0), getInstant(2025, 10, 21, 15, 0), false);
+        recreated.setVersion(0L);
+        recreated.setCreatedAt(deleted.getCreatedAt().plusSeconds(1));
+        String ics = calDAVService.exportTaskAsICS(recreated);
+
+        assertTrue(ics.contains("SUMMARY:Recreated"));
+        assertFalse(ics.contains("Private notes"));
+        assertEquals(0, cache.getHitCount());
+
+        cache.evictAll(List.of(recreated.getUid()));
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getSizeBytes());
+    }
+
+    @Test
+    void testIcsCache_ShouldEvictLeastRecentlyUsedBeyondMaxBytes() throws IOException {
+        IcsFragmentCache cache = injectIcsCache(2048, false, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 5; i++) {
+            Task task = createTask("Task " + i, null,
+                getInstant(2025, 10, 21, 14, 0), getInstant(2025, 10, 21, 15, 0), false);
+            task.setUid("cache-uid-" + i);
+            task.setVersion(1L);
+            calDAVService.exportTaskAsICS(task);
+        }
+
+        assertTrue(cache.getSizeBytes() <= 2048);
+        assertTrue(cache.getEvictionCount() > 0);
+        assertEquals(5 - cache.getEvictionCount(), cache.getEntryCount());
+    }
+
     // ==================== HELPER METHODS ====================
 
+    @Test
+    void testConvertComponents_InParallel_ShouldKeepFileOrder() throws Exception {
+        StringBuilder ics = new StringBuilder("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//Test//Test//EN\r\n");
+        for (int i = 0; i < 300; i++) {
+            ics.append("BEGIN:VEVENT\r\nUID:parallel-").append(i).append("\r\n")
+                // Event 150 has an invalid start date
+                .append(i == 150 ? "DTSTART:2025-99-99\r\n" : "DTSTART:20251021T140000Z\r\n")
+                .append("DTEND:20251021T150000Z\r\nSUMMARY:Event ").append(i).append("\r\nEND:VEVENT\r\n");
+        }
+        ics.append("END:VCALENDAR\r\n");
+        List<IcsComponent> components = new ArrayList<>();
+        IcsTokenizer.parse(new ByteArrayInputStream(ics.toString().getBytes()), components::add);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.initialize();
+        ReflectionTestUtils.setField(calDAVService, "importConversionExecutor", executor);
+        try {
+            List<CalDAVService.ComponentConversion> conversions = calDAVService.convertComponents(components);
+
+            assertEquals(300, conversions.size());
+            for (int i = 0; i < 300; i++) {
+                CalDAVService.ComponentConversion conversion = conversions.get(i);
+                if (i == 150) {
+                    assertNotNull(conversion.getError());
+                    assertNull(conversion.getTaskRequest());
+                } else {
+                    assertNull(conversion.getError());
+                    assertEquals("parallel-" + i, conversion.getTaskRequest().getUid());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private IcsFragmentCache injectIcsCache(long maxBytes, boolean offHeap, MeterRegistry registry) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", registry);
+        IcsFragmentCache cache = new IcsFragmentCache(maxBytes, offHeap, beans.getBeanProvider(MeterRegistry.class));
+        ReflectionTestUtils.setField(calDAVService, "icsCache", cache);
+        return cache;
+    }
+
     private Task createTask(String title, String description,
                           Instant start, Instant end, boolean isAllDay) {
         Task task = new Task();
@@ -0,0 +1,63 @@
+package com.privatecal.service;
+
+import com.privatecal.repository.CalendarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the rate limits of public feeds in CalendarFeedService
+ */
+@ExtendWith(MockitoExtension.class)
+class CalendarFeedServiceTest {
+
+    @Mock
+    private CalendarRepository calendarRepository;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private CalendarFeedService calendarFeedService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(calendarFeedService, "requestsPerMinute", 30.0);
+        ReflectionTestUtils.setField(calendarFeedService, "burst", 2);
+    }
+
+    private static String token(int index) {
+        return String.format("%043d", index);
+    }
+
+    @Test
+    void testTryAcquire_UnknownTokensShareOneBucket() {
+        assertEquals(0, calendarFeedService.tryAcquire(token(1), false));
+        assertEquals(0, calendarFeedService.tryAcquire(token(2), false));
+        // A new guess gets no fresh burst
+        assertTrue(calendarFeedService.tryAcquire(token(3), false) > 0);
+
+        assertEquals(0, calendarFeedService.getRateLimitCount(), "Unknown tokens should get no bucket of their own");
+    }
+
+    @Test
+    void testTryAcquire_KnownTokensHaveTheirOwnBucket() {
+        assertEquals(0, calendarFeedService.tryAcquire(token(1), true));
+        assertEquals(0, calendarFeedService.tryAcquire(token(1), true));
+        assertTrue(calendarFeedService.tryAcquire(token(1), true) > 0);
+
+        // Not held back by another token, nor by unknown tokens
+        assertEquals(0, calendarFeedService.tryAcquire(token(2), true));
+        calendarFeedService.tryAcquire(token(3), false);
+        calendarFeedService.tryAcquire(token(3), false);
+        assertEquals(0, calendarFeedService.tryAcquire(token(2), true));
+
+        assertEquals(2, calendarFeedService.getRateLimitCount());
+    }
+}
@@ -0,0 +1,105 @@
+package com.privatecal.service;
+
+import com.privatecal.config.EmailConfig;
+import com.privatecal.config.EmailTemplateConfig;
+import com.privatecal.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the cached task reminder rendering of EmailTemplateBuilder
+ */
+class EmailTemplateBuilderTest {
+
+    private EmailTemplateBuilder cachedBuilder;
+    private EmailTemplateBuilder uncachedBuilder;
+
+    @BeforeEach
+    void setUp() {
+        MessageSource messageSource = new EmailTemplateConfig().emailMessageSource();
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/email/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.setTemplateEngineMessageSource(messageSource);
+
+        EmailConfig cachedConfig = new EmailConfig();
+        EmailConfig uncachedConfig = new EmailConfig();
+        uncachedConfig.getTemplates().setCache(false);
+
+        cachedBuilder = new EmailTemplateBuilder(engine, messageSource, cachedConfig);
+        uncachedBuilder = new EmailTemplateBuilder(engine, messageSource, uncachedConfig);
+    }
+
+    private User createUser(String firstName, String locale) {
+        User user = new User();
+        user.setUsername("testuser");
+        user.setFirstName(firstName);
+        user.setLocale(locale);
+        return user;
+    }
+
+    private void assertSameAsThymeleaf(User user, String title, String description, String startTime, String location) {
+        String expected = uncachedBuilder.buildTaskReminderEmail(user, title, description, startTime, location);
+        String actual = cachedBuilder.buildTaskReminderEmail(user, title, description, startTime, location);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testBuildTaskReminderEmail_MatchesThymeleafRendering() {
+        User user = createUser("Mario", "it-IT");
+
+        assertSameAsThymeleaf(user, "Team meeting", "Weekly sync", "Monday 09:00", "Room 4");
+        assertSameAsThymeleaf(user, "Dentist", null, "Tuesday 15:30", null);
+        assertSameAsThymeleaf(user, "Call", "", null, "   ");
+        assertSameAsThymeleaf(createUser(null, "es-ES"), "Gym", null, null, "City gym");
+        assertSameAsThymeleaf(createUser("Anna", null), "Standup", "Daily", "10:00", "Online");
+    }
+
+    @Test
+    void testBuildTaskReminderEmail_EscapesFields() {
+        User user = createUser("<b>Eve</b>", "en-US");
+
+        String html = cachedBuilder.buildTaskReminderEmail(user, "Tom & Jerry's \"show\"",
+                "<script>alert(1)</script>", "09:00", "Main St. <1>");
+
+        assertFalse(html.contains("<script>"));
+        assertFalse(html.contains("<b>Eve</b>"));
+        assertTrue(html.contains("Tom &amp; Jerry&#39;s &quot;show&quot;"));
+        assertSameAsThymeleaf(user, "Tom & Jerry's \"show\"", "<script>alert(1)</script>", "09:00", "Main St. <1>");
+    }
+
+    @Test
+    void testBuildTaskReminderEmail_CachesRenderingPerLocaleAndFields() {
+        User user = createUser("Mario", "it-IT");
+
+        cachedBuilder.buildTaskReminderEmail(user, "First", "Description", "09:00", null);
+        cachedBuilder.buildTaskReminderEmail(user, "Second", "Other description", "10:00", null);
+        assertEquals(1, cachedBuilder.getCompiledTemplateCount());
+
+        cachedBuilder.buildTaskReminderEmail(user, "Third", null, "10:00", null);
+        cachedBuilder.buildTaskReminderEmail(createUser("Anna", "en-US"), "Fourth", "Description", "09:00", null);
+        assertEquals(3, cachedBuilder.getCompiledTemplateCount());
+    }
+
+    @Test
+    void testBuildTaskReminderEmail_NullTitleIsRenderedDirectly() {
+        User user = createUser("Mario", "en-US");
+
+        assertSameAsThymeleaf(user, null, "Description", "09:00", "Room 4");
+        assertEquals(0, cachedBuilder.getCompiledTemplateCount());
+    }
+}
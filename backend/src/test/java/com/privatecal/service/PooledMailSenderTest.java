@@ -0,0 +1,229 @@
+package com.privatecal.service;
+
+import com.privatecal.config.EmailConfig;
+import com.privatecal.service.notification.ProviderUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PooledMailSender against a minimal local SMTP server
+ */
+class PooledMailSenderTest {
+
+    private FakeSmtpServer server;
+    private PooledMailSender pooledMailSender;
+    private JavaMailSenderImpl mailSender;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (pooledMailSender != null) {
+            pooledMailSender.shutdown();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private void start(int connections, int queueCapacity, int dropAfterMessages) throws IOException {
+        server = new FakeSmtpServer(dropAfterMessages);
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(server.getPort());
+
+        EmailConfig emailConfig = new EmailConfig();
+        emailConfig.getPool().setConnections(connections);
+        emailConfig.getPool().setQueueCapacity(queueCapacity);
+
+        pooledMailSender = new PooledMailSender(mailSender, emailConfig,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        pooledMailSender.start();
+    }
+
+    private MimeMessage createMessage(int index) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, StandardCharsets.UTF_8.name());
+        helper.setFrom("noreply@p-cal.me");
+        helper.setTo("user" + index + "@example.com");
+        helper.setSubject("Reminder " + index);
+        helper.setText("<p>Reminder " + index + "</p>", true);
+        return message;
+    }
+
+    @Test
+    void testSend_ReusesConnectionForSeveralEmails() throws Exception {
+        start(1, 100, 0);
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(pooledMailSender.send(createMessage(i)));
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.get(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(10, server.messages.get());
+        assertEquals(1, server.connections.get(), "All emails should share one SMTP connection");
+    }
+
+    @Test
+    void testSend_ReconnectsWhenServerDropsConnection() throws Exception {
+        start(1, 100, 1);
+
+        assertTrue(pooledMailSender.send(createMessage(1)).get(10, TimeUnit.SECONDS));
+        assertTrue(pooledMailSender.send(createMessage(2)).get(10, TimeUnit.SECONDS));
+
+        assertEquals(2, server.messages.get());
+        assertEquals(2, server.connections.get());
+    }
+
+    @Test
+    void testSend_FullQueueReportsProviderUnavailable() throws Exception {
+        // No worker: the queue is not drained
+        start(0, 1, 0);
+
+        CompletableFuture<Boolean> queued = pooledMailSender.send(createMessage(1));
+        CompletableFuture<Boolean> refused = pooledMailSender.send(createMessage(2));
+
+        assertFalse(queued.isDone());
+        ExecutionException error = assertThrows(ExecutionException.class, () -> refused.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(ProviderUnavailableException.class, error.getCause());
+        assertEquals(1, pooledMailSender.getQueueSize());
+    }
+
+    @Test
+    void testShutdown_StopsWorkersAndFailsQueuedEmails() throws Exception {
+        // Workers of other senders (e.g. of cached Spring contexts) are not this test's
+        Set<Thread> otherWorkers = mailWorkers();
+        start(1, 100, 0);
+        assertTrue(pooledMailSender.send(createMessage(1)).get(10, TimeUnit.SECONDS));
+
+        pooledMailSender.shutdown();
+
+        assertTrue(otherWorkers.containsAll(mailWorkers()), "Workers should be stopped");
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> pooledMailSender.send(createMessage(2)).get(1, TimeUnit.SECONDS));
+        assertInstanceOf(ProviderUnavailableException.class, error.getCause());
+    }
+
+    @Test
+    void testShutdown_FailsEmailsStillQueued() throws Exception {
+        // No worker: the email stays queued
+        start(0, 10, 0);
+        CompletableFuture<Boolean> queued = pooledMailSender.send(createMessage(1));
+
+        pooledMailSender.shutdown();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(ProviderUnavailableException.class, error.getCause());
+        assertEquals(0, pooledMailSender.getQueueSize());
+    }
+
+    private static Set<Thread> mailWorkers() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("PrivateCal-Mail-"))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * SMTP server accepting every email, optionally closing the connection after some emails
+     */
+    private static final class FakeSmtpServer {
+        private final ServerSocket serverSocket;
+        private final int dropAfterMessages;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger messages = new AtomicInteger();
+
+        FakeSmtpServer(int dropAfterMessages) throws IOException {
+            this.serverSocket = new ServerSocket(0);
+            this.dropAfterMessages = dropAfterMessages;
+            Thread acceptor = new Thread(this::accept, "FakeSmtpServer");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread session = new Thread(() -> serve(socket), "FakeSmtpSession");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream out = socket.getOutputStream();
+                reply(out, "220 localhost ESMTP");
+                int sessionMessages = 0;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("EHLO")) {
+                        reply(out, "250-localhost\r\n250 OK");
+                    } else if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // message content
+                        }
+                        messages.incrementAndGet();
+                        sessionMessages++;
+                        reply(out, "250 OK");
+                        if (dropAfterMessages > 0 && sessionMessages >= dropAfterMessages) {
+                            return;
+                        }
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // client gone
+            }
+        }
+
+        private void reply(OutputStream out, String response) throws IOException {
+            out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+}
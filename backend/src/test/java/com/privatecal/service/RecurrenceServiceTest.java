@@ -275,6 +275,29 @@ class RecurrenceServiceTest {
         }
     }
 
+    @Test
+    void testGetNextOccurrenceStarts() {
+        Task task = createTask(
+            "Weekly standup",
+            getInstant(2025, 10, 6, 9, 0),
+            getInstant(2025, 10, 6, 9, 30),
+            "FREQ=WEEKLY;COUNT=4"
+        );
+
+        // Occurrences after the first one, same as successive getNextOccurrence calls
+        List<Instant> starts = recurrenceService.getNextOccurrenceStarts(task, getInstant(2025, 10, 6, 9, 0), 10);
+
+        assertEquals(List.of(
+            getInstant(2025, 10, 13, 9, 0),
+            getInstant(2025, 10, 20, 9, 0),
+            getInstant(2025, 10, 27, 9, 0)
+        ), starts);
+        assertEquals(starts.get(0),
+            recurrenceService.getNextOccurrence(task, getInstant(2025, 10, 6, 9, 0)).getOccurrenceStart());
+        assertEquals(2, recurrenceService.getNextOccurrenceStarts(task, getInstant(2025, 10, 6, 9, 0), 2).size());
+        assertTrue(recurrenceService.getNextOccurrenceStarts(task, getInstant(2025, 10, 27, 9, 0), 10).isEmpty());
+    }
+
     // Helper methods
 
     private Task createTask(String title, Instant start, Instant end, String rrule) {
@@ -7,6 +7,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * Mock NTFY notification provider for testing
  * Simulates successful notifications without making real HTTP calls
@@ -17,6 +21,10 @@ public class MockNTFYNotificationProvider implements NotificationProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(MockNTFYNotificationProvider.class);
 
+    // Reminder IDs of every digest sent, for verification in tests. Static: the cached test contexts share
+    // the in-memory database, so the outbox poll of another context may deliver a test's digest
+    private static final List<List<Long>> sentDigests = new CopyOnWriteArrayList<>();
+
     @Override
     public boolean sendReminderNotification(Reminder reminder) {
         logger.info("Mock NTFY: Simulating reminder notification for task '{}' to user ID {}",
@@ -27,6 +35,25 @@ public class MockNTFYNotificationProvider implements NotificationProvider {
         return true;
     }
 
+    @Override
+    public boolean supportsDigest() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendDigestNotificationAsync(List<Reminder> reminders) {
+        logger.info("Mock NTFY: Simulating digest notification of {} reminders to user ID {}",
+                reminders.size(),
+                reminders.get(0).getTask().getUser().getId());
+
+        sentDigests.add(reminders.stream().map(Reminder::getId).toList());
+        return CompletableFuture.completedFuture(true);
+    }
+
+    public List<List<Long>> getSentDigests() {
+        return sentDigests;
+    }
+
     @Override
     public boolean sendTestNotification(Long userId, String message) {
         logger.info("Mock NTFY: Simulating test notification to user ID {} with message: '{}'",
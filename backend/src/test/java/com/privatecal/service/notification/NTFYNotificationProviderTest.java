@@ -0,0 +1,173 @@
+package com.privatecal.service.notification;
+
+import com.privatecal.config.EmailTemplateConfig;
+import com.privatecal.config.NotificationHttpConfig;
+import com.privatecal.dto.NotificationType;
+import com.privatecal.entity.Reminder;
+import com.privatecal.entity.Task;
+import com.privatecal.entity.User;
+import com.privatecal.service.notification.ntfy.NTFYNotificationProvider;
+import com.privatecal.service.notification.ntfy.NtfyFormatter;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the non-blocking NTFY provider against a local HTTP server
+ */
+class NTFYNotificationProviderTest {
+
+    private HttpServer server;
+    private ConnectionProvider connectionProvider;
+    private NTFYNotificationProvider provider;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ConcurrentLinkedQueue<String> receivedPaths = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<String> receivedTitles = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<String> receivedBodies = new ConcurrentLinkedQueue<>();
+    private volatile int responseStatus = 200;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            receivedPaths.add(exchange.getRequestURI().getPath());
+            receivedTitles.add(exchange.getRequestHeaders().getFirst("X-Title"));
+            receivedBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            try {
+                // Held until the test releases the responses
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Retry-After", "7");
+            exchange.sendResponseHeaders(responseStatus, -1);
+            exchange.close();
+        });
+        server.start();
+
+        NotificationHttpConfig httpConfig = new NotificationHttpConfig();
+        connectionProvider = httpConfig.notificationConnectionProvider(10, 100, 5000, 30);
+        WebClient webClient = httpConfig.notificationWebClient(WebClient.builder(), connectionProvider, 2000, 5000);
+
+        NotificationMessageBuilder messageBuilder =
+                new NotificationMessageBuilder(new EmailTemplateConfig().notificationMessageSource());
+        provider = new NTFYNotificationProvider(webClient, null, messageBuilder, new NtfyFormatter());
+        ReflectionTestUtils.setField(provider, "ntfyServerUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(provider, "ntfyEnabled", true);
+        ReflectionTestUtils.setField(provider, "ntfyAuthToken", "");
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void sendReminderNotificationAsync_ShouldNotBlockWhileRequestsAreInFlight() throws Exception {
+        List<CompletableFuture<Boolean>> futures = List.of(
+                provider.sendReminderNotificationAsync(createReminder("First")),
+                provider.sendReminderNotificationAsync(createReminder("Second")),
+                provider.sendReminderNotificationAsync(createReminder("Third")));
+
+        // Returned before any response: all requests are in flight at once
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (receivedPaths.size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(3, receivedPaths.size());
+        assertTrue(futures.stream().noneMatch(CompletableFuture::isDone));
+
+        release.countDown();
+        for (CompletableFuture<Boolean> future : futures) {
+            assertTrue(future.get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(receivedPaths.stream().allMatch("/test-topic"::equals));
+    }
+
+    @Test
+    void sendReminderNotificationAsync_ShouldCompleteWithFalseOnRejectedNotification() throws Exception {
+        responseStatus = 400;
+        release.countDown();
+
+        assertFalse(provider.sendReminderNotificationAsync(createReminder("Failing")).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void sendReminderNotificationAsync_ShouldReportRateLimitWithRetryAfter() {
+        responseStatus = 429;
+        release.countDown();
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> provider.sendReminderNotificationAsync(createReminder("Limited")).get(5, TimeUnit.SECONDS));
+        ProviderUnavailableException unavailable = assertInstanceOf(ProviderUnavailableException.class, error.getCause());
+        assertTrue(unavailable.isRateLimited());
+        assertEquals(Duration.ofSeconds(7), unavailable.getRetryAfter());
+    }
+
+    @Test
+    void sendReminderNotificationAsync_ShouldReportUnreachableServer() {
+        ReflectionTestUtils.setField(provider, "ntfyServerUrl", "http://127.0.0.1:1");
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> provider.sendReminderNotificationAsync(createReminder("Unreachable")).get(5, TimeUnit.SECONDS));
+        ProviderUnavailableException unavailable = assertInstanceOf(ProviderUnavailableException.class, error.getCause());
+        assertFalse(unavailable.isRateLimited());
+        assertFalse(provider.sendReminderNotification(createReminder("Unreachable")));
+    }
+
+    @Test
+    void sendDigestNotificationAsync_ShouldSendOneMessageForAllReminders() throws Exception {
+        release.countDown();
+
+        assertTrue(provider.supportsDigest());
+        assertTrue(provider.sendDigestNotificationAsync(List.of(createReminder("Standup"), createReminder("Review")))
+                .get(5, TimeUnit.SECONDS));
+
+        assertEquals(1, receivedPaths.size());
+        assertTrue(receivedTitles.peek().endsWith("Reminders: 2 upcoming tasks"), receivedTitles.peek());
+        String body = receivedBodies.peek();
+        assertTrue(body.contains("• Standup") && body.contains("• Review"), body);
+    }
+
+    private Reminder createReminder(String title) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("ntfyuser");
+        user.setEmail("ntfy@example.com");
+        user.setNtfyTopic("test-topic");
+
+        Instant start = Instant.now().plus(Duration.ofMinutes(15));
+        Task task = new Task();
+        task.setUid("ntfy-" + title);
+        task.setTitle(title);
+        task.setStartDatetime(start);
+        task.setEndDatetime(start.plus(Duration.ofHours(1)));
+        task.setUser(user);
+
+        Reminder reminder = new Reminder(task, 15, NotificationType.PUSH);
+        reminder.setId(1L);
+        reminder.setReminderTime(start.minus(Duration.ofMinutes(15)));
+        return reminder;
+    }
+}
@@ -0,0 +1,62 @@
+package com.privatecal.service.notification;
+
+import com.privatecal.entity.Reminder;
+import com.privatecal.entity.Task;
+import com.privatecal.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the default digest sending of NotificationProvider (one notification per reminder)
+ */
+class NotificationProviderTest {
+
+    private Reminder createReminder(String title, String chatId) {
+        User user = new User();
+        user.setId(1L);
+        user.setTelegramChatId(chatId);
+        Task task = new Task();
+        task.setTitle(title);
+        task.setUser(user);
+        Reminder reminder = new Reminder();
+        reminder.setTask(task);
+        return reminder;
+    }
+
+    @Test
+    void sendDigestNotificationAsync_DefaultSendsEachReminder() throws Exception {
+        MockTelegramNotificationProvider provider = new MockTelegramNotificationProvider();
+
+        assertFalse(provider.supportsDigest());
+        assertTrue(provider.sendDigestNotificationAsync(List.of(createReminder("Standup", "42"),
+                createReminder("Review", "42"))).get(5, TimeUnit.SECONDS));
+        assertEquals("Reminder: Review", provider.getLastSentMessage());
+
+        // One reminder not sent: the digest is not sent
+        assertFalse(provider.sendDigestNotificationAsync(List.of(createReminder("Standup", "42"),
+                createReminder("Review", null))).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void sendDigestNotificationAsync_DefaultFailsIfOneReminderFails() {
+        MockTelegramNotificationProvider provider = new MockTelegramNotificationProvider() {
+            @Override
+            public boolean sendReminderNotification(Reminder reminder) {
+                if ("Review".equals(reminder.getTask().getTitle())) {
+                    throw new ProviderUnavailableException("Telegram unavailable");
+                }
+                return super.sendReminderNotification(reminder);
+            }
+        };
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> provider
+                .sendDigestNotificationAsync(List.of(createReminder("Standup", "42"), createReminder("Review", "42")))
+                .get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ProviderUnavailableException.class, error.getCause());
+    }
+}
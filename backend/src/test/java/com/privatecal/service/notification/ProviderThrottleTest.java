@@ -0,0 +1,149 @@
+package com.privatecal.service.notification;
+
+import com.privatecal.config.NotificationThrottleConfig;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the rate limits and circuit breaker of ProviderThrottle
+ */
+class ProviderThrottleTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-06T09:00:00Z");
+    private static final Instant LATEST = NOW.plusSeconds(60);
+
+    private ProviderThrottle createThrottle(double rate, int burst, double recipientRate, int recipientBurst) {
+        NotificationThrottleConfig.ProviderLimits limits = new NotificationThrottleConfig.ProviderLimits();
+        limits.setRatePerSecond(rate);
+        limits.setBurst(burst);
+        limits.setRecipientRatePerSecond(recipientRate);
+        limits.setRecipientBurst(recipientBurst);
+        return new ProviderThrottle(limits, 3, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void testReserve_SpreadsBurstAtProviderRate() {
+        ProviderThrottle throttle = createThrottle(10, 5, 0, 1);
+
+        // The burst goes at once, then one permit every 100 ms
+        for (int i = 0; i < 5; i++) {
+            assertEquals(NOW, throttle.reserve("user:" + i, NOW, LATEST));
+        }
+        assertEquals(NOW.plusMillis(100), throttle.reserve("user:5", NOW, LATEST));
+        assertEquals(NOW.plusMillis(200), throttle.reserve("user:6", NOW, LATEST));
+    }
+
+    @Test
+    void testReserve_LimitsEachRecipient() {
+        ProviderThrottle throttle = createThrottle(0, 1, 1, 1);
+
+        assertEquals(NOW, throttle.reserve("user:1", NOW, LATEST));
+        assertEquals(NOW.plusSeconds(1), throttle.reserve("user:1", NOW, LATEST));
+        assertEquals(NOW.plusSeconds(2), throttle.reserve("user:1", NOW, LATEST));
+        // Other recipients are not held back
+        assertEquals(NOW, throttle.reserve("user:2", NOW, LATEST));
+    }
+
+    @Test
+    void testReserve_BeyondLatestReservesNothing() {
+        ProviderThrottle throttle = createThrottle(0, 1, 1, 1);
+        throttle.reserve("user:1", NOW, LATEST);
+
+        Instant retryAt = throttle.reserve("user:1", NOW, NOW.plusMillis(500));
+        assertEquals(NOW.plusSeconds(1), retryAt);
+        // The permit is still free
+        assertEquals(NOW.plusSeconds(1), throttle.reserve("user:1", NOW, LATEST));
+    }
+
+    @Test
+    void testEvictIdleRecipients_KeepsRecipientsWithReservationsAhead() {
+        ProviderThrottle throttle = createThrottle(0, 1, 1, 1);
+        throttle.reserve("user:1", NOW, LATEST);
+        throttle.reserve("user:2", NOW, LATEST);
+        throttle.reserve("user:2", NOW, LATEST);
+
+        throttle.evictIdleRecipients(NOW.plusSeconds(1));
+
+        assertEquals(1, throttle.getRecipientBucketCount());
+    }
+
+    @Test
+    void testCircuit_OpensAfterConsecutiveFailures() {
+        ProviderThrottle throttle = createThrottle(0, 1, 0, 1);
+
+        assertFalse(throttle.recordFailure(NOW, null));
+        assertFalse(throttle.recordFailure(NOW, null));
+        assertNull(throttle.tryStart(NOW));
+        assertTrue(throttle.recordFailure(NOW, null));
+
+        assertEquals(ProviderThrottle.CircuitState.OPEN, throttle.getState());
+        assertEquals(NOW.plusSeconds(30), throttle.openUntil(NOW));
+        assertEquals(NOW.plusSeconds(30), throttle.tryStart(NOW.plusSeconds(10)));
+    }
+
+    @Test
+    void testCircuit_SuccessResetsFailureCount() {
+        ProviderThrottle throttle = createThrottle(0, 1, 0, 1);
+
+        throttle.recordFailure(NOW, null);
+        throttle.recordFailure(NOW, null);
+        throttle.recordSuccess();
+
+        assertFalse(throttle.recordFailure(NOW, null));
+        assertEquals(ProviderThrottle.CircuitState.CLOSED, throttle.getState());
+    }
+
+    @Test
+    void testCircuit_RateLimitedPausesForRetryAfter() {
+        ProviderThrottle throttle = createThrottle(0, 1, 0, 1);
+
+        assertTrue(throttle.recordFailure(NOW, Duration.ofSeconds(7)));
+
+        assertEquals(NOW.plusSeconds(7), throttle.openUntil(NOW));
+        assertNull(throttle.openUntil(NOW.plusSeconds(7)));
+    }
+
+    @Test
+    void testCircuit_HalfOpenAllowsSingleTrial() {
+        ProviderThrottle throttle = createThrottle(0, 1, 0, 1);
+        throttle.recordFailure(NOW, Duration.ofSeconds(10));
+        Instant later = NOW.plusSeconds(10);
+
+        assertNull(throttle.tryStart(later));
+        assertEquals(ProviderThrottle.CircuitState.HALF_OPEN, throttle.getState());
+        assertNotNull(throttle.tryStart(later), "Only one trial delivery at a time");
+
+        throttle.recordSuccess();
+        assertEquals(ProviderThrottle.CircuitState.CLOSED, throttle.getState());
+        assertNull(throttle.tryStart(later));
+    }
+
+    @Test
+    void testCircuit_FailedTrialReopens() {
+        ProviderThrottle throttle = createThrottle(0, 1, 0, 1);
+        throttle.recordFailure(NOW, Duration.ofSeconds(10));
+        Instant later = NOW.plusSeconds(10);
+        assertNull(throttle.tryStart(later));
+
+        assertTrue(throttle.recordFailure(later, null));
+
+        assertEquals(later.plusSeconds(30), throttle.openUntil(later));
+    }
+
+    @Test
+    void testCircuit_TrialWithoutOutcomeIsReleased() {
+        ProviderThrottle throttle = createThrottle(0, 1, 0, 1);
+        throttle.recordFailure(NOW, Duration.ofSeconds(10));
+        Instant later = NOW.plusSeconds(10);
+        assertNull(throttle.tryStart(later));
+
+        throttle.deliveryFinished();
+
+        assertNull(throttle.tryStart(later));
+    }
+}
@@ -0,0 +1,11 @@
+-- Migration: 021 - Add version column to tasks for optimistic locking
+-- Description: Adds a JPA @Version column to tasks. The version is incremented on every update
+--              and is used as CalDAV ETag: If-Match becomes a conditional UPDATE
+--              (WHERE uid = ? AND version = ?) instead of a read-then-write comparison.
+-- Note: Existing CalDAV clients holding old (timestamp based) ETags will get 412 on their next
+--       conditional PUT and simply re-fetch the event.
+-- Author: System
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN tasks.version IS 'Optimistic locking version (JPA @Version), used as CalDAV ETag';
@@ -0,0 +1,30 @@
+-- Migration: 022 - Add calendar change journal for WebDAV sync-collection (RFC 6578)
+-- Description: Creates calendar_changes table. Every create/update/delete of a task appends a row
+--              for its calendar; deleted tasks keep a tombstone row (deleted = TRUE) so clients can be
+--              told about removed UIDs. The journal is compacted on write: only the latest row per
+--              (calendar, task UID) is kept, so its size is bounded by the number of UIDs ever stored.
+--              Each recording transaction bumps calendars.sync_revision and stores it on its rows.
+--              The UPDATE locks the calendar row until commit, so revisions follow commit order; the
+--              committed revision is the CalDAV sync token and CTag (CalendarSyncService).
+-- Note: No backfill is needed. Clients without a token do an initial sync listing all tasks.
+-- Author: System
+
+ALTER TABLE calendars ADD COLUMN IF NOT EXISTS sync_revision BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS calendar_changes (
+    id BIGSERIAL PRIMARY KEY,
+    calendar_id BIGINT NOT NULL REFERENCES calendars(id) ON DELETE CASCADE,
+    revision BIGINT NOT NULL,
+    task_uid VARCHAR(255) NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    changed_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Sync queries: changes of a calendar after a given revision, and compaction by UID
+CREATE INDEX IF NOT EXISTS idx_calendar_changes_calendar_revision ON calendar_changes(calendar_id, revision);
+CREATE INDEX IF NOT EXISTS idx_calendar_changes_calendar_uid ON calendar_changes(calendar_id, task_uid);
+
+COMMENT ON TABLE calendar_changes IS 'Per-calendar change journal with tombstones for CalDAV sync-collection (RFC 6578)';
+COMMENT ON COLUMN calendar_changes.revision IS 'Sync revision of the calendar set by the transaction that recorded the change';
+COMMENT ON COLUMN calendar_changes.deleted IS 'TRUE when the task was deleted from (or moved out of) the calendar';
+COMMENT ON COLUMN calendars.sync_revision IS 'Revision of the change journal, bumped in every recording transaction; CalDAV sync token and CTag (RFC 6578)';
@@ -0,0 +1,12 @@
+-- Migration: 023 - Add public subscription feed token to calendars
+-- Description: Adds calendars.feed_token, the secret of the read-only feed URL
+--              /api/public/feed/{token}.ics (webcal subscriptions without Basic auth or JWT).
+--              NULL when the calendar is not shared; regenerating the token revokes the previous URL.
+-- Author: System
+
+ALTER TABLE calendars ADD COLUMN IF NOT EXISTS feed_token VARCHAR(64);
+
+-- Feed requests look calendars up by token
+CREATE UNIQUE INDEX IF NOT EXISTS idx_calendars_feed_token ON calendars(feed_token) WHERE feed_token IS NOT NULL;
+
+COMMENT ON COLUMN calendars.feed_token IS 'Secret token of the public read-only ICS feed, NULL when not shared';
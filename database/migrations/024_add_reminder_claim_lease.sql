@@ -0,0 +1,13 @@
+-- Migration: 024 - Add claim lease columns to reminders
+-- Description: Due reminders are claimed by one backend instance before they are sent
+--              (SELECT ... FOR UPDATE SKIP LOCKED, then claimed_by / claimed_until are set), so several
+--              replicas can share reminder delivery without sending duplicates.
+--              The claim is cleared once the reminder is sent or moved to the next occurrence;
+--              the claim of a crashed instance expires at claimed_until and the reminder is claimed again.
+-- Author: System
+
+ALTER TABLE reminders ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(100);
+ALTER TABLE reminders ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMPTZ;
+
+COMMENT ON COLUMN reminders.claimed_by IS 'Instance sending the reminder, NULL when not claimed';
+COMMENT ON COLUMN reminders.claimed_until IS 'End of the claim lease, after which another instance may claim the reminder';
@@ -0,0 +1,33 @@
+-- Migration: 025 - Add notification outbox
+-- Description: Creates notification_outbox. When a reminder fires, a row is written in the same transaction
+--              that marks the reminder as sent (or moves it to its next occurrence), and
+--              NotificationOutboxService delivers it afterwards through the notification provider.
+--              Failed deliveries are retried with exponential backoff and end as DEAD after the maximum
+--              number of attempts. A row being delivered is leased by moving next_attempt_at forward, so
+--              several instances can share the outbox (SELECT ... FOR UPDATE SKIP LOCKED).
+--              Sent and dead rows are deleted after the retention period.
+-- Author: System
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    reminder_id BIGINT NOT NULL,
+    task_uid VARCHAR(255) NOT NULL,
+    notification_type VARCHAR(20) NOT NULL,
+    reminder_time TIMESTAMPTZ NOT NULL,
+    reminder_offset_minutes INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMPTZ
+);
+
+-- Dispatcher: pending rows due for an attempt
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_pending
+    ON notification_outbox(next_attempt_at) WHERE status = 'PENDING';
+
+COMMENT ON TABLE notification_outbox IS 'Reminder notifications waiting for delivery (transactional outbox)';
+COMMENT ON COLUMN notification_outbox.reminder_time IS 'Reminder time of the fired occurrence (the reminder may have moved on since)';
+COMMENT ON COLUMN notification_outbox.status IS 'PENDING, SENT or DEAD (gave up after the maximum number of attempts)';
+COMMENT ON COLUMN notification_outbox.next_attempt_at IS 'Next delivery attempt; moved forward while an instance delivers the row (lease)';
@@ -0,0 +1,10 @@
+-- Migration: 026 - Add recipient to notification outbox
+-- Description: Outbound notifications are rate limited per provider and per recipient
+--              (NotificationOutboxService): the user receiving the notification is stored with the
+--              outbox row so the delivery can be throttled before its task is loaded.
+--              Rows written before this migration are throttled per task instead.
+-- Author: System
+
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS user_id BIGINT;
+
+COMMENT ON COLUMN notification_outbox.user_id IS 'User receiving the notification (per-recipient rate limit)';
@@ -0,0 +1,13 @@
+-- Migration: 027 - Add reminder digest mode
+-- Description: Users can have reminders of a notification type that are due together grouped into
+--              a single notification (digest). The outbox entry records whether it belongs to a
+--              digest: such entries are delivered at the end of the digest window, grouped per user
+--              and notification type (NotificationOutboxService).
+-- Author: System
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS digest_notification_types VARCHAR(50);
+
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS digest BOOLEAN NOT NULL DEFAULT FALSE;
+
+COMMENT ON COLUMN users.digest_notification_types IS 'Notification types sent as digests, comma separated (e.g. TELEGRAM,PUSH)';
+COMMENT ON COLUMN notification_outbox.digest IS 'Delivered with the other digest entries of the same user and notification type';
@@ -0,0 +1,13 @@
+-- Migration: 028 - Add precomputed upcoming occurrences to reminders
+-- Description: Reminders of recurring tasks keep the start times of the next occurrences of their
+--              task, computed when the reminder is created or runs out of them (ReminderService).
+--              Firing the reminder takes the next one instead of expanding the RRULE again; the
+--              fingerprint discards them once the task's recurrence changes.
+-- Author: System
+
+ALTER TABLE reminders ADD COLUMN IF NOT EXISTS upcoming_occurrences VARCHAR(1000);
+
+ALTER TABLE reminders ADD COLUMN IF NOT EXISTS upcoming_fingerprint INTEGER;
+
+COMMENT ON COLUMN reminders.upcoming_occurrences IS 'Start times (epoch seconds, comma separated) of the occurrences after the one of reminder_time; empty if none, NULL if not computed';
+COMMENT ON COLUMN reminders.upcoming_fingerprint IS 'Hash of the task recurrence (rule, local start, timezone, end, exception dates) the occurrences were computed for';